@@ -0,0 +1,13 @@
+package com.alquileres.config;
+
+import java.time.Duration;
+
+/**
+ * Tamaño y vencimientos de una caché
+ *
+ * @param capacidadLocal Cantidad máxima de entradas en la caché local de cada nodo
+ * @param ttlLocal Vencimiento de las entradas en la caché local
+ * @param ttlCompartido Vencimiento de las entradas en Redis (o en la caché local si no hay Redis)
+ */
+public record AjustesCache(int capacidadLocal, Duration ttlLocal, Duration ttlCompartido) {
+}
@@ -4,59 +4,153 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Configuración de caché para la aplicación
  *
  * Habilita caché con dos opciones:
- * - Redis (si está disponible en producción)
- * - ConcurrentMapCacheManager (para desarrollo local)
+ * - Redis (si está disponible en producción): caché local acotada en cada nodo delante de Redis,
+ *   con avisos de invalidación entre nodos por Redis pub/sub (ver CacheManagerDosNiveles)
+ * - CacheLocal acotada (para desarrollo local)
+ *
+ * Cada opción registra también el contador de generación de los listados de contratos
+ * (ver ContadorGeneracion), en el mismo almacenamiento que la caché.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     /**
-     * Configuración de Redis Cache para producción
-     * TTL: 1 hora para contratos y datos relacionados
+     * Clave de Redis del contador de generación de los listados de contratos
+     */
+    public static final String CLAVE_GENERACION_CONTRATOS = "cache:generacion:contratos";
+
+    /**
+     * Ajustes de las cachés sin entrada en AJUSTES
+     */
+    static final AjustesCache AJUSTES_POR_DEFECTO = new AjustesCache(1_000, Duration.ofMinutes(5), Duration.ofHours(1));
+
+    /**
+     * Capacidad local y vencimientos de cada caché
+     *
+     * Las entradas por ID (contratos, servicios) son muchas y chicas; los listados son pocos
+     * (una clave por generación) pero grandes, y se mantienen poco tiempo en memoria.
+     */
+    static final Map<String, AjustesCache> AJUSTES = ajustes();
+
+    private static Map<String, AjustesCache> ajustes() {
+        Map<String, AjustesCache> ajustes = new LinkedHashMap<>();
+        ajustes.put(CacheNames.CONTRATOS, new AjustesCache(4, Duration.ofMinutes(2), Duration.ofHours(1)));
+        ajustes.put(CacheNames.CONTRATOS_PAGINAS, new AjustesCache(500, Duration.ofMinutes(2), Duration.ofMinutes(15)));
+        ajustes.put(CacheNames.CONTRATOS_VIGENTES, new AjustesCache(4, Duration.ofMinutes(2), Duration.ofHours(1)));
+        ajustes.put(CacheNames.CONTRATOS_VIGENTES_COUNT, new AjustesCache(16, Duration.ofMinutes(2), Duration.ofHours(1)));
+        ajustes.put(CacheNames.CONTRATOS_NO_VIGENTES, new AjustesCache(4, Duration.ofMinutes(2), Duration.ofHours(1)));
+        ajustes.put(CacheNames.CONTRATOS_PROXIMOS_VENCER, new AjustesCache(16, Duration.ofMinutes(2), Duration.ofHours(1)));
+        ajustes.put(CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT, new AjustesCache(16, Duration.ofMinutes(2), Duration.ofHours(1)));
+        ajustes.put(CacheNames.CONTRATOS_POR_INMUEBLE, new AjustesCache(2_000, Duration.ofMinutes(5), Duration.ofHours(1)));
+        ajustes.put(CacheNames.CONTRATOS_POR_INQUILINO, new AjustesCache(2_000, Duration.ofMinutes(5), Duration.ofHours(1)));
+        ajustes.put(CacheNames.CONTRATO_POR_ID, new AjustesCache(5_000, Duration.ofMinutes(10), Duration.ofHours(1)));
+        ajustes.put(CacheNames.CONTRATO_EXISTE, new AjustesCache(10_000, Duration.ofMinutes(10), Duration.ofHours(1)));
+        ajustes.put(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE, new AjustesCache(5_000, Duration.ofMinutes(5), Duration.ofHours(1)));
+        ajustes.put(CacheNames.SERVICIOS_POR_CONTRATO, new AjustesCache(5_000, Duration.ofMinutes(10), Duration.ofHours(1)));
+        return ajustes;
+    }
+
+    /**
+     * Configuración de caché de dos niveles para producción: local en cada nodo y Redis compartido
+     * TTL en Redis: el de AjustesCache de cada caché (1 hora por defecto)
+     * Valores en Redis: JSON (o JDK), comprimidos a partir de cache.redis.umbral-compresion bytes
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.data.redis.host", matchIfMissing = false)
+    public CacheManagerDosNiveles cacheManager(
+            RedisConnectionFactory connectionFactory,
+            @Value("${cache.redis.formato:" + SerializadorCacheRedis.FORMATO_JSON + "}") String formato,
+            @Value("${cache.redis.umbral-compresion:2048}") int umbralCompresion) {
+        SerializadorCacheRedis serializador = SerializadorCacheRedis.crear(formato, umbralCompresion);
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(configuracionRedis(AJUSTES_POR_DEFECTO, serializador))
+                .withInitialCacheConfigurations(AJUSTES.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, e -> configuracionRedis(e.getValue(), serializador))))
+                .build();
+        redisCacheManager.initializeCaches();
+
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        return new CacheManagerDosNiveles(redisCacheManager, AJUSTES, AJUSTES_POR_DEFECTO,
+                invalidacion -> redisTemplate.convertAndSend(CacheManagerDosNiveles.CANAL_INVALIDACIONES, invalidacion));
+    }
+
+    /**
+     * Suscripción a los avisos de invalidación de los otros nodos
      */
     @Bean
     @ConditionalOnProperty(name = "spring.data.redis.host", matchIfMissing = false)
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1));
+    public RedisMessageListenerContainer invalidacionesCacheListener(RedisConnectionFactory connectionFactory,
+                                                                     CacheManagerDosNiveles cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(CacheManagerDosNiveles.CANAL_INVALIDACIONES));
+        return container;
+    }
 
-        return RedisCacheManager.create(connectionFactory);
+    private static RedisCacheConfiguration configuracionRedis(AjustesCache ajustes, SerializadorCacheRedis serializador) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ajustes.ttlCompartido())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializador));
+    }
+
+    /**
+     * Generación de los listados de contratos compartida entre nodos
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.data.redis.host", matchIfMissing = false)
+    public ContadorGeneracion contadorGeneracionContratos(RedisConnectionFactory connectionFactory) {
+        return new ContadorGeneracionRedis(new StringRedisTemplate(connectionFactory), CLAVE_GENERACION_CONTRATOS);
     }
 
     /**
      * Configuración de caché en memoria para desarrollo
-     * Útil cuando Redis no está disponible
+     * Útil cuando Redis no está disponible; cada caché queda acotada a su capacidad local
      */
     @Bean
     @ConditionalOnProperty(name = "spring.data.redis.host", matchIfMissing = true)
     public CacheManager devCacheManager() {
-        return new ConcurrentMapCacheManager(
-                "contratos",
-                "contratos-vigentes",
-                "contratos-vigentes-count",
-                "contratos-no-vigentes",
-                "contratos-proximos-vencer",
-                "contratos-proximos-vencer-count",
-                "contratos-inmueble",
-                "contratos-inquilino",
-                "contrato-id",
-                "contrato-existe",
-                "inmueble-contrato-vigente",
-                "servicios-contrato"
-        );
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(AJUSTES.entrySet().stream()
+                .map(e -> new CacheLocal(e.getKey(), e.getValue().capacidadLocal(), e.getValue().ttlCompartido()))
+                .toList());
+        return cacheManager;
     }
-}
 
+    /**
+     * Generación de los listados de contratos en memoria, junto con la caché local
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.data.redis.host", matchIfMissing = true)
+    public ContadorGeneracion devContadorGeneracionContratos() {
+        return new ContadorGeneracionLocal();
+    }
+}
@@ -0,0 +1,156 @@
+package com.alquileres.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caché de dos niveles: una CacheLocal de este nodo delante de la caché compartida (Redis)
+ *
+ * Las lecturas buscan primero en el nivel local y, si no está, en el compartido, copiando el
+ * valor al local. Las escrituras van a los dos niveles. Las invalidaciones (evict y clear) se
+ * aplican en los dos niveles y se avisan al resto de los nodos para que descarten su copia local.
+ *
+ * Una lectura del nivel compartido puede traer un valor que se invalida antes de copiarlo al local;
+ * por eso cada invalidación incrementa un sello (por franja de claves, más uno general para clear)
+ * y la copia al local se descarta si el sello cambió durante la lectura.
+ */
+public class CacheDosNiveles implements Cache {
+
+    private static final int FRANJAS_INVALIDACION = 64;
+
+    private final CacheLocal local;
+    private final Cache compartida;
+    private final CacheManagerDosNiveles cacheManager;
+    private final AtomicLongArray invalidacionesPorFranja = new AtomicLongArray(FRANJAS_INVALIDACION);
+    private final AtomicLong limpiezas = new AtomicLong();
+
+    CacheDosNiveles(CacheLocal local, Cache compartida, CacheManagerDosNiveles cacheManager) {
+        this.local = local;
+        this.compartida = compartida;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public CacheLocal getLocal() {
+        return local;
+    }
+
+    public Cache getCompartida() {
+        return compartida;
+    }
+
+    @Override
+    public ValueWrapper get(Object clave) {
+        ValueWrapper valor = local.get(clave);
+        if (valor != null) {
+            return valor;
+        }
+        long sello = sello(clave);
+        valor = compartida.get(clave);
+        if (valor != null) {
+            copiarALocal(clave, valor.get(), sello);
+        }
+        return valor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object clave, Class<T> tipo) {
+        ValueWrapper valor = get(clave);
+        if (valor == null) {
+            return null;
+        }
+        Object contenido = valor.get();
+        if (contenido != null && tipo != null && !tipo.isInstance(contenido)) {
+            throw new IllegalStateException(
+                "El valor en caché no es del tipo " + tipo.getName() + ": " + contenido);
+        }
+        return (T) contenido;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object clave, Callable<T> cargador) {
+        ValueWrapper valor = get(clave);
+        if (valor != null) {
+            return (T) valor.get();
+        }
+        long sello = sello(clave);
+        T cargado = compartida.get(clave, cargador);
+        copiarALocal(clave, cargado, sello);
+        return cargado;
+    }
+
+    @Override
+    public void put(Object clave, Object valor) {
+        compartida.put(clave, valor);
+        local.put(clave, valor);
+    }
+
+    @Override
+    public void evict(Object clave) {
+        compartida.evict(clave);
+        descartarLocal(clave);
+        cacheManager.publicarInvalidacion(getName(), clave);
+    }
+
+    @Override
+    public void clear() {
+        compartida.clear();
+        vaciarLocal();
+        cacheManager.publicarInvalidacion(getName(), null);
+    }
+
+    /**
+     * Descarta la copia local de la clave (por un evict de este nodo o un aviso de otro)
+     * El sello se incrementa antes de descartar, así una lectura en curso no vuelve a copiar el valor viejo.
+     */
+    void descartarLocal(Object clave) {
+        invalidacionesPorFranja.incrementAndGet(franja(clave));
+        local.evict(clave);
+    }
+
+    /**
+     * Vacía el nivel local (por un clear de este nodo o un aviso de otro)
+     */
+    void vaciarLocal() {
+        limpiezas.incrementAndGet();
+        local.clear();
+    }
+
+    /**
+     * Copia al local un valor leído del nivel compartido, salvo que la clave se haya invalidado durante la lectura
+     * Se vuelve a mirar el sello después de copiar: si una invalidación llegó entre la lectura y la copia, la
+     * copia se descarta.
+     */
+    private void copiarALocal(Object clave, Object valor, long selloAntesDeLeer) {
+        if (sello(clave) != selloAntesDeLeer) {
+            return;
+        }
+        local.put(clave, valor);
+        if (sello(clave) != selloAntesDeLeer) {
+            local.evict(clave);
+        }
+    }
+
+    private long sello(Object clave) {
+        // Los dos contadores solo crecen: la suma cambia si cambia cualquiera de ellos
+        return limpiezas.get() + invalidacionesPorFranja.get(franja(clave));
+    }
+
+    private static int franja(Object clave) {
+        return Math.floorMod(clave.hashCode(), FRANJAS_INVALIDACION);
+    }
+}
@@ -0,0 +1,127 @@
+package com.alquileres.config;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Caché en memoria acotada, con vencimiento por entrada
+ *
+ * Al superar la capacidad se descarta la entrada usada hace más tiempo, y cada entrada vence
+ * a los ttl de guardada. Se usa como caché cercana (nivel 1) delante de Redis y como caché
+ * única cuando Redis no está configurado.
+ */
+public class CacheLocal extends AbstractValueAdaptingCache {
+
+    private record Entrada(Object valor, long venceEn) {
+    }
+
+    private final String nombre;
+    private final Map<Object, Entrada> entradas;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+
+    public CacheLocal(String nombre, int capacidadMaxima, Duration ttl) {
+        this(nombre, capacidadMaxima, ttl, System::nanoTime);
+    }
+
+    CacheLocal(String nombre, int capacidadMaxima, Duration ttl, LongSupplier reloj) {
+        super(true);
+        this.nombre = nombre;
+        this.ttlNanos = ttl.toNanos();
+        this.reloj = reloj;
+        // LinkedHashMap en orden de acceso: al superar la capacidad se descarta la entrada menos usada
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entrada> eldest) {
+                return size() > capacidadMaxima;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return nombre;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object clave) {
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(clave);
+            if (entrada == null) {
+                return null;
+            }
+            if (reloj.getAsLong() - entrada.venceEn() >= 0) {
+                entradas.remove(clave);
+                return null;
+            }
+            return entrada.valor();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object clave, Callable<T> cargador) {
+        ValueWrapper guardado = get(clave);
+        if (guardado != null) {
+            return (T) guardado.get();
+        }
+        T valor;
+        try {
+            valor = cargador.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(clave, cargador, e);
+        }
+        put(clave, valor);
+        return valor;
+    }
+
+    @Override
+    public void put(Object clave, Object valor) {
+        Entrada entrada = new Entrada(toStoreValue(valor), reloj.getAsLong() + ttlNanos);
+        synchronized (entradas) {
+            entradas.put(clave, entrada);
+        }
+    }
+
+    @Override
+    public void evict(Object clave) {
+        synchronized (entradas) {
+            entradas.remove(clave);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entradas) {
+            entradas.clear();
+        }
+    }
+
+    /**
+     * Descarta las entradas cuyas claves cumplen la condición
+     *
+     * @param condicion Condición sobre la clave
+     */
+    public void descartarSi(Predicate<Object> condicion) {
+        synchronized (entradas) {
+            entradas.keySet().removeIf(condicion);
+        }
+    }
+
+    public int getTamanio() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.alquileres.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * CacheManager de dos niveles: caché local acotada en cada nodo y Redis como caché compartida
+ *
+ * Cada caché de CacheNames tiene su capacidad y vencimientos (ver AjustesCache). Las lecturas
+ * frecuentes (contrato-id, servicios-contrato, etc.) se resuelven en memoria sin ir a Redis.
+ * Cuando un nodo invalida una entrada publica un aviso en el canal CANAL_INVALIDACIONES y los
+ * demás nodos descartan su copia local; el vencimiento local corto acota lo que puede quedar
+ * desactualizado si se pierde un aviso.
+ */
+public class CacheManagerDosNiveles extends AbstractCacheManager implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheManagerDosNiveles.class);
+
+    /**
+     * Canal de Redis por el que los nodos se avisan las invalidaciones
+     */
+    public static final String CANAL_INVALIDACIONES = "cache:invalidaciones";
+
+    /**
+     * Aviso de invalidación: clave null significa vaciar la caché
+     */
+    public record Invalidacion(String nodo, String cache, Object clave) implements Serializable {
+    }
+
+    private final String nodo = UUID.randomUUID().toString();
+    private final RedisSerializer<Object> serializador = new JdkSerializationRedisSerializer();
+
+    private final CacheManager compartido;
+    private final Map<String, AjustesCache> ajustes;
+    private final AjustesCache ajustesPorDefecto;
+    private final Consumer<Invalidacion> publicador;
+
+    /**
+     * @param compartido CacheManager de Redis (nivel 2)
+     * @param ajustes Ajustes de cada caché conocida
+     * @param ajustesPorDefecto Ajustes de las cachés que no están en el mapa
+     * @param publicador Publica un aviso de invalidación para el resto de los nodos
+     */
+    public CacheManagerDosNiveles(CacheManager compartido, Map<String, AjustesCache> ajustes,
+                                  AjustesCache ajustesPorDefecto, Consumer<Invalidacion> publicador) {
+        this.compartido = compartido;
+        this.ajustes = ajustes;
+        this.ajustesPorDefecto = ajustesPorDefecto;
+        this.publicador = publicador;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return ajustes.keySet().stream()
+            .map(this::crearCache)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String nombre) {
+        return crearCache(nombre);
+    }
+
+    private Cache crearCache(String nombre) {
+        Cache cacheCompartida = compartido.getCache(nombre);
+        if (cacheCompartida == null) {
+            return null;
+        }
+        AjustesCache ajustesCache = ajustes.getOrDefault(nombre, ajustesPorDefecto);
+        CacheLocal local = new CacheLocal(nombre, ajustesCache.capacidadLocal(), ajustesCache.ttlLocal());
+        return new CacheDosNiveles(local, cacheCompartida, this);
+    }
+
+    /**
+     * Avisa al resto de los nodos que descarten su copia local de la clave
+     *
+     * @param nombreCache Nombre de la caché
+     * @param clave Clave invalidada, o null si se vació la caché
+     */
+    void publicarInvalidacion(String nombreCache, Object clave) {
+        try {
+            publicador.accept(new Invalidacion(nodo, nombreCache, clave));
+        } catch (RuntimeException e) {
+            // La invalidación en Redis ya se hizo; los otros nodos la verán al vencer su copia local
+            logger.warn("No se pudo publicar la invalidación de la caché {}: {}", nombreCache, e.getMessage());
+        }
+    }
+
+    /**
+     * Recibe un aviso de invalidación de otro nodo y descarta la copia local
+     */
+    @Override
+    public void onMessage(Message mensaje, byte[] patron) {
+        Invalidacion invalidacion;
+        try {
+            invalidacion = (Invalidacion) serializador.deserialize(mensaje.getBody());
+        } catch (RuntimeException e) {
+            logger.warn("Aviso de invalidación de caché ilegible: {}", e.getMessage());
+            return;
+        }
+        if (invalidacion == null || nodo.equals(invalidacion.nodo())) {
+            return;
+        }
+
+        if (lookupCache(invalidacion.cache()) instanceof CacheDosNiveles cache) {
+            if (invalidacion.clave() == null) {
+                cache.vaciarLocal();
+            } else {
+                cache.descartarLocal(invalidacion.clave());
+            }
+        }
+    }
+}
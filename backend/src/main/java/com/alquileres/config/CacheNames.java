@@ -10,6 +10,7 @@ public class CacheNames {
 
     // Cachés de Contratos
     public static final String CONTRATOS = "contratos";
+    public static final String CONTRATOS_PAGINAS = "contratos-paginas";
     public static final String CONTRATOS_VIGENTES = "contratos-vigentes";
     public static final String CONTRATOS_VIGENTES_COUNT = "contratos-vigentes-count";
     public static final String CONTRATOS_NO_VIGENTES = "contratos-no-vigentes";
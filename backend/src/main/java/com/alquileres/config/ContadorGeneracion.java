@@ -0,0 +1,23 @@
+package com.alquileres.config;
+
+/**
+ * Contador de generación de los listados de contratos en caché
+ *
+ * Las claves de los listados (todos, vigentes, páginas, etc.) incluyen la generación actual:
+ * al avanzarla, las entradas anteriores dejan de leerse sin tener que vaciar cada caché.
+ * En Redis el contador se comparte entre nodos; en memoria es local al proceso.
+ */
+public interface ContadorGeneracion {
+
+    /**
+     * @return Generación vigente
+     */
+    long actual();
+
+    /**
+     * Pasa a la generación siguiente
+     *
+     * @return Nueva generación
+     */
+    long avanzar();
+}
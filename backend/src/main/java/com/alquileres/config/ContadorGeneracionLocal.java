@@ -0,0 +1,21 @@
+package com.alquileres.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de generación en memoria, para cuando la caché es local al proceso
+ */
+public class ContadorGeneracionLocal implements ContadorGeneracion {
+
+    private final AtomicLong generacion = new AtomicLong();
+
+    @Override
+    public long actual() {
+        return generacion.get();
+    }
+
+    @Override
+    public long avanzar() {
+        return generacion.incrementAndGet();
+    }
+}
@@ -0,0 +1,29 @@
+package com.alquileres.config;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Contador de generación guardado en Redis, compartido por todos los nodos que usan la misma caché
+ */
+public class ContadorGeneracionRedis implements ContadorGeneracion {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String clave;
+
+    public ContadorGeneracionRedis(StringRedisTemplate redisTemplate, String clave) {
+        this.redisTemplate = redisTemplate;
+        this.clave = clave;
+    }
+
+    @Override
+    public long actual() {
+        String valor = redisTemplate.opsForValue().get(clave);
+        return valor != null ? Long.parseLong(valor) : 0L;
+    }
+
+    @Override
+    public long avanzar() {
+        Long valor = redisTemplate.opsForValue().increment(clave);
+        return valor != null ? valor : actual();
+    }
+}
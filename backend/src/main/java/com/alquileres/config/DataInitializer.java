@@ -17,6 +17,7 @@ import com.alquileres.repository.EstadoInmuebleRepository;
 import com.alquileres.repository.MotivoCancelacionRepository;
 import com.alquileres.repository.TipoServicioRepository;
 import com.alquileres.repository.AmbitoPDFRepository;
+import com.alquileres.service.DatosReferenciaService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -36,6 +37,7 @@ public class DataInitializer implements CommandLineRunner {
     private final MotivoCancelacionRepository motivoCancelacionRepository;
     private final TipoServicioRepository tipoServicioRepository;
     private final AmbitoPDFRepository ambitoPDFRepository;
+    private final DatosReferenciaService datosReferenciaService;
 
     public DataInitializer(
             RolRepository rolRepository,
@@ -46,7 +48,8 @@ public class DataInitializer implements CommandLineRunner {
             EstadoInmuebleRepository estadoInmuebleRepository,
             MotivoCancelacionRepository motivoCancelacionRepository,
             TipoServicioRepository tipoServicioRepository,
-            AmbitoPDFRepository ambitoPDFRepository) {
+            AmbitoPDFRepository ambitoPDFRepository,
+            DatosReferenciaService datosReferenciaService) {
         this.rolRepository = rolRepository;
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
@@ -56,6 +59,7 @@ public class DataInitializer implements CommandLineRunner {
         this.motivoCancelacionRepository = motivoCancelacionRepository;
         this.tipoServicioRepository = tipoServicioRepository;
         this.ambitoPDFRepository = ambitoPDFRepository;
+        this.datosReferenciaService = datosReferenciaService;
     }
 
     @Override
@@ -130,6 +134,9 @@ public class DataInitializer implements CommandLineRunner {
             System.out.println("Ámbitos de PDF inicializados en la base de datos");
         }
 
+        // Cargar el registro de datos de referencia con las tablas ya inicializadas
+        datosReferenciaService.recargar();
+
         // Crear usuario administrador por defecto si no existe ningún usuario con rol ABOGADA
         Rol abogadaRole= rolRepository.findByNombre(RolNombre.ROLE_ABOGADA)
                 .orElseThrow(() -> new RuntimeException("Error: Rol ABOGADA no encontrado."));
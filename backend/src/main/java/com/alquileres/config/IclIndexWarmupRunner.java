@@ -0,0 +1,39 @@
+package com.alquileres.config;
+
+import com.alquileres.service.IndiceICLService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Precarga el índice del ICL en memoria al iniciar la aplicación
+ * y lo completa con los valores que el BCRA haya publicado desde la última sincronización.
+ */
+@Component
+public class IclIndexWarmupRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(IclIndexWarmupRunner.class);
+    private final IndiceICLService indiceICLService;
+
+    public IclIndexWarmupRunner(IndiceICLService indiceICLService) {
+        this.indiceICLService = indiceICLService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            indiceICLService.cargarIndiceEnMemoria();
+        } catch (Exception e) {
+            logger.warn("⚠️ Error al cargar el indice ICL en memoria: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            indiceICLService.sincronizarIndicesConBloqueo();
+        } catch (Exception e) {
+            // No lanzar la excepción para no interrumpir el startup; se reintenta en la tarea programada
+            logger.warn("⚠️ No se pudo sincronizar el indice ICL con el BCRA al iniciar: {}", e.getMessage());
+        }
+    }
+}
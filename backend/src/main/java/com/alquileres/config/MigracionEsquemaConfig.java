@@ -0,0 +1,33 @@
+package com.alquileres.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Migra el esquema antes de crear el EntityManagerFactory, para que Hibernate
+ * (con ddl-auto=validate) compare las entidades contra el esquema ya migrado.
+ * Solo se activa con app.migraciones.habilitadas=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.migraciones.habilitadas", havingValue = "true")
+public class MigracionEsquemaConfig {
+
+    static final String BEAN_MIGRADOR = "migradorEsquema";
+
+    @Bean(name = BEAN_MIGRADOR, initMethod = "migrar")
+    public MigradorEsquema migradorEsquema(
+            DataSource dataSource,
+            @Value("${app.migraciones.ubicacion:" + MigradorEsquema.UBICACION_POR_DEFECTO + "}") String ubicacion) {
+        return new MigradorEsquema(dataSource, ubicacion);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependeDeMigraciones() {
+        return new EntityManagerFactoryDependsOnPostProcessor(BEAN_MIGRADOR);
+    }
+}
@@ -0,0 +1,219 @@
+package com.alquileres.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aplica las migraciones versionadas del esquema (db/migration/V{n}__{descripcion}.sql)
+ * en orden, registrando cada una en la tabla historial_migraciones.
+ *
+ * Toda la ejecución corre en una sola transacción: si un script falla no queda ninguno aplicado.
+ * Cada script se envía completo al driver de Postgres, que respeta los bloques DO $$ ... $$.
+ * Un pg_advisory_xact_lock evita que dos instancias migren a la vez; se libera con el commit o
+ * el rollback, así que sirve también detrás del pooler en modo transacción, donde un lock de
+ * sesión podría quedar tomado en otra conexión del servidor. Si un script ya aplicado cambió,
+ * el arranque falla.
+ */
+public class MigradorEsquema {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigradorEsquema.class);
+
+    public static final String UBICACION_POR_DEFECTO = "classpath:db/migration/";
+
+    static final String TABLA_HISTORIAL = "historial_migraciones";
+
+    // Clave arbitraria para el advisory lock de las migraciones
+    private static final long CLAVE_BLOQUEO = 7_240_316_001L;
+
+    private static final Pattern NOMBRE_SCRIPT = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final DataSource dataSource;
+    private final String ubicacion;
+
+    public MigradorEsquema(DataSource dataSource, String ubicacion) {
+        this.dataSource = dataSource;
+        this.ubicacion = ubicacion.endsWith("/") ? ubicacion : ubicacion + "/";
+    }
+
+    /**
+     * Aplica las migraciones pendientes
+     *
+     * @return Cantidad de migraciones aplicadas
+     */
+    public int migrar() {
+        List<Migracion> migraciones = cargarMigraciones(buscarScripts());
+
+        try (Connection conexion = dataSource.getConnection()) {
+            boolean autoCommitOriginal = conexion.getAutoCommit();
+            conexion.setAutoCommit(false);
+            try {
+                int aplicadasAhora = migrar(conexion, migraciones);
+                conexion.commit();
+                return aplicadasAhora;
+            } catch (SQLException | RuntimeException e) {
+                conexion.rollback();
+                throw e;
+            } finally {
+                conexion.setAutoCommit(autoCommitOriginal);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo migrar el esquema: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Aplica las migraciones pendientes dentro de la transacción abierta en la conexión
+     */
+    private int migrar(Connection conexion, List<Migracion> migraciones) throws SQLException {
+        ejecutar(conexion, "SELECT pg_advisory_xact_lock(" + CLAVE_BLOQUEO + ")");
+        crearTablaHistorial(conexion);
+        Map<Integer, String> aplicadas = consultarAplicadas(conexion);
+
+        int aplicadasAhora = 0;
+        for (Migracion migracion : migraciones) {
+            String checksum = aplicadas.get(migracion.version());
+            if (checksum == null) {
+                aplicar(conexion, migracion);
+                aplicadasAhora++;
+            } else if (!checksum.equals(migracion.checksum())) {
+                throw new IllegalStateException(String.format(
+                    "La migración V%d (%s) fue modificada después de aplicarse. " +
+                    "Los cambios de esquema van en una migración nueva",
+                    migracion.version(), migracion.descripcion()));
+            }
+        }
+
+        int ultimaVersion = migraciones.isEmpty() ? 0 : migraciones.get(migraciones.size() - 1).version();
+        if (aplicadasAhora > 0) {
+            logger.info("Esquema migrado a la versión {} ({} migraciones aplicadas)", ultimaVersion, aplicadasAhora);
+        } else {
+            logger.info("Esquema al día en la versión {}", ultimaVersion);
+        }
+        return aplicadasAhora;
+    }
+
+    /**
+     * Convierte los scripts encontrados en migraciones ordenadas por versión
+     */
+    static List<Migracion> cargarMigraciones(Resource[] scripts) {
+        List<Migracion> migraciones = new ArrayList<>();
+        Map<Integer, String> versiones = new HashMap<>();
+
+        for (Resource script : scripts) {
+            String nombre = script.getFilename();
+            Matcher matcher = nombre != null ? NOMBRE_SCRIPT.matcher(nombre) : null;
+            if (matcher == null || !matcher.matches()) {
+                throw new IllegalStateException("Nombre de migración inválido: " + nombre +
+                    ". Use V{numero}__{descripcion}.sql");
+            }
+
+            int version = Integer.parseInt(matcher.group(1));
+            String anterior = versiones.put(version, nombre);
+            if (anterior != null) {
+                throw new IllegalStateException("Hay dos migraciones con la versión " + version + ": " +
+                    anterior + " y " + nombre);
+            }
+
+            String sql = leer(script);
+            migraciones.add(new Migracion(version, matcher.group(2).replace('_', ' '), sql, calcularChecksum(sql)));
+        }
+
+        migraciones.sort(Comparator.comparingInt(Migracion::version));
+        return migraciones;
+    }
+
+    static String calcularChecksum(String sql) {
+        try {
+            // Ignorar finales de línea para que el checksum no dependa del sistema operativo
+            byte[] contenido = sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenido));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Resource[] buscarScripts() {
+        try {
+            return new PathMatchingResourcePatternResolver().getResources(ubicacion + "V*.sql");
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudieron leer las migraciones de " + ubicacion, e);
+        }
+    }
+
+    private static String leer(Resource script) {
+        try {
+            return script.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer la migración " + script.getFilename(), e);
+        }
+    }
+
+    private void crearTablaHistorial(Connection conexion) throws SQLException {
+        ejecutar(conexion, "CREATE TABLE IF NOT EXISTS " + TABLA_HISTORIAL + " (" +
+            "version integer PRIMARY KEY, " +
+            "descripcion varchar(200) NOT NULL, " +
+            "checksum varchar(64) NOT NULL, " +
+            "aplicada_en timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "duracion_ms bigint NOT NULL)");
+    }
+
+    private Map<Integer, String> consultarAplicadas(Connection conexion) throws SQLException {
+        Map<Integer, String> aplicadas = new HashMap<>();
+        try (Statement statement = conexion.createStatement();
+             ResultSet resultado = statement.executeQuery("SELECT version, checksum FROM " + TABLA_HISTORIAL)) {
+            while (resultado.next()) {
+                aplicadas.put(resultado.getInt(1), resultado.getString(2));
+            }
+        }
+        return aplicadas;
+    }
+
+    private void aplicar(Connection conexion, Migracion migracion) throws SQLException {
+        logger.info("Aplicando migración V{}: {}", migracion.version(), migracion.descripcion());
+        long inicio = System.currentTimeMillis();
+
+        try {
+            ejecutar(conexion, migracion.sql());
+            try (PreparedStatement insert = conexion.prepareStatement("INSERT INTO " + TABLA_HISTORIAL +
+                    " (version, descripcion, checksum, duracion_ms) VALUES (?, ?, ?, ?)")) {
+                insert.setInt(1, migracion.version());
+                insert.setString(2, migracion.descripcion());
+                insert.setString(3, migracion.checksum());
+                insert.setLong(4, System.currentTimeMillis() - inicio);
+                insert.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Falló la migración V" + migracion.version() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void ejecutar(Connection conexion, String sql) throws SQLException {
+        try (Statement statement = conexion.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    record Migracion(int version, String descripcion, String sql, String checksum) {
+    }
+}
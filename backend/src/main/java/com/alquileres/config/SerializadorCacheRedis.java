@@ -0,0 +1,224 @@
+package com.alquileres.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Serializador de los valores guardados en Redis, con compresión de los valores grandes
+ *
+ * Delega la codificación en otro serializador (JSON con tipos por defecto, o JDK) y comprime
+ * con Deflate el resultado cuando supera el umbral: los listados de ContratoDTO repiten nombres
+ * de campos y textos, y se reducen varias veces. Cada valor lleva un byte inicial que indica si
+ * está comprimido, así conviven valores chicos sin comprimir y grandes comprimidos.
+ *
+ * Un valor que no se puede leer (formato anterior, clase cambiada) se trata como ausente: la
+ * caché vuelve a consultar la base y lo reemplaza.
+ */
+public class SerializadorCacheRedis implements RedisSerializer<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerializadorCacheRedis.class);
+
+    public static final String FORMATO_JSON = "json";
+    public static final String FORMATO_JDK = "jdk";
+
+    static final byte SIN_COMPRIMIR = 0;
+    static final byte COMPRIMIDO = 1;
+
+    private static final byte[] VACIO = new byte[0];
+
+    private final RedisSerializer<Object> delegado;
+    private final int umbralCompresion;
+
+    /**
+     * @param delegado Serializador que codifica los valores
+     * @param umbralCompresion Tamaño en bytes a partir del cual se comprime; negativo para no comprimir nunca
+     */
+    public SerializadorCacheRedis(RedisSerializer<Object> delegado, int umbralCompresion) {
+        this.delegado = delegado;
+        this.umbralCompresion = umbralCompresion;
+    }
+
+    /**
+     * Crea el serializador para el formato configurado
+     *
+     * @param formato FORMATO_JSON o FORMATO_JDK
+     * @param umbralCompresion Tamaño en bytes a partir del cual se comprime; negativo para no comprimir nunca
+     * @throws IllegalArgumentException si el formato no existe
+     */
+    public static SerializadorCacheRedis crear(String formato, int umbralCompresion) {
+        return switch (formato) {
+            case FORMATO_JSON -> new SerializadorCacheRedis(json(), umbralCompresion);
+            case FORMATO_JDK -> new SerializadorCacheRedis(new JdkSerializationRedisSerializer(), umbralCompresion);
+            default -> throw new IllegalArgumentException("Formato de caché Redis desconocido: " + formato);
+        };
+    }
+
+    /**
+     * JSON con el tipo de cada valor incluido, sin exigir que las clases sean Serializable
+     *
+     * El tipo va también en la raíz y en los números, para que un contador Long no vuelva como
+     * Integer. Solo se aceptan los tipos que guardan las cachés: colecciones de java.util, números,
+     * String y Boolean, fechas de java.time, DTOs y entidades (servicios por contrato). Un valor
+     * con cualquier otra clase se trata como ilegible.
+     */
+    static RedisSerializer<Object> json() {
+        PolymorphicTypeValidator validador = BasicPolymorphicTypeValidator.builder()
+            .allowIfSubType(Pattern.compile("java\\.util\\.(ArrayList|LinkedList|HashSet|LinkedHashSet|TreeSet)"))
+            .allowIfSubType(Pattern.compile("java\\.util\\.(HashMap|LinkedHashMap|TreeMap)"))
+            .allowIfSubType(Pattern.compile("java\\.lang\\.(String|Boolean|Byte|Short|Integer|Long|Float|Double)"))
+            .allowIfSubType(Pattern.compile("java\\.math\\.(BigDecimal|BigInteger)"))
+            .allowIfSubType("java.time.")
+            .allowIfSubType("com.alquileres.dto.")
+            // Entidades (servicios por contrato), sin clases internas ni proxies
+            .allowIfSubType(Pattern.compile("com\\.alquileres\\.model\\.\\w+"))
+            .build();
+        ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.setDefaultTyping(new ObjectMapper.DefaultTypeResolverBuilder(ObjectMapper.DefaultTyping.EVERYTHING, validador)
+            .init(JsonTypeInfo.Id.CLASS, new TipoColeccionesPublicas(mapper.getTypeFactory(), validador))
+            .inclusion(JsonTypeInfo.As.PROPERTY));
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+
+    @Override
+    public byte[] serialize(Object valor) throws SerializationException {
+        if (valor == null) {
+            return VACIO;
+        }
+        byte[] codificado = delegado.serialize(valor);
+        if (umbralCompresion < 0 || codificado.length < umbralCompresion) {
+            return conEncabezado(SIN_COMPRIMIR, codificado);
+        }
+        byte[] comprimido = comprimir(codificado);
+        if (comprimido.length >= codificado.length) {
+            return conEncabezado(SIN_COMPRIMIR, codificado);
+        }
+        return conEncabezado(COMPRIMIDO, comprimido);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            byte[] contenido = switch (bytes[0]) {
+                case SIN_COMPRIMIR -> Arrays.copyOfRange(bytes, 1, bytes.length);
+                case COMPRIMIDO -> descomprimir(bytes);
+                default -> null;
+            };
+            if (contenido == null) {
+                logger.debug("Valor de caché con formato desconocido ({}), se ignora", bytes[0]);
+                return null;
+            }
+            return delegado.deserialize(contenido);
+        } catch (SerializationException e) {
+            logger.debug("Valor de caché ilegible, se ignora: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] conEncabezado(byte encabezado, byte[] contenido) {
+        byte[] resultado = new byte[contenido.length + 1];
+        resultado[0] = encabezado;
+        System.arraycopy(contenido, 0, resultado, 1, contenido.length);
+        return resultado;
+    }
+
+    private static byte[] comprimir(byte[] datos) {
+        // BEST_SPEED: la caché se lee y escribe mucho más seguido de lo que importa el último byte
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(datos);
+            deflater.finish();
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4 + 64);
+            byte[] bloque = new byte[8192];
+            while (!deflater.finished()) {
+                int escritos = deflater.deflate(bloque);
+                salida.write(bloque, 0, escritos);
+            }
+            return salida.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] descomprimir(byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 1, bytes.length - 1);
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] bloque = new byte[8192];
+            while (!inflater.finished()) {
+                int leidos = inflater.inflate(bloque);
+                if (leidos == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Valor comprimido incompleto");
+                }
+                salida.write(bloque, 0, leidos);
+            }
+            return salida.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Valor comprimido inválido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Guarda las colecciones de clases no públicas (List.of, Stream.toList, Collections.unmodifiable*)
+     * con el tipo público equivalente, ya que al leerlas no se pueden construir
+     */
+    private static class TipoColeccionesPublicas extends ClassNameIdResolver {
+
+        TipoColeccionesPublicas(TypeFactory typeFactory, PolymorphicTypeValidator validador) {
+            super(typeFactory.constructType(Object.class), typeFactory, validador);
+        }
+
+        @Override
+        public String idFromValue(Object valor) {
+            return idFromValueAndType(valor, valor.getClass());
+        }
+
+        @Override
+        public String idFromValueAndType(Object valor, Class<?> tipo) {
+            if (valor != null && !Modifier.isPublic(valor.getClass().getModifiers())) {
+                if (valor instanceof List<?>) {
+                    return "java.util.ArrayList";
+                }
+                if (valor instanceof Set<?>) {
+                    return "java.util.LinkedHashSet";
+                }
+                if (valor instanceof Map<?, ?>) {
+                    return "java.util.LinkedHashMap";
+                }
+            }
+            return super.idFromValueAndType(valor, tipo);
+        }
+    }
+}
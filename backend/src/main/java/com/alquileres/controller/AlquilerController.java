@@ -5,7 +5,9 @@ import com.alquileres.dto.AlquilerCreateDTO;
 import com.alquileres.dto.RegistroPagoDTO;
 import com.alquileres.dto.NotificacionPagoAlquilerDTO;
 import com.alquileres.dto.AlquilerDetalladoDTO;
+import com.alquileres.dto.ReintentoAumentoJobDTO;
 import com.alquileres.service.AlquilerService;
+import com.alquileres.service.ReintentoAumentoService;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,9 +26,11 @@ import java.util.List;
 public class AlquilerController {
 
     private final AlquilerService alquilerService;
+    private final ReintentoAumentoService reintentoAumentoService;
 
-    public AlquilerController(AlquilerService alquilerService) {
+    public AlquilerController(AlquilerService alquilerService, ReintentoAumentoService reintentoAumentoService) {
         this.alquilerService = alquilerService;
+        this.reintentoAumentoService = reintentoAumentoService;
     }
 
     // Obtener todos los alquileres
@@ -157,12 +161,31 @@ public class AlquilerController {
     // Obtener alquileres que necesitan aumento manual
     @GetMapping("/aumento-manual/pendientes")
     @Operation(summary = "Obtener alquileres que necesitan aumento manual",
-               description = "Devuelve todos los alquileres marcados con necesitaAumentoManual=true debido a fallos en la API del BCRA")
+               description = "Devuelve todos los alquileres marcados con necesitaAumentoManual=true debido a fallos en la API del BCRA, " +
+                           "con la cantidad de reintentos, el próximo reintento y el último error")
     public ResponseEntity<List<AlquilerDTO>> obtenerAlquileresConAumentoManualPendiente() {
         List<AlquilerDTO> alquileres = alquilerService.obtenerAlquileresConAumentoManualPendiente();
         return ResponseEntity.ok(alquileres);
     }
 
+    // Reintentar ahora (en segundo plano) los aumentos ICL pendientes
+    @PostMapping("/aumento-manual/reintentos")
+    @Operation(summary = "Reintentar aumentos ICL pendientes",
+               description = "Inicia en segundo plano el reintento de los aumentos ICL pendientes y devuelve el ID del job. " +
+                           "Si ya hay un reintento en curso devuelve ese job.")
+    public ResponseEntity<ReintentoAumentoJobDTO> reintentarAumentosPendientes() {
+        ReintentoAumentoJobDTO job = reintentoAumentoService.iniciarReintentoAsincrono();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    // Consultar el estado de un reintento de aumentos ICL
+    @GetMapping("/aumento-manual/reintentos/{jobId}")
+    @Operation(summary = "Consultar reintento de aumentos ICL",
+               description = "Devuelve el estado y el progreso de un reintento de aumentos ICL pendientes")
+    public ResponseEntity<ReintentoAumentoJobDTO> obtenerReintentoAumentos(@PathVariable String jobId) {
+        return ResponseEntity.ok(reintentoAumentoService.obtenerJob(jobId));
+    }
+
     // Aplicar aumento manual a un alquiler usando índices ICL proporcionados por el usuario
     @PostMapping("/{id}/aumento-manual")
     @Operation(summary = "Aplicar aumento manual con índices ICL",
@@ -6,6 +6,7 @@ import com.alquileres.dto.MessageResponse;
 import com.alquileres.dto.SignupRequest;
 import com.alquileres.dto.RecuperarContrasenaDTO;
 import com.alquileres.dto.ResetearContrasenaDTO;
+import com.alquileres.event.MantenimientoPendienteEvent;
 import com.alquileres.model.Rol;
 import com.alquileres.model.RolNombre;
 import com.alquileres.model.Usuario;
@@ -14,12 +15,10 @@ import com.alquileres.repository.UsuarioRepository;
 import com.alquileres.security.JwtUtils;
 import com.alquileres.security.UserDetailsImpl;
 import com.alquileres.service.PermisosService;
-import com.alquileres.service.ContratoActualizacionService;
-import com.alquileres.service.ServicioActualizacionService;
-import com.alquileres.service.AlquilerActualizacionService;
 import com.alquileres.service.LoginAttemptService;
 import com.alquileres.service.PasswordResetService;
 import com.alquileres.service.EmailService;
+import com.alquileres.service.DatosReferenciaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.Cookie;
@@ -27,6 +26,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -61,13 +61,12 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UsuarioRepository usuarioRepository;
     private final RolRepository rolRepository;
+    private final DatosReferenciaService datosReferenciaService;
     private final PasswordEncoder encoder;
     private final JwtUtils jwtUtils;
     private final com.alquileres.security.UserDetailsServiceImpl userDetailsService;
     private final PermisosService permisosService;
-    private final ContratoActualizacionService contratoActualizacionService;
-    private final ServicioActualizacionService servicioActualizacionService;
-    private final AlquilerActualizacionService alquilerActualizacionService;
+    private final ApplicationEventPublisher eventPublisher;
     private final LoginAttemptService loginAttemptService;
     private final PasswordResetService passwordResetService;
     private final EmailService emailService;
@@ -76,26 +75,24 @@ public class AuthController {
             AuthenticationManager authenticationManager,
             UsuarioRepository usuarioRepository,
             RolRepository rolRepository,
+            DatosReferenciaService datosReferenciaService,
             PasswordEncoder encoder,
             JwtUtils jwtUtils,
             com.alquileres.security.UserDetailsServiceImpl userDetailsService,
             PermisosService permisosService,
-            ContratoActualizacionService contratoActualizacionService,
-            ServicioActualizacionService servicioActualizacionService,
-            AlquilerActualizacionService alquilerActualizacionService,
+            ApplicationEventPublisher eventPublisher,
             LoginAttemptService loginAttemptService,
             PasswordResetService passwordResetService,
             EmailService emailService) {
         this.authenticationManager = authenticationManager;
         this.usuarioRepository = usuarioRepository;
         this.rolRepository = rolRepository;
+        this.datosReferenciaService = datosReferenciaService;
         this.encoder = encoder;
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
         this.permisosService = permisosService;
-        this.contratoActualizacionService = contratoActualizacionService;
-        this.servicioActualizacionService = servicioActualizacionService;
-        this.alquilerActualizacionService = alquilerActualizacionService;
+        this.eventPublisher = eventPublisher;
         this.loginAttemptService = loginAttemptService;
         this.passwordResetService = passwordResetService;
         this.emailService = emailService;
@@ -115,10 +112,6 @@ public class AuthController {
                     .body(new MessageResponse("Demasiados intentos fallidos. Por favor, espere antes de intentar nuevamente."));
         }
 
-        // Ejecutar procesos de actualización automáticos de manera segura
-        // Estos procesos NO afectarán el resultado del login si fallan
-        ejecutarProcesosAutomaticos();
-
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
@@ -126,6 +119,10 @@ public class AuthController {
             // Login exitoso - limpiar intentos fallidos
             loginAttemptService.loginSucceeded(loginRequest.getUsername());
 
+            // Avisar que puede haber mantenimiento pendiente; se procesa en segundo plano
+            // y no afecta el tiempo ni el resultado del login
+            solicitarMantenimiento(loginRequest.getUsername());
+
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = jwtUtils.generateJwtToken(authentication);
 
@@ -180,22 +177,12 @@ public class AuthController {
     }
 
     /**
-     * Ejecuta los procesos automáticos de actualización de forma segura.
-     * Si alguno falla, se loguea el error pero NO afecta el resultado del login.
+     * Publica el evento de mantenimiento pendiente (contratos vencidos, facturas y alquileres del mes).
+     * Si falla, NO afecta el resultado del login.
      */
-    private void ejecutarProcesosAutomaticos() {
-        try {
-            contratoActualizacionService.actualizarContratosVencidos();
-        } catch (Exception ignored) {
-        }
-
+    private void solicitarMantenimiento(String username) {
         try {
-            servicioActualizacionService.procesarPagosPendientes();
-        } catch (Exception ignored) {
-        }
-
-        try {
-            alquilerActualizacionService.procesarAlquileresPendientes();
+            eventPublisher.publishEvent(new MantenimientoPendienteEvent("LOGIN:" + username));
         } catch (Exception ignored) {
         }
     }
@@ -248,26 +235,18 @@ public class AuthController {
         Set<Rol> roles = new HashSet<>();
 
         if (strRoles == null) {
-            Rol secretariaRole = rolRepository.findByNombre(RolNombre.ROLE_SECRETARIA)
-                    .orElseThrow(() -> new RuntimeException("Error: Rol no encontrado."));
-            roles.add(secretariaRole);
+            roles.add(obtenerRol(RolNombre.ROLE_SECRETARIA));
         } else {
             strRoles.forEach(role -> {
                 switch (role) {
                     case "admin":
-                        Rol adminRole = rolRepository.findByNombre(RolNombre.ROLE_ADMINISTRADOR)
-                                .orElseThrow(() -> new RuntimeException("Error: Rol no encontrado."));
-                        roles.add(adminRole);
+                        roles.add(obtenerRol(RolNombre.ROLE_ADMINISTRADOR));
                         break;
                     case "abogada":
-                        Rol abogadaRole = rolRepository.findByNombre(RolNombre.ROLE_ABOGADA)
-                                .orElseThrow(() -> new RuntimeException("Error: Rol no encontrado."));
-                        roles.add(abogadaRole);
+                        roles.add(obtenerRol(RolNombre.ROLE_ABOGADA));
                         break;
                     default:
-                        Rol secretariaRole = rolRepository.findByNombre(RolNombre.ROLE_SECRETARIA)
-                                .orElseThrow(() -> new RuntimeException("Error: Rol no encontrado."));
-                        roles.add(secretariaRole);
+                        roles.add(obtenerRol(RolNombre.ROLE_SECRETARIA));
                 }
             });
         }
@@ -278,6 +257,13 @@ public class AuthController {
         return ResponseEntity.ok(new MessageResponse("Usuario registrado exitosamente!"));
     }
 
+    // Referencia al rol por su ID en el registro de datos de referencia (sin consultar la tabla de roles)
+    private Rol obtenerRol(RolNombre nombre) {
+        return datosReferenciaService.buscarIdRol(nombre)
+                .map(rolRepository::getReferenceById)
+                .orElseThrow(() -> new RuntimeException("Error: Rol no encontrado."));
+    }
+
     @PostMapping("/recuperar-contrasena")
     @Operation(summary = "Solicitar recuperación de contraseña",
                description = "Solicita el envío de un email de recuperación. El procesamiento se realiza de forma asíncrona. " +
@@ -3,6 +3,8 @@ package com.alquileres.controller;
 import com.alquileres.dto.ContratoDTO;
 import com.alquileres.dto.ContratoCreateDTO;
 import com.alquileres.dto.EstadoContratoUpdateDTO;
+import com.alquileres.dto.FiltroContratosDTO;
+import com.alquileres.dto.PaginaContratosDTO;
 import com.alquileres.service.ContratoService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -35,6 +37,20 @@ public class ContratoController {
         return ResponseEntity.ok(contratos);
     }
 
+    // GET /api/contratos/pagina - Obtener una página de contratos filtrados (paginación por cursor)
+    @GetMapping("/pagina")
+    @Operation(summary = "Obtener una página de contratos filtrados",
+               description = "Filtros opcionales: estado (vigentes, no-vigentes), propietarioId, inquilinoId, " +
+                             "vencimientoDesde y vencimientoHasta (dd/MM/yyyy), aumentaConIcl. " +
+                             "Orden: id (por defecto) o fechaFin. Para la página siguiente enviar nextCursor en cursor")
+    public ResponseEntity<PaginaContratosDTO> obtenerPaginaContratos(
+            FiltroContratosDTO filtro,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limite) {
+        PaginaContratosDTO pagina = contratoService.obtenerPaginaContratos(filtro, cursor, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     // GET /api/contratos/{id} - Obtener contrato por ID
     @GetMapping("/{id}")
     @Operation(summary = "Obtener contrato por ID")
@@ -1,5 +1,6 @@
 package com.alquileres.controller;
 
+import com.alquileres.util.BCRAApiClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
@@ -13,6 +14,12 @@ public class HealthController {
 
     private static final Logger log = LoggerFactory.getLogger(HealthController.class);
 
+    private final BCRAApiClient bcraApiClient;
+
+    public HealthController(BCRAApiClient bcraApiClient) {
+        this.bcraApiClient = bcraApiClient;
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthRoot() {
         log.info("Health check received at /health");
@@ -20,6 +27,7 @@ public class HealthController {
         response.put("message", "Alquigest API está funcionando correctamente");
         response.put("status", "UP");
         response.put("timestamp", LocalDateTime.now().toString());
+        response.put("bcra", bcraApiClient.obtenerEstadoCircuito());
         return ResponseEntity.ok(response);
     }
 
@@ -30,6 +38,7 @@ public class HealthController {
         response.put("message", "Alquigest API está funcionando correctamente");
         response.put("status", "UP");
         response.put("timestamp", LocalDateTime.now().toString());
+        response.put("bcra", bcraApiClient.obtenerEstadoCircuito());
         return ResponseEntity.ok(response);
     }
 }
@@ -1,5 +1,7 @@
 package com.alquileres.controller;
 
+import com.alquileres.dto.ReporteEjecucionParticionadaDTO;
+import com.alquileres.service.EjecutorParticionado;
 import com.alquileres.service.ServicioActualizacionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,9 +16,12 @@ import java.util.Map;
 public class ServicioActualizacionController {
 
     private final ServicioActualizacionService servicioActualizacionService;
+    private final EjecutorParticionado ejecutorParticionado;
 
-    public ServicioActualizacionController(ServicioActualizacionService servicioActualizacionService) {
+    public ServicioActualizacionController(ServicioActualizacionService servicioActualizacionService,
+                                           EjecutorParticionado ejecutorParticionado) {
         this.servicioActualizacionService = servicioActualizacionService;
+        this.ejecutorParticionado = ejecutorParticionado;
     }
 
     /**
@@ -58,4 +63,14 @@ public class ServicioActualizacionController {
                 .body(Map.of("error", "Error al obtener último mes: " + e.getMessage()));
         }
     }
+
+    /**
+     * Obtiene el último reporte de cada proceso mensual ejecutado por particiones
+     */
+    @GetMapping("/reportes")
+    @Operation(summary = "Obtener reportes de procesos mensuales",
+               description = "Retorna la duración, el paralelismo y el resultado de cada partición de la última ejecución de cada proceso")
+    public ResponseEntity<Map<String, ReporteEjecucionParticionadaDTO>> obtenerReportes() {
+        return ResponseEntity.ok(ejecutorParticionado.obtenerUltimosReportes());
+    }
 }
@@ -24,6 +24,12 @@ public class AlquilerDTO {
 
     private Boolean necesitaAumentoManual;
 
+    private Integer intentosAumento;
+
+    private String proximoIntentoAumento;
+
+    private String ultimoErrorAumento;
+
     @Size(max = 100, message = "La cuenta de banco no puede exceder 100 caracteres")
     private String cuentaBanco;
 
@@ -52,11 +58,18 @@ public class AlquilerDTO {
     public AlquilerDTO(Alquiler alquiler) {
         this.id = alquiler.getId();
         this.contratoId = alquiler.getContrato() != null ? alquiler.getContrato().getId() : null;
-        this.fechaVencimientoPago = alquiler.getFechaVencimientoPago();
+        this.fechaVencimientoPago = alquiler.getFechaVencimientoPago() != null
+            ? alquiler.getFechaVencimientoPago().toString()
+            : null;
         this.fechaPago = alquiler.getFechaPago();
         this.monto = alquiler.getMonto();
         this.estaPagado = alquiler.getEstaPagado();
         this.necesitaAumentoManual = alquiler.getNecesitaAumentoManual();
+        this.intentosAumento = alquiler.getIntentosAumento();
+        this.proximoIntentoAumento = alquiler.getProximoIntentoAumento() != null
+            ? alquiler.getProximoIntentoAumento().toString()
+            : null;
+        this.ultimoErrorAumento = alquiler.getUltimoErrorAumento();
         this.cuentaBanco = alquiler.getCuentaBanco();
         this.titularDePago = alquiler.getTitularDePago();
         this.metodo = alquiler.getMetodo();
@@ -134,6 +147,30 @@ public class AlquilerDTO {
         this.necesitaAumentoManual = necesitaAumentoManual;
     }
 
+    public Integer getIntentosAumento() {
+        return intentosAumento;
+    }
+
+    public void setIntentosAumento(Integer intentosAumento) {
+        this.intentosAumento = intentosAumento;
+    }
+
+    public String getProximoIntentoAumento() {
+        return proximoIntentoAumento;
+    }
+
+    public void setProximoIntentoAumento(String proximoIntentoAumento) {
+        this.proximoIntentoAumento = proximoIntentoAumento;
+    }
+
+    public String getUltimoErrorAumento() {
+        return ultimoErrorAumento;
+    }
+
+    public void setUltimoErrorAumento(String ultimoErrorAumento) {
+        this.ultimoErrorAumento = ultimoErrorAumento;
+    }
+
     public String getCuentaBanco() {
         return cuentaBanco;
     }
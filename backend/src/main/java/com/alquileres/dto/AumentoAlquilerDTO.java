@@ -30,7 +30,7 @@ public class AumentoAlquilerDTO {
     public AumentoAlquilerDTO(AumentoAlquiler aumentoAlquiler) {
         this.id = aumentoAlquiler.getId();
         this.contratoId = aumentoAlquiler.getContrato() != null ? aumentoAlquiler.getContrato().getId() : null;
-        this.fechaAumento = aumentoAlquiler.getFechaAumento();
+        this.fechaAumento = aumentoAlquiler.getFechaAumento() != null ? aumentoAlquiler.getFechaAumento().toString() : null;
         this.montoAnterior = aumentoAlquiler.getMontoAnterior();
         this.montoNuevo = aumentoAlquiler.getMontoNuevo();
         this.porcentajeAumento = aumentoAlquiler.getPorcentajeAumento();
@@ -5,9 +5,12 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
+import java.io.Serializable;
 import java.math.BigDecimal;
 
-public class ContratoDTO {
+public class ContratoDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private Long id;
 
@@ -73,15 +76,19 @@ public class ContratoDTO {
         this.id = contrato.getId();
         this.inmuebleId = contrato.getInmueble() != null ? contrato.getInmueble().getId() : null;
         this.inquilinoId = contrato.getInquilino() != null ? contrato.getInquilino().getId() : null;
-        this.fechaInicio = contrato.getFechaInicio();
-        this.fechaFin = contrato.getFechaFin();
+        this.fechaInicio = contrato.getFechaInicio() != null ? contrato.getFechaInicio().toString() : null;
+        this.fechaFin = contrato.getFechaFin() != null ? contrato.getFechaFin().toString() : null;
         this.monto = contrato.getMonto();
         this.porcentajeAumento = contrato.getPorcentajeAumento();
         this.estadoContratoId = contrato.getEstadoContrato() != null ? contrato.getEstadoContrato().getId().intValue() : null;
         this.aumentaConIcl = contrato.getAumentaConIcl();
         this.porcentajeHonorario = contrato.getPorcentajeHonorario();
         this.periodoAumento = contrato.getPeriodoAumento();
-        this.fechaAumento = contrato.getFechaAumento();
+        if (Boolean.TRUE.equals(contrato.getSinMasAumentos())) {
+            this.fechaAumento = Contrato.TEXTO_SIN_MAS_AUMENTOS;
+        } else {
+            this.fechaAumento = contrato.getFechaAumento() != null ? contrato.getFechaAumento().toString() : null;
+        }
         this.tienePDF = contrato.getIdPDF() != null;
 
         // Información adicional para mostrar
@@ -111,6 +118,45 @@ public class ContratoDTO {
         }
     }
 
+    // Constructor desde la proyección de detalle (listados, sin consultas adicionales)
+    // Los nombres del tipo de inmueble y del estado se completan en el servicio
+    public ContratoDTO(ContratoDetalleProyeccion detalle) {
+        this.id = detalle.getId();
+        this.inmuebleId = detalle.getInmuebleId();
+        this.inquilinoId = detalle.getInquilinoId();
+        this.fechaInicio = detalle.getFechaInicio() != null ? detalle.getFechaInicio().toString() : null;
+        this.fechaFin = detalle.getFechaFin() != null ? detalle.getFechaFin().toString() : null;
+        this.monto = detalle.getMonto();
+        this.porcentajeAumento = detalle.getPorcentajeAumento();
+        this.estadoContratoId = detalle.getEstadoContratoId();
+        this.aumentaConIcl = detalle.getAumentaConIcl();
+        this.porcentajeHonorario = detalle.getPorcentajeHonorario();
+        this.periodoAumento = detalle.getPeriodoAumento();
+        if (Boolean.TRUE.equals(detalle.getSinMasAumentos())) {
+            this.fechaAumento = Contrato.TEXTO_SIN_MAS_AUMENTOS;
+        } else {
+            this.fechaAumento = detalle.getFechaAumento() != null ? detalle.getFechaAumento().toString() : null;
+        }
+        this.tienePDF = detalle.getIdPDF() != null;
+
+        this.direccionInmueble = detalle.getDireccionInmueble();
+        this.superficieInmueble = detalle.getSuperficieInmueble();
+
+        this.nombreInquilino = detalle.getNombreInquilino();
+        this.apellidoInquilino = detalle.getApellidoInquilino();
+        this.cuilInquilino = detalle.getCuilInquilino();
+        this.telefonoInquilino = detalle.getTelefonoInquilino();
+
+        this.nombrePropietario = detalle.getNombrePropietario();
+        this.apellidoPropietario = detalle.getApellidoPropietario();
+        this.dniPropietario = detalle.getCuilPropietario();
+        this.telefonoPropietario = detalle.getTelefonoPropietario();
+        this.emailPropietario = detalle.getEmailPropietario();
+        this.direccionPropietario = detalle.getDireccionPropietario();
+
+        this.montoUltimoAlquiler = detalle.getMontoUltimoAlquiler();
+    }
+
     // Constructor con parámetros principales
     public ContratoDTO(Long inmuebleId, Long inquilinoId, String fechaInicio,
                       String fechaFin, BigDecimal monto, Integer estadoContratoId) {
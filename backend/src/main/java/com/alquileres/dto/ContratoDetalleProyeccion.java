@@ -0,0 +1,77 @@
+package com.alquileres.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Proyección de un contrato con los datos de su inmueble, inquilino, propietario y el monto
+ * del último alquiler, leída en una sola consulta (ver ContratoRepository.SELECT_DETALLE)
+ * para armar ContratoDTO sin consultas adicionales por contrato
+ */
+public interface ContratoDetalleProyeccion {
+
+    Long getId();
+
+    LocalDate getFechaInicio();
+
+    LocalDate getFechaFin();
+
+    BigDecimal getMonto();
+
+    BigDecimal getPorcentajeAumento();
+
+    Integer getEstadoContratoId();
+
+    Boolean getAumentaConIcl();
+
+    BigDecimal getPorcentajeHonorario();
+
+    Integer getPeriodoAumento();
+
+    LocalDate getFechaAumento();
+
+    Boolean getSinMasAumentos();
+
+    Long getIdPDF();
+
+    // Inmueble
+    Long getInmuebleId();
+
+    String getDireccionInmueble();
+
+    Long getTipoInmuebleId();
+
+    BigDecimal getSuperficieInmueble();
+
+    // Inquilino
+    Long getInquilinoId();
+
+    String getNombreInquilino();
+
+    String getApellidoInquilino();
+
+    String getCuilInquilino();
+
+    String getTelefonoInquilino();
+
+    // Propietario (null si el inmueble no tiene propietario cargado)
+    Long getPropietarioId();
+
+    String getNombrePropietario();
+
+    String getApellidoPropietario();
+
+    String getCuilPropietario();
+
+    String getTelefonoPropietario();
+
+    String getEmailPropietario();
+
+    String getDireccionPropietario();
+
+    // Solo si tiene clave fiscal cargada: la clave se revela desde el propietario
+    Boolean getTieneClaveFiscalPropietario();
+
+    // Último alquiler activo
+    BigDecimal getMontoUltimoAlquiler();
+}
@@ -0,0 +1,106 @@
+package com.alquileres.dto;
+
+/**
+ * Filtros y orden del listado paginado de contratos (GET /api/contratos/pagina)
+ *
+ * Todos los filtros son opcionales; los que vienen en null no filtran.
+ */
+public class FiltroContratosDTO {
+
+    public static final String ESTADO_VIGENTES = "vigentes";
+    public static final String ESTADO_NO_VIGENTES = "no-vigentes";
+
+    public static final String ORDEN_ID = "id";
+    public static final String ORDEN_FECHA_FIN = "fechaFin";
+
+    // "vigentes" o "no-vigentes"
+    private String estado;
+    private Long propietarioId;
+    private Long inquilinoId;
+    // Ventana de vencimiento (fecha fin del contrato) en formato dd/MM/yyyy
+    private String vencimientoDesde;
+    private String vencimientoHasta;
+    // true: aumenta por ICL, false: aumento por porcentaje fijo
+    private Boolean aumentaConIcl;
+    // "id" (por defecto) o "fechaFin"
+    private String orden;
+
+    public FiltroContratosDTO() {
+    }
+
+    /**
+     * Representación canónica de los filtros, usada como clave de caché de las páginas
+     * y para atar cada cursor a los filtros con los que se generó
+     */
+    public String claveCache() {
+        return "estado=" + estado +
+               ";propietario=" + propietarioId +
+               ";inquilino=" + inquilinoId +
+               ";vencimientoDesde=" + vencimientoDesde +
+               ";vencimientoHasta=" + vencimientoHasta +
+               ";icl=" + aumentaConIcl +
+               ";orden=" + getOrden();
+    }
+
+    // Getters y Setters
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Long getPropietarioId() {
+        return propietarioId;
+    }
+
+    public void setPropietarioId(Long propietarioId) {
+        this.propietarioId = propietarioId;
+    }
+
+    public Long getInquilinoId() {
+        return inquilinoId;
+    }
+
+    public void setInquilinoId(Long inquilinoId) {
+        this.inquilinoId = inquilinoId;
+    }
+
+    public String getVencimientoDesde() {
+        return vencimientoDesde;
+    }
+
+    public void setVencimientoDesde(String vencimientoDesde) {
+        this.vencimientoDesde = vencimientoDesde;
+    }
+
+    public String getVencimientoHasta() {
+        return vencimientoHasta;
+    }
+
+    public void setVencimientoHasta(String vencimientoHasta) {
+        this.vencimientoHasta = vencimientoHasta;
+    }
+
+    public Boolean getAumentaConIcl() {
+        return aumentaConIcl;
+    }
+
+    public void setAumentaConIcl(Boolean aumentaConIcl) {
+        this.aumentaConIcl = aumentaConIcl;
+    }
+
+    public String getOrden() {
+        return orden != null ? orden : ORDEN_ID;
+    }
+
+    public void setOrden(String orden) {
+        this.orden = orden;
+    }
+
+    @Override
+    public String toString() {
+        return "FiltroContratosDTO{" + claveCache() + '}';
+    }
+}
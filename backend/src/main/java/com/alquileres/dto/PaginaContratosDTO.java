@@ -0,0 +1,45 @@
+package com.alquileres.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Una página del listado de contratos
+ *
+ * nextCursor es null en la última página; si no, se envía tal cual en el parámetro
+ * cursor (con los mismos filtros) para pedir la página siguiente.
+ */
+public class PaginaContratosDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Las listas que se asignan (ArrayList, List.of) son serializables
+    @SuppressWarnings("serial")
+    private List<ContratoDTO> contratos;
+    private String nextCursor;
+
+    public PaginaContratosDTO() {
+    }
+
+    public PaginaContratosDTO(List<ContratoDTO> contratos, String nextCursor) {
+        this.contratos = contratos;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters y Setters
+    public List<ContratoDTO> getContratos() {
+        return contratos;
+    }
+
+    public void setContratos(List<ContratoDTO> contratos) {
+        this.contratos = contratos;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,107 @@
+package com.alquileres.dto;
+
+/**
+ * DTO con el estado de una ejecución de reintentos de aumentos ICL pendientes
+ */
+public class ReintentoAumentoJobDTO {
+
+    public static final String EN_CURSO = "EN_CURSO";
+    public static final String COMPLETADO = "COMPLETADO";
+    public static final String FALLIDO = "FALLIDO";
+    // Otra instancia tenía el bloqueo del reintento: este job no procesó nada
+    public static final String OMITIDO = "OMITIDO";
+
+    private String jobId;
+    private String estado;
+    private String origen;
+    private String fechaInicio;
+    private String fechaFin;
+    private int procesados;
+    private int actualizados;
+    private int fallidos;
+    private String error;
+
+    // Constructor por defecto
+    public ReintentoAumentoJobDTO() {
+    }
+
+    public ReintentoAumentoJobDTO(String jobId, String origen, String fechaInicio) {
+        this.jobId = jobId;
+        this.origen = origen;
+        this.fechaInicio = fechaInicio;
+        this.estado = EN_CURSO;
+    }
+
+    // Getters y Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public String getOrigen() {
+        return origen;
+    }
+
+    public void setOrigen(String origen) {
+        this.origen = origen;
+    }
+
+    public String getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(String fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public String getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(String fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    public int getProcesados() {
+        return procesados;
+    }
+
+    public void setProcesados(int procesados) {
+        this.procesados = procesados;
+    }
+
+    public int getActualizados() {
+        return actualizados;
+    }
+
+    public void setActualizados(int actualizados) {
+        this.actualizados = actualizados;
+    }
+
+    public int getFallidos() {
+        return fallidos;
+    }
+
+    public void setFallidos(int fallidos) {
+        this.fallidos = fallidos;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,110 @@
+package com.alquileres.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el reporte agregado de un proceso ejecutado por particiones en paralelo
+ */
+public class ReporteEjecucionParticionadaDTO {
+
+    private String proceso;
+    private String fechaInicio;
+    private int paralelismo;
+    private int particiones;
+    private int particionesFallidas;
+    private int generados;
+    private long duracionMs;
+    private List<ResultadoParticionDTO> resultados = new ArrayList<>();
+
+    // Constructor por defecto
+    public ReporteEjecucionParticionadaDTO() {
+    }
+
+    public ReporteEjecucionParticionadaDTO(String proceso, String fechaInicio, int paralelismo) {
+        this.proceso = proceso;
+        this.fechaInicio = fechaInicio;
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Agrega el resultado de una partición a los totales del reporte
+     */
+    public void agregarResultado(ResultadoParticionDTO resultado) {
+        resultados.add(resultado);
+        particiones++;
+        generados += resultado.getGenerados();
+        if (!resultado.isExitosa()) {
+            particionesFallidas++;
+        }
+    }
+
+    public boolean isCompleto() {
+        return particionesFallidas == 0;
+    }
+
+    // Getters y Setters
+    public String getProceso() {
+        return proceso;
+    }
+
+    public void setProceso(String proceso) {
+        this.proceso = proceso;
+    }
+
+    public String getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(String fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public int getParalelismo() {
+        return paralelismo;
+    }
+
+    public void setParalelismo(int paralelismo) {
+        this.paralelismo = paralelismo;
+    }
+
+    public int getParticiones() {
+        return particiones;
+    }
+
+    public void setParticiones(int particiones) {
+        this.particiones = particiones;
+    }
+
+    public int getParticionesFallidas() {
+        return particionesFallidas;
+    }
+
+    public void setParticionesFallidas(int particionesFallidas) {
+        this.particionesFallidas = particionesFallidas;
+    }
+
+    public int getGenerados() {
+        return generados;
+    }
+
+    public void setGenerados(int generados) {
+        this.generados = generados;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public List<ResultadoParticionDTO> getResultados() {
+        return resultados;
+    }
+
+    public void setResultados(List<ResultadoParticionDTO> resultados) {
+        this.resultados = resultados;
+    }
+}
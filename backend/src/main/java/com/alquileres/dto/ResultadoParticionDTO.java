@@ -0,0 +1,82 @@
+package com.alquileres.dto;
+
+/**
+ * DTO con el resultado de una partición (rango de IDs de contrato) de un proceso por lotes
+ */
+public class ResultadoParticionDTO {
+
+    private int numero;
+    private long desde;
+    private long hasta;
+    private boolean exitosa;
+    private int generados;
+    private long duracionMs;
+    private String error;
+
+    // Constructor por defecto
+    public ResultadoParticionDTO() {
+    }
+
+    public ResultadoParticionDTO(int numero, long desde, long hasta) {
+        this.numero = numero;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    // Getters y Setters
+    public int getNumero() {
+        return numero;
+    }
+
+    public void setNumero(int numero) {
+        this.numero = numero;
+    }
+
+    public long getDesde() {
+        return desde;
+    }
+
+    public void setDesde(long desde) {
+        this.desde = desde;
+    }
+
+    public long getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(long hasta) {
+        this.hasta = hasta;
+    }
+
+    public boolean isExitosa() {
+        return exitosa;
+    }
+
+    public void setExitosa(boolean exitosa) {
+        this.exitosa = exitosa;
+    }
+
+    public int getGenerados() {
+        return generados;
+    }
+
+    public void setGenerados(int generados) {
+        this.generados = generados;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,19 @@
+package com.alquileres.event;
+
+/**
+ * Evento que indica que puede haber mantenimiento automático pendiente
+ * (contratos vencidos, facturas de servicios y alquileres del mes).
+ * Se publica en cada inicio de sesión exitoso; el procesamiento ocurre en segundo plano.
+ */
+public class MantenimientoPendienteEvent {
+
+    private final String origen;
+
+    public MantenimientoPendienteEvent(String origen) {
+        this.origen = origen;
+    }
+
+    public String getOrigen() {
+        return origen;
+    }
+}
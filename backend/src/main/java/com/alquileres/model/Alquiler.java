@@ -1,9 +1,11 @@
 package com.alquileres.model;
 
+import com.alquileres.util.FechaUtil;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -11,8 +13,10 @@ import java.time.format.DateTimeFormatter;
 @Table(name = "alquileres")
 public class Alquiler {
 
+    // Reserva 50 IDs por consulta a la secuencia para que los saveAll se envíen en batch
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alquileres_seq")
+    @SequenceGenerator(name = "alquileres_seq", sequenceName = "alquileres_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "El contrato es obligatorio")
@@ -21,7 +25,11 @@ public class Alquiler {
     private Contrato contrato;
 
     @Column(name = "fecha_vencimiento_pago")
-    private String fechaVencimientoPago;
+    private LocalDate fechaVencimientoPago;
+
+    // Año y mes del vencimiento como yyyyMM (ej: 202503), para filtrar informes por período
+    @Column(name = "periodo_key")
+    private Integer periodoKey;
 
     @Positive(message = "El monto debe ser positivo")
     @Column(precision = 12, scale = 2)
@@ -39,6 +47,16 @@ public class Alquiler {
     @Column(name = "necesita_aumento_manual", nullable = false)
     private Boolean necesitaAumentoManual = false;
 
+    // Reintentos automáticos del aumento por ICL (solo aplican cuando necesitaAumentoManual = true)
+    @Column(name = "intentos_aumento")
+    private Integer intentosAumento = 0;
+
+    @Column(name = "proximo_intento_aumento")
+    private LocalDateTime proximoIntentoAumento;
+
+    @Column(name = "ultimo_error_aumento", length = 500)
+    private String ultimoErrorAumento;
+
     @Column(name = "cuenta_banco", length = 100)
     private String cuentaBanco;
 
@@ -62,7 +80,7 @@ public class Alquiler {
     }
 
     // Constructor para creación automática de alquileres
-    public Alquiler(Contrato contrato, String fechaVencimientoPago, BigDecimal monto) {
+    public Alquiler(Contrato contrato, LocalDate fechaVencimientoPago, BigDecimal monto) {
         this();
         this.contrato = contrato;
         this.fechaVencimientoPago = fechaVencimientoPago;
@@ -86,11 +104,11 @@ public class Alquiler {
         this.contrato = contrato;
     }
 
-    public String getFechaVencimientoPago() {
+    public LocalDate getFechaVencimientoPago() {
         return fechaVencimientoPago;
     }
 
-    public void setFechaVencimientoPago(String fechaVencimientoPago) {
+    public void setFechaVencimientoPago(LocalDate fechaVencimientoPago) {
         this.fechaVencimientoPago = fechaVencimientoPago;
     }
 
@@ -178,8 +196,42 @@ public class Alquiler {
         this.updatedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
     }
 
+    public Integer getIntentosAumento() {
+        return intentosAumento;
+    }
+
+    public void setIntentosAumento(Integer intentosAumento) {
+        this.intentosAumento = intentosAumento;
+    }
+
+    public LocalDateTime getProximoIntentoAumento() {
+        return proximoIntentoAumento;
+    }
+
+    public void setProximoIntentoAumento(LocalDateTime proximoIntentoAumento) {
+        this.proximoIntentoAumento = proximoIntentoAumento;
+    }
+
+    public String getUltimoErrorAumento() {
+        return ultimoErrorAumento;
+    }
+
+    public void setUltimoErrorAumento(String ultimoErrorAumento) {
+        this.ultimoErrorAumento = ultimoErrorAumento;
+    }
+
+    public Integer getPeriodoKey() {
+        return periodoKey;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        this.periodoKey = FechaUtil.calcularPeriodoKey(fechaVencimientoPago);
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        this.periodoKey = FechaUtil.calcularPeriodoKey(fechaVencimientoPago);
     }
 }
@@ -3,14 +3,17 @@ package com.alquileres.model;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "aumento_alquiler")
 public class AumentoAlquiler {
 
+    // Con IDENTITY Hibernate no puede agrupar inserts; la secuencia avanza de a 50 (ver V4)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aumento_alquiler_seq")
+    @SequenceGenerator(name = "aumento_alquiler_seq", sequenceName = "aumento_alquiler_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -18,7 +21,7 @@ public class AumentoAlquiler {
     private Contrato contrato;
 
     @Column(name = "fecha_aumento", nullable = false)
-    private String fechaAumento;
+    private LocalDate fechaAumento;
 
     @Column(name = "monto_anterior", nullable = false)
     private BigDecimal montoAnterior;
@@ -39,7 +42,7 @@ public class AumentoAlquiler {
     public AumentoAlquiler() {
     }
 
-    public AumentoAlquiler(Contrato contrato, String fechaAumento, BigDecimal montoAnterior,
+    public AumentoAlquiler(Contrato contrato, LocalDate fechaAumento, BigDecimal montoAnterior,
                            BigDecimal montoNuevo, BigDecimal porcentajeAumento) {
         this.contrato = contrato;
         this.fechaAumento = fechaAumento;
@@ -66,11 +69,11 @@ public class AumentoAlquiler {
         this.contrato = contrato;
     }
 
-    public String getFechaAumento() {
+    public LocalDate getFechaAumento() {
         return fechaAumento;
     }
 
-    public void setFechaAumento(String fechaAumento) {
+    public void setFechaAumento(LocalDate fechaAumento) {
         this.fechaAumento = fechaAumento;
     }
 
@@ -0,0 +1,64 @@
+package com.alquileres.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Bloqueo de un proceso programado compartido entre todas las instancias de la aplicación.
+ * Quien lo toma lo retiene hasta bloqueadoHasta; si la instancia se cae, el bloqueo vence solo.
+ */
+@Entity
+@Table(name = "scheduler_lock")
+public class BloqueoProceso {
+
+    @Id
+    @Column(name = "nombre", length = 64)
+    private String nombre;
+
+    @Column(name = "bloqueado_hasta", nullable = false)
+    private LocalDateTime bloqueadoHasta;
+
+    @Column(name = "bloqueado_en")
+    private LocalDateTime bloqueadoEn;
+
+    // Instancia y ejecución que tomó el bloqueo
+    @Column(name = "bloqueado_por", length = 255)
+    private String bloqueadoPor;
+
+    // Constructor por defecto
+    public BloqueoProceso() {
+    }
+
+    // Getters y Setters
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public LocalDateTime getBloqueadoHasta() {
+        return bloqueadoHasta;
+    }
+
+    public void setBloqueadoHasta(LocalDateTime bloqueadoHasta) {
+        this.bloqueadoHasta = bloqueadoHasta;
+    }
+
+    public LocalDateTime getBloqueadoEn() {
+        return bloqueadoEn;
+    }
+
+    public void setBloqueadoEn(LocalDateTime bloqueadoEn) {
+        this.bloqueadoEn = bloqueadoEn;
+    }
+
+    public String getBloqueadoPor() {
+        return bloqueadoPor;
+    }
+
+    public void setBloqueadoPor(String bloqueadoPor) {
+        this.bloqueadoPor = bloqueadoPor;
+    }
+}
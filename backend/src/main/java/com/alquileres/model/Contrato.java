@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -12,8 +13,12 @@ import java.time.format.DateTimeFormatter;
 @Table(name = "contratos")
 public class Contrato {
 
+    // Texto que se muestra en lugar de la fecha de aumento cuando el contrato ya no aumenta
+    public static final String TEXTO_SIN_MAS_AUMENTOS = "No aumenta más";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contratos_seq")
+    @SequenceGenerator(name = "contratos_seq", sequenceName = "contratos_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "El inmueble es obligatorio")
@@ -27,10 +32,10 @@ public class Contrato {
     private Inquilino inquilino;
 
     @Column(name = "fecha_inicio")
-    private String fechaInicio;
+    private LocalDate fechaInicio;
 
     @Column(name = "fecha_fin")
-    private String fechaFin;
+    private LocalDate fechaFin;
 
     @Positive(message = "El monto debe ser positivo")
     @Column(precision = 12, scale = 2)
@@ -58,7 +63,11 @@ public class Contrato {
     private Integer periodoAumento;
 
     @Column(name = "fecha_aumento")
-    private String fechaAumento;
+    private LocalDate fechaAumento;
+
+    // Reemplaza al texto "No aumenta más" que antes se guardaba en fecha_aumento
+    @Column(name = "sin_mas_aumentos", nullable = false)
+    private Boolean sinMasAumentos = false;
 
     @Column(name = "created_at")
     private String createdAt;
@@ -69,8 +78,8 @@ public class Contrato {
     }
 
     // Constructor con parámetros principales
-    public Contrato(Inmueble inmueble, Inquilino inquilino, String fechaInicio,
-                   String fechaFin, BigDecimal monto, EstadoContrato estadoContrato) {
+    public Contrato(Inmueble inmueble, Inquilino inquilino, LocalDate fechaInicio,
+                   LocalDate fechaFin, BigDecimal monto, EstadoContrato estadoContrato) {
         this.inmueble = inmueble;
         this.inquilino = inquilino;
         this.fechaInicio = fechaInicio;
@@ -111,19 +120,19 @@ public class Contrato {
         this.inquilino = inquilino;
     }
 
-    public String getFechaInicio() {
+    public LocalDate getFechaInicio() {
         return fechaInicio;
     }
 
-    public void setFechaInicio(String fechaInicio) {
+    public void setFechaInicio(LocalDate fechaInicio) {
         this.fechaInicio = fechaInicio;
     }
 
-    public String getFechaFin() {
+    public LocalDate getFechaFin() {
         return fechaFin;
     }
 
-    public void setFechaFin(String fechaFin) {
+    public void setFechaFin(LocalDate fechaFin) {
         this.fechaFin = fechaFin;
     }
 
@@ -183,14 +192,36 @@ public class Contrato {
         this.periodoAumento = periodoAumento;
     }
 
-    public String getFechaAumento() {
+    public LocalDate getFechaAumento() {
         return fechaAumento;
     }
 
-    public void setFechaAumento(String fechaAumento) {
+    public void setFechaAumento(LocalDate fechaAumento) {
         this.fechaAumento = fechaAumento;
     }
 
+    public Boolean getSinMasAumentos() {
+        return sinMasAumentos;
+    }
+
+    public void setSinMasAumentos(Boolean sinMasAumentos) {
+        this.sinMasAumentos = sinMasAumentos;
+    }
+
+    /**
+     * Registra la próxima fecha de aumento; si supera la fecha de fin, el contrato
+     * queda marcado como sin más aumentos
+     */
+    public void programarProximoAumento(LocalDate proximoAumento) {
+        if (proximoAumento != null && fechaFin != null && proximoAumento.isAfter(fechaFin)) {
+            this.fechaAumento = null;
+            this.sinMasAumentos = true;
+        } else {
+            this.fechaAumento = proximoAumento;
+            this.sinMasAumentos = false;
+        }
+    }
+
     public String getCreatedAt() {
         return createdAt;
     }
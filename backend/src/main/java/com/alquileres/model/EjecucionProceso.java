@@ -0,0 +1,158 @@
+package com.alquileres.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
+
+/**
+ * Ejecución de un proceso por lotes (por ejemplo, la generación mensual de alquileres).
+ * Sus pasos (PasoEjecucionProceso) registran qué rangos de contratos ya se procesaron,
+ * para poder reanudar el proceso si se interrumpe.
+ */
+@Entity
+@Table(name = "ejecuciones_proceso", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ejecuciones_proceso_periodo", columnNames = {"proceso", "periodo"})
+})
+public class EjecucionProceso {
+
+    public static final String EN_CURSO = "EN_CURSO";
+    public static final String COMPLETADO = "COMPLETADO";
+    public static final String FALLIDO = "FALLIDO";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @NotBlank(message = "El nombre del proceso es obligatorio")
+    @Column(name = "proceso", nullable = false, length = 100)
+    private String proceso;
+
+    @NotBlank(message = "El período es obligatorio")
+    @Column(name = "periodo", nullable = false, length = 20)
+    private String periodo;
+
+    @Column(name = "estado", nullable = false, length = 20)
+    private String estado = EN_CURSO;
+
+    @Column(name = "lotes_completados", nullable = false)
+    private Integer lotesCompletados = 0;
+
+    @Column(name = "contratos_procesados", nullable = false)
+    private Integer contratosProcesados = 0;
+
+    @Column(name = "alquileres_creados", nullable = false)
+    private Integer alquileresCreados = 0;
+
+    @Column(name = "fecha_inicio")
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    @Column(name = "ultima_actualizacion")
+    private LocalDateTime ultimaActualizacion;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    // Constructor por defecto
+    public EjecucionProceso() {
+    }
+
+    // Constructor con proceso y período
+    public EjecucionProceso(String proceso, String periodo, LocalDateTime fechaInicio) {
+        this.proceso = proceso;
+        this.periodo = periodo;
+        this.fechaInicio = fechaInicio;
+        this.ultimaActualizacion = fechaInicio;
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getProceso() {
+        return proceso;
+    }
+
+    public void setProceso(String proceso) {
+        this.proceso = proceso;
+    }
+
+    public String getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(String periodo) {
+        this.periodo = periodo;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Integer getLotesCompletados() {
+        return lotesCompletados;
+    }
+
+    public void setLotesCompletados(Integer lotesCompletados) {
+        this.lotesCompletados = lotesCompletados;
+    }
+
+    public Integer getContratosProcesados() {
+        return contratosProcesados;
+    }
+
+    public void setContratosProcesados(Integer contratosProcesados) {
+        this.contratosProcesados = contratosProcesados;
+    }
+
+    public Integer getAlquileresCreados() {
+        return alquileresCreados;
+    }
+
+    public void setAlquileresCreados(Integer alquileresCreados) {
+        this.alquileresCreados = alquileresCreados;
+    }
+
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    public LocalDateTime getUltimaActualizacion() {
+        return ultimaActualizacion;
+    }
+
+    public void setUltimaActualizacion(LocalDateTime ultimaActualizacion) {
+        this.ultimaActualizacion = ultimaActualizacion;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
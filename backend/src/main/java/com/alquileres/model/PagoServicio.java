@@ -1,5 +1,6 @@
 package com.alquileres.model;
 
+import com.alquileres.util.FechaUtil;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -14,7 +15,8 @@ import java.time.format.DateTimeFormatter;
 public class PagoServicio {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pago_servicio_seq")
+    @SequenceGenerator(name = "pago_servicio_seq", sequenceName = "pago_servicio_seq", allocationSize = 50)
     private Integer id;
 
     @NotNull(message = "El servicio contrato es obligatorio")
@@ -26,6 +28,10 @@ public class PagoServicio {
     @Column(name = "periodo", length = 7)
     private String periodo; // Formato: mm/aaaa (ej: 01/2025) - representa el mes/ano de la factura
 
+    // El mismo período como yyyyMM (ej: 202501): ordena cronológicamente y permite filtrar por rangos
+    @Column(name = "periodo_key")
+    private Integer periodoKey;
+
     @Column(name = "fecha_pago")
     private String fechaPago;
 
@@ -69,11 +75,13 @@ public class PagoServicio {
         String now = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         createdAt = now;
         updatedAt = now;
+        periodoKey = FechaUtil.calcularPeriodoKey(periodo);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        periodoKey = FechaUtil.calcularPeriodoKey(periodo);
     }
 
     // Getters y Setters
@@ -165,6 +173,10 @@ public class PagoServicio {
         this.periodo = periodo;
     }
 
+    public Integer getPeriodoKey() {
+        return periodoKey;
+    }
+
     @Override
     public String toString() {
         return "PagoServicio{" +
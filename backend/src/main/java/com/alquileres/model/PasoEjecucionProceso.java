@@ -0,0 +1,155 @@
+package com.alquileres.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * Lote (partición) de una ejecución de proceso: rango de IDs de contrato y su resultado.
+ * Se planifica como PENDIENTE y pasa a COMPLETADO en la misma transacción que los alquileres del lote.
+ */
+@Entity
+@Table(name = "pasos_ejecucion_proceso")
+public class PasoEjecucionProceso {
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String COMPLETADO = "COMPLETADO";
+    public static final String FALLIDO = "FALLIDO";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @NotNull(message = "La ejecución es obligatoria")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ejecucion_id", nullable = false)
+    private EjecucionProceso ejecucion;
+
+    @Column(name = "numero_lote", nullable = false)
+    private Integer numeroLote;
+
+    @Column(name = "contrato_id_desde", nullable = false)
+    private Long contratoIdDesde;
+
+    @Column(name = "contrato_id_hasta", nullable = false)
+    private Long contratoIdHasta;
+
+    @Column(name = "estado", nullable = false, length = 20)
+    private String estado = PENDIENTE;
+
+    @Column(name = "contratos_procesados", nullable = false)
+    private Integer contratosProcesados = 0;
+
+    @Column(name = "alquileres_creados", nullable = false)
+    private Integer alquileresCreados = 0;
+
+    @Column(name = "fecha_inicio")
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    // Constructor por defecto
+    public PasoEjecucionProceso() {
+    }
+
+    // Constructor con ejecución, número de lote y rango de contratos
+    public PasoEjecucionProceso(EjecucionProceso ejecucion, Integer numeroLote, Long contratoIdDesde, Long contratoIdHasta) {
+        this.ejecucion = ejecucion;
+        this.numeroLote = numeroLote;
+        this.contratoIdDesde = contratoIdDesde;
+        this.contratoIdHasta = contratoIdHasta;
+    }
+
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public EjecucionProceso getEjecucion() {
+        return ejecucion;
+    }
+
+    public void setEjecucion(EjecucionProceso ejecucion) {
+        this.ejecucion = ejecucion;
+    }
+
+    public Integer getNumeroLote() {
+        return numeroLote;
+    }
+
+    public void setNumeroLote(Integer numeroLote) {
+        this.numeroLote = numeroLote;
+    }
+
+    public Long getContratoIdDesde() {
+        return contratoIdDesde;
+    }
+
+    public void setContratoIdDesde(Long contratoIdDesde) {
+        this.contratoIdDesde = contratoIdDesde;
+    }
+
+    public Long getContratoIdHasta() {
+        return contratoIdHasta;
+    }
+
+    public void setContratoIdHasta(Long contratoIdHasta) {
+        this.contratoIdHasta = contratoIdHasta;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Integer getContratosProcesados() {
+        return contratosProcesados;
+    }
+
+    public void setContratosProcesados(Integer contratosProcesados) {
+        this.contratosProcesados = contratosProcesados;
+    }
+
+    public Integer getAlquileresCreados() {
+        return alquileresCreados;
+    }
+
+    public void setAlquileresCreados(Integer alquileresCreados) {
+        this.alquileresCreados = alquileresCreados;
+    }
+
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class ServicioContrato {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "servicio_contrato_seq")
+    @SequenceGenerator(name = "servicio_contrato_seq", sequenceName = "servicio_contrato_seq", allocationSize = 50)
     private Integer id;
 
     // ==================== DATOS DEL SERVICIO ====================
@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,9 +39,11 @@ public interface AlquilerRepository extends JpaRepository<Alquiler, Long> {
     @Query("SELECT a FROM Alquiler a WHERE a.contrato.id IN :contratoIds AND a.estaPagado = false AND a.esActivo = true")
     List<Alquiler> findAlquileresPendientesByContratoIds(@Param("contratoIds") List<Long> contratoIds);
 
-    // Buscar alquileres activos pendientes de pago por múltiples contratos (batch query) cuyo mes de vencimiento es el actual
-    @Query("SELECT a FROM Alquiler a WHERE a.contrato.id IN :contratoIds AND a.estaPagado = false AND a.esActivo = true AND MONTH(CAST(a.fechaVencimientoPago AS date)) = :mes AND YEAR(CAST(a.fechaVencimientoPago AS date)) = :anio")
-    List<Alquiler> findAlquileresPendientesByContratoIdsAndMesAnioActual(@Param("contratoIds") List<Long> contratoIds, @Param("mes") int mes, @Param("anio") int anio);
+    // Buscar alquileres activos pendientes de pago por múltiples contratos (batch query) de un período (yyyyMM)
+    @Query("SELECT a FROM Alquiler a WHERE a.contrato.id IN :contratoIds AND a.estaPagado = false AND a.esActivo = true " +
+           "AND a.periodoKey = :periodoKey")
+    List<Alquiler> findAlquileresPendientesByContratoIdsYPeriodo(@Param("contratoIds") List<Long> contratoIds,
+                                                                 @Param("periodoKey") Integer periodoKey);
 
     // Buscar alquileres activos pagados por contrato
     @Query("SELECT a FROM Alquiler a WHERE a.contrato.id = :contratoId AND a.estaPagado = true AND a.esActivo = true")
@@ -51,59 +55,73 @@ public interface AlquilerRepository extends JpaRepository<Alquiler, Long> {
 
     // Buscar alquileres activos con vencimiento próximo
     @Query("SELECT a FROM Alquiler a WHERE a.estaPagado = false AND a.esActivo = true AND a.fechaVencimientoPago BETWEEN :fechaActual AND :fechaLimite")
-    List<Alquiler> findAlquileresProximosAVencer(@Param("fechaActual") String fechaActual, @Param("fechaLimite") String fechaLimite);
+    List<Alquiler> findAlquileresProximosAVencer(@Param("fechaActual") LocalDate fechaActual, @Param("fechaLimite") LocalDate fechaLimite);
 
     // Contar alquileres activos con vencimiento próximo
     @Query("SELECT COUNT(a) FROM Alquiler a WHERE a.estaPagado = false AND a.esActivo = true AND a.fechaVencimientoPago BETWEEN :fechaActual AND :fechaLimite")
-    Long countAlquileresProximosAVencer(@Param("fechaActual") String fechaActual, @Param("fechaLimite") String fechaLimite);
+    Long countAlquileresProximosAVencer(@Param("fechaActual") LocalDate fechaActual, @Param("fechaLimite") LocalDate fechaLimite);
 
-    // Buscar todos los alquileres pagados del mes actual (independientemente de si están activos o no)
-    @Query("SELECT a FROM Alquiler a WHERE a.estaPagado = true AND YEAR(CAST(a.fechaVencimientoPago AS date)) = YEAR(CURRENT_DATE) AND MONTH(CAST(a.fechaVencimientoPago AS date)) = MONTH(CURRENT_DATE)")
-    List<Alquiler> findAlquileresPagadosDelMes();
+    // Buscar todos los alquileres pagados de los períodos [desde, hasta] en yyyyMM (independientemente de si están activos o no)
+    @Query("SELECT a FROM Alquiler a WHERE a.estaPagado = true " +
+           "AND a.periodoKey BETWEEN :desde AND :hasta")
+    List<Alquiler> findAlquileresPagadosEntrePeriodos(@Param("desde") Integer desde, @Param("hasta") Integer hasta);
 
-    // Buscar alquileres activos no pagados del mes actual con sus datos asociados de contratos vigentes
+    // Buscar alquileres activos no pagados de los períodos [desde, hasta] con sus datos asociados de contratos vigentes
     @Query("SELECT a FROM Alquiler a " +
            "JOIN a.contrato c " +
-           "JOIN c.estadoContrato e " +
            "WHERE a.estaPagado = false " +
            "AND a.esActivo = true " +
-           "AND e.nombre = 'Vigente' " +
-           "AND YEAR(CAST(a.fechaVencimientoPago AS date)) = YEAR(CURRENT_DATE) " +
-           "AND MONTH(CAST(a.fechaVencimientoPago AS date)) = MONTH(CURRENT_DATE)")
-    List<Alquiler> findAlquileresNoPagadosDelMes();
+           "AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente} " +
+           "AND a.periodoKey BETWEEN :desde AND :hasta")
+    List<Alquiler> findAlquileresNoPagadosEntrePeriodos(@Param("desde") Integer desde, @Param("hasta") Integer hasta);
 
     // Obtener el último alquiler activo de un contrato (ordenado por fecha de vencimiento descendente)
-    @Query("SELECT a FROM Alquiler a WHERE a.contrato.id = :contratoId AND a.esActivo = true ORDER BY CAST(a.fechaVencimientoPago AS date) DESC LIMIT 1")
+    @Query("SELECT a FROM Alquiler a WHERE a.contrato.id = :contratoId AND a.esActivo = true ORDER BY a.fechaVencimientoPago DESC LIMIT 1")
     Optional<Alquiler> findUltimoAlquilerByContratoId(@Param("contratoId") Long contratoId);
 
     // Obtener el último alquiler activo de un contrato (usando objeto Contrato)
-    @Query("SELECT a FROM Alquiler a WHERE a.contrato = :contrato AND a.esActivo = true ORDER BY CAST(a.fechaVencimientoPago AS date) DESC LIMIT 1")
+    @Query("SELECT a FROM Alquiler a WHERE a.contrato = :contrato AND a.esActivo = true ORDER BY a.fechaVencimientoPago DESC LIMIT 1")
     Optional<Alquiler> findTopByContratoOrderByFechaVencimientoPagoDesc(@Param("contrato") Contrato contrato);
 
+    // Obtener el último alquiler activo de cada contrato de la lista en una sola consulta (DISTINCT ON de PostgreSQL)
+    @Query(value = "SELECT DISTINCT ON (a.contrato_id) a.* FROM alquileres a " +
+                   "WHERE a.contrato_id IN (:contratoIds) AND a.es_activo = true " +
+                   "ORDER BY a.contrato_id, a.fecha_vencimiento_pago DESC, a.id DESC",
+           nativeQuery = true)
+    List<Alquiler> findUltimosAlquileresActivosByContratoIds(@Param("contratoIds") List<Long> contratoIds);
+
     // Buscar alquileres activos que necesitan aumento manual
     @Query("SELECT a FROM Alquiler a WHERE a.necesitaAumentoManual = true AND a.esActivo = true")
     List<Alquiler> findByNecesitaAumentoManualTrueAndEsActivoTrue();
 
-    // Para Informe 1: Alquileres pagados del mes actual de contratos vigentes
+    // Buscar alquileres con aumento manual pendiente junto con contrato, inmueble e inquilino (lectura para el listado)
+    @Query("SELECT a FROM Alquiler a JOIN FETCH a.contrato c LEFT JOIN FETCH c.inmueble LEFT JOIN FETCH c.inquilino " +
+           "WHERE a.necesitaAumentoManual = true AND a.esActivo = true ORDER BY a.fechaVencimientoPago")
+    List<Alquiler> findConAumentoManualPendiente();
+
+    // IDs de alquileres con aumento ICL pendiente cuyo próximo reintento ya venció
+    @Query("SELECT a.id FROM Alquiler a WHERE a.necesitaAumentoManual = true AND a.esActivo = true " +
+           "AND a.contrato.aumentaConIcl = true " +
+           "AND (a.proximoIntentoAumento IS NULL OR a.proximoIntentoAumento <= :ahora) " +
+           "ORDER BY a.proximoIntentoAumento NULLS FIRST, a.id")
+    List<Long> findIdsParaReintentoAumento(@Param("ahora") LocalDateTime ahora);
+
+    // Para Informe 1: Alquileres pagados de contratos vigentes de los períodos [desde, hasta]
     @Query("SELECT a FROM Alquiler a " +
            "JOIN a.contrato c " +
-           "JOIN c.estadoContrato e " +
            "WHERE a.estaPagado = true " +
-           "AND MONTH(CAST(a.fechaVencimientoPago AS date)) = :mes " +
-           "AND YEAR(CAST(a.fechaVencimientoPago AS date)) = :anio " +
-           "AND e.nombre = 'Vigente'")
-    List<Alquiler> findAlquileresPagadosPorMesYAnio(@Param("mes") int mes, @Param("anio") int anio);
+           "AND a.periodoKey BETWEEN :desde AND :hasta " +
+           "AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
+    List<Alquiler> findAlquileresPagadosVigentesEntrePeriodos(@Param("desde") Integer desde, @Param("hasta") Integer hasta);
 
-    // Para Informe 2: Todos los alquileres del mes actual de contratos vigentes
+    // Para Informe 2: Todos los alquileres de contratos en un estado de los períodos [desde, hasta]
     @Query("SELECT a FROM Alquiler a " +
            "JOIN a.contrato c " +
-           "JOIN c.estadoContrato e " +
-           "WHERE MONTH(CAST(a.fechaVencimientoPago AS date)) = :mes " +
-           "AND YEAR(CAST(a.fechaVencimientoPago AS date)) = :anio " +
-           "AND e.nombre = :estadoContrato")
-    List<Alquiler> findAlquileresPorMesYAnioYEstadoContrato(
-        @Param("mes") int mes,
-        @Param("anio") int anio,
-        @Param("estadoContrato") String estadoContrato
+           "WHERE a.periodoKey BETWEEN :desde AND :hasta " +
+           "AND c.estadoContrato.id = :estadoContratoId")
+    List<Alquiler> findAlquileresEntrePeriodosYEstadoContrato(
+        @Param("desde") Integer desde,
+        @Param("hasta") Integer hasta,
+        @Param("estadoContratoId") Integer estadoContratoId
     );
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -28,10 +29,10 @@ public interface AumentoAlquilerRepository extends JpaRepository<AumentoAlquiler
 
     // Buscar aumentos en un rango de fechas
     @Query("SELECT a FROM AumentoAlquiler a WHERE a.contrato.id = :contratoId AND a.fechaAumento >= :fechaInicio AND a.fechaAumento <= :fechaFin ORDER BY a.fechaAumento DESC")
-    List<AumentoAlquiler> findByContratoIdAndFechaAumentoBetween(@Param("contratoId") Long contratoId, @Param("fechaInicio") String fechaInicio, @Param("fechaFin") String fechaFin);
+    List<AumentoAlquiler> findByContratoIdAndFechaAumentoBetween(@Param("contratoId") Long contratoId, @Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
 
     // Para Informe 3: Buscar todos los aumentos en un rango de fechas (para todos los contratos)
     @Query("SELECT a FROM AumentoAlquiler a WHERE a.fechaAumento >= :fechaInicio AND a.fechaAumento <= :fechaFin ORDER BY a.contrato.id, a.fechaAumento DESC")
-    List<AumentoAlquiler> findAumentosPorRangoFecha(@Param("fechaInicio") String fechaInicio, @Param("fechaFin") String fechaFin);
+    List<AumentoAlquiler> findAumentosPorRangoFecha(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
 }
 
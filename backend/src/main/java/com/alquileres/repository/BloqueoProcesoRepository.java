@@ -0,0 +1,35 @@
+package com.alquileres.repository;
+
+import com.alquileres.model.BloqueoProceso;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Las fechas de los bloqueos se calculan con el reloj de la base de datos, que es el único
+ * compartido por todas las instancias
+ */
+@Repository
+public interface BloqueoProcesoRepository extends JpaRepository<BloqueoProceso, String> {
+
+    // Crear el registro del bloqueo (ya vencido) si todavía no existe
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lock (nombre, bloqueado_hasta) VALUES (:nombre, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (nombre) DO NOTHING", nativeQuery = true)
+    int crearSiNoExiste(@Param("nombre") String nombre);
+
+    // Tomar el bloqueo solo si está vencido (devuelve 1 si se tomó, 0 si lo tiene otra ejecución)
+    @Modifying
+    @Query(value = "UPDATE scheduler_lock SET bloqueado_hasta = CURRENT_TIMESTAMP + (:segundos * INTERVAL '1 second'), " +
+                   "bloqueado_en = CURRENT_TIMESTAMP, bloqueado_por = :titular " +
+                   "WHERE nombre = :nombre AND bloqueado_hasta <= CURRENT_TIMESTAMP", nativeQuery = true)
+    int tomar(@Param("nombre") String nombre, @Param("segundos") long segundos, @Param("titular") String titular);
+
+    // Liberar el bloqueo solo si sigue siendo de quien lo tomó
+    @Modifying
+    @Query(value = "UPDATE scheduler_lock SET bloqueado_hasta = CURRENT_TIMESTAMP " +
+                   "WHERE nombre = :nombre AND bloqueado_por = :titular", nativeQuery = true)
+    int liberar(@Param("nombre") String nombre, @Param("titular") String titular);
+}
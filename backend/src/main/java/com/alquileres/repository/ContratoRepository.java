@@ -1,19 +1,117 @@
 package com.alquileres.repository;
 
+import com.alquileres.dto.ContratoDetalleProyeccion;
 import com.alquileres.model.Contrato;
 import com.alquileres.model.EstadoContrato;
 import com.alquileres.model.Inmueble;
 import com.alquileres.model.Inquilino;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ContratoRepository extends JpaRepository<Contrato, Long> {
 
+    /**
+     * Contrato con inmueble, inquilino, propietario y monto del último alquiler activo en una sola
+     * consulta (ContratoDetalleProyeccion). El último alquiler sale de una subconsulta correlacionada
+     * que recorre idx_alquileres_contrato_vencimiento; el nombre del tipo de inmueble y del estado
+     * se resuelven con DatosReferenciaService. De la clave fiscal solo se lee si está cargada.
+     */
+    String SELECT_DETALLE = "SELECT c.id AS id, c.fechaInicio AS fechaInicio, c.fechaFin AS fechaFin, " +
+        "c.monto AS monto, c.porcentajeAumento AS porcentajeAumento, c.estadoContrato.id AS estadoContratoId, " +
+        "c.aumentaConIcl AS aumentaConIcl, c.porcentajeHonorario AS porcentajeHonorario, " +
+        "c.periodoAumento AS periodoAumento, c.fechaAumento AS fechaAumento, " +
+        "c.sinMasAumentos AS sinMasAumentos, c.idPDF AS idPDF, " +
+        "i.id AS inmuebleId, i.direccion AS direccionInmueble, i.tipoInmuebleId AS tipoInmuebleId, " +
+        "i.superficie AS superficieInmueble, " +
+        "q.id AS inquilinoId, q.nombre AS nombreInquilino, q.apellido AS apellidoInquilino, " +
+        "q.cuil AS cuilInquilino, q.telefono AS telefonoInquilino, " +
+        "p.id AS propietarioId, p.nombre AS nombrePropietario, p.apellido AS apellidoPropietario, " +
+        "p.cuil AS cuilPropietario, p.telefono AS telefonoPropietario, p.email AS emailPropietario, " +
+        "p.direccion AS direccionPropietario, " +
+        "CASE WHEN p.claveFiscal IS NULL THEN false ELSE true END AS tieneClaveFiscalPropietario, " +
+        "(SELECT a.monto FROM Alquiler a WHERE a.contrato.id = c.id AND a.esActivo = true " +
+        "ORDER BY a.fechaVencimientoPago DESC LIMIT 1) AS montoUltimoAlquiler " +
+        "FROM Contrato c JOIN c.inmueble i JOIN c.inquilino q LEFT JOIN Propietario p ON p.id = i.propietarioId ";
+
+    // Detalle de todos los contratos
+    @Query(SELECT_DETALLE + "ORDER BY c.id")
+    List<ContratoDetalleProyeccion> findDetalleContratos();
+
+    // Detalle de un contrato
+    @Query(SELECT_DETALLE + "WHERE c.id = :id")
+    Optional<ContratoDetalleProyeccion> findDetalleContratoById(@Param("id") Long id);
+
+    // Detalle de los contratos de un inmueble
+    @Query(SELECT_DETALLE + "WHERE i.id = :inmuebleId ORDER BY c.id")
+    List<ContratoDetalleProyeccion> findDetalleContratosByInmuebleId(@Param("inmuebleId") Long inmuebleId);
+
+    // Detalle de los contratos de un inquilino
+    @Query(SELECT_DETALLE + "WHERE q.id = :inquilinoId ORDER BY c.id")
+    List<ContratoDetalleProyeccion> findDetalleContratosByInquilinoId(@Param("inquilinoId") Long inquilinoId);
+
+    // Detalle de los contratos vigentes
+    @Query(SELECT_DETALLE + "WHERE c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente} ORDER BY c.id")
+    List<ContratoDetalleProyeccion> findDetalleContratosVigentes();
+
+    // Detalle de los contratos no vigentes (estados 'No Vigente' y 'Cancelado')
+    @Query(SELECT_DETALLE + "WHERE c.estadoContrato.id IN :#{@datosReferenciaService.idsEstadosContratoNoVigentes} ORDER BY c.id")
+    List<ContratoDetalleProyeccion> findDetalleContratosNoVigentes();
+
+    // Detalle de los contratos vigentes que vencen entre dos fechas
+    @Query(SELECT_DETALLE + "WHERE c.fechaFin >= :fechaActual AND c.fechaFin <= :fechaLimite " +
+           "AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente} ORDER BY c.fechaFin, c.id")
+    List<ContratoDetalleProyeccion> findDetalleContratosVigentesProximosAVencer(@Param("fechaActual") LocalDate fechaActual,
+                                                                              @Param("fechaLimite") LocalDate fechaLimite);
+
+    /**
+     * Filtros del listado paginado (FiltroContratosDTO). estados nunca viene vacío; el resto
+     * de los parámetros en null no filtra.
+     */
+    String FILTROS_PAGINA = "WHERE c.estadoContrato.id IN :estados " +
+        "AND (:propietarioId IS NULL OR i.propietarioId = :propietarioId) " +
+        "AND (:inquilinoId IS NULL OR q.id = :inquilinoId) " +
+        "AND (:vencimientoDesde IS NULL OR c.fechaFin >= :vencimientoDesde) " +
+        "AND (:vencimientoHasta IS NULL OR c.fechaFin <= :vencimientoHasta) " +
+        "AND (:aumentaConIcl IS NULL OR c.aumentaConIcl = :aumentaConIcl) ";
+
+    // Página de contratos filtrados ordenada por ID, a partir del contrato siguiente a despuesDeId
+    @Query(SELECT_DETALLE + FILTROS_PAGINA + "AND c.id > :despuesDeId ORDER BY c.id")
+    List<ContratoDetalleProyeccion> findPaginaDetalleOrdenadaPorId(@Param("estados") Collection<Integer> estados,
+                                                                   @Param("propietarioId") Long propietarioId,
+                                                                   @Param("inquilinoId") Long inquilinoId,
+                                                                   @Param("vencimientoDesde") LocalDate vencimientoDesde,
+                                                                   @Param("vencimientoHasta") LocalDate vencimientoHasta,
+                                                                   @Param("aumentaConIcl") Boolean aumentaConIcl,
+                                                                   @Param("despuesDeId") Long despuesDeId,
+                                                                   Limit limite);
+
+    // Página de contratos filtrados ordenada por fecha de fin (sin fecha al final) e ID, después de la posición
+    // (despuesDeFechaFin, despuesDeId); despuesDeId null es la primera página y despuesDeFechaFin null el tramo sin fecha
+    @Query(SELECT_DETALLE + FILTROS_PAGINA +
+           "AND (:despuesDeId IS NULL " +
+           "OR (:despuesDeFechaFin IS NULL AND c.fechaFin IS NULL AND c.id > :despuesDeId) " +
+           "OR (:despuesDeFechaFin IS NOT NULL AND (c.fechaFin > :despuesDeFechaFin " +
+           "OR (c.fechaFin = :despuesDeFechaFin AND c.id > :despuesDeId) OR c.fechaFin IS NULL))) " +
+           "ORDER BY c.fechaFin ASC NULLS LAST, c.id")
+    List<ContratoDetalleProyeccion> findPaginaDetalleOrdenadaPorFechaFin(@Param("estados") Collection<Integer> estados,
+                                                                         @Param("propietarioId") Long propietarioId,
+                                                                         @Param("inquilinoId") Long inquilinoId,
+                                                                         @Param("vencimientoDesde") LocalDate vencimientoDesde,
+                                                                         @Param("vencimientoHasta") LocalDate vencimientoHasta,
+                                                                         @Param("aumentaConIcl") Boolean aumentaConIcl,
+                                                                         @Param("despuesDeFechaFin") LocalDate despuesDeFechaFin,
+                                                                         @Param("despuesDeId") Long despuesDeId,
+                                                                         Limit limite);
+
     // Buscar contratos por inmueble
     List<Contrato> findByInmueble(Inmueble inmueble);
 
@@ -24,64 +122,96 @@ public interface ContratoRepository extends JpaRepository<Contrato, Long> {
     List<Contrato> findByEstadoContrato(EstadoContrato estadoContrato);
 
     // Buscar contratos vigentes (por ejemplo, estado 'Vigente')
-    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente'")
+    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
     List<Contrato> findContratosVigentes();
 
+    // IDs de los contratos vigentes en orden ascendente (para dividir los procesos en particiones)
+    @Query("SELECT c.id FROM Contrato c WHERE c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente} ORDER BY c.id")
+    List<Long> findIdsContratosVigentes();
+
+    // Buscar contratos vigentes dentro de un rango de IDs (una partición de un proceso)
+    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente} AND c.id BETWEEN :desde AND :hasta ORDER BY c.id")
+    List<Contrato> findContratosVigentesEntreIds(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
     // Buscar contratos no vigentes (estados 'No Vigente' y 'Cancelado')
-    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.nombre IN ('No Vigente', 'Cancelado')")
+    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.id IN :#{@datosReferenciaService.idsEstadosContratoNoVigentes}")
     List<Contrato> findContratosNoVigentes();
 
     // Contar contratos vigentes
-    @Query("SELECT COUNT(c) FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente'")
+    @Query("SELECT COUNT(c) FROM Contrato c WHERE c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
     Long countContratosVigentes();
 
     // Buscar contratos que vencen en una fecha específica
-    List<Contrato> findByFechaFin(String fechaFin);
+    List<Contrato> findByFechaFin(LocalDate fechaFin);
 
-    // Buscar contratos que vencen antes de una fecha (comparación de strings)
+    // Buscar contratos que vencen antes de una fecha
     @Query("SELECT c FROM Contrato c WHERE c.fechaFin < :fecha")
-    List<Contrato> findByFechaFinBefore(@Param("fecha") String fecha);
+    List<Contrato> findByFechaFinBefore(@Param("fecha") LocalDate fecha);
 
-    // Buscar contratos vigentes que vencen antes de una fecha (comparación de strings)
-    @Query("SELECT c FROM Contrato c WHERE c.fechaFin >= :fechaActual AND c.fechaFin <= :fechaLimite AND c.estadoContrato.nombre = 'Vigente'")
-    List<Contrato> findContratosVigentesProximosAVencer(@Param("fechaActual") String fechaActual, @Param("fechaLimite") String fechaLimite);
+    // Buscar contratos vigentes que vencen antes de una fecha
+    @Query("SELECT c FROM Contrato c WHERE c.fechaFin >= :fechaActual AND c.fechaFin <= :fechaLimite AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
+    List<Contrato> findContratosVigentesProximosAVencer(@Param("fechaActual") LocalDate fechaActual, @Param("fechaLimite") LocalDate fechaLimite);
 
     // Contar contratos vigentes próximos a vencer
-    @Query("SELECT COUNT(c) FROM Contrato c WHERE c.fechaFin >= :fechaActual AND c.fechaFin <= :fechaLimite AND c.estadoContrato.nombre = 'Vigente'")
-    Long countContratosVigentesProximosAVencer(@Param("fechaActual") String fechaActual, @Param("fechaLimite") String fechaLimite);
+    @Query("SELECT COUNT(c) FROM Contrato c WHERE c.fechaFin >= :fechaActual AND c.fechaFin <= :fechaLimite AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
+    Long countContratosVigentesProximosAVencer(@Param("fechaActual") LocalDate fechaActual, @Param("fechaLimite") LocalDate fechaLimite);
 
-    // Buscar contratos que vencen después de una fecha (comparación de strings)
+    // Buscar contratos que vencen después de una fecha
     @Query("SELECT c FROM Contrato c WHERE c.fechaFin > :fecha")
-    List<Contrato> findByFechaFinAfter(@Param("fecha") String fecha);
+    List<Contrato> findByFechaFinAfter(@Param("fecha") LocalDate fecha);
 
-    // Buscar contratos por rango de fechas (comparación de strings)
+    // Buscar contratos por rango de fechas
     @Query("SELECT c FROM Contrato c WHERE c.fechaInicio >= :fechaInicio AND c.fechaInicio <= :fechaFin")
-    List<Contrato> findByFechaInicioBetween(@Param("fechaInicio") String fechaInicio, @Param("fechaFin") String fechaFin);
+    List<Contrato> findByFechaInicioBetween(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
 
     // Verificar si existe un contrato vigente para un inmueble específico
-    @Query("SELECT COUNT(c) > 0 FROM Contrato c WHERE c.inmueble = :inmueble AND c.estadoContrato.nombre = 'Vigente'")
+    @Query("SELECT COUNT(c) > 0 FROM Contrato c WHERE c.inmueble = :inmueble AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
     boolean existsContratoVigenteByInmueble(@Param("inmueble") Inmueble inmueble);
 
     // Verificar si existe un contrato vigente para un inmueble por su ID
-    @Query("SELECT COUNT(c) > 0 FROM Contrato c WHERE c.inmueble.id = :inmuebleId AND c.estadoContrato.nombre = 'Vigente'")
+    @Query("SELECT COUNT(c) > 0 FROM Contrato c WHERE c.inmueble.id = :inmuebleId AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
     boolean existsContratoVigenteByInmuebleId(@Param("inmuebleId") Long inmuebleId);
 
     // Verificar si existe un contrato vigente para un inquilino específico
-    @Query("SELECT COUNT(c) > 0 FROM Contrato c WHERE c.inquilino = :inquilino AND c.estadoContrato.nombre = 'Vigente'")
+    @Query("SELECT COUNT(c) > 0 FROM Contrato c WHERE c.inquilino = :inquilino AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
     boolean existsContratoVigenteByInquilino(@Param("inquilino") Inquilino inquilino);
 
     // Verificar si existe un contrato vigente para un propietario específico (a través de sus inmuebles)
-    @Query("SELECT COUNT(c) > 0 FROM Contrato c JOIN c.inmueble i JOIN c.estadoContrato ec WHERE i.propietarioId = :propietarioId AND ec.nombre = 'Vigente'")
+    @Query("SELECT COUNT(c) > 0 FROM Contrato c JOIN c.inmueble i WHERE i.propietarioId = :propietarioId AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
     boolean existsContratoVigenteByPropietario(@Param("propietarioId") Long propietarioId);
 
     // Buscar contratos por inmueble y estado
     List<Contrato> findByInmuebleAndEstadoContrato(Inmueble inmueble, EstadoContrato estadoContrato);
 
     // Buscar contratos vigentes que ya vencieron (fechaFin < fecha actual)
-    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente' AND c.fechaFin < :fechaActual")
-    List<Contrato> findContratosVigentesVencidos(@Param("fechaActual") String fechaActual);
+    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente} AND c.fechaFin < :fechaActual")
+    List<Contrato> findContratosVigentesVencidos(@Param("fechaActual") LocalDate fechaActual);
+
+    // Pasar a otro estado todos los contratos vigentes vencidos en una sola sentencia
+    // Devuelve [id, inmueble, inquilino] de cada contrato actualizado (UPDATE ... RETURNING de PostgreSQL)
+    // Sin @Modifying a propósito: con @Modifying se ejecuta con executeUpdate, que no acepta el resultado del
+    // RETURNING. Hibernate hace flush antes de las consultas nativas; quien la llama no debe tener contratos
+    // cargados en la transacción, porque el contexto de persistencia no se entera del cambio de estado
+    @Query(value = "UPDATE contratos SET estado = :estadoNuevo " +
+                   "WHERE estado = :estadoVigente AND fecha_fin < :fechaActual " +
+                   "RETURNING id, inmueble, inquilino", nativeQuery = true)
+    List<Object[]> actualizarEstadoContratosVencidos(@Param("estadoVigente") Integer estadoVigente,
+                                                     @Param("estadoNuevo") Integer estadoNuevo,
+                                                     @Param("fechaActual") LocalDate fechaActual);
+
+    // [id, inmueble, inquilino] de los contratos de un inmueble (claves de caché a invalidar)
+    @Query("SELECT c.id, c.inmueble.id, c.inquilino.id FROM Contrato c WHERE c.inmueble.id = :inmuebleId")
+    List<Object[]> findClavesCacheByInmuebleId(@Param("inmuebleId") Long inmuebleId);
+
+    // [id, inmueble, inquilino] de los contratos de un inquilino (claves de caché a invalidar)
+    @Query("SELECT c.id, c.inmueble.id, c.inquilino.id FROM Contrato c WHERE c.inquilino.id = :inquilinoId")
+    List<Object[]> findClavesCacheByInquilinoId(@Param("inquilinoId") Long inquilinoId);
+
+    // [id, inmueble, inquilino] de los contratos de los inmuebles de un propietario (claves de caché a invalidar)
+    @Query("SELECT c.id, c.inmueble.id, c.inquilino.id FROM Contrato c JOIN c.inmueble i WHERE i.propietarioId = :propietarioId")
+    List<Object[]> findClavesCacheByPropietarioId(@Param("propietarioId") Long propietarioId);
 
     // Buscar contratos vigentes cuya fecha de aumento es menor o igual a la fecha actual
-    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.nombre = 'Vigente' AND c.fechaAumento IS NOT NULL AND c.fechaAumento != 'Sin Aumento' AND c.fechaAumento <= :fechaActual")
-    List<Contrato> findContratosConFechaAumentoVencida(@Param("fechaActual") String fechaActual);
+    @Query("SELECT c FROM Contrato c WHERE c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente} AND c.fechaAumento <= :fechaActual")
+    List<Contrato> findContratosConFechaAumentoVencida(@Param("fechaActual") LocalDate fechaActual);
 }
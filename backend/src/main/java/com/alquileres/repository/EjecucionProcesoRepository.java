@@ -0,0 +1,14 @@
+package com.alquileres.repository;
+
+import com.alquileres.model.EjecucionProceso;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface EjecucionProcesoRepository extends JpaRepository<EjecucionProceso, Long> {
+
+    // Buscar la ejecución de un proceso para un período
+    Optional<EjecucionProceso> findByProcesoAndPeriodo(String proceso, String periodo);
+}
@@ -0,0 +1,27 @@
+package com.alquileres.repository;
+
+import com.alquileres.model.IndiceICL;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IndiceICLRepository extends JpaRepository<IndiceICL, Long> {
+
+    // Buscar el valor del índice para una fecha exacta
+    Optional<IndiceICL> findByFecha(LocalDate fecha);
+
+    // Obtener toda la serie ordenada por fecha (carga del índice en memoria)
+    List<IndiceICL> findAllByOrderByFechaAsc();
+
+    // Obtener los valores posteriores a una fecha ordenados (valores guardados por otra instancia)
+    List<IndiceICL> findByFechaAfterOrderByFechaAsc(LocalDate fecha);
+
+    // Obtener la última fecha almacenada (punto de partida de la sincronización incremental)
+    @Query("SELECT MAX(i.fecha) FROM IndiceICL i")
+    Optional<LocalDate> findUltimaFecha();
+}
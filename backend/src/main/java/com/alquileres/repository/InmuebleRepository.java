@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -25,13 +26,13 @@ public interface InmuebleRepository extends JpaRepository<Inmueble, Long> {
     List<Inmueble> findByEsAlquiladoFalseAndEsActivoTrue();
 
     // Buscar inmuebles disponibles excluyendo los que están en reparación
-    @Query("SELECT i FROM Inmueble i JOIN EstadoInmueble e ON i.estado = e.id " +
-           "WHERE i.esActivo = true AND i.esAlquilado = false AND e.nombre = 'Disponible'")
+    @Query("SELECT i FROM Inmueble i " +
+           "WHERE i.esActivo = true AND i.esAlquilado = false " +
+           "AND i.estado = :#{@datosReferenciaService.idEstadoInmuebleDisponible}")
     List<Inmueble> findInmueblesRealmenteDisponibles();
 
     // Buscar inmuebles con estado "Inactivo"
-    @Query("SELECT i FROM Inmueble i JOIN EstadoInmueble e ON i.estado = e.id " +
-           "WHERE e.nombre = 'Inactivo'")
+    @Query("SELECT i FROM Inmueble i WHERE i.estado = :#{@datosReferenciaService.idEstadoInmuebleInactivo}")
     List<Inmueble> findInmueblesConEstadoInactivo();
 
     // Buscar inmuebles alquilados y activos
@@ -58,4 +59,11 @@ public interface InmuebleRepository extends JpaRepository<Inmueble, Long> {
     @Modifying
     @Query("UPDATE Inmueble i SET i.esActivo = true WHERE i.propietarioId = :propietarioId")
     void activarInmueblesPorPropietario(@Param("propietarioId") Long propietarioId);
+
+    // Marcar como no alquilados y con el estado indicado varios inmuebles en una sola sentencia
+    @Modifying
+    @Query("UPDATE Inmueble i SET i.estado = :estado, i.esAlquilado = false, i.updatedAt = :updatedAt WHERE i.id IN :ids")
+    int liberarInmuebles(@Param("ids") Collection<Long> ids,
+                         @Param("estado") Integer estado,
+                         @Param("updatedAt") String updatedAt);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,6 +20,11 @@ public interface PagoServicioRepository extends JpaRepository<PagoServicio, Inte
     @Query("SELECT COUNT(p) > 0 FROM PagoServicio p WHERE p.servicioContrato.id = :servicioContratoId AND p.periodo = :periodo")
     boolean existsByServicioContratoIdAndPeriodo(@Param("servicioContratoId") Integer servicioContratoId, @Param("periodo") String periodo);
 
+    // Pares [servicioContratoId, periodo] que ya tienen factura dentro de un lote de servicios (verificación en una sola consulta)
+    @Query("SELECT p.servicioContrato.id, p.periodo FROM PagoServicio p WHERE p.servicioContrato.id IN :servicioContratoIds AND p.periodo IN :periodos")
+    List<Object[]> findPeriodosFacturados(@Param("servicioContratoIds") Collection<Integer> servicioContratoIds,
+                                          @Param("periodos") Collection<String> periodos);
+
     // Buscar pagos no pagados por contrato y tipo de servicio
     @Query("SELECT p FROM PagoServicio p WHERE p.servicioContrato.contrato.id = :contratoId " +
            "AND p.servicioContrato.tipoServicio.id = :tipoServicioId " +
@@ -36,36 +42,33 @@ public interface PagoServicioRepository extends JpaRepository<PagoServicio, Inte
     @Query("SELECT COUNT(p) FROM PagoServicio p " +
            "JOIN p.servicioContrato sc " +
            "JOIN sc.contrato c " +
-           "JOIN c.estadoContrato e " +
            "WHERE sc.esActivo = true " +
-           "AND p.periodo = :periodo " +
-           "AND e.nombre = 'Vigente'")
-    Long countPagosActivosPorPeriodo(@Param("periodo") String periodo);
+           "AND p.periodoKey = :periodoKey " +
+           "AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
+    Long countPagosActivosPorPeriodo(@Param("periodoKey") Integer periodoKey);
 
     // Contar pagos activos no pagados del mes actual - solo contratos vigentes
     @Query("SELECT COUNT(p) FROM PagoServicio p " +
            "JOIN p.servicioContrato sc " +
            "JOIN sc.contrato c " +
-           "JOIN c.estadoContrato e " +
            "WHERE sc.esActivo = true " +
            "AND p.estaPagado = false " +
-           "AND p.periodo = :periodo " +
-           "AND e.nombre = 'Vigente'")
-    Long countPagosPendientesPorPeriodo(@Param("periodo") String periodo);
+           "AND p.periodoKey = :periodoKey " +
+           "AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
+    Long countPagosPendientesPorPeriodo(@Param("periodoKey") Integer periodoKey);
 
     // Buscar pagos no pagados del mes actual por contrato (solo contratos vigentes)
     @Query("SELECT p FROM PagoServicio p " +
            "JOIN p.servicioContrato sc " +
            "JOIN sc.contrato c " +
-           "JOIN c.estadoContrato e " +
            "WHERE c.id = :contratoId " +
            "AND sc.esActivo = true " +
            "AND p.estaPagado = false " +
-           "AND p.periodo = :periodo " +
-           "AND e.nombre = 'Vigente'")
+           "AND p.periodoKey = :periodoKey " +
+           "AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
     List<PagoServicio> findPagosNoPagadosPorContratoYPeriodo(
         @Param("contratoId") Long contratoId,
-        @Param("periodo") String periodo
+        @Param("periodoKey") Integer periodoKey
     );
 
     // Contar pagos no pagados del mes actual agrupados por contrato (solo contratos vigentes)
@@ -73,13 +76,12 @@ public interface PagoServicioRepository extends JpaRepository<PagoServicio, Inte
            "FROM PagoServicio p " +
            "JOIN p.servicioContrato sc " +
            "JOIN sc.contrato c " +
-           "JOIN c.estadoContrato e " +
            "WHERE sc.esActivo = true " +
            "AND p.estaPagado = false " +
-           "AND p.periodo = :periodo " +
-           "AND e.nombre = 'Vigente' " +
+           "AND p.periodoKey = :periodoKey " +
+           "AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente} " +
            "GROUP BY sc.contrato.id")
-    List<Object[]> countPagosNoPagadosPorContratoYPeriodo(@Param("periodo") String periodo);
+    List<Object[]> countPagosNoPagadosPorContratoYPeriodo(@Param("periodoKey") Integer periodoKey);
 
     // Para Informe 4: Obtener pagos de servicios del mes actual con todos los detalles
     @Query("SELECT p.id, p.fechaPago, p.monto, p.periodo, ts.nombre, p.estaPagado, " +
@@ -91,13 +93,12 @@ public interface PagoServicioRepository extends JpaRepository<PagoServicio, Inte
            "JOIN sc.contrato c " +
            "JOIN c.inmueble i " +
            "JOIN c.inquilino inq " +
-           "LEFT JOIN Alquiler a ON a.contrato.id = c.id AND a.esActivo = true " +
-           "AND SUBSTRING(a.fechaVencimientoPago, 4, 7) = :periodo " +
-           "WHERE p.periodo = :periodo " +
+           "LEFT JOIN Alquiler a ON a.contrato.id = c.id AND a.esActivo = true AND a.periodoKey = :periodoKey " +
+           "WHERE p.periodoKey = :periodoKey " +
            "ORDER BY c.id, p.id")
-    List<Object[]> findPagosServiciosDelMesActualConDetalle(@Param("periodo") String periodo);
+    List<Object[]> findPagosServiciosDelMesActualConDetalle(@Param("periodoKey") Integer periodoKey);
 
     // Buscar todos los pagos de un período específico para un contrato (para generar recibos)
-    @Query("SELECT p FROM PagoServicio p WHERE p.periodo = :periodo AND p.servicioContrato.contrato.id = :contratoId")
-    List<PagoServicio> findByPeriodoAndServicioContratoContratoId(@Param("periodo") String periodo, @Param("contratoId") Long contratoId);
+    @Query("SELECT p FROM PagoServicio p WHERE p.periodoKey = :periodoKey AND p.servicioContrato.contrato.id = :contratoId")
+    List<PagoServicio> findByPeriodoKeyAndServicioContratoContratoId(@Param("periodoKey") Integer periodoKey, @Param("contratoId") Long contratoId);
 }
\ No newline at end of file
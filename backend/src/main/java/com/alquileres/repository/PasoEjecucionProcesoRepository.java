@@ -0,0 +1,25 @@
+package com.alquileres.repository;
+
+import com.alquileres.model.PasoEjecucionProceso;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PasoEjecucionProcesoRepository extends JpaRepository<PasoEjecucionProceso, Long> {
+
+    // Buscar los lotes de una ejecución en orden
+    @Query("SELECT p FROM PasoEjecucionProceso p WHERE p.ejecucion.id = :ejecucionId ORDER BY p.numeroLote")
+    List<PasoEjecucionProceso> findByEjecucionId(@Param("ejecucionId") Long ejecucionId);
+
+    // Buscar los lotes de una ejecución que todavía no se completaron
+    @Query("SELECT p FROM PasoEjecucionProceso p WHERE p.ejecucion.id = :ejecucionId AND p.estado <> 'COMPLETADO' ORDER BY p.numeroLote")
+    List<PasoEjecucionProceso> findPendientesByEjecucionId(@Param("ejecucionId") Long ejecucionId);
+
+    // Contar los lotes planificados de una ejecución
+    @Query("SELECT COUNT(p) FROM PasoEjecucionProceso p WHERE p.ejecucion.id = :ejecucionId")
+    long countByEjecucionId(@Param("ejecucionId") Long ejecucionId);
+}
@@ -2,11 +2,14 @@ package com.alquileres.repository;
 
 import com.alquileres.model.ServicioContrato;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,9 +30,18 @@ public interface ServicioContratoRepository extends JpaRepository<ServicioContra
      * Busca servicios activos que requieren generación de pagos
      * (proximoPago <= fechaActual, esActivo = true y contrato vigente)
      */
-    @Query("SELECT sc FROM ServicioContrato sc JOIN sc.contrato c JOIN c.estadoContrato e WHERE sc.proximoPago <= :fechaActual AND sc.esActivo = true AND e.nombre = 'Vigente'")
+    @Query("SELECT sc FROM ServicioContrato sc JOIN sc.contrato c WHERE sc.proximoPago <= :fechaActual AND sc.esActivo = true AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}")
     List<ServicioContrato> findServiciosConPagosPendientes(@Param("fechaActual") LocalDate fechaActual);
 
+    /**
+     * Busca servicios activos que requieren generación de pagos dentro de un rango de IDs de contrato
+     * (una partición del proceso mensual)
+     */
+    @Query("SELECT sc FROM ServicioContrato sc JOIN sc.contrato c WHERE sc.proximoPago <= :fechaActual AND sc.esActivo = true AND c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente} AND c.id BETWEEN :desde AND :hasta")
+    List<ServicioContrato> findServiciosConPagosPendientesEntreContratos(@Param("fechaActual") LocalDate fechaActual,
+                                                                        @Param("desde") Long desde,
+                                                                        @Param("hasta") Long hasta);
+
     /**
      * Busca un servicio específico por contrato y tipo de servicio
      */
@@ -44,5 +56,20 @@ public interface ServicioContratoRepository extends JpaRepository<ServicioContra
      * Busca todos los servicios activos
      */
     List<ServicioContrato> findByEsActivoTrue();
-}
 
+    /**
+     * Avanza en una sola sentencia las fechas de pago de un lote de servicios ya facturados:
+     * el último pago generado pasa a ser el mes del próximo pago, y el próximo pago se mueve
+     * un año (servicios anuales) o al mes indicado (servicios mensuales)
+     */
+    @Modifying
+    @Query(value = "UPDATE servicio_contrato SET " +
+                   "ultimo_pago_generado = CAST(date_trunc('month', proximo_pago) AS date), " +
+                   "proximo_pago = CASE WHEN es_anual THEN CAST(date_trunc('month', proximo_pago) + INTERVAL '1 year' AS date) " +
+                   "ELSE :proximoPagoMensual END, " +
+                   "updated_at = :ahora " +
+                   "WHERE id IN :ids", nativeQuery = true)
+    int avanzarFechasDePago(@Param("ids") Collection<Integer> ids,
+                            @Param("proximoPagoMensual") LocalDate proximoPagoMensual,
+                            @Param("ahora") LocalDateTime ahora);
+}
@@ -1,8 +1,12 @@
 package com.alquileres.scheduler;
 
+import com.alquileres.dto.ReintentoAumentoJobDTO;
 import com.alquileres.service.ContratoActualizacionService;
 import com.alquileres.service.ServicioActualizacionService;
 import com.alquileres.service.AlquilerActualizacionService;
+import com.alquileres.service.BloqueoProcesoService;
+import com.alquileres.service.IndiceICLService;
+import com.alquileres.service.ReintentoAumentoService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +15,7 @@ import org.springframework.stereotype.Component;
 
 /**
  * Scheduler para tareas automáticas relacionadas con contratos, servicios y alquileres
+ * Cada tarea toma el bloqueo de su proceso, así que con varias instancias solo una la ejecuta
  */
 @Component
 public class ContratoScheduler {
@@ -26,6 +31,32 @@ public class ContratoScheduler {
     @Autowired
     private AlquilerActualizacionService alquilerActualizacionService;
 
+    @Autowired
+    private IndiceICLService indiceICLService;
+
+    @Autowired
+    private ReintentoAumentoService reintentoAumentoService;
+
+    @Autowired
+    private BloqueoProcesoService bloqueoProcesoService;
+
+    /**
+     * Sincroniza la serie local del ICL con el BCRA todos los días a las 00:00
+     * Se ejecuta antes de la generación de alquileres para que los aumentos no dependan de la API
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void sincronizarIndicesICLProgramado() {
+        logger.info("Ejecutando tarea programada: sincronización de índices ICL");
+
+        try {
+            bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.SINCRONIZACION_ICL,
+                    BloqueoProcesoService.DURACION_SINCRONIZACION_ICL, indiceICLService::sincronizarIndices)
+                .ifPresent(valoresNuevos -> logger.info("Tarea programada finalizada. Valores de ICL nuevos: {}", valoresNuevos));
+        } catch (Exception e) {
+            logger.error("Error al sincronizar índices ICL con el BCRA: {}", e.getMessage());
+        }
+    }
+
     /**
      * Actualiza automáticamente los contratos vencidos todos los días a las 00:01
      * Utiliza el mismo método que se ejecuta al iniciar sesión
@@ -34,18 +65,20 @@ public class ContratoScheduler {
     public void actualizarContratosVencidosProgramado() {
         logger.info("Ejecutando tarea programada: actualización de contratos vencidos");
 
-        int contratosActualizados = contratoActualizacionService.actualizarContratosVencidos();
-
-        logger.info("Tarea programada finalizada. Contratos actualizados: {}", contratosActualizados);
+        bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.CONTRATOS_VENCIDOS,
+                BloqueoProcesoService.DURACION_CONTRATOS_VENCIDOS, contratoActualizacionService::actualizarContratosVencidos)
+            .ifPresent(contratosActualizados ->
+                logger.info("Tarea programada finalizada. Contratos actualizados: {}", contratosActualizados));
     }
 
     @Scheduled(cron = "0 3 0 1 * *")
     public void procesarPagosServiciosProgramado() {
         logger.info("Ejecutando tarea programada: generación de facturas de servicios (primer día del mes)");
 
-        int facturasGeneradas = servicioActualizacionService.procesarPagosPendientes();
-
-        logger.info("Tarea programada finalizada. Facturas generadas: {}", facturasGeneradas);
+        bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.GENERACION_FACTURAS,
+                BloqueoProcesoService.DURACION_GENERACION_MENSUAL, servicioActualizacionService::procesarPagosPendientes)
+            .ifPresent(facturasGeneradas ->
+                logger.info("Tarea programada finalizada. Facturas generadas: {}", facturasGeneradas));
     }
 
     /**
@@ -57,8 +90,25 @@ public class ContratoScheduler {
     public void procesarAlquileresProgramado() {
         logger.info("Ejecutando tarea programada: generación de alquileres (primer día del mes)");
 
-        int alquileresGenerados = alquilerActualizacionService.procesarAlquileresPendientes();
+        bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.GENERACION_ALQUILERES,
+                BloqueoProcesoService.DURACION_GENERACION_MENSUAL, alquilerActualizacionService::procesarAlquileresPendientes)
+            .ifPresent(alquileresGenerados ->
+                logger.info("Tarea programada finalizada. Alquileres generados: {}", alquileresGenerados));
+    }
+
+    /**
+     * Reintenta cada 30 minutos los aumentos por ICL pendientes cuyo próximo reintento ya venció
+     * (cada alquiler tiene su propio backoff, por lo que la mayoría de las ejecuciones no consulta nada)
+     */
+    @Scheduled(cron = "0 */30 * * * *")
+    public void reintentarAumentosPendientesProgramado() {
+        ReintentoAumentoJobDTO job = bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.REINTENTO_AUMENTOS,
+                BloqueoProcesoService.DURACION_REINTENTO_AUMENTOS, reintentoAumentoService::reintentarPendientes)
+            .orElse(null);
 
-        logger.info("Tarea programada finalizada. Alquileres generados: {}", alquileresGenerados);
+        if (job != null && job.getProcesados() > 0) {
+            logger.info("Tarea programada finalizada. Aumentos reintentados: {}, actualizados: {}",
+                       job.getProcesados(), job.getActualizados());
+        }
     }
 }
@@ -1,12 +1,18 @@
 package com.alquileres.service;
 
+import com.alquileres.dto.ReporteEjecucionParticionadaDTO;
+import com.alquileres.dto.ResultadoParticionDTO;
 import com.alquileres.model.Alquiler;
 import com.alquileres.model.Contrato;
 import com.alquileres.model.ConfiguracionSistema;
+import com.alquileres.model.EjecucionProceso;
+import com.alquileres.model.PasoEjecucionProceso;
 import com.alquileres.repository.AlquilerRepository;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.repository.ConfiguracionSistemaRepository;
-import com.alquileres.util.BCRAApiClient;
+import com.alquileres.repository.EjecucionProcesoRepository;
+import com.alquileres.repository.PasoEjecucionProcesoRepository;
+import com.alquileres.util.FechaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,10 +21,13 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Propagation;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -37,11 +46,21 @@ public class AlquilerActualizacionService {
      */
     private static final String CLAVE_ULTIMO_MES_PROCESADO = "ULTIMO_MES_PROCESADO_ALQUILERES";
 
+    /**
+     * Nombre del proceso en las ejecuciones guardadas y cantidad de contratos por partición
+     * (cada partición es una transacción corta, para no retener conexiones del pool)
+     */
+    static final String PROCESO_GENERACION_ALQUILERES = "GENERACION_ALQUILERES";
+    static final int TAMANIO_LOTE = 200;
+
     private final AlquilerRepository alquilerRepository;
     private final ContratoRepository contratoRepository;
     private final ConfiguracionSistemaRepository configuracionSistemaRepository;
-    private final BCRAApiClient bcraApiClient;
+    private final IndiceICLService indiceICLService;
     private final AumentoAlquilerService aumentoAlquilerService;
+    private final EjecucionProcesoRepository ejecucionProcesoRepository;
+    private final PasoEjecucionProcesoRepository pasoEjecucionProcesoRepository;
+    private final EjecutorParticionado ejecutorParticionado;
 
     @Autowired
     ClockService clockService;
@@ -50,23 +69,34 @@ public class AlquilerActualizacionService {
             AlquilerRepository alquilerRepository,
             ContratoRepository contratoRepository,
             ConfiguracionSistemaRepository configuracionSistemaRepository,
-            BCRAApiClient bcraApiClient,
-            AumentoAlquilerService aumentoAlquilerService) {
+            IndiceICLService indiceICLService,
+            AumentoAlquilerService aumentoAlquilerService,
+            EjecucionProcesoRepository ejecucionProcesoRepository,
+            PasoEjecucionProcesoRepository pasoEjecucionProcesoRepository,
+            EjecutorParticionado ejecutorParticionado) {
         this.alquilerRepository = alquilerRepository;
         this.contratoRepository = contratoRepository;
         this.configuracionSistemaRepository = configuracionSistemaRepository;
-        this.bcraApiClient = bcraApiClient;
+        this.indiceICLService = indiceICLService;
         this.aumentoAlquilerService = aumentoAlquilerService;
+        this.ejecucionProcesoRepository = ejecucionProcesoRepository;
+        this.pasoEjecucionProcesoRepository = pasoEjecucionProcesoRepository;
+        this.ejecutorParticionado = ejecutorParticionado;
     }
 
     /**
      * Procesa la creación de alquileres pendientes
      * Solo procesa si el mes actual es diferente al último mes procesado
      *
-     * @return Cantidad de alquileres creados
+     * Los contratos vigentes se dividen por ID en particiones de TAMANIO_LOTE que se guardan como
+     * pasos de la ejecución del mes y se procesan en paralelo, cada una en su propia transacción.
+     * Si alguna partición falla, el mes no se marca como procesado y la próxima ejecución
+     * reintenta solo los pasos que no se completaron.
+     *
+     * @return Cantidad de alquileres creados en esta ejecución
      */
-    @Transactional
     public int procesarAlquileresPendientes() {
+        Long ejecucionId = null;
         try {
             String mesActual = clockService.getCurrentDate().format(FORMATO_PERIODO);
             String ultimoMesProcesado = obtenerUltimoMesProcesado();
@@ -82,21 +112,178 @@ public class AlquilerActualizacionService {
 
             logger.info("Iniciando procesamiento de alquileres para el mes {}", mesActual);
 
-            // Crear alquileres para todos los contratos vigentes
-            int alquileresCreados = crearAlquileresParaContratosVigentes();
+            EjecucionProceso ejecucion = iniciarOReanudarEjecucion(mesActual);
+            ejecucionId = ejecucion.getId();
+
+            sincronizarICL();
+
+            // Crear alquileres en paralelo, una transacción por partición de contratos
+            List<PasoEjecucionProceso> pasos = obtenerPasosPendientes(ejecucion);
+            List<EjecutorParticionado.Particion> particiones = pasos.stream()
+                .map(paso -> new EjecutorParticionado.Particion(
+                    paso.getNumeroLote(), paso.getContratoIdDesde(), paso.getContratoIdHasta()))
+                .collect(Collectors.toList());
+            Map<Integer, Long> pasoPorLote = pasos.stream()
+                .collect(Collectors.toMap(PasoEjecucionProceso::getNumeroLote, PasoEjecucionProceso::getId));
+
+            ReporteEjecucionParticionadaDTO reporte = ejecutorParticionado.ejecutar(
+                PROCESO_GENERACION_ALQUILERES, particiones,
+                particion -> procesarParticion(pasoPorLote.get(particion.numero()), particion));
+
+            registrarResultado(ejecucionId, reporte, pasoPorLote);
+
+            if (!reporte.isCompleto()) {
+                logger.warn("Generación de alquileres de {} incompleta: {} de {} particiones fallaron, se reintentarán",
+                           mesActual, reporte.getParticionesFallidas(), reporte.getParticiones());
+                return reporte.getGenerados();
+            }
 
             // Actualizar el último mes procesado
             actualizarUltimoMesProcesado(mesActual);
 
-            logger.info("Procesamiento de alquileres completado. Total creados: {}", alquileresCreados);
-            return alquileresCreados;
+            logger.info("Procesamiento de alquileres completado. Total creados: {}", reporte.getGenerados());
+            return reporte.getGenerados();
 
         } catch (Exception e) {
             logger.error("Error en procesamiento de alquileres: {}", e.getMessage(), e);
+            if (ejecucionId != null) {
+                finalizarEjecucion(ejecucionId, EjecucionProceso.FALLIDO, e.getMessage());
+            }
             return 0;
         }
     }
 
+    /**
+     * Sincroniza el ICL una sola vez antes de repartir los contratos en particiones, así las
+     * particiones calculan los aumentos contra el índice en memoria sin consultar al BCRA
+     * Si falla, los contratos con ICL quedan marcados para aumento manual y se reintentan luego
+     */
+    private void sincronizarICL() {
+        try {
+            indiceICLService.sincronizarIndicesConBloqueo();
+        } catch (Exception e) {
+            logger.warn("No se pudo sincronizar el ICL antes de generar alquileres: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene la ejecución del mes para reanudarla o crea una nueva
+     */
+    private EjecucionProceso iniciarOReanudarEjecucion(String periodo) {
+        Optional<EjecucionProceso> existente =
+            ejecucionProcesoRepository.findByProcesoAndPeriodo(PROCESO_GENERACION_ALQUILERES, periodo);
+
+        if (existente.isPresent()) {
+            EjecucionProceso ejecucion = existente.get();
+            logger.info("Reanudando generación de alquileres de {} (estado {}, {} lotes completados)",
+                       periodo, ejecucion.getEstado(), ejecucion.getLotesCompletados());
+            ejecucion.setEstado(EjecucionProceso.EN_CURSO);
+            ejecucion.setError(null);
+            ejecucion.setUltimaActualizacion(clockService.getCurrentDateTime());
+            return ejecucionProcesoRepository.save(ejecucion);
+        }
+
+        logger.info("Iniciando generación de alquileres de {} en lotes de {} contratos", periodo, TAMANIO_LOTE);
+        return ejecucionProcesoRepository.save(
+            new EjecucionProceso(PROCESO_GENERACION_ALQUILERES, periodo, clockService.getCurrentDateTime()));
+    }
+
+    /**
+     * Devuelve los pasos que faltan completar; en la primera ejecución del mes los planifica
+     * dividiendo los contratos vigentes en particiones por ID
+     */
+    private List<PasoEjecucionProceso> obtenerPasosPendientes(EjecucionProceso ejecucion) {
+        if (pasoEjecucionProcesoRepository.countByEjecucionId(ejecucion.getId()) > 0) {
+            return pasoEjecucionProcesoRepository.findPendientesByEjecucionId(ejecucion.getId());
+        }
+
+        List<EjecutorParticionado.Particion> particiones = EjecutorParticionado.dividirEnParticiones(
+            contratoRepository.findIdsContratosVigentes(), TAMANIO_LOTE);
+        List<PasoEjecucionProceso> pasos = particiones.stream()
+            .map(particion -> new PasoEjecucionProceso(
+                ejecucion, particion.numero(), particion.desde(), particion.hasta()))
+            .collect(Collectors.toList());
+        return pasoEjecucionProcesoRepository.saveAll(pasos);
+    }
+
+    /**
+     * Procesa una partición de contratos vigentes (dentro de la transacción de la partición)
+     * Los alquileres de la partición y el paso completado se confirman juntos
+     *
+     * @return Alquileres creados en la partición
+     */
+    private int procesarParticion(Long pasoId, EjecutorParticionado.Particion particion) {
+        PasoEjecucionProceso paso = pasoEjecucionProcesoRepository.findById(pasoId)
+            .orElseThrow(() -> new IllegalStateException("No existe el paso de ejecución ID " + pasoId));
+        paso.setFechaInicio(clockService.getCurrentDateTime());
+
+        List<Contrato> contratos = contratoRepository.findContratosVigentesEntreIds(particion.desde(), particion.hasta());
+        int creados = contratos.isEmpty() ? 0 : generarAlquileres(contratos);
+
+        paso.setEstado(PasoEjecucionProceso.COMPLETADO);
+        paso.setError(null);
+        paso.setContratosProcesados(contratos.size());
+        paso.setAlquileresCreados(creados);
+        paso.setFechaFin(clockService.getCurrentDateTime());
+        pasoEjecucionProcesoRepository.save(paso);
+
+        logger.info("Lote {} de generación de alquileres confirmado: {} contratos, {} alquileres creados",
+                   particion.numero(), contratos.size(), creados);
+        return creados;
+    }
+
+    /**
+     * Marca los pasos fallidos y acumula en la ejecución el resultado de las particiones
+     */
+    private void registrarResultado(Long ejecucionId, ReporteEjecucionParticionadaDTO reporte,
+                                    Map<Integer, Long> pasoPorLote) {
+        for (ResultadoParticionDTO resultado : reporte.getResultados()) {
+            if (!resultado.isExitosa()) {
+                pasoEjecucionProcesoRepository.findById(pasoPorLote.get(resultado.getNumero())).ifPresent(paso -> {
+                    paso.setEstado(PasoEjecucionProceso.FALLIDO);
+                    paso.setError(truncarError(resultado.getError()));
+                    pasoEjecucionProcesoRepository.save(paso);
+                });
+            }
+        }
+
+        ejecucionProcesoRepository.findById(ejecucionId).ifPresent(ejecucion -> {
+            reporte.getResultados().stream().filter(ResultadoParticionDTO::isExitosa).forEach(resultado -> {
+                ejecucion.setLotesCompletados(ejecucion.getLotesCompletados() + 1);
+                ejecucion.setAlquileresCreados(ejecucion.getAlquileresCreados() + resultado.getGenerados());
+            });
+            ejecucion.setContratosProcesados(
+                pasoEjecucionProcesoRepository.findByEjecucionId(ejecucionId).stream()
+                    .filter(paso -> PasoEjecucionProceso.COMPLETADO.equals(paso.getEstado()))
+                    .mapToInt(PasoEjecucionProceso::getContratosProcesados)
+                    .sum());
+            ejecucion.setEstado(reporte.isCompleto() ? EjecucionProceso.COMPLETADO : EjecucionProceso.FALLIDO);
+            ejecucion.setError(reporte.isCompleto() ? null
+                : reporte.getParticionesFallidas() + " particiones fallidas");
+            ejecucion.setFechaFin(clockService.getCurrentDateTime());
+            ejecucion.setUltimaActualizacion(ejecucion.getFechaFin());
+            ejecucionProcesoRepository.save(ejecucion);
+        });
+    }
+
+    private static String truncarError(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    private void finalizarEjecucion(Long ejecucionId, String estado, String error) {
+        try {
+            ejecucionProcesoRepository.findById(ejecucionId).ifPresent(ejecucion -> {
+                ejecucion.setEstado(estado);
+                ejecucion.setError(truncarError(error));
+                ejecucion.setFechaFin(clockService.getCurrentDateTime());
+                ejecucion.setUltimaActualizacion(ejecucion.getFechaFin());
+                ejecucionProcesoRepository.save(ejecucion);
+            });
+        } catch (Exception e) {
+            logger.error("No se pudo registrar el estado de la ejecución ID {}: {}", ejecucionId, e.getMessage());
+        }
+    }
+
     /**
      * Obtiene el último mes procesado desde la base de datos
      *
@@ -175,157 +362,184 @@ public class AlquilerActualizacionService {
                 return 0;
             }
 
-            // Obtener IDs de contratos que ya tienen alquileres pendientes
-            List<Long> contratoIds = contratosVigentes.stream()
-                .map(Contrato::getId)
-                .collect(Collectors.toList());
+            return generarAlquileres(contratosVigentes);
 
-            // Buscar alquileres pendientes en batch
-            LocalDate fechaActual = clockService.getCurrentDate();
-            int mesActual = fechaActual.getMonthValue();
-            int anioActual = fechaActual.getYear();
-            List<Alquiler> alquileresPendientes = alquilerRepository.findAlquileresPendientesByContratoIdsAndMesAnioActual(contratoIds, mesActual, anioActual);
-
-            // Crear un Set de IDs de contratos que ya tienen alquileres
-            java.util.Set<Long> contratosConAlquileres = alquileresPendientes.stream()
-                .map(a -> a.getContrato().getId())
-                .collect(Collectors.toSet());
-
-            // Filtrar contratos que necesitan alquileres
-            List<Contrato> contratosSinAlquileres = contratosVigentes.stream()
-                .filter(c -> !contratosConAlquileres.contains(c.getId()))
-                .toList();
-
-            if (contratosSinAlquileres.isEmpty()) {
-                logger.info("Todos los contratos vigentes ya tienen alquileres pendientes");
-                return 0;
-            }
+        } catch (Exception e) {
+            logger.error("Error en creación automatica de alquileres: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Crea los alquileres del mes para los contratos indicados que no tengan alquileres pendientes
+     * Los errores de un contrato se registran y se continúa con el siguiente; los errores al guardar
+     * se propagan para que la transacción del llamador se revierta.
+     *
+     * @param contratosVigentes Contratos vigentes a procesar
+     * @return Cantidad de alquileres creados
+     */
+    private int generarAlquileres(List<Contrato> contratosVigentes) {
+        // Obtener IDs de contratos que ya tienen alquileres pendientes
+        List<Long> contratoIds = contratosVigentes.stream()
+            .map(Contrato::getId)
+            .collect(Collectors.toList());
+
+        // Buscar alquileres pendientes en batch
+        LocalDate fechaActual = clockService.getCurrentDate();
+        List<Alquiler> alquileresPendientes = alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(
+            contratoIds, FechaUtil.calcularPeriodoKey(fechaActual));
+
+        // Crear un Set de IDs de contratos que ya tienen alquileres
+        java.util.Set<Long> contratosConAlquileres = alquileresPendientes.stream()
+            .map(a -> a.getContrato().getId())
+            .collect(Collectors.toSet());
+
+        // Filtrar contratos que necesitan alquileres
+        List<Contrato> contratosSinAlquileres = contratosVigentes.stream()
+            .filter(c -> !contratosConAlquileres.contains(c.getId()))
+            .toList();
+
+        if (contratosSinAlquileres.isEmpty()) {
+            logger.info("Todos los contratos vigentes ya tienen alquileres pendientes");
+            return 0;
+        }
 
-            logger.info("Procesando {} contratos que necesitan alquileres", contratosSinAlquileres.size());
+        logger.info("Procesando {} contratos que necesitan alquileres", contratosSinAlquileres.size());
 
-            // Calcular fecha de vencimiento una sola vez
-            LocalDate fechaVencimiento = LocalDate.of(fechaActual.getYear(), fechaActual.getMonth(), 10);
-            String fechaVencimientoISO = fechaVencimiento.format(FORMATO_FECHA);
-
-            // Colección para batch insert
-            List<Alquiler> nuevosAlquileres = new java.util.ArrayList<>();
-            List<com.alquileres.model.AumentoAlquiler> nuevosAumentos = new java.util.ArrayList<>();
-
-            // Procesar cada contrato
-            for (Contrato contrato : contratosSinAlquileres) {
-                try {
-                    BigDecimal montoOriginal = contrato.getMonto();
-                    BigDecimal montoNuevo = montoOriginal;
-                    boolean aplicoAumento = false;
-
-                    // Obtener el último alquiler para determinar el monto
-                    Optional<Alquiler> ultimoAlquilerOpt =
-                        alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(contrato);
-
-                    // Verificar si debe aplicar aumento
-                    if (debeAplicarAumento(contrato)) {
-                        BigDecimal montoBase = ultimoAlquilerOpt.isPresent()
-                            ? ultimoAlquilerOpt.get().getMonto()
-                            : montoOriginal;
-
-                        // Calcular nuevo monto según tipo de aumento
-                        if (Boolean.TRUE.equals(contrato.getAumentaConIcl())) {
-                            try {
-                                String fechaInicio = contrato.getFechaAumento();
-                                String fechaFin = clockService.getCurrentDate().withDayOfMonth(1).format(FORMATO_FECHA);
-
-                                BigDecimal tasaAumento = bcraApiClient.obtenerTasaAumentoICL(fechaInicio, fechaFin);
-                                montoNuevo = montoBase.multiply(tasaAumento).setScale(2, BigDecimal.ROUND_HALF_UP);
-                                aplicoAumento = true;
-
-                                // Preparar registro de aumento
-                                BigDecimal porcentajeAumento = tasaAumento.subtract(BigDecimal.ONE)
-                                    .multiply(new BigDecimal("100"))
-                                    .setScale(2, BigDecimal.ROUND_HALF_UP);
-
-                                com.alquileres.model.AumentoAlquiler aumento =
-                                aumentoAlquilerService.crearAumentoSinGuardar(
-                                    contrato, montoBase, montoNuevo, porcentajeAumento);
-                                nuevosAumentos.add(aumento);
-
-                                // ✅ ACTUALIZAR fechaAumento: sumar periodoAumento a la fechaAumento actual
-                                actualizarFechaAumentoContrato(contrato);
-
-                            } catch (Exception e) {
-                                logger.error("Error al consultar ICL para contrato ID {}: {}. Se marcara para aumento manual.",
-                                           contrato.getId(), e.getMessage());
-                                // ❌ Fallo la API - crear alquiler con monto base y marcar para aumento manual
-                                montoNuevo = montoBase;
-
-                                // Crear el alquiler pero marcado para aumento manual
-                                Alquiler alquilerConError = new Alquiler(contrato, fechaVencimientoISO, montoNuevo);
-                                alquilerConError.setNecesitaAumentoManual(true);
-                                nuevosAlquileres.add(alquilerConError);
-
-                                logger.warn("Alquiler para contrato ID {} creado con necesitaAumentoManual=true", contrato.getId());
-                                continue; // Saltar al siguiente contrato
-                            }
-                        } else {
-                            // Aumento fijo
-                            BigDecimal porcentajeAumento = contrato.getPorcentajeAumento() != null
-                                ? contrato.getPorcentajeAumento()
-                                : BigDecimal.ZERO;
-
-                            BigDecimal tasaAumento = BigDecimal.ONE.add(
-                                porcentajeAumento.divide(new BigDecimal("100"), 10, BigDecimal.ROUND_HALF_UP)
-                            );
-
-                            montoNuevo = montoBase.multiply(tasaAumento).setScale(2, BigDecimal.ROUND_HALF_UP);
+        // Calcular fecha de vencimiento una sola vez
+        LocalDate fechaVencimiento = LocalDate.of(fechaActual.getYear(), fechaActual.getMonth(), 10);
+
+        // Último alquiler de cada contrato a procesar, en una sola consulta
+        Map<Long, Alquiler> ultimosAlquileres = obtenerUltimosAlquileres(contratosSinAlquileres);
+
+        // Colección para batch insert
+        List<Alquiler> nuevosAlquileres = new java.util.ArrayList<>();
+        List<com.alquileres.model.AumentoAlquiler> nuevosAumentos = new java.util.ArrayList<>();
+
+        // Procesar cada contrato
+        for (Contrato contrato : contratosSinAlquileres) {
+            try {
+                BigDecimal montoOriginal = contrato.getMonto();
+                BigDecimal montoNuevo = montoOriginal;
+                boolean aplicoAumento = false;
+
+                // Obtener el último alquiler para determinar el monto
+                Optional<Alquiler> ultimoAlquilerOpt = Optional.ofNullable(ultimosAlquileres.get(contrato.getId()));
+
+                // Verificar si debe aplicar aumento
+                if (debeAplicarAumento(contrato)) {
+                    BigDecimal montoBase = ultimoAlquilerOpt.isPresent()
+                        ? ultimoAlquilerOpt.get().getMonto()
+                        : montoOriginal;
+
+                    // Calcular nuevo monto según tipo de aumento
+                    if (Boolean.TRUE.equals(contrato.getAumentaConIcl())) {
+                        try {
+                            String fechaInicio = contrato.getFechaAumento().format(FORMATO_FECHA);
+                            String fechaFin = clockService.getCurrentDate().withDayOfMonth(1).format(FORMATO_FECHA);
+
+                            BigDecimal tasaAumento = indiceICLService.obtenerTasaAumentoICL(fechaInicio, fechaFin);
+                            montoNuevo = montoBase.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
                             aplicoAumento = true;
 
                             // Preparar registro de aumento
+                            BigDecimal porcentajeAumento = tasaAumento.subtract(BigDecimal.ONE)
+                                .multiply(new BigDecimal("100"))
+                                .setScale(2, RoundingMode.HALF_UP);
+
                             com.alquileres.model.AumentoAlquiler aumento =
-                                aumentoAlquilerService.crearAumentoSinGuardar(
-                                    contrato, montoBase, montoNuevo, porcentajeAumento);
+                            aumentoAlquilerService.crearAumentoSinGuardar(
+                                contrato, montoBase, montoNuevo, porcentajeAumento);
                             nuevosAumentos.add(aumento);
 
                             // ✅ ACTUALIZAR fechaAumento: sumar periodoAumento a la fechaAumento actual
                             actualizarFechaAumentoContrato(contrato);
+
+                        } catch (Exception e) {
+                            logger.error("Error al consultar ICL para contrato ID {}: {}. Se marcara para aumento manual.",
+                                       contrato.getId(), e.getMessage());
+                            // ❌ Fallo la API - crear alquiler con monto base y marcar para aumento manual
+                            montoNuevo = montoBase;
+
+                            // Crear el alquiler pero marcado para aumento manual
+                            Alquiler alquilerConError = new Alquiler(contrato, fechaVencimiento, montoNuevo);
+                            alquilerConError.setNecesitaAumentoManual(true);
+                            nuevosAlquileres.add(alquilerConError);
+
+                            logger.warn("Alquiler para contrato ID {} creado con necesitaAumentoManual=true", contrato.getId());
+                            continue; // Saltar al siguiente contrato
                         }
                     } else {
-                        montoNuevo = ultimoAlquilerOpt.isPresent()
-                            ? ultimoAlquilerOpt.get().getMonto()
-                            : montoOriginal;
-                    }
+                        // Aumento fijo
+                        BigDecimal porcentajeAumento = contrato.getPorcentajeAumento() != null
+                            ? contrato.getPorcentajeAumento()
+                            : BigDecimal.ZERO;
 
-                    // Crear alquiler
-                    Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimientoISO, montoNuevo);
-                    nuevoAlquiler.setEsActivo(true);
-                    nuevosAlquileres.add(nuevoAlquiler);
+                        BigDecimal tasaAumento = BigDecimal.ONE.add(
+                            porcentajeAumento.divide(new BigDecimal("100"), 10, RoundingMode.HALF_UP)
+                        );
+
+                        montoNuevo = montoBase.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
+                        aplicoAumento = true;
 
-                    logger.debug("Alquiler preparado para contrato ID: {} - Monto: {} (Aumento: {})",
-                               contrato.getId(), montoNuevo, aplicoAumento);
+                        // Preparar registro de aumento
+                        com.alquileres.model.AumentoAlquiler aumento =
+                            aumentoAlquilerService.crearAumentoSinGuardar(
+                                contrato, montoBase, montoNuevo, porcentajeAumento);
+                        nuevosAumentos.add(aumento);
 
-                } catch (Exception e) {
-                    logger.error("Error al preparar alquiler para contrato ID {}: {}",
-                                contrato.getId(), e.getMessage());
+                        // ✅ ACTUALIZAR fechaAumento: sumar periodoAumento a la fechaAumento actual
+                        actualizarFechaAumentoContrato(contrato);
+                    }
+                } else {
+                    montoNuevo = ultimoAlquilerOpt.isPresent()
+                        ? ultimoAlquilerOpt.get().getMonto()
+                        : montoOriginal;
                 }
-            }
 
-            // Guardar todos los alquileres en batch
-            if (!nuevosAlquileres.isEmpty()) {
-                alquilerRepository.saveAll(nuevosAlquileres);
-                logger.info("Guardados {} alquileres en batch", nuevosAlquileres.size());
-            }
+                // Crear alquiler
+                Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimiento, montoNuevo);
+                nuevoAlquiler.setEsActivo(true);
+                nuevosAlquileres.add(nuevoAlquiler);
+
+                logger.debug("Alquiler preparado para contrato ID: {} - Monto: {} (Aumento: {})",
+                           contrato.getId(), montoNuevo, aplicoAumento);
 
-            // Guardar todos los aumentos en batch
-            if (!nuevosAumentos.isEmpty()) {
-                aumentoAlquilerService.guardarAumentosEnBatch(nuevosAumentos);
-                logger.info("Guardados {} aumentos en batch", nuevosAumentos.size());
+            } catch (Exception e) {
+                logger.error("Error al preparar alquiler para contrato ID {}: {}",
+                            contrato.getId(), e.getMessage());
             }
+        }
 
-            logger.info("Creación automatica de alquileres completada. Total: {}", nuevosAlquileres.size());
-            return nuevosAlquileres.size();
+        // Guardar todos los alquileres en batch
+        if (!nuevosAlquileres.isEmpty()) {
+            alquilerRepository.saveAll(nuevosAlquileres);
+            logger.info("Guardados {} alquileres en batch", nuevosAlquileres.size());
+        }
 
-        } catch (Exception e) {
-            logger.error("Error en creación automatica de alquileres: {}", e.getMessage(), e);
-            return 0;
+        // Guardar todos los aumentos en batch
+        if (!nuevosAumentos.isEmpty()) {
+            aumentoAlquilerService.guardarAumentosEnBatch(nuevosAumentos);
+            logger.info("Guardados {} aumentos en batch", nuevosAumentos.size());
         }
+
+        logger.info("Creación automatica de alquileres completada. Total: {}", nuevosAlquileres.size());
+        return nuevosAlquileres.size();
+    }
+
+    /**
+     * Obtiene el último alquiler activo de cada contrato en una sola consulta
+     *
+     * @param contratos Contratos a consultar
+     * @return Mapa ID de contrato -> último alquiler activo (sin entrada si el contrato no tiene alquileres)
+     */
+    private Map<Long, Alquiler> obtenerUltimosAlquileres(List<Contrato> contratos) {
+        List<Long> contratoIds = contratos.stream()
+            .map(Contrato::getId)
+            .collect(Collectors.toList());
+
+        return alquilerRepository.findUltimosAlquileresActivosByContratoIds(contratoIds).stream()
+            .collect(Collectors.toMap(a -> a.getContrato().getId(), Function.identity()));
     }
 
     /**
@@ -370,15 +584,15 @@ public class AlquilerActualizacionService {
                 if (contrato.getAumentaConIcl() != null && contrato.getAumentaConIcl()) {
                     try {
                         // Obtener fechas para consultar ICL
-                        String fechaInicio = contrato.getFechaAumento();
+                        String fechaInicio = contrato.getFechaAumento().format(FORMATO_FECHA);
                         String fechaFin = clockService.getCurrentDate().withDayOfMonth(1).format(FORMATO_FECHA);
 
                         logger.info("Consultando ICL del BCRA para contrato ID {} - Desde: {} hasta: {}",
                                    contrato.getId(), fechaInicio, fechaFin);
 
                         // Consultar tasa de aumento del BCRA
-                        BigDecimal tasaAumento = bcraApiClient.obtenerTasaAumentoICL(fechaInicio, fechaFin);
-                        montoNuevo = montoBase.multiply(tasaAumento).setScale(2, BigDecimal.ROUND_HALF_UP);
+                        BigDecimal tasaAumento = indiceICLService.obtenerTasaAumentoICL(fechaInicio, fechaFin);
+                        montoNuevo = montoBase.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
                         aplicoAumento = true;
 
                         logger.info("ICL aplicado al contrato ID {} - Monto anterior: {}, Monto nuevo: {}, Tasa: {}",
@@ -387,7 +601,7 @@ public class AlquilerActualizacionService {
                         // Registrar el aumento en el historial
                         BigDecimal porcentajeAumento = tasaAumento.subtract(BigDecimal.ONE)
                             .multiply(new BigDecimal("100"))
-                            .setScale(2, BigDecimal.ROUND_HALF_UP);
+                            .setScale(2, RoundingMode.HALF_UP);
 
                         aumentoAlquilerService.registrarAumentoAutomatico(
                             contrato,
@@ -413,10 +627,10 @@ public class AlquilerActualizacionService {
 
                     // Calcular: 1 + (porcentajeAumento / 100)
                     BigDecimal tasaAumento = BigDecimal.ONE.add(
-                        porcentajeAumento.divide(new BigDecimal("100"), 10, BigDecimal.ROUND_HALF_UP)
+                        porcentajeAumento.divide(new BigDecimal("100"), 10, RoundingMode.HALF_UP)
                     );
 
-                    montoNuevo = montoBase.multiply(tasaAumento).setScale(2, BigDecimal.ROUND_HALF_UP);
+                    montoNuevo = montoBase.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
                     aplicoAumento = true;
 
                     logger.info("Aumento fijo aplicado al contrato ID {} - Monto anterior: {}, Monto nuevo: {}, Porcentaje: {}%",
@@ -443,9 +657,8 @@ public class AlquilerActualizacionService {
             // Crear nuevo alquiler con vencimiento el día 10 del mes actual
             LocalDate fechaActual = clockService.getCurrentDate();
             LocalDate fechaVencimiento = LocalDate.of(fechaActual.getYear(), fechaActual.getMonth(), 10);
-            String fechaVencimientoISO = fechaVencimiento.format(FORMATO_FECHA);
 
-            Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimientoISO, montoNuevo);
+            Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimiento, montoNuevo);
             nuevoAlquiler.setEsActivo(true);
             alquilerRepository.save(nuevoAlquiler);
 
@@ -462,7 +675,7 @@ public class AlquilerActualizacionService {
 
     /**
      * Actualiza la fechaAumento de un contrato sumando el periodoAumento
-     * Si la nueva fechaAumento supera la fechaFin del contrato, se establece como "No aumenta más"
+     * Si la nueva fechaAumento supera la fechaFin del contrato, queda marcado como sin más aumentos
      * ✅ ESTE MÉTODO SE EJECUTA DESPUÉS DE APLICAR UN AUMENTO
      *
      * @param contrato El contrato cuya fechaAumento se debe actualizar
@@ -477,42 +690,30 @@ public class AlquilerActualizacionService {
             }
 
             // Validar que tenga fechaAumento actual
-            if (contrato.getFechaAumento() == null || contrato.getFechaAumento().isEmpty() ||
-                contrato.getFechaAumento().equalsIgnoreCase("No aumenta mas")) {
+            if (contrato.getFechaAumento() == null || Boolean.TRUE.equals(contrato.getSinMasAumentos())) {
                 logger.debug("Contrato ID {} no tiene fechaAumento valida para actualizar.",
                            contrato.getId());
                 return;
             }
 
-            // Parsear fechaAumento actual
-            LocalDate fechaAumentoActual = LocalDate.parse(contrato.getFechaAumento(), FORMATO_FECHA);
+            LocalDate fechaAumentoActual = contrato.getFechaAumento();
 
             // Calcular nueva fechaAumento: fechaAumentoActual + periodoAumento (meses)
             // Siempre establecer como día 1 del mes resultante
             LocalDate nuevaFechaAumento = fechaAumentoActual.plusMonths(contrato.getPeriodoAumento())
                 .withDayOfMonth(1);
 
-            // Verificar si supera la fechaFin
-            if (contrato.getFechaFin() != null && !contrato.getFechaFin().isEmpty()) {
-                LocalDate fechaFin = LocalDate.parse(contrato.getFechaFin(), FORMATO_FECHA);
-
-                if (nuevaFechaAumento.isAfter(fechaFin)) {
-                    // Si la nueva fechaAumento supera la fechaFin, marcar como "No aumenta más"
-                    contrato.setFechaAumento("No aumenta más");
-                    contratoRepository.save(contrato);
-                    logger.info("Contrato ID {} - FechaAumento actualizada a 'No aumenta mas' (superaria fechaFin: {})",
-                               contrato.getId(), fechaFin);
-                    return;
-                }
-            }
-
-            // Actualizar fechaAumento
-            String nuevaFechaAumentoStr = nuevaFechaAumento.format(FORMATO_FECHA);
-            contrato.setFechaAumento(nuevaFechaAumentoStr);
+            // Si la nueva fechaAumento supera la fechaFin, el contrato queda marcado como sin más aumentos
+            contrato.programarProximoAumento(nuevaFechaAumento);
             contratoRepository.save(contrato);
 
-            logger.info("Contrato ID {} - FechaAumento actualizada de {} a {}",
-                       contrato.getId(), fechaAumentoActual.format(FORMATO_FECHA), nuevaFechaAumentoStr);
+            if (Boolean.TRUE.equals(contrato.getSinMasAumentos())) {
+                logger.info("Contrato ID {} - FechaAumento actualizada a 'No aumenta mas' (superaria fechaFin: {})",
+                           contrato.getId(), contrato.getFechaFin());
+            } else {
+                logger.info("Contrato ID {} - FechaAumento actualizada de {} a {}",
+                           contrato.getId(), fechaAumentoActual, nuevaFechaAumento);
+            }
 
         } catch (Exception e) {
             logger.error("Error al actualizar fechaAumento del contrato ID {}: {}",
@@ -529,20 +730,13 @@ public class AlquilerActualizacionService {
      * @return true si debe aplicar aumento, false en caso contrario
      */
     private boolean debeAplicarAumento(Contrato contrato) {
-        // Si no tiene fecha de aumento configurada, no aumenta
-        if (contrato.getFechaAumento() == null || contrato.getFechaAumento().isEmpty()) {
-            return false;
-        }
-
-        // Si dice "No aumenta más" o similar, no aumenta
-        if (contrato.getFechaAumento().equalsIgnoreCase("No aumenta más") ||
-            contrato.getFechaAumento().equalsIgnoreCase("No aumenta mas")) {
+        // Si no tiene fecha de aumento configurada o ya no aumenta más, no aumenta
+        if (contrato.getFechaAumento() == null || Boolean.TRUE.equals(contrato.getSinMasAumentos())) {
             return false;
         }
 
         try {
-            // Parsear la fecha de aumento
-            LocalDate fechaAumento = LocalDate.parse(contrato.getFechaAumento(), FORMATO_FECHA);
+            LocalDate fechaAumento = contrato.getFechaAumento();
             LocalDate fechaActual = clockService.getCurrentDate();
 
             // ✅ VALIDACIÓN CORRECTA: Verificar que el MES y AÑO sean iguales
@@ -609,9 +803,8 @@ public class AlquilerActualizacionService {
             // Crear nuevo alquiler con vencimiento el día 10 del mes actual
             LocalDate fechaActual = clockService.getCurrentDate();
             LocalDate fechaVencimiento = LocalDate.of(fechaActual.getYear(), fechaActual.getMonth(), 10);
-            String fechaVencimientoISO = fechaVencimiento.format(FORMATO_FECHA);
 
-            Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimientoISO, contrato.getMonto());
+            Alquiler nuevoAlquiler = new Alquiler(contrato, fechaVencimiento, contrato.getMonto());
             nuevoAlquiler.setEsActivo(true);
             alquilerRepository.save(nuevoAlquiler);
 
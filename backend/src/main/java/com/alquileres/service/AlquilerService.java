@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -24,13 +25,15 @@ import java.util.stream.Collectors;
 public class AlquilerService {
 
     private static final Logger logger = LoggerFactory.getLogger(AlquilerService.class);
+    private static final long MINUTOS_BASE_REINTENTO_AUMENTO = 15;
+    private static final long MINUTOS_MAXIMOS_REINTENTO_AUMENTO = 24 * 60;
 
     private final AlquilerRepository alquilerRepository;
     private final ContratoRepository contratoRepository;
     private final com.alquileres.repository.PropietarioRepository propietarioRepository;
     private final AumentoAlquilerService aumentoAlquilerService;
     private final AlquilerActualizacionService alquilerActualizacionService;
-    private final com.alquileres.util.BCRAApiClient bcraApiClient;
+    private final IndiceICLService indiceICLService;
 
     @Autowired
     ClockService clockService;
@@ -41,13 +44,13 @@ public class AlquilerService {
             com.alquileres.repository.PropietarioRepository propietarioRepository,
             AumentoAlquilerService aumentoAlquilerService,
             AlquilerActualizacionService alquilerActualizacionService,
-            com.alquileres.util.BCRAApiClient bcraApiClient) {
+            IndiceICLService indiceICLService) {
         this.alquilerRepository = alquilerRepository;
         this.contratoRepository = contratoRepository;
         this.propietarioRepository = propietarioRepository;
         this.aumentoAlquilerService = aumentoAlquilerService;
         this.alquilerActualizacionService = alquilerActualizacionService;
-        this.bcraApiClient = bcraApiClient;
+        this.indiceICLService = indiceICLService;
     }
 
     // Obtener todos los alquileres
@@ -112,8 +115,8 @@ public class AlquilerService {
 
     // Obtener alquileres próximos a vencer
     public List<AlquilerDTO> obtenerAlquileresProximosAVencer(int diasAntes) {
-        String fechaActual = clockService.getCurrentDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaLimite = clockService.getCurrentDate().plusDays(diasAntes).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate fechaLimite = fechaActual.plusDays(diasAntes);
 
         List<Alquiler> alquileres = alquilerRepository.findAlquileresProximosAVencer(fechaActual, fechaLimite);
         return alquileres.stream()
@@ -128,8 +131,8 @@ public class AlquilerService {
 
     // Contar alquileres próximos a vencer
     public Long contarAlquileresProximosAVencer(int diasAntes) {
-        String fechaActual = clockService.getCurrentDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaLimite = clockService.getCurrentDate().plusDays(diasAntes).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate fechaLimite = fechaActual.plusDays(diasAntes);
         return alquilerRepository.countAlquileresProximosAVencer(fechaActual, fechaLimite);
     }
 
@@ -147,7 +150,7 @@ public class AlquilerService {
         }
 
         // Validar y convertir fecha de vencimiento
-        String fechaVencimientoISO = null;
+        LocalDate fechaVencimiento;
         if (alquilerDTO.getFechaVencimientoPago() != null && !alquilerDTO.getFechaVencimientoPago().trim().isEmpty()) {
             // Si se proporciona una fecha, validarla y convertirla
             if (!FechaUtil.esFechaValidaUsuario(alquilerDTO.getFechaVencimientoPago())) {
@@ -155,21 +158,19 @@ public class AlquilerService {
                     "Formato de fecha de vencimiento inválido. Use dd/MM/yyyy (ej: 25/12/2024)", HttpStatus.BAD_REQUEST);
             }
             try {
-                fechaVencimientoISO = FechaUtil.convertirFechaUsuarioToISODate(alquilerDTO.getFechaVencimientoPago());
+                fechaVencimiento = FechaUtil.convertirFechaUsuarioToLocalDate(alquilerDTO.getFechaVencimientoPago());
             } catch (IllegalArgumentException e) {
                 throw new BusinessException(ErrorCodes.FORMATO_FECHA_INVALIDO, e.getMessage(), HttpStatus.BAD_REQUEST);
             }
         } else {
             // Si no se proporciona fecha, usar el día 10 del mes actual
-            LocalDate fechaActual = clockService.getCurrentDate();
-            LocalDate fechaConDia10 = fechaActual.withDayOfMonth(10);
-            fechaVencimientoISO = fechaConDia10.format(DateTimeFormatter.ISO_LOCAL_DATE);
+            fechaVencimiento = clockService.getCurrentDate().withDayOfMonth(10);
         }
 
         // Crear el alquiler usando el constructor optimizado
         // Solo se setean: contrato, fechaVencimientoPago, monto (del contrato) y estaPagado=false
         // Los campos de pago (cuentaBanco, titularDePago, metodo) quedan null hasta que se registre el pago
-        Alquiler alquiler = new Alquiler(contrato.get(), fechaVencimientoISO, contrato.get().getMonto());
+        Alquiler alquiler = new Alquiler(contrato.get(), fechaVencimiento, contrato.get().getMonto());
         alquiler.setEsActivo(true);
 
         // Guardar el alquiler
@@ -195,8 +196,7 @@ public class AlquilerService {
                     "Formato de fecha de vencimiento inválido. Use dd/MM/yyyy (ej: 25/12/2024)", HttpStatus.BAD_REQUEST);
             }
             try {
-                String fechaVencimientoISO = FechaUtil.convertirFechaUsuarioToISODate(alquilerDTO.getFechaVencimientoPago());
-                alquiler.setFechaVencimientoPago(fechaVencimientoISO);
+                alquiler.setFechaVencimientoPago(FechaUtil.convertirFechaUsuarioToLocalDate(alquilerDTO.getFechaVencimientoPago()));
             } catch (IllegalArgumentException e) {
                 throw new BusinessException(ErrorCodes.FORMATO_FECHA_INVALIDO, e.getMessage(), HttpStatus.BAD_REQUEST);
             }
@@ -253,7 +253,8 @@ public class AlquilerService {
     }
     // Calcular honorarios (suma de porcentajes específicos de cada contrato para alquileres pagados del mes actual)
     public BigDecimal calcularHonorarios() {
-        List<Alquiler> alquileresPagados = alquilerRepository.findAlquileresPagadosDelMes();
+        Integer periodoActual = FechaUtil.calcularPeriodoKey(clockService.getCurrentDate());
+        List<Alquiler> alquileresPagados = alquilerRepository.findAlquileresPagadosEntrePeriodos(periodoActual, periodoActual);
 
         BigDecimal honorariosTotales = alquileresPagados.stream()
                 .map(alquiler -> {
@@ -347,7 +348,8 @@ public class AlquilerService {
 
     // Obtener notificaciones de pago de alquileres no pagados del mes actual
     public List<NotificacionPagoAlquilerDTO> obtenerNotificacionesPagoAlquileresMes() {
-        List<Alquiler> alquileresNoPagados = alquilerRepository.findAlquileresNoPagadosDelMes();
+        Integer periodoActual = FechaUtil.calcularPeriodoKey(clockService.getCurrentDate());
+        List<Alquiler> alquileresNoPagados = alquilerRepository.findAlquileresNoPagadosEntrePeriodos(periodoActual, periodoActual);
 
         return alquileresNoPagados.stream()
                 .map(alquiler -> new NotificacionPagoAlquilerDTO(
@@ -420,6 +422,8 @@ public class AlquilerService {
         // Actualizar el alquiler
         alquiler.setMonto(nuevoMonto);
         alquiler.setNecesitaAumentoManual(false);
+        alquiler.setProximoIntentoAumento(null);
+        alquiler.setUltimoErrorAumento(null);
 
         Alquiler alquilerActualizado = alquilerRepository.save(alquiler);
 
@@ -446,97 +450,102 @@ public class AlquilerService {
 
     /**
      * Obtiene todos los alquileres que necesitan aumento manual
-     * Reintenta automáticamente la consulta a la API del BCRA para cada alquiler pendiente
-     * Si la consulta tiene éxito, aplica el aumento automáticamente
+     * Es solo una lectura: los reintentos contra el BCRA los hace ReintentoAumentoService en segundo plano
      *
-     * @return Lista de alquileres que aún necesitan aumento manual (los que fallaron el reintento)
+     * @return Lista de alquileres con aumento pendiente, con intentos, próximo reintento y último error
      */
+    @Transactional(readOnly = true)
     public List<AlquilerDTO> obtenerAlquileresConAumentoManualPendiente() {
-        List<Alquiler> alquileres = alquilerRepository.findByNecesitaAumentoManualTrueAndEsActivoTrue();
+        return alquilerRepository.findConAumentoManualPendiente().stream()
+                .map(AlquilerDTO::new)
+                .collect(Collectors.toList());
+    }
 
-        logger.info("Encontrados {} alquileres con aumento manual pendiente. Reintentando consulta a API del BCRA...",
-                   alquileres.size());
+    /**
+     * Reintenta el aumento por ICL de un alquiler marcado con necesitaAumentoManual
+     * Si el ICL está disponible aplica el aumento; si no, registra el intento fallido
+     * y programa el próximo reintento con backoff exponencial
+     *
+     * @param alquilerId ID del alquiler a reintentar
+     * @return true si se aplicó el aumento
+     */
+    @Transactional
+    public boolean reintentarAumentoAutomatico(Long alquilerId) {
+        Alquiler alquiler = alquilerRepository.findById(alquilerId).orElse(null);
+        if (alquiler == null || !Boolean.TRUE.equals(alquiler.getNecesitaAumentoManual())) {
+            // Ya fue resuelto (manualmente o por otro reintento)
+            return false;
+        }
+
+        Contrato contrato = alquiler.getContrato();
+        BigDecimal tasaAumento;
+        try {
+            // fechaInicio es la fecha del aumento anterior, fechaFin la del alquiler actual
+            AumentoAlquilerDTO aumentoAnterior = aumentoAlquilerService.obtenerUltimoAumento(contrato.getId());
+            String fechaInicio = aumentoAnterior.getFechaAumento();
+            String fechaFin = FechaUtil.formatearFechaISO(alquiler.getFechaVencimientoPago());
 
-        List<Alquiler> alquileresPendientes = new java.util.ArrayList<>();
-        int actualizadosExitosamente = 0;
+            logger.debug("Reintentando ICL para alquiler ID {}: fechaInicio={}, fechaFin={}",
+                        alquiler.getId(), fechaInicio, fechaFin);
 
-        for (Alquiler alquiler : alquileres) {
-            try {
-                Contrato contrato = alquiler.getContrato();
-
-                // Solo reintentar si el contrato aumenta con ICL
-                if (!Boolean.TRUE.equals(contrato.getAumentaConIcl())) {
-                    logger.warn("Alquiler ID {} no aumenta con ICL, se mantiene en lista de pendientes",
-                               alquiler.getId());
-                    alquileresPendientes.add(alquiler);
-                    continue;
-                }
-
-                // Obtener fechas para consultar la API
-
-                // Obtener el ultimo aumento
-                AumentoAlquilerDTO aumentoAnterior = aumentoAlquilerService
-                        .obtenerUltimoAumento(contrato.getId());
-
-                // fechaInicio es la fecha del aumento anterior si existiera
-                String fechaInicio = aumentoAnterior.getFechaAumento();
-                // fechaFin es la fecha del alquiler actual
-                String fechaFin = alquiler.getFechaVencimientoPago();
-
-                logger.debug("Reintentando consulta API del BCRA para alquiler ID {}: fechaInicio={}, fechaFin={}",
-                            alquiler.getId(), fechaInicio, fechaFin);
-
-                // Intentar obtener tasa de aumento de la API del BCRA
-                BigDecimal tasaAumento = bcraApiClient.obtenerTasaAumentoICL(fechaInicio, fechaFin);
-
-                // Si llegamos aquí, la consulta fue exitosa
-                logger.info("✅ Consulta API exitosa para alquiler ID {}. Tasa obtenida: {}",
-                           alquiler.getId(), tasaAumento);
-
-                // Calcular nuevo monto
-                BigDecimal montoAnterior = alquiler.getMonto();
-                BigDecimal nuevoMonto = montoAnterior.multiply(tasaAumento)
-                        .setScale(2, java.math.RoundingMode.HALF_UP);
-
-                // Calcular porcentaje de aumento
-                BigDecimal porcentajeAumento = tasaAumento.subtract(BigDecimal.ONE)
-                        .multiply(new BigDecimal("100"))
-                        .setScale(2, java.math.RoundingMode.HALF_UP);
-
-                // Actualizar el alquiler
-                alquiler.setMonto(nuevoMonto);
-                alquiler.setNecesitaAumentoManual(false);
-                alquilerRepository.save(alquiler);
-
-                // Actualizar fechaAumento de contrato
-                alquilerActualizacionService.actualizarFechaAumentoContrato(contrato);
-
-                // Registrar el aumento en el historial
-                aumentoAlquilerService.crearYGuardarAumento(
-                        contrato,
-                        montoAnterior,
-                        nuevoMonto,
-                        porcentajeAumento
-                );
-
-                logger.info("Alquiler ID {} actualizado automáticamente. Monto: {} -> {}. Porcentaje: {}%",
-                           alquiler.getId(), montoAnterior, nuevoMonto, porcentajeAumento);
-
-                actualizadosExitosamente++;
-
-            } catch (Exception e) {
-                // Si falla el reintento, mantener el alquiler en la lista de pendientes
-                logger.warn("Fallo al reintentar consulta API para alquiler ID {}: {}. Se mantiene pendiente.",
-                           alquiler.getId(), e.getMessage());
-                alquileresPendientes.add(alquiler);
-            }
+            tasaAumento = indiceICLService.obtenerTasaAumentoICL(fechaInicio, fechaFin);
+        } catch (Exception e) {
+            registrarIntentoFallido(alquiler, e.getMessage());
+            return false;
         }
 
-        logger.info("Reintento completado: {} alquileres actualizados exitosamente, {} aún pendientes",
-                   actualizadosExitosamente, alquileresPendientes.size());
+        // Calcular nuevo monto y porcentaje de aumento
+        BigDecimal montoAnterior = alquiler.getMonto();
+        BigDecimal nuevoMonto = montoAnterior.multiply(tasaAumento)
+                .setScale(2, java.math.RoundingMode.HALF_UP);
+        BigDecimal porcentajeAumento = tasaAumento.subtract(BigDecimal.ONE)
+                .multiply(new BigDecimal("100"))
+                .setScale(2, java.math.RoundingMode.HALF_UP);
 
-        return alquileresPendientes.stream()
-                .map(AlquilerDTO::new)
-                .collect(Collectors.toList());
+        // Actualizar el alquiler
+        alquiler.setMonto(nuevoMonto);
+        alquiler.setNecesitaAumentoManual(false);
+        alquiler.setProximoIntentoAumento(null);
+        alquiler.setUltimoErrorAumento(null);
+        alquilerRepository.save(alquiler);
+
+        // Actualizar fechaAumento de contrato
+        alquilerActualizacionService.actualizarFechaAumentoContrato(contrato);
+
+        // Registrar el aumento en el historial
+        aumentoAlquilerService.crearYGuardarAumento(contrato, montoAnterior, nuevoMonto, porcentajeAumento);
+
+        logger.info("Alquiler ID {} actualizado automáticamente. Monto: {} -> {}. Porcentaje: {}%",
+                   alquiler.getId(), montoAnterior, nuevoMonto, porcentajeAumento);
+        return true;
+    }
+
+    /**
+     * Registra un intento fallido de aumento automático (usado cuando el reintento falla
+     * por un error ajeno a la consulta del ICL y su transacción se revierte)
+     *
+     * @param alquilerId ID del alquiler
+     * @param error Mensaje del error
+     */
+    @Transactional
+    public void registrarFalloReintentoAumento(Long alquilerId, String error) {
+        alquilerRepository.findById(alquilerId).ifPresent(alquiler -> registrarIntentoFallido(alquiler, error));
+    }
+
+    private void registrarIntentoFallido(Alquiler alquiler, String error) {
+        int intentos = (alquiler.getIntentosAumento() != null ? alquiler.getIntentosAumento() : 0) + 1;
+        // Backoff exponencial: 15 min, 30 min, 1 h, ... hasta un máximo de 24 h
+        long minutosEspera = Math.min(
+            MINUTOS_BASE_REINTENTO_AUMENTO << Math.min(intentos - 1, 10),
+            MINUTOS_MAXIMOS_REINTENTO_AUMENTO
+        );
+
+        alquiler.setIntentosAumento(intentos);
+        alquiler.setProximoIntentoAumento(clockService.getCurrentDateTime().plusMinutes(minutosEspera));
+        alquiler.setUltimoErrorAumento(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        alquilerRepository.save(alquiler);
+
+        logger.warn("Reintento de aumento fallido para alquiler ID {} (intento {}): {}. Próximo intento en {} minutos",
+                   alquiler.getId(), intentos, error, minutosEspera);
     }
 }
@@ -124,7 +124,11 @@ public class AumentoAlquilerService {
         // Crear el aumento
         AumentoAlquiler aumento = new AumentoAlquiler();
         aumento.setContrato(contrato);
-        aumento.setFechaAumento(aumentoDTO.getFechaAumento());
+        try {
+            aumento.setFechaAumento(FechaUtil.convertirFechaUsuarioToLocalDate(aumentoDTO.getFechaAumento()));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCodes.FORMATO_FECHA_INVALIDO, e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
         aumento.setMontoAnterior(aumentoDTO.getMontoAnterior());
         aumento.setMontoNuevo(aumentoDTO.getMontoNuevo());
         aumento.setPorcentajeAumento(porcentajeAumento);
@@ -151,7 +155,7 @@ public class AumentoAlquilerService {
 
         AumentoAlquiler aumento = new AumentoAlquiler();
         aumento.setContrato(contrato);
-        aumento.setFechaAumento(clockService.getCurrentDate().toString());
+        aumento.setFechaAumento(clockService.getCurrentDate());
         aumento.setMontoAnterior(montoAnterior);
         aumento.setMontoNuevo(montoNuevo);
         aumento.setPorcentajeAumento(porcentajeAumento != null ? porcentajeAumento : BigDecimal.ZERO);
@@ -176,7 +180,8 @@ public class AumentoAlquilerService {
         }
 
         List<AumentoAlquiler> aumentos = aumentoAlquilerRepository
-                .findByContratoIdAndFechaAumentoBetween(contratoId, fechaInicio, fechaFin);
+                .findByContratoIdAndFechaAumentoBetween(contratoId,
+                    convertirFechaFiltro(fechaInicio), convertirFechaFiltro(fechaFin));
         return aumentos.stream()
                 .map(AumentoAlquilerDTO::new)
                 .collect(Collectors.toList());
@@ -220,7 +225,7 @@ public class AumentoAlquilerService {
                                                    BigDecimal montoNuevo, BigDecimal porcentajeAumento) {
         AumentoAlquiler aumento = new AumentoAlquiler();
         aumento.setContrato(contrato);
-        aumento.setFechaAumento(clockService.getCurrentDate().toString());
+        aumento.setFechaAumento(clockService.getCurrentDate());
         aumento.setMontoAnterior(montoAnterior);
         aumento.setMontoNuevo(montoNuevo);
         aumento.setPorcentajeAumento(porcentajeAumento != null ? porcentajeAumento : BigDecimal.ZERO);
@@ -257,4 +262,12 @@ public class AumentoAlquilerService {
         return aumentoAlquilerRepository.save(aumento);
     }
 
+    private LocalDate convertirFechaFiltro(String fecha) {
+        try {
+            return FechaUtil.convertirFechaUsuarioToLocalDate(fecha);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ErrorCodes.FORMATO_FECHA_INVALIDO, e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
 }
@@ -16,9 +16,11 @@ public class BackupService {
     private static final Logger logger = LoggerFactory.getLogger(BackupService.class);
 
     private final JdbcTemplate jdbcTemplate;
+    private final DatosReferenciaService datosReferenciaService;
 
-    public BackupService(JdbcTemplate jdbcTemplate) {
+    public BackupService(JdbcTemplate jdbcTemplate, DatosReferenciaService datosReferenciaService) {
         this.jdbcTemplate = jdbcTemplate;
+        this.datosReferenciaService = datosReferenciaService;
     }
 
     /**
@@ -186,6 +188,9 @@ public class BackupService {
 
             logger.info("Backup cargado. Sentencias ejecutadas: {}, Errores: {}", ejecutadas, errores);
 
+            // El backup puede traer estados, tipos y roles con otros IDs
+            datosReferenciaService.recargar();
+
             if (errores > ejecutadas / 2) {
                 throw new Exception("Demasiados errores durante la restauración. Ejecutadas: " + ejecutadas + ", Errores: " + errores);
             }
@@ -0,0 +1,105 @@
+package com.alquileres.service;
+
+import com.alquileres.repository.BloqueoProcesoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Servicio de bloqueos distribuidos para los procesos programados
+ *
+ * Cada proceso (contratos vencidos, facturas, alquileres...) tiene una fila en scheduler_lock.
+ * Una ejecución la toma con un UPDATE condicional que solo afecta a la fila si el bloqueo está
+ * vencido, así que entre todas las instancias (y entre el scheduler y el login) solo una ejecuta
+ * el proceso a la vez. Si la instancia se cae, el bloqueo se libera solo al vencer su duración.
+ */
+@Service
+public class BloqueoProcesoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BloqueoProcesoService.class);
+
+    /**
+     * Nombres de los bloqueos de cada proceso
+     */
+    public static final String SINCRONIZACION_ICL = "SINCRONIZACION_ICL";
+    public static final String CONTRATOS_VENCIDOS = "CONTRATOS_VENCIDOS";
+    public static final String GENERACION_FACTURAS = "GENERACION_FACTURAS_SERVICIOS";
+    public static final String GENERACION_ALQUILERES = "GENERACION_ALQUILERES";
+    public static final String REINTENTO_AUMENTOS = "REINTENTO_AUMENTOS_ICL";
+
+    /**
+     * Duración máxima de los bloqueos de cada proceso (debe superar lo que tarda el proceso)
+     */
+    public static final Duration DURACION_SINCRONIZACION_ICL = Duration.ofMinutes(15);
+    public static final Duration DURACION_CONTRATOS_VENCIDOS = Duration.ofMinutes(10);
+    public static final Duration DURACION_GENERACION_MENSUAL = Duration.ofMinutes(30);
+    public static final Duration DURACION_REINTENTO_AUMENTOS = Duration.ofMinutes(25);
+
+    private final BloqueoProcesoRepository bloqueoProcesoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Identifica a esta instancia en los bloqueos (pid@host)
+     */
+    private final String instancia = ManagementFactory.getRuntimeMXBean().getName();
+
+    public BloqueoProcesoService(BloqueoProcesoRepository bloqueoProcesoRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.bloqueoProcesoRepository = bloqueoProcesoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Tomar y liberar el bloqueo se confirma en el momento, aunque el llamador tenga una transacción abierta
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Ejecuta la tarea solo si se puede tomar el bloqueo del proceso
+     * La duración máxima debe superar lo que tarda el proceso: al vencer, otra instancia puede tomarlo.
+     *
+     * @param nombre Nombre del bloqueo
+     * @param duracionMaxima Tiempo máximo que se retiene el bloqueo
+     * @param tarea Proceso a ejecutar
+     * @return Resultado de la tarea, o vacío si el proceso ya se está ejecutando en otra instancia
+     */
+    public <T> Optional<T> ejecutarConBloqueo(String nombre, Duration duracionMaxima, Supplier<T> tarea) {
+        String titular = instancia + "#" + UUID.randomUUID();
+        if (!tomar(nombre, duracionMaxima, titular)) {
+            logger.info("El proceso {} ya se está ejecutando en otra instancia, se omite", nombre);
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(tarea.get());
+        } finally {
+            liberar(nombre, titular);
+        }
+    }
+
+    private boolean tomar(String nombre, Duration duracionMaxima, String titular) {
+        Integer tomados = transactionTemplate.execute(status -> {
+            bloqueoProcesoRepository.crearSiNoExiste(nombre);
+            return bloqueoProcesoRepository.tomar(nombre, duracionMaxima.toSeconds(), titular);
+        });
+        return tomados != null && tomados > 0;
+    }
+
+    private void liberar(String nombre, String titular) {
+        try {
+            Integer liberados = transactionTemplate.execute(status -> bloqueoProcesoRepository.liberar(nombre, titular));
+            if (liberados == null || liberados == 0) {
+                logger.warn("El bloqueo del proceso {} venció antes de terminar la ejecución", nombre);
+            }
+        } catch (Exception e) {
+            // Si no se puede liberar, el bloqueo vence solo al cumplirse su duración
+            logger.error("No se pudo liberar el bloqueo del proceso {}: {}", nombre, e.getMessage());
+        }
+    }
+}
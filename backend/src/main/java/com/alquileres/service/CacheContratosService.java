@@ -0,0 +1,217 @@
+package com.alquileres.service;
+
+import com.alquileres.config.CacheDosNiveles;
+import com.alquileres.config.CacheLocal;
+import com.alquileres.config.CacheNames;
+import com.alquileres.config.ContadorGeneracion;
+import com.alquileres.repository.ContratoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Invalidación de las cachés de contratos según lo que cambió
+ *
+ * Las cachés con clave por entidad (contrato-id, contrato-existe, contratos-inmueble,
+ * contratos-inquilino, inmueble-contrato-vigente) se invalidan solo en las claves de los
+ * contratos afectados. Los listados (todos, vigentes, no vigentes, próximos a vencer, páginas y
+ * contadores) no tienen una clave por contrato: sus claves llevan la generación actual (ver
+ * clave()) y una modificación avanza la generación, así las entradas anteriores dejan de leerse
+ * y el resto de las cachés sigue caliente.
+ *
+ * Dentro de una transacción la invalidación se hace al confirmarla, para que una lectura
+ * concurrente no vuelva a guardar los datos anteriores al cambio.
+ */
+@Service
+public class CacheContratosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheContratosService.class);
+
+    /**
+     * Cachés de listados de contratos, con claves por generación
+     */
+    static final String[] CACHES_LISTADOS = {
+        CacheNames.CONTRATOS,
+        CacheNames.CONTRATOS_PAGINAS,
+        CacheNames.CONTRATOS_VIGENTES,
+        CacheNames.CONTRATOS_VIGENTES_COUNT,
+        CacheNames.CONTRATOS_NO_VIGENTES,
+        CacheNames.CONTRATOS_PROXIMOS_VENCER,
+        CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT
+    };
+
+    private final CacheManager cacheManager;
+    private final ContadorGeneracion contadorGeneracion;
+    private final ContratoRepository contratoRepository;
+
+    public CacheContratosService(CacheManager cacheManager,
+                                 ContadorGeneracion contadorGeneracion,
+                                 ContratoRepository contratoRepository) {
+        this.cacheManager = cacheManager;
+        this.contadorGeneracion = contadorGeneracion;
+        this.contratoRepository = contratoRepository;
+    }
+
+    /**
+     * Clave de caché de un listado de contratos en la generación actual
+     *
+     * Se usa desde las anotaciones @Cacheable, por ejemplo
+     * {@code key = "@cacheContratosService.clave(#diasAntes)"}
+     *
+     * @param partes Parámetros del listado (ninguno para los listados fijos)
+     * @return "g{generación}:{partes separadas por |}"
+     */
+    public String clave(Object... partes) {
+        return prefijo(contadorGeneracion.actual()) + Arrays.stream(partes)
+            .map(String::valueOf)
+            .collect(Collectors.joining("|"));
+    }
+
+    /**
+     * Invalida un contrato creado o modificado
+     *
+     * @param contratoId ID del contrato
+     * @param inmuebleId ID de su inmueble
+     * @param inquilinoId ID de su inquilino
+     */
+    public void contratoModificado(Long contratoId, Long inmuebleId, Long inquilinoId) {
+        contratosModificados(List.<Object[]>of(new Object[]{contratoId, inmuebleId, inquilinoId}));
+    }
+
+    /**
+     * Invalida varios contratos modificados
+     *
+     * @param contratos Filas [id, inmueble, inquilino] de los contratos
+     */
+    public void contratosModificados(List<Object[]> contratos) {
+        invalidar(contratos, Set.of(), Set.of());
+    }
+
+    /**
+     * Invalida los contratos de un inmueble modificado (sus datos se muestran en el contrato)
+     *
+     * @param inmuebleId ID del inmueble
+     */
+    public void inmuebleModificado(Long inmuebleId) {
+        invalidar(contratoRepository.findClavesCacheByInmuebleId(inmuebleId), Set.of(inmuebleId), Set.of());
+    }
+
+    /**
+     * Invalida los contratos de un inquilino modificado
+     *
+     * @param inquilinoId ID del inquilino
+     */
+    public void inquilinoModificado(Long inquilinoId) {
+        invalidar(contratoRepository.findClavesCacheByInquilinoId(inquilinoId), Set.of(), Set.of(inquilinoId));
+    }
+
+    /**
+     * Invalida los contratos de los inmuebles de un propietario modificado
+     *
+     * @param propietarioId ID del propietario
+     */
+    public void propietarioModificado(Long propietarioId) {
+        invalidar(contratoRepository.findClavesCacheByPropietarioId(propietarioId), Set.of(), Set.of());
+    }
+
+    /**
+     * Invalida las claves de los contratos indicados y, si hay alguno, avanza la generación de los listados
+     *
+     * @param contratos Filas [id, inmueble, inquilino]
+     * @param inmuebles Inmuebles a invalidar aunque no tengan contratos
+     * @param inquilinos Inquilinos a invalidar aunque no tengan contratos
+     */
+    private void invalidar(List<Object[]> contratos, Set<Long> inmuebles, Set<Long> inquilinos) {
+        Set<Long> contratoIds = new LinkedHashSet<>();
+        Set<Long> inmuebleIds = new LinkedHashSet<>(inmuebles);
+        Set<Long> inquilinoIds = new LinkedHashSet<>(inquilinos);
+        for (Object[] contrato : contratos) {
+            contratoIds.add(((Number) contrato[0]).longValue());
+            inmuebleIds.add(((Number) contrato[1]).longValue());
+            inquilinoIds.add(((Number) contrato[2]).longValue());
+        }
+        boolean avanzarGeneracion = !contratoIds.isEmpty();
+
+        alConfirmar(() -> {
+            evictar(CacheNames.CONTRATO_POR_ID, contratoIds);
+            evictar(CacheNames.CONTRATO_EXISTE, contratoIds);
+            evictar(CacheNames.CONTRATOS_POR_INMUEBLE, inmuebleIds);
+            evictar(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE, inmuebleIds);
+            evictar(CacheNames.CONTRATOS_POR_INQUILINO, inquilinoIds);
+            if (avanzarGeneracion) {
+                avanzarGeneracion();
+            }
+        });
+    }
+
+    /**
+     * Pasa los listados a una nueva generación y descarta las entradas de la anterior
+     *
+     * En la caché en memoria se quitan todas las claves de generaciones anteriores; en Redis se
+     * quitan las de los listados sin parámetros y el resto vence por TTL. Con dos niveles, cada
+     * nodo descarta las claves anteriores de su caché local al avanzar o al vencer.
+     */
+    private void avanzarGeneracion() {
+        long generacion = contadorGeneracion.avanzar();
+        String prefijoActual = prefijo(generacion);
+        String claveAnterior = prefijo(generacion - 1);
+
+        Predicate<Object> deOtraGeneracion = clave -> !(clave instanceof String texto && texto.startsWith(prefijoActual));
+        for (String nombre : CACHES_LISTADOS) {
+            Cache cache = cacheManager.getCache(nombre);
+            if (cache == null) {
+                continue;
+            }
+            if (cache instanceof CacheLocal local) {
+                local.descartarSi(deOtraGeneracion);
+            } else if (cache.getNativeCache() instanceof ConcurrentMap<?, ?> entradas) {
+                entradas.keySet().removeIf(deOtraGeneracion);
+            } else {
+                if (cache instanceof CacheDosNiveles dosNiveles) {
+                    dosNiveles.getLocal().descartarSi(deOtraGeneracion);
+                }
+                cache.evict(claveAnterior);
+            }
+        }
+        logger.debug("Listados de contratos en caché pasan a la generación {}", generacion);
+    }
+
+    private void evictar(String nombreCache, Set<Long> claves) {
+        Cache cache = cacheManager.getCache(nombreCache);
+        if (cache == null) {
+            return;
+        }
+        for (Long clave : claves) {
+            cache.evict(clave);
+        }
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    private static String prefijo(long generacion) {
+        return "g" + generacion + ":";
+    }
+}
@@ -0,0 +1,121 @@
+package com.alquileres.service;
+
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import com.alquileres.security.EncryptionService;
+import com.alquileres.util.SingleFlightCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Desencriptación de claves fiscales bajo demanda
+ *
+ * Los listados ya no desencriptan: muestran CLAVE_OCULTA cuando el propietario tiene clave
+ * cargada. La clave se desencripta solo al mostrar un propietario (enmascarada) o al revelarla,
+ * y el resultado queda en una cache en memoria de este nodo, acotada y con vencimiento corto,
+ * para no repetir el AES en cada apertura del mismo propietario.
+ *
+ * La cache se indexa por el valor encriptado: al cambiar la clave cambia el valor encriptado,
+ * así que nunca se devuelve una clave vieja. Los valores desencriptados nunca salen de este
+ * nodo (no pasan por Redis).
+ */
+@Service
+public class ClaveFiscalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaveFiscalService.class);
+
+    /**
+     * Valor que reemplaza a la clave fiscal en las respuestas que no la desencriptan
+     */
+    public static final String CLAVE_OCULTA = "********";
+
+    // Claves desencriptadas recientemente (pocas: se consultan de a un propietario)
+    private static final int CAPACIDAD_CACHE = 256;
+    private static final Duration TTL_CACHE = Duration.ofMinutes(5);
+
+    private final EncryptionService encryptionService;
+    private final SingleFlightCache<String, String> cacheDesencriptadas;
+
+    public ClaveFiscalService(EncryptionService encryptionService) {
+        this(encryptionService, new SingleFlightCache<>(CAPACIDAD_CACHE, TTL_CACHE));
+    }
+
+    ClaveFiscalService(EncryptionService encryptionService, SingleFlightCache<String, String> cacheDesencriptadas) {
+        this.encryptionService = encryptionService;
+        this.cacheDesencriptadas = cacheDesencriptadas;
+    }
+
+    /**
+     * Indica si hay una clave fiscal cargada
+     *
+     * @param claveEncriptada Clave fiscal tal como está guardada
+     */
+    public static boolean tieneClave(String claveEncriptada) {
+        return claveEncriptada != null && !claveEncriptada.trim().isEmpty();
+    }
+
+    /**
+     * Reemplaza la clave fiscal por CLAVE_OCULTA sin desencriptarla (para listados)
+     *
+     * @param claveEncriptada Clave fiscal tal como está guardada
+     * @return CLAVE_OCULTA, o null si no hay clave cargada
+     */
+    public static String ocultar(String claveEncriptada) {
+        return tieneClave(claveEncriptada) ? CLAVE_OCULTA : null;
+    }
+
+    /**
+     * Desencripta la clave fiscal, usando la cache si se desencriptó hace poco
+     *
+     * @param claveEncriptada Clave fiscal tal como está guardada (no vacía)
+     * @return Clave fiscal desencriptada
+     * @throws BusinessException si no se puede desencriptar
+     */
+    public String desencriptar(String claveEncriptada) {
+        return cacheDesencriptadas.obtener(claveEncriptada, () -> {
+            try {
+                return encryptionService.desencriptar(claveEncriptada);
+            } catch (Exception e) {
+                logger.error("Error desencriptando clave fiscal", e);
+                throw new BusinessException(
+                    ErrorCodes.ERROR_INTERNO,
+                    "Error al procesar la clave fiscal",
+                    HttpStatus.INTERNAL_SERVER_ERROR
+                );
+            }
+        });
+    }
+
+    /**
+     * Enmascara la clave fiscal mostrando solo los últimos 4 caracteres
+     *
+     * @param claveEncriptada Clave fiscal tal como está guardada
+     * @return Clave enmascarada, o null si no hay clave o no se pudo desencriptar
+     */
+    public String enmascarar(String claveEncriptada) {
+        if (!tieneClave(claveEncriptada)) {
+            return null;
+        }
+        try {
+            String clave = desencriptar(claveEncriptada);
+            int length = clave.length();
+            if (length <= 4) {
+                return "****";
+            }
+            return "*".repeat(length - 4) + clave.substring(length - 4);
+        } catch (BusinessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Descarta las claves desencriptadas guardadas en este nodo
+     */
+    public void invalidarCache() {
+        cacheDesencriptadas.invalidar();
+    }
+}
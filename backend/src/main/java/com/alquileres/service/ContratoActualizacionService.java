@@ -1,91 +1,106 @@
 package com.alquileres.service;
 
-import com.alquileres.model.Contrato;
-import com.alquileres.model.EstadoContrato;
-import com.alquileres.model.Inmueble;
 import com.alquileres.repository.ContratoRepository;
-import com.alquileres.repository.EstadoContratoRepository;
+import com.alquileres.repository.InmuebleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Servicio para actualizar automáticamente el estado de contratos vencidos
+ *
+ * El pase a "No Vigente" se hace por conjuntos: una sentencia actualiza todos los contratos
+ * vencidos y devuelve sus inmuebles e inquilinos, y otra libera todos los inmuebles afectados,
+ * así un día con muchos vencimientos no ejecuta tres sentencias por contrato.
  */
 @Service
 public class ContratoActualizacionService {
 
     private static final Logger logger = LoggerFactory.getLogger(ContratoActualizacionService.class);
-    private static final DateTimeFormatter FORMATO_ISO_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
     private final ContratoRepository contratoRepository;
-    private final EstadoContratoRepository estadoContratoRepository;
+    private final DatosReferenciaService datosReferenciaService;
+    private final InmuebleRepository inmuebleRepository;
     private final ClockService clockService;
-    private final InmuebleService inmuebleService;
+    private final CacheContratosService cacheContratosService;
 
     public ContratoActualizacionService(ContratoRepository contratoRepository,
-                                        EstadoContratoRepository estadoContratoRepository,
-                                        ClockService clockService, InmuebleService inmuebleService) {
+                                        DatosReferenciaService datosReferenciaService,
+                                        InmuebleRepository inmuebleRepository,
+                                        ClockService clockService,
+                                        CacheContratosService cacheContratosService) {
         this.contratoRepository = contratoRepository;
-        this.estadoContratoRepository = estadoContratoRepository;
+        this.datosReferenciaService = datosReferenciaService;
+        this.inmuebleRepository = inmuebleRepository;
         this.clockService = clockService;
-        this.inmuebleService = inmuebleService;
+        this.cacheContratosService = cacheContratosService;
     }
 
     /**
      * Actualiza todos los contratos vigentes que ya vencieron a estado "No Vigente"
+     * y deja sus inmuebles disponibles
      *
      * @return Cantidad de contratos actualizados
+     * @throws RuntimeException Si falla alguna de las sentencias (la transacción se revierte completa)
      */
     @Transactional
     public int actualizarContratosVencidos() {
         try {
             logger.info("Iniciando actualización de contratos vencidos");
 
-            // Obtener la fecha actual en formato ISO desde clockService
-            // Suma un dia porque sino los contratos vencen el dia de vencimiento (y deberian ser vigentes ese dia)
-            String fechaActual = clockService.getCurrentDateTime().minusDays(1).format(FORMATO_ISO_DATETIME);
+            // Vencen los contratos cuya fecha de fin es anterior a hoy (el día de vencimiento siguen vigentes)
+            LocalDate fechaActual = clockService.getCurrentDate();
 
-            logger.info("Fecha Actual (+1 día): {}", fechaActual);
+            logger.info("Fecha Actual: {}", fechaActual);
 
-            // Buscar todos los contratos vigentes que ya vencieron
-            List<Contrato> contratosVencidos = contratoRepository.findContratosVigentesVencidos(fechaActual);
+            // Pasar a "No Vigente" todos los contratos vigentes que ya vencieron
+            List<Object[]> contratosVencidos = contratoRepository.actualizarEstadoContratosVencidos(
+                obtenerIdEstadoContrato(DatosReferenciaService.ESTADO_CONTRATO_VIGENTE),
+                obtenerIdEstadoContrato(DatosReferenciaService.ESTADO_CONTRATO_NO_VIGENTE), fechaActual);
 
             if (contratosVencidos.isEmpty()) {
                 logger.info("No se encontraron contratos vencidos para actualizar");
                 return 0;
             }
 
-            // Obtener el estado "No Vigente"
-            EstadoContrato estadoNoVigente = estadoContratoRepository.findByNombre("No Vigente")
-                    .orElseThrow(() -> new RuntimeException("Estado 'No Vigente' no encontrado en la base de datos"));
-
-            // Actualizar cada contrato
-            int contratosActualizados = 0;
-            for (Contrato contrato : contratosVencidos) {
-                contrato.setEstadoContrato(estadoNoVigente);
-
-                // Actualizar inquilino
-                Inmueble i = contrato.getInmueble();
-                inmuebleService.actualizarEstadoInmueble(i);
-
-                contratoRepository.save(contrato);
-                contratosActualizados++;
-                logger.debug("Contrato ID {} actualizado a 'No Vigente'. Fecha fin: {}",
-                            contrato.getId(), contrato.getFechaFin());
+            // Liberar los inmuebles de los contratos vencidos
+            Set<Long> inmuebleIds = new LinkedHashSet<>();
+            for (Object[] contrato : contratosVencidos) {
+                inmuebleIds.add(((Number) contrato[1]).longValue());
             }
+            inmuebleRepository.liberarInmuebles(inmuebleIds,
+                obtenerIdEstadoInmueble(DatosReferenciaService.ESTADO_INMUEBLE_DISPONIBLE),
+                clockService.getCurrentDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+
+            // Solo las claves de los contratos, inmuebles e inquilinos afectados, más la generación de los listados
+            cacheContratosService.contratosModificados(contratosVencidos);
 
-            logger.info("Se actualizaron {} contratos de 'Vigente' a 'No Vigente'", contratosActualizados);
-            return contratosActualizados;
+            logger.info("Se actualizaron {} contratos de 'Vigente' a 'No Vigente' y se liberaron {} inmuebles",
+                       contratosVencidos.size(), inmuebleIds.size());
+            return contratosVencidos.size();
 
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             logger.error("Error al actualizar contratos vencidos: {}", e.getMessage(), e);
-            // No lanzamos la excepción para que no afecte el login del usuario
-            return 0;
+            // Se relanza para revertir el UPDATE si falló la liberación de inmuebles. El login no se ve afectado:
+            // el mantenimiento corre en segundo plano y captura el error (el día queda pendiente y se reintenta)
+            throw e;
         }
     }
+
+    private Integer obtenerIdEstadoContrato(String nombre) {
+        return datosReferenciaService.buscarIdEstadoContrato(nombre)
+            .orElseThrow(() -> new RuntimeException("Estado '" + nombre + "' no encontrado en la base de datos"));
+    }
+
+    private Integer obtenerIdEstadoInmueble(String nombre) {
+        return datosReferenciaService.buscarIdEstadoInmueble(nombre)
+            .orElseThrow(() -> new RuntimeException("Estado de inmueble '" + nombre + "' no encontrado en la base de datos"));
+    }
 }
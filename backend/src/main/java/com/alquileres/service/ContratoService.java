@@ -2,14 +2,15 @@ package com.alquileres.service;
 
 import com.alquileres.dto.ContratoDTO;
 import com.alquileres.dto.ContratoCreateDTO;
+import com.alquileres.dto.ContratoDetalleProyeccion;
 import com.alquileres.dto.EstadoContratoUpdateDTO;
+import com.alquileres.dto.FiltroContratosDTO;
+import com.alquileres.dto.PaginaContratosDTO;
 import com.alquileres.model.Contrato;
 import com.alquileres.model.Inmueble;
 import com.alquileres.model.Inquilino;
 import com.alquileres.model.EstadoContrato;
-import com.alquileres.model.EstadoInmueble;
 import com.alquileres.model.Propietario;
-import com.alquileres.model.TipoInmueble;
 import com.alquileres.model.CancelacionContrato;
 import com.alquileres.model.MotivoCancelacion;
 import com.alquileres.model.PDF;
@@ -19,24 +20,22 @@ import com.alquileres.repository.ContratoRepository;
 import com.alquileres.repository.InmuebleRepository;
 import com.alquileres.repository.InquilinoRepository;
 import com.alquileres.repository.EstadoContratoRepository;
-import com.alquileres.repository.EstadoInmuebleRepository;
 import com.alquileres.repository.PropietarioRepository;
-import com.alquileres.repository.TipoInmuebleRepository;
 import com.alquileres.repository.CancelacionContratoRepository;
 import com.alquileres.repository.MotivoCancelacionRepository;
 import com.alquileres.repository.AlquilerRepository;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
+import com.alquileres.util.CursorContratos;
 import com.alquileres.util.FechaUtil;
-import com.alquileres.util.BCRAApiClient;
-import com.alquileres.security.EncryptionService;
+import com.alquileres.util.RangoFechasICL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CacheConfig;
 import com.alquileres.config.CacheNames;
 
@@ -45,6 +44,7 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -56,20 +56,23 @@ public class ContratoService {
 
     private static final Logger logger = LoggerFactory.getLogger(ContratoService.class);
 
+    /**
+     * Tamaño máximo de página del listado paginado de contratos
+     */
+    public static final int LIMITE_PAGINA_MAXIMO = 200;
+
     private final ContratoRepository contratoRepository;
     private final InmuebleRepository inmuebleRepository;
     private final InquilinoRepository inquilinoRepository;
     private final EstadoContratoRepository estadoContratoRepository;
-    private final EstadoInmuebleRepository estadoInmuebleRepository;
     private final PropietarioRepository propietarioRepository;
-    private final TipoInmuebleRepository tipoInmuebleRepository;
+    private final DatosReferenciaService datosReferenciaService;
     private final CancelacionContratoRepository cancelacionContratoRepository;
     private final MotivoCancelacionRepository motivoCancelacionRepository;
     private final AlquilerRepository alquilerRepository;
     private final ServicioContratoService servicioContratoService;
-    private final EncryptionService encryptionService;
     private final PDFService pdfService;
-    private final BCRAApiClient bcraApiClient;
+    private final IndiceICLService indiceICLService;
     private final ClockService clockService;
 
     public ContratoService(
@@ -77,36 +80,35 @@ public class ContratoService {
             InmuebleRepository inmuebleRepository,
             InquilinoRepository inquilinoRepository,
             EstadoContratoRepository estadoContratoRepository,
-            EstadoInmuebleRepository estadoInmuebleRepository,
             PropietarioRepository propietarioRepository,
-            TipoInmuebleRepository tipoInmuebleRepository,
+            DatosReferenciaService datosReferenciaService,
             CancelacionContratoRepository cancelacionContratoRepository,
             MotivoCancelacionRepository motivoCancelacionRepository,
             AlquilerRepository alquilerRepository,
             ServicioContratoService servicioContratoService,
-            EncryptionService encryptionService,
             PDFService pdfService,
-            BCRAApiClient bcraApiClient,
-            ClockService clockService, AumentoAlquilerService aumentoAlquilerService) {
+            IndiceICLService indiceICLService,
+            ClockService clockService, AumentoAlquilerService aumentoAlquilerService,
+            CacheContratosService cacheContratosService) {
         this.contratoRepository = contratoRepository;
         this.inmuebleRepository = inmuebleRepository;
         this.inquilinoRepository = inquilinoRepository;
         this.estadoContratoRepository = estadoContratoRepository;
-        this.estadoInmuebleRepository = estadoInmuebleRepository;
         this.propietarioRepository = propietarioRepository;
-        this.tipoInmuebleRepository = tipoInmuebleRepository;
+        this.datosReferenciaService = datosReferenciaService;
         this.cancelacionContratoRepository = cancelacionContratoRepository;
         this.motivoCancelacionRepository = motivoCancelacionRepository;
         this.alquilerRepository = alquilerRepository;
         this.servicioContratoService = servicioContratoService;
-        this.encryptionService = encryptionService;
         this.pdfService = pdfService;
-        this.bcraApiClient = bcraApiClient;
+        this.indiceICLService = indiceICLService;
         this.clockService = clockService;
         this.aumentoAlquilerService = aumentoAlquilerService;
+        this.cacheContratosService = cacheContratosService;
     }
 
     private final AumentoAlquilerService aumentoAlquilerService;
+    private final CacheContratosService cacheContratosService;
 
     // Constructor adicional para inyección de AumentoAlquilerService si es necesario
     public void setAumentoAlquilerService(AumentoAlquilerService aumentoAlquilerService) {
@@ -143,6 +145,45 @@ public class ContratoService {
         return contratoDTO;
     }
 
+    /**
+     * Arma un ContratoDTO completo a partir de la proyección de detalle
+     * 
+     * Devuelve lo mismo que enrichContratoDTO sin consultas por contrato: inmueble, inquilino,
+     * propietario y monto del último alquiler vienen en la fila de la proyección, y los nombres
+     * del tipo de inmueble y del estado salen de DatosReferenciaService
+     * 
+     * @param detalle Fila de ContratoRepository.SELECT_DETALLE
+     * @return ContratoDTO con toda la información adicional
+     */
+    private ContratoDTO construirContratoDTO(ContratoDetalleProyeccion detalle) {
+        ContratoDTO contratoDTO = new ContratoDTO(detalle);
+
+        convertirFechasParaRespuesta(detalle.getFechaInicio(), detalle.getFechaFin(),
+            detalle.getFechaAumento(), contratoDTO);
+
+        datosReferenciaService.buscarNombreTipoInmueble(detalle.getTipoInmuebleId())
+            .ifPresent(contratoDTO::setTipoInmueble);
+        datosReferenciaService.buscarNombreEstadoContrato(detalle.getEstadoContratoId())
+            .ifPresent(contratoDTO::setEstadoContratoNombre);
+
+        // La clave fiscal no se desencripta en los listados: se revela desde el propietario
+        if (Boolean.TRUE.equals(detalle.getTieneClaveFiscalPropietario())) {
+            contratoDTO.setClaveFiscalPropietario(ClaveFiscalService.CLAVE_OCULTA);
+        }
+
+        return contratoDTO;
+    }
+
+    /**
+     * Invalida las entradas de caché del contrato, su inmueble y su inquilino, y los listados
+     *
+     * @param contrato Contrato creado o modificado
+     */
+    private void invalidarCache(Contrato contrato) {
+        cacheContratosService.contratoModificado(contrato.getId(),
+            contrato.getInmueble().getId(), contrato.getInquilino().getId());
+    }
+
     /**
      * Convierte las fechas del contrato de formato ISO a formato usuario
      * 
@@ -150,21 +191,27 @@ public class ContratoService {
      * @param contratoDTO DTO destino donde se setean las fechas convertidas
      */
     private void convertirFechasParaRespuesta(Contrato contrato, ContratoDTO contratoDTO) {
-        if (contrato.getFechaInicio() != null) {
-            contratoDTO.setFechaInicio(FechaUtil.convertirFechaISOToUsuario(contrato.getFechaInicio()));
+        convertirFechasParaRespuesta(contrato.getFechaInicio(), contrato.getFechaFin(),
+            contrato.getFechaAumento(), contratoDTO);
+    }
+
+    private void convertirFechasParaRespuesta(LocalDate fechaInicio, LocalDate fechaFin,
+                                              LocalDate fechaAumento, ContratoDTO contratoDTO) {
+        if (fechaInicio != null) {
+            contratoDTO.setFechaInicio(FechaUtil.convertirFechaISOToUsuario(fechaInicio.toString()));
         }
-        if (contrato.getFechaFin() != null) {
-            contratoDTO.setFechaFin(FechaUtil.convertirFechaISOToUsuario(contrato.getFechaFin()));
+        if (fechaFin != null) {
+            contratoDTO.setFechaFin(FechaUtil.convertirFechaISOToUsuario(fechaFin.toString()));
         }
-        if (contrato.getFechaAumento() != null) {
-            contratoDTO.setFechaAumento(FechaUtil.convertirFechaISOToUsuario(contrato.getFechaAumento()));
+        if (fechaAumento != null) {
+            contratoDTO.setFechaAumento(FechaUtil.convertirFechaISOToUsuario(fechaAumento.toString()));
         }
     }
 
     /**
      * Agrega la información completa del propietario al DTO del contrato
      * 
-     * Obtiene el propietario a través del inmueble e incluye la clave fiscal desencriptada
+     * Obtiene el propietario a través del inmueble; la clave fiscal se incluye oculta
      * 
      * @param contrato Contrato con referencia al inmueble
      * @param contratoDTO DTO donde se setea la información del propietario
@@ -192,31 +239,7 @@ public class ContratoService {
         contratoDTO.setEmailPropietario(propietario.getEmail());
         contratoDTO.setDireccionPropietario(propietario.getDireccion());
 
-        // Desencriptar y agregar clave fiscal si existe
-        desencriptarYAgregarClaveFiscal(propietario, contratoDTO);
-    }
-
-    /**
-     * Desencripta la clave fiscal del propietario y la agrega al DTO
-     * 
-     * Si hay algún error en la desencriptación, se setea como null
-     * 
-     * @param propietario Propietario con clave fiscal encriptada
-     * @param contratoDTO DTO donde se setea la clave fiscal desencriptada
-     */
-    private void desencriptarYAgregarClaveFiscal(Propietario propietario, ContratoDTO contratoDTO) {
-        if (propietario.getClaveFiscal() == null || propietario.getClaveFiscal().trim().isEmpty()) {
-            return;
-        }
-
-        try {
-            String claveFiscalDesencriptada = encryptionService.desencriptar(propietario.getClaveFiscal());
-            contratoDTO.setClaveFiscalPropietario(claveFiscalDesencriptada);
-        } catch (Exception e) {
-            logger.error("Error desencriptando clave fiscal del propietario ID: {}", 
-                propietario.getId(), e);
-            contratoDTO.setClaveFiscalPropietario(null);
-        }
+        contratoDTO.setClaveFiscalPropietario(ClaveFiscalService.ocultar(propietario.getClaveFiscal()));
     }
 
     /**
@@ -230,13 +253,8 @@ public class ContratoService {
             return;
         }
 
-        Optional<TipoInmueble> tipoInmuebleOpt = tipoInmuebleRepository.findById(
-            contrato.getInmueble().getTipoInmuebleId()
-        );
-        
-        tipoInmuebleOpt.ifPresent(tipoInmueble -> 
-            contratoDTO.setTipoInmueble(tipoInmueble.getNombre())
-        );
+        datosReferenciaService.buscarNombreTipoInmueble(contrato.getInmueble().getTipoInmuebleId())
+            .ifPresent(contratoDTO::setTipoInmueble);
     }
 
     /**
@@ -259,11 +277,10 @@ public class ContratoService {
      * 
      * @return Lista de todos los contratos con información enriquecida
      */
-    @Cacheable(CacheNames.CONTRATOS)
+    @Cacheable(value = CacheNames.CONTRATOS, key = "@cacheContratosService.clave()")
     public List<ContratoDTO> obtenerTodosLosContratos() {
-        List<Contrato> contratos = contratoRepository.findAll();
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
+        return contratoRepository.findDetalleContratos().stream()
+                .map(this::construirContratoDTO)
                 .collect(Collectors.toList());
     }
 
@@ -276,14 +293,14 @@ public class ContratoService {
      */
     @Cacheable(value = CacheNames.CONTRATO_POR_ID, key = "#id")
     public ContratoDTO obtenerContratoPorId(Long id) {
-        Contrato contrato = contratoRepository.findById(id)
+        ContratoDetalleProyeccion detalle = contratoRepository.findDetalleContratoById(id)
             .orElseThrow(() -> new BusinessException(
                 ErrorCodes.CONTRATO_NO_ENCONTRADO, 
                 "Contrato no encontrado con ID: " + id, 
                 HttpStatus.NOT_FOUND
             ));
         
-        return enrichContratoDTO(contrato);
+        return construirContratoDTO(detalle);
     }
 
     /**
@@ -295,16 +312,16 @@ public class ContratoService {
      */
     @Cacheable(value = CacheNames.CONTRATOS_POR_INMUEBLE, key = "#inmuebleId")
     public List<ContratoDTO> obtenerContratosPorInmueble(Long inmuebleId) {
-        Inmueble inmueble = inmuebleRepository.findById(inmuebleId)
-            .orElseThrow(() -> new BusinessException(
+        if (!inmuebleRepository.existsById(inmuebleId)) {
+            throw new BusinessException(
                 ErrorCodes.INMUEBLE_NO_ENCONTRADO, 
                 "Inmueble no encontrado con ID: " + inmuebleId, 
                 HttpStatus.NOT_FOUND
-            ));
+            );
+        }
 
-        List<Contrato> contratos = contratoRepository.findByInmueble(inmueble);
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
+        return contratoRepository.findDetalleContratosByInmuebleId(inmuebleId).stream()
+                .map(this::construirContratoDTO)
                 .collect(Collectors.toList());
     }
 
@@ -317,16 +334,16 @@ public class ContratoService {
      */
     @Cacheable(value = CacheNames.CONTRATOS_POR_INQUILINO, key = "#inquilinoId")
     public List<ContratoDTO> obtenerContratosPorInquilino(Long inquilinoId) {
-        Inquilino inquilino = inquilinoRepository.findById(inquilinoId)
-            .orElseThrow(() -> new BusinessException(
+        if (!inquilinoRepository.existsById(inquilinoId)) {
+            throw new BusinessException(
                 ErrorCodes.INQUILINO_NO_ENCONTRADO, 
                 "Inquilino no encontrado con ID: " + inquilinoId, 
                 HttpStatus.NOT_FOUND
-            ));
+            );
+        }
 
-        List<Contrato> contratos = contratoRepository.findByInquilino(inquilino);
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
+        return contratoRepository.findDetalleContratosByInquilinoId(inquilinoId).stream()
+                .map(this::construirContratoDTO)
                 .collect(Collectors.toList());
     }
 
@@ -337,11 +354,10 @@ public class ContratoService {
      * 
      * @return Lista de contratos vigentes
      */
-    @Cacheable(CacheNames.CONTRATOS_VIGENTES)
+    @Cacheable(value = CacheNames.CONTRATOS_VIGENTES, key = "@cacheContratosService.clave()")
     public List<ContratoDTO> obtenerContratosVigentes() {
-        List<Contrato> contratos = contratoRepository.findContratosVigentes();
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
+        return contratoRepository.findDetalleContratosVigentes().stream()
+                .map(this::construirContratoDTO)
                 .collect(Collectors.toList());
     }
 
@@ -352,20 +368,113 @@ public class ContratoService {
      * 
      * @return Lista de contratos no vigentes
      */
-    @Cacheable(CacheNames.CONTRATOS_NO_VIGENTES)
+    @Cacheable(value = CacheNames.CONTRATOS_NO_VIGENTES, key = "@cacheContratosService.clave()")
     public List<ContratoDTO> obtenerContratosNoVigentes() {
-        List<Contrato> contratos = contratoRepository.findContratosNoVigentes();
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
+        return contratoRepository.findDetalleContratosNoVigentes().stream()
+                .map(this::construirContratoDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene una página del listado de contratos filtrado, paginado por cursor (keyset)
+     * 
+     * Cada página continúa desde la posición del último contrato de la anterior, en una sola
+     * consulta de a lo sumo limite + 1 filas: la fila extra solo indica que hay página siguiente.
+     * Se cachea cada página por filtros, cursor y límite, en lugar del listado completo.
+     * 
+     * @param filtro Filtros y orden del listado
+     * @param cursor nextCursor de la página anterior (null para la primera página)
+     * @param limite Cantidad máxima de contratos de la página (1 a LIMITE_PAGINA_MAXIMO)
+     * @return Contratos de la página y cursor de la siguiente (null si es la última)
+     * @throws BusinessException si algún filtro, el cursor o el límite son inválidos
+     */
+    @Cacheable(value = CacheNames.CONTRATOS_PAGINAS, key = "@cacheContratosService.clave(#filtro.claveCache(), #cursor, #limite)")
+    public PaginaContratosDTO obtenerPaginaContratos(FiltroContratosDTO filtro, String cursor, int limite) {
+        if (limite < 1 || limite > LIMITE_PAGINA_MAXIMO) {
+            throw new BusinessException(
+                ErrorCodes.DATOS_INVALIDOS,
+                "El límite debe estar entre 1 y " + LIMITE_PAGINA_MAXIMO,
+                HttpStatus.BAD_REQUEST
+            );
+        }
+
+        List<Integer> estados = obtenerIdsEstadosFiltro(filtro.getEstado());
+        LocalDate vencimientoDesde = convertirYValidarFecha(filtro.getVencimientoDesde(), "vencimientoDesde");
+        LocalDate vencimientoHasta = convertirYValidarFecha(filtro.getVencimientoHasta(), "vencimientoHasta");
+        if (vencimientoDesde != null && vencimientoHasta != null && vencimientoHasta.isBefore(vencimientoDesde)) {
+            throw new BusinessException(
+                ErrorCodes.RANGO_DE_FECHAS_INVALIDO,
+                "vencimientoHasta no puede ser anterior a vencimientoDesde",
+                HttpStatus.BAD_REQUEST
+            );
+        }
+        CursorContratos.Posicion posicion = CursorContratos.decodificar(cursor, filtro.claveCache());
+
+        if (estados.isEmpty()) {
+            return new PaginaContratosDTO(List.of(), null);
+        }
+
+        Limit limiteConsulta = Limit.of(limite + 1);
+        List<ContratoDetalleProyeccion> filas = switch (filtro.getOrden()) {
+            case FiltroContratosDTO.ORDEN_ID -> contratoRepository.findPaginaDetalleOrdenadaPorId(
+                estados, filtro.getPropietarioId(), filtro.getInquilinoId(), vencimientoDesde, vencimientoHasta,
+                filtro.getAumentaConIcl(), posicion != null ? posicion.id() : 0L, limiteConsulta);
+            case FiltroContratosDTO.ORDEN_FECHA_FIN -> contratoRepository.findPaginaDetalleOrdenadaPorFechaFin(
+                estados, filtro.getPropietarioId(), filtro.getInquilinoId(), vencimientoDesde, vencimientoHasta,
+                filtro.getAumentaConIcl(), posicion != null ? posicion.fechaFin() : null,
+                posicion != null ? posicion.id() : null, limiteConsulta);
+            default -> throw new BusinessException(
+                ErrorCodes.DATOS_INVALIDOS,
+                "Orden inválido: " + filtro.getOrden() + ". Use '" + FiltroContratosDTO.ORDEN_ID +
+                    "' o '" + FiltroContratosDTO.ORDEN_FECHA_FIN + "'",
+                HttpStatus.BAD_REQUEST
+            );
+        };
+
+        String nextCursor = null;
+        if (filas.size() > limite) {
+            filas = filas.subList(0, limite);
+            ContratoDetalleProyeccion ultimo = filas.get(limite - 1);
+            nextCursor = CursorContratos.codificar(filtro.claveCache(), ultimo.getFechaFin(), ultimo.getId());
+        }
+
+        List<ContratoDTO> contratos = filas.stream()
+                .map(this::construirContratoDTO)
+                .collect(Collectors.toList());
+        return new PaginaContratosDTO(contratos, nextCursor);
+    }
+
+    /**
+     * IDs de estado de contrato que incluye el filtro de estado del listado paginado
+     * 
+     * @param estado "vigentes", "no-vigentes" o null (todos)
+     * @return IDs de los estados
+     * @throws BusinessException si el valor del filtro no es válido
+     */
+    private List<Integer> obtenerIdsEstadosFiltro(String estado) {
+        if (estado == null) {
+            return datosReferenciaService.buscarIdsEstadosContrato();
+        }
+        return switch (estado) {
+            case FiltroContratosDTO.ESTADO_VIGENTES -> Optional.ofNullable(datosReferenciaService.getIdEstadoContratoVigente())
+                .map(List::of)
+                .orElseGet(List::of);
+            case FiltroContratosDTO.ESTADO_NO_VIGENTES -> datosReferenciaService.getIdsEstadosContratoNoVigentes();
+            default -> throw new BusinessException(
+                ErrorCodes.DATOS_INVALIDOS,
+                "Estado inválido: " + estado + ". Use '" + FiltroContratosDTO.ESTADO_VIGENTES +
+                    "' o '" + FiltroContratosDTO.ESTADO_NO_VIGENTES + "'",
+                HttpStatus.BAD_REQUEST
+            );
+        };
+    }
+
     /**
      * Cuenta la cantidad total de contratos vigentes
      * 
      * @return Cantidad de contratos vigentes
      */
-    @Cacheable(CacheNames.CONTRATOS_VIGENTES_COUNT)
+    @Cacheable(value = CacheNames.CONTRATOS_VIGENTES_COUNT, key = "@cacheContratosService.clave()")
     public Long contarContratosVigentes() {
         return contratoRepository.countContratosVigentes();
     }
@@ -378,18 +487,13 @@ public class ContratoService {
      * @param diasAntes Número de días hacia adelante para buscar vencimientos
      * @return Lista de contratos próximos a vencer
      */
-    @Cacheable(value = CacheNames.CONTRATOS_PROXIMOS_VENCER, key = "#diasAntes")
+    @Cacheable(value = CacheNames.CONTRATOS_PROXIMOS_VENCER, key = "@cacheContratosService.clave(#diasAntes)")
     public List<ContratoDTO> obtenerContratosProximosAVencer(int diasAntes) {
-        String fechaActual = clockService.getCurrentDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaLimite = clockService.getCurrentDate().plusDays(diasAntes).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate fechaLimite = fechaActual.plusDays(diasAntes);
 
-        List<Contrato> contratos = contratoRepository.findContratosVigentesProximosAVencer(
-            fechaActual, 
-            fechaLimite
-        );
-        
-        return contratos.stream()
-                .map(this::enrichContratoDTO)
+        return contratoRepository.findDetalleContratosVigentesProximosAVencer(fechaActual, fechaLimite).stream()
+                .map(this::construirContratoDTO)
                 .collect(Collectors.toList());
     }
 
@@ -399,10 +503,10 @@ public class ContratoService {
      * @param diasAntes Número de días hacia adelante para buscar vencimientos
      * @return Cantidad de contratos próximos a vencer
      */
-    @Cacheable(value = CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT, key = "#diasAntes")
+    @Cacheable(value = CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT, key = "@cacheContratosService.clave(#diasAntes)")
     public Long contarContratosProximosAVencer(int diasAntes) {
-        String fechaActual = clockService.getCurrentDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaLimite = clockService.getCurrentDate().plusDays(diasAntes).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        LocalDate fechaActual = clockService.getCurrentDate();
+        LocalDate fechaLimite = fechaActual.plusDays(diasAntes);
 
         return contratoRepository.countContratosVigentesProximosAVencer(fechaActual, fechaLimite);
     }
@@ -423,19 +527,6 @@ public class ContratoService {
      * @throws BusinessException si hay errores de validación
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_VIGENTES_COUNT,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public ContratoDTO crearContrato(ContratoCreateDTO contratoDTO) {
         // Paso 1: Validar entidades relacionadas
         Inmueble inmueble = validarYObtenerInmueble(contratoDTO.getInmuebleId());
@@ -448,7 +539,7 @@ public class ContratoService {
         EstadoContrato estadoContrato = obtenerEstadoContrato(contratoDTO.getEstadoContratoId());
         
         // Paso 4: Pre-cargar estado "Alquilado" si será necesario
-        EstadoInmueble estadoAlquilado = precargarEstadoAlquilado(estadoContrato);
+        Integer idEstadoAlquilado = precargarIdEstadoAlquilado(estadoContrato);
         
         // Paso 5: Procesar y validar fechas del contrato
         FechasContrato fechas = procesarYValidarFechas(contratoDTO);
@@ -464,10 +555,10 @@ public class ContratoService {
         
         // Paso 7: Actualizar estados si el contrato queda vigente
         if ("Vigente".equals(estadoContrato.getNombre())) {
-            actualizarEstadosParaContratoVigente(contratoGuardado, inmueble, inquilino, estadoAlquilado);
+            actualizarEstadosParaContratoVigente(contratoGuardado, inmueble, inquilino, idEstadoAlquilado);
             
             // Verificar si la fecha de inicio es anterior a la fecha actual
-            LocalDate fechaInicioDate = LocalDate.parse(fechas.fechaInicio, DateTimeFormatter.ISO_LOCAL_DATE);
+            LocalDate fechaInicioDate = fechas.fechaInicio;
             LocalDate fechaActual = clockService.getCurrentDate();
             
             if (fechaInicioDate.isBefore(fechaActual)) {
@@ -484,6 +575,7 @@ public class ContratoService {
             // El frontend envía explícitamente qué servicios crear mediante POST a /api/servicios-contrato
         }
         
+        invalidarCache(contratoGuardado);
         return enrichContratoDTO(contratoGuardado);
     }
 
@@ -535,10 +627,10 @@ public class ContratoService {
         }
 
         // Validar que el inmueble esté en estado "Disponible"
-        Optional<EstadoInmueble> estadoInmuebleOpt = estadoInmuebleRepository.findById(inmueble.getEstado());
-        if (estadoInmuebleOpt.isPresent()) {
-            String nombreEstado = estadoInmuebleOpt.get().getNombre();
-            if (!"Disponible".equals(nombreEstado)) {
+        Optional<String> nombreEstadoOpt = datosReferenciaService.buscarNombreEstadoInmueble(inmueble.getEstado());
+        if (nombreEstadoOpt.isPresent()) {
+            String nombreEstado = nombreEstadoOpt.get();
+            if (!DatosReferenciaService.ESTADO_INMUEBLE_DISPONIBLE.equals(nombreEstado)) {
                 throw new BusinessException(
                     ErrorCodes.INMUEBLE_NO_DISPONIBLE,
                     "El inmueble debe estar en estado 'Disponible' para crear un contrato. Estado actual: " + nombreEstado,
@@ -572,7 +664,8 @@ public class ContratoService {
         }
         
         // Si no se proporciona estado, asignar "Vigente" por defecto
-        return estadoContratoRepository.findByNombre("Vigente")
+        return datosReferenciaService.buscarIdEstadoContrato(DatosReferenciaService.ESTADO_CONTRATO_VIGENTE)
+            .flatMap(estadoContratoRepository::findById)
             .orElseThrow(() -> new BusinessException(
                 ErrorCodes.ESTADO_CONTRATO_NO_ENCONTRADO, 
                 "No se pudo asignar el estado por defecto", 
@@ -581,14 +674,15 @@ public class ContratoService {
     }
 
     /**
-     * Pre-carga el estado "Alquilado" si será necesario para optimizar
+     * Pre-carga el ID del estado "Alquilado" si será necesario
      * 
      * @param estadoContrato Estado del contrato que se está creando
-     * @return EstadoInmueble "Alquilado" o null si no es necesario
+     * @return ID del estado "Alquilado" o null si no es necesario
      */
-    private EstadoInmueble precargarEstadoAlquilado(EstadoContrato estadoContrato) {
+    private Integer precargarIdEstadoAlquilado(EstadoContrato estadoContrato) {
         if ("Vigente".equals(estadoContrato.getNombre())) {
-            return estadoInmuebleRepository.findByNombre("Alquilado").orElse(null);
+            return datosReferenciaService.buscarIdEstadoInmueble(DatosReferenciaService.ESTADO_INMUEBLE_ALQUILADO)
+                .orElse(null);
         }
         return null;
     }
@@ -596,46 +690,45 @@ public class ContratoService {
     /**
      * Procesa y valida todas las fechas del contrato
      * 
-     * Convierte fechas del formato usuario (dd/MM/yyyy) a formato ISO (yyyy-MM-dd)
+     * Convierte fechas del formato usuario (dd/MM/yyyy) a LocalDate
      * y realiza todas las validaciones lógicas necesarias
      * 
      * @param contratoDTO DTO con las fechas en formato usuario
-     * @return FechasContrato con fechas validadas en formato ISO
+     * @return FechasContrato con fechas validadas
      * @throws BusinessException si las fechas son inválidas
      */
     private FechasContrato procesarYValidarFechas(ContratoCreateDTO contratoDTO) {
-        // Convertir fechas del usuario a formato ISO
-        String fechaInicioISO = convertirYValidarFecha(
+        // Convertir fechas del usuario
+        LocalDate fechaInicio = convertirYValidarFecha(
             contratoDTO.getFechaInicio(), 
             "fecha de inicio"
         );
-        String fechaFinISO = convertirYValidarFecha(
+        LocalDate fechaFin = convertirYValidarFecha(
             contratoDTO.getFechaFin(), 
             "fecha de fin"
         );
         
         // Validar lógica de fechas
-        validarLogicaFechas(fechaInicioISO, fechaFinISO);
+        validarLogicaFechas(fechaInicio, fechaFin);
         
         // Calcular fecha de primer aumento
-        String fechaAumentoCalculada = calcularFechaAumento(
-            fechaInicioISO, 
-            fechaFinISO, 
+        LocalDate fechaAumentoCalculada = calcularFechaAumento(
+            fechaInicio, 
             contratoDTO.getPeriodoAumento()
         );
         
-        return new FechasContrato(fechaInicioISO, fechaFinISO, fechaAumentoCalculada);
+        return new FechasContrato(fechaInicio, fechaFin, fechaAumentoCalculada);
     }
 
     /**
-     * Convierte y valida una fecha del formato usuario a formato ISO
+     * Convierte y valida una fecha del formato usuario
      * 
      * @param fechaUsuario Fecha en formato dd/MM/yyyy
      * @param nombreCampo Nombre del campo para mensajes de error
-     * @return Fecha en formato ISO (yyyy-MM-dd) o null si no se proporcionó
+     * @return Fecha convertida o null si no se proporcionó
      * @throws BusinessException si el formato es inválido
      */
-    private String convertirYValidarFecha(String fechaUsuario, String nombreCampo) {
+    private LocalDate convertirYValidarFecha(String fechaUsuario, String nombreCampo) {
         if (fechaUsuario == null) {
             return null;
         }
@@ -649,7 +742,7 @@ public class ContratoService {
         }
         
         try {
-            return FechaUtil.convertirFechaUsuarioToISODate(fechaUsuario);
+            return FechaUtil.convertirFechaUsuarioToLocalDate(fechaUsuario);
         } catch (IllegalArgumentException e) {
             throw new BusinessException(
                 ErrorCodes.FORMATO_FECHA_INVALIDO, 
@@ -666,16 +759,16 @@ public class ContratoService {
      * - La fecha fin no sea anterior a la fecha inicio
      * - La fecha fin no sea anterior a la fecha actual
      * 
-     * @param fechaInicioISO Fecha de inicio en formato ISO
-     * @param fechaFinISO Fecha de fin en formato ISO
+     * @param fechaInicio Fecha de inicio
+     * @param fechaFin Fecha de fin
      * @throws BusinessException si las fechas no cumplen las reglas
      */
-    private void validarLogicaFechas(String fechaInicioISO, String fechaFinISO) {
-        String fechaActualISO = clockService.getCurrentDate().toString();
+    private void validarLogicaFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        LocalDate fechaActual = clockService.getCurrentDate();
         
         // Validar que fecha fin no sea anterior a fecha inicio
-        if (fechaInicioISO != null && fechaFinISO != null) {
-            if (FechaUtil.compararFechas(fechaFinISO, fechaInicioISO) < 0) {
+        if (fechaInicio != null && fechaFin != null) {
+            if (fechaFin.isBefore(fechaInicio)) {
                 throw new BusinessException(
                     ErrorCodes.RANGO_DE_FECHAS_INVALIDO, 
                     "La fecha de fin no puede ser anterior a la fecha de inicio", 
@@ -685,7 +778,7 @@ public class ContratoService {
         }
         
         // Validar que fecha fin no sea anterior a fecha actual
-        if (fechaFinISO != null && FechaUtil.compararFechas(fechaFinISO, fechaActualISO) < 0) {
+        if (fechaFin != null && fechaFin.isBefore(fechaActual)) {
             throw new BusinessException(
                 ErrorCodes.RANGO_DE_FECHAS_INVALIDO,
                 "La fecha de fin no puede ser anterior a la fecha actual", 
@@ -700,37 +793,20 @@ public class ContratoService {
      * La fecha de aumento se calcula sumando el período de aumento (en meses)
      * a la fecha de inicio y ajustándola al día 1 del mes resultante
      * 
-     * @param fechaInicioISO Fecha de inicio en formato ISO
-     * @param fechaFinISO Fecha de fin en formato ISO
+     * Si la fecha resultante supera la fecha de fin, el contrato queda marcado
+     * como sin más aumentos al asignarla (ver Contrato#programarProximoAumento)
+     * 
+     * @param fechaInicio Fecha de inicio del contrato
      * @param periodoAumento Período de aumento en meses
-     * @return Fecha de aumento calculada o "No aumenta más" si excede la fecha fin
+     * @return Fecha de aumento calculada o null si el contrato no tiene período de aumento
      */
-    private String calcularFechaAumento(String fechaInicioISO, String fechaFinISO, Integer periodoAumento) {
-        if (fechaInicioISO == null || periodoAumento == null || periodoAumento <= 0) {
+    private LocalDate calcularFechaAumento(LocalDate fechaInicio, Integer periodoAumento) {
+        if (fechaInicio == null || periodoAumento == null || periodoAumento <= 0) {
             return null;
         }
         
-        try {
-            String fechaCalculada = FechaUtil.agregarMesesDate(fechaInicioISO, periodoAumento);
-            
-            // Convertir al día 1 del mes calculado (ej: 2025-06-20 → 2025-06-01)
-            LocalDate fecha = LocalDate.parse(fechaCalculada, DateTimeFormatter.ISO_LOCAL_DATE);
-            LocalDate fechaDia1 = fecha.withDayOfMonth(1);
-            String fechaAumentoCalculada = fechaDia1.format(DateTimeFormatter.ISO_LOCAL_DATE);
-            
-            // Validar que la fecha de aumento no supere la fecha fin
-            if (fechaFinISO != null && FechaUtil.compararFechas(fechaAumentoCalculada, fechaFinISO) > 0) {
-                return "No aumenta más";
-            }
-            
-            return fechaAumentoCalculada;
-        } catch (IllegalArgumentException e) {
-            throw new BusinessException(
-                ErrorCodes.ERROR_CALCULO_FECHA, 
-                "Error calculando fecha de aumento: " + e.getMessage(), 
-                HttpStatus.BAD_REQUEST
-            );
-        }
+        // Día 1 del mes calculado (ej: 2025-06-20 → 2025-06-01)
+        return fechaInicio.plusMonths(periodoAumento).withDayOfMonth(1);
     }
 
     /**
@@ -767,7 +843,7 @@ public class ContratoService {
                 : new BigDecimal("10")
         );
         contrato.setPeriodoAumento(contratoDTO.getPeriodoAumento());
-        contrato.setFechaAumento(fechas.fechaAumento);
+        contrato.programarProximoAumento(fechas.fechaAumento);
         
         return contratoRepository.save(contrato);
     }
@@ -780,17 +856,17 @@ public class ContratoService {
      * @param contrato Contrato que se está creando
      * @param inmueble Inmueble a actualizar
      * @param inquilino Inquilino a actualizar
-     * @param estadoAlquilado Estado "Alquilado" pre-cargado
+     * @param idEstadoAlquilado ID del estado "Alquilado" pre-cargado
      */
     private void actualizarEstadosParaContratoVigente(
             Contrato contrato,
             Inmueble inmueble,
             Inquilino inquilino,
-            EstadoInmueble estadoAlquilado) {
+            Integer idEstadoAlquilado) {
         
         // Actualizar estado del inmueble a "Alquilado"
-        if (estadoAlquilado != null) {
-            inmueble.setEstado(estadoAlquilado.getId());
+        if (idEstadoAlquilado != null) {
+            inmueble.setEstado(idEstadoAlquilado);
             inmueble.setEsAlquilado(true);
             inmuebleRepository.save(inmueble);
         }
@@ -815,11 +891,9 @@ public class ContratoService {
                 fechaActual.getMonth(), 
                 10
             );
-            String fechaVencimientoISO = fechaVencimiento.format(DateTimeFormatter.ISO_LOCAL_DATE);
-            
             com.alquileres.model.Alquiler nuevoAlquiler = new com.alquileres.model.Alquiler(
                 contrato,
-                fechaVencimientoISO,
+                fechaVencimiento,
                 contrato.getMonto()
             );
             nuevoAlquiler.setEsActivo(true);
@@ -838,11 +912,11 @@ public class ContratoService {
      * Clase interna para encapsular las fechas procesadas del contrato
      */
     private static class FechasContrato {
-        final String fechaInicio;
-        final String fechaFin;
-        final String fechaAumento;
+        final LocalDate fechaInicio;
+        final LocalDate fechaFin;
+        final LocalDate fechaAumento;
         
-        FechasContrato(String fechaInicio, String fechaFin, String fechaAumento) {
+        FechasContrato(LocalDate fechaInicio, LocalDate fechaFin, LocalDate fechaAumento) {
             this.fechaInicio = fechaInicio;
             this.fechaFin = fechaFin;
             this.fechaAumento = fechaAumento;
@@ -861,21 +935,6 @@ public class ContratoService {
      * @throws BusinessException si el contrato no existe o el cambio no es válido
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATO_POR_ID,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_VIGENTES_COUNT,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public ContratoDTO terminarContrato(Long id, EstadoContratoUpdateDTO estadoContratoUpdateDTO) {
         // Validar existencia del contrato y nuevo estado
         Contrato contrato = contratoRepository.findById(id)
@@ -912,6 +971,7 @@ public class ContratoService {
         );
 
         Contrato contratoActualizado = contratoRepository.save(contrato);
+        invalidarCache(contratoActualizado);
         return enrichContratoDTO(contratoActualizado);
     }
 
@@ -926,15 +986,15 @@ public class ContratoService {
         // Si se quiere activar el contrato, validar que el inmueble esté disponible
         if ("Vigente".equals(nombreNuevoEstado)) {
             Inmueble inmueble = contrato.getInmueble();
-            Optional<EstadoInmueble> estadoInmuebleActual = 
-                estadoInmuebleRepository.findById(inmueble.getEstado());
+            Optional<String> estadoInmuebleActual = 
+                datosReferenciaService.buscarNombreEstadoInmueble(inmueble.getEstado());
             
             if (estadoInmuebleActual.isPresent() && 
-                !"Disponible".equals(estadoInmuebleActual.get().getNombre())) {
+                !DatosReferenciaService.ESTADO_INMUEBLE_DISPONIBLE.equals(estadoInmuebleActual.get())) {
                 throw new BusinessException(
                     ErrorCodes.INMUEBLE_NO_DISPONIBLE,
                     "No se puede activar el contrato porque el inmueble no está disponible. " +
-                    "Estado actual: " + estadoInmuebleActual.get().getNombre(),
+                    "Estado actual: " + estadoInmuebleActual.get(),
                     HttpStatus.BAD_REQUEST
                 );
             }
@@ -981,12 +1041,12 @@ public class ContratoService {
      */
     public void finalizarContrato(Contrato contrato) {
         // Actualizar estado del inmueble a "Disponible"
-        Optional<EstadoInmueble> estadoDisponible = 
-            estadoInmuebleRepository.findByNombre("Disponible");
+        Optional<Integer> estadoDisponible = 
+            datosReferenciaService.buscarIdEstadoInmueble(DatosReferenciaService.ESTADO_INMUEBLE_DISPONIBLE);
         
         if (estadoDisponible.isPresent()) {
             Inmueble inmueble = contrato.getInmueble();
-            inmueble.setEstado(estadoDisponible.get().getId());
+            inmueble.setEstado(estadoDisponible.get());
             inmueble.setEsAlquilado(false);
             inmuebleRepository.save(inmueble);
         }
@@ -1013,12 +1073,12 @@ public class ContratoService {
      */
     private void activarContrato(Contrato contrato) {
         // Actualizar estado del inmueble a "Alquilado"
-        Optional<EstadoInmueble> estadoAlquilado = 
-            estadoInmuebleRepository.findByNombre("Alquilado");
+        Optional<Integer> estadoAlquilado = 
+            datosReferenciaService.buscarIdEstadoInmueble(DatosReferenciaService.ESTADO_INMUEBLE_ALQUILADO);
         
         if (estadoAlquilado.isPresent()) {
             Inmueble inmueble = contrato.getInmueble();
-            inmueble.setEstado(estadoAlquilado.get().getId());
+            inmueble.setEstado(estadoAlquilado.get());
             inmueble.setEsAlquilado(true);
             inmuebleRepository.save(inmueble);
         }
@@ -1123,7 +1183,6 @@ public class ContratoService {
      * @return ContratoDTO con el PDF guardado
      * @throws BusinessException si el contrato no existe
      */
-    @CacheEvict(value = CacheNames.CONTRATO_POR_ID, key = "#id")
     public ContratoDTO guardarPdf(Long id, byte[] pdfBytes, String nombreArchivo) throws Exception {
         Contrato contrato = contratoRepository.findById(id)
             .orElseThrow(() -> new BusinessException(
@@ -1139,6 +1198,7 @@ public class ContratoService {
         // Asignar el ID del PDF al contrato
         contrato.setIdPDF(pdfGuardado.getId());
         Contrato contratoActualizado = contratoRepository.save(contrato);
+        invalidarCache(contratoActualizado);
         
         logger.info("PDF guardado exitosamente para contrato ID: {} con PDF ID: {}", 
             id, pdfGuardado.getId());
@@ -1296,6 +1356,11 @@ public class ContratoService {
             LocalDate fechaProximoAumento = calcularFechaProximoAumento(fechaInicio, contrato.getPeriodoAumento());
             LocalDate fechaUltimoAumento = fechaInicio.withDayOfMonth(1); // Rastrear la fecha del último aumento aplicado
 
+            // Resolver de una sola vez las tasas de ICL de todos los aumentos retroactivos
+            Map<RangoFechasICL, BigDecimal> tasasICL = Boolean.TRUE.equals(contrato.getAumentaConIcl())
+                ? indiceICLService.obtenerTasasAumentoICL(calcularRangosAumentoICL(contrato, fechaInicio, fechaActual))
+                : Map.of();
+
             // Crear el primer alquiler con la fecha de inicio del contrato (día original)
             LocalDate fechaVencimientoPrimerAlquiler = fechaInicio.withDayOfMonth(10);
             String fechaVencimientoISO = fechaVencimientoPrimerAlquiler.format(DateTimeFormatter.ISO_LOCAL_DATE);
@@ -1305,7 +1370,7 @@ public class ContratoService {
             int anioActual = fechaActual.getYear();
 
             Alquiler primerAlquiler = new Alquiler(
-                contrato, fechaVencimientoISO, montoActual
+                contrato, fechaVencimientoPrimerAlquiler, montoActual
             );
 
             // Determinar si el primer alquiler es del mes actual
@@ -1345,7 +1410,8 @@ public class ContratoService {
                     // Aplicar aumento según el tipo configurado
                     if (Boolean.TRUE.equals(contrato.getAumentaConIcl())) {
                         // Aumento por ICL: usar fechaUltimoAumento y fechaSiguienteAumento
-                        montoActual = aplicarAumentoICL(contrato, montoAnterior, fechaUltimoAumento, fechaSiguienteAumento, aumentosRetroactivos);
+                        montoActual = aplicarAumentoICL(contrato, montoAnterior, fechaUltimoAumento, fechaSiguienteAumento,
+                                                        tasasICL, aumentosRetroactivos);
                     } else {
                         // Aumento por porcentaje fijo
                         montoActual = aplicarAumentoFijo(contrato, montoAnterior, fechaIteracion, aumentosRetroactivos);
@@ -1357,7 +1423,6 @@ public class ContratoService {
                     // Calcular la siguiente fecha de aumento
                     fechaProximoAumento = calcularFechaProximoAumento(fechaProximoAumento, contrato.getPeriodoAumento());
 
-                    contrato.setFechaAumento(FechaUtil.convertirFechaISOToUsuario(fechaProximoAumento.format(DateTimeFormatter.ISO_LOCAL_DATE)));
                     logger.debug("Aumento aplicado en mes {}/{}: monto anterior={}, monto nuevo={}",
                                 fechaIteracion.getMonthValue(), fechaIteracion.getYear(), montoAnterior, montoActual);
                 }
@@ -1367,7 +1432,7 @@ public class ContratoService {
                 fechaVencimientoISO = fechaVencimiento.format(DateTimeFormatter.ISO_LOCAL_DATE);
 
                 Alquiler alquiler = new Alquiler(
-                    contrato, fechaVencimientoISO, montoActual
+                    contrato, fechaVencimiento, montoActual
                 );
 
                 // Determinar si es el mes actual para marcarlo como NO pagado
@@ -1412,20 +1477,12 @@ public class ContratoService {
             
             // Actualizar la fechaAumento del contrato para reflejar el próximo aumento
             if (fechaProximoAumento != null) {
-                String nuevaFechaAumento = fechaProximoAumento.format(DateTimeFormatter.ISO_LOCAL_DATE);
-                
-                // Verificar que no supere la fecha de fin del contrato
-                if (contrato.getFechaFin() != null && !contrato.getFechaFin().isEmpty()) {
-                    LocalDate fechaFin = LocalDate.parse(contrato.getFechaFin(), DateTimeFormatter.ISO_LOCAL_DATE);
-                    if (fechaProximoAumento.isAfter(fechaFin)) {
-                        nuevaFechaAumento = "No aumenta más";
-                    }
-                }
-                
-                contrato.setFechaAumento(nuevaFechaAumento);
+                // Si supera la fecha de fin del contrato queda marcado como sin más aumentos
+                contrato.programarProximoAumento(fechaProximoAumento);
                 contratoRepository.save(contrato);
                 logger.info("FechaAumento del contrato ID {} actualizada a: {}", 
-                           contrato.getId(), nuevaFechaAumento);
+                           contrato.getId(), Boolean.TRUE.equals(contrato.getSinMasAumentos())
+                               ? Contrato.TEXTO_SIN_MAS_AUMENTOS : fechaProximoAumento);
             }
             
         } catch (Exception e) {
@@ -1454,28 +1511,52 @@ public class ContratoService {
     }
     
     /**
-     * Aplica un aumento basado en ICL consultando la API del BCRA
+     * Calcula los rangos de fechas de ICL de todos los aumentos retroactivos de un contrato,
+     * siguiendo la misma secuencia de aumentos que crearAlquileresRetroactivos
+     *
+     * @param contrato Contrato con aumento por ICL
+     * @param fechaInicio Fecha de inicio del contrato
+     * @param fechaActual Fecha actual
+     * @return Rangos (último aumento, siguiente aumento) de cada aumento hasta el mes actual
+     */
+    private List<RangoFechasICL> calcularRangosAumentoICL(Contrato contrato, LocalDate fechaInicio, LocalDate fechaActual) {
+        List<RangoFechasICL> rangos = new java.util.ArrayList<>();
+        LocalDate limite = fechaActual.withDayOfMonth(1);
+        LocalDate fechaUltimoAumento = fechaInicio.withDayOfMonth(1);
+        LocalDate fechaProximoAumento = calcularFechaProximoAumento(fechaInicio, contrato.getPeriodoAumento());
+
+        while (fechaProximoAumento != null && !fechaProximoAumento.withDayOfMonth(1).isAfter(limite)) {
+            LocalDate fechaSiguienteAumento = fechaProximoAumento.withDayOfMonth(1);
+            rangos.add(new RangoFechasICL(fechaUltimoAumento, fechaSiguienteAumento));
+            fechaUltimoAumento = fechaSiguienteAumento;
+            fechaProximoAumento = calcularFechaProximoAumento(fechaProximoAumento, contrato.getPeriodoAumento());
+        }
+        return rangos;
+    }
+
+    /**
+     * Aplica un aumento basado en ICL con la tasa ya resuelta para su rango de fechas
      * 
      * @param contrato Contrato al que se aplica el aumento
      * @param montoAnterior Monto antes del aumento
      * @param fechaUltimoAumento Fecha del último aumento
      * @param fechaSiguienteAumento Fecha del siguiente aumento
+     * @param tasasICL Tasas de ICL resueltas por lote para los aumentos del contrato
      * @param aumentosRetroactivos Lista donde se agregan los aumentos creados
      * @return Nuevo monto con el aumento aplicado
      */
     private BigDecimal aplicarAumentoICL(Contrato contrato, BigDecimal montoAnterior, 
                                           LocalDate fechaUltimoAumento, LocalDate fechaSiguienteAumento,
+                                          Map<RangoFechasICL, BigDecimal> tasasICL,
                                           List<AumentoAlquiler> aumentosRetroactivos) {
         try {
-            // Formatear fechas para consulta a la API
-            String fechaInicioISO = fechaUltimoAumento.withDayOfMonth(1).format(DateTimeFormatter.ISO_LOCAL_DATE);
-            String fechaFinISO = fechaSiguienteAumento.withDayOfMonth(1).format(DateTimeFormatter.ISO_LOCAL_DATE);
-            
-            logger.debug("Consultando ICL del BCRA para aumento retroactivo: desde {} hasta {}", 
-                        fechaInicioISO, fechaFinISO);
-            
-            // Consultar tasa de aumento del BCRA
-            BigDecimal tasaAumento = bcraApiClient.obtenerTasaAumentoICL(fechaInicioISO, fechaFinISO);
+            RangoFechasICL rango = new RangoFechasICL(fechaUltimoAumento.withDayOfMonth(1), fechaSiguienteAumento.withDayOfMonth(1));
+            BigDecimal tasaAumento = tasasICL.get(rango);
+            if (tasaAumento == null) {
+                logger.warn("No hay tasa de ICL para el aumento retroactivo desde {} hasta {}. Se usará el monto sin aumento.",
+                           rango.fechaInicio(), rango.fechaFin());
+                return montoAnterior;
+            }
             BigDecimal montoNuevo = montoAnterior.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
             
             // Calcular porcentaje de aumento
@@ -1488,7 +1569,7 @@ public class ContratoService {
                 aumentoAlquilerService.crearAumentoSinGuardar(
                     contrato, montoAnterior, montoNuevo, porcentajeAumento
                 );
-            aumento.setFechaAumento(fechaSiguienteAumento.format(DateTimeFormatter.ISO_LOCAL_DATE));
+            aumento.setFechaAumento(fechaSiguienteAumento);
             aumento.setDescripcion("Aumento retroactivo por ICL");
             aumentosRetroactivos.add(aumento);
             
@@ -1533,7 +1614,7 @@ public class ContratoService {
             aumentoAlquilerService.crearAumentoSinGuardar(
                 contrato, montoAnterior, montoNuevo, porcentajeAumento
             );
-        aumento.setFechaAumento(fechaAumento.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        aumento.setFechaAumento(fechaAumento);
         aumento.setDescripcion("Aumento retroactivo por porcentaje fijo");
         aumentosRetroactivos.add(aumento);
         
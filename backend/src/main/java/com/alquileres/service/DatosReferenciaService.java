@@ -0,0 +1,204 @@
+package com.alquileres.service;
+
+import com.alquileres.model.EstadoContrato;
+import com.alquileres.model.EstadoInmueble;
+import com.alquileres.model.Rol;
+import com.alquileres.model.RolNombre;
+import com.alquileres.model.TipoInmueble;
+import com.alquileres.model.TipoServicio;
+import com.alquileres.repository.EstadoContratoRepository;
+import com.alquileres.repository.EstadoInmuebleRepository;
+import com.alquileres.repository.RolRepository;
+import com.alquileres.repository.TipoInmuebleRepository;
+import com.alquileres.repository.TipoServicioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Registro en memoria de las tablas de referencia: estados de contrato y de inmueble,
+ * tipos de inmueble y de servicio, y roles
+ *
+ * Son tablas de pocas filas que casi nunca cambian. Se leen completas la primera vez que se
+ * usan y quedan en mapas inmutables id <-> nombre; quien las modifique debe llamar a recargar(),
+ * que reemplaza el catálogo entero de una sola vez (los lectores nunca ven una carga a medias).
+ *
+ * Las consultas de los repositorios filtran por los IDs expuestos acá en lugar de hacer
+ * join contra la tabla de estados para comparar el nombre, por ejemplo:
+ * {@code c.estadoContrato.id = :#{@datosReferenciaService.idEstadoContratoVigente}}
+ */
+@Service
+public class DatosReferenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatosReferenciaService.class);
+
+    public static final String ESTADO_CONTRATO_VIGENTE = "Vigente";
+    public static final String ESTADO_CONTRATO_NO_VIGENTE = "No Vigente";
+    public static final String ESTADO_CONTRATO_CANCELADO = "Cancelado";
+
+    public static final String ESTADO_INMUEBLE_DISPONIBLE = "Disponible";
+    public static final String ESTADO_INMUEBLE_ALQUILADO = "Alquilado";
+    public static final String ESTADO_INMUEBLE_INACTIVO = "Inactivo";
+
+    private final EstadoContratoRepository estadoContratoRepository;
+    private final EstadoInmuebleRepository estadoInmuebleRepository;
+    private final TipoInmuebleRepository tipoInmuebleRepository;
+    private final TipoServicioRepository tipoServicioRepository;
+    private final RolRepository rolRepository;
+
+    /**
+     * Catálogo vigente; null hasta la primera carga
+     */
+    private volatile Catalogo catalogo;
+
+    public DatosReferenciaService(EstadoContratoRepository estadoContratoRepository,
+                                  EstadoInmuebleRepository estadoInmuebleRepository,
+                                  TipoInmuebleRepository tipoInmuebleRepository,
+                                  TipoServicioRepository tipoServicioRepository,
+                                  RolRepository rolRepository) {
+        this.estadoContratoRepository = estadoContratoRepository;
+        this.estadoInmuebleRepository = estadoInmuebleRepository;
+        this.tipoInmuebleRepository = tipoInmuebleRepository;
+        this.tipoServicioRepository = tipoServicioRepository;
+        this.rolRepository = rolRepository;
+    }
+
+    /**
+     * Vuelve a leer todas las tablas de referencia y reemplaza el catálogo
+     * Debe llamarse después de insertar, modificar o borrar filas de estas tablas
+     */
+    public synchronized void recargar() {
+        Catalogo nuevo = new Catalogo(
+            Tabla.de(estadoContratoRepository.findAll(), EstadoContrato::getId, EstadoContrato::getNombre),
+            Tabla.de(estadoInmuebleRepository.findAll(), EstadoInmueble::getId, EstadoInmueble::getNombre),
+            Tabla.de(tipoInmuebleRepository.findAll(), TipoInmueble::getId, TipoInmueble::getNombre),
+            Tabla.de(tipoServicioRepository.findAll(), TipoServicio::getId, TipoServicio::getNombre),
+            Tabla.de(rolRepository.findAll(), Rol::getId, rol -> rol.getNombre().name())
+        );
+        catalogo = nuevo;
+        logger.info("Datos de referencia cargados: {} estados de contrato, {} estados de inmueble, "
+                + "{} tipos de inmueble, {} tipos de servicio, {} roles",
+            nuevo.estadosContrato().size(), nuevo.estadosInmueble().size(), nuevo.tiposInmueble().size(),
+            nuevo.tiposServicio().size(), nuevo.roles().size());
+    }
+
+    // Estados de contrato
+
+    public Optional<Integer> buscarIdEstadoContrato(String nombre) {
+        return catalogo().estadosContrato().id(nombre);
+    }
+
+    public Optional<String> buscarNombreEstadoContrato(Integer id) {
+        return catalogo().estadosContrato().nombre(id);
+    }
+
+    public List<Integer> buscarIdsEstadosContrato() {
+        return catalogo().estadosContrato().nombresPorId().keySet().stream().sorted().toList();
+    }
+
+    // Estados de inmueble
+
+    public Optional<Integer> buscarIdEstadoInmueble(String nombre) {
+        return catalogo().estadosInmueble().id(nombre);
+    }
+
+    public Optional<String> buscarNombreEstadoInmueble(Integer id) {
+        return catalogo().estadosInmueble().nombre(id);
+    }
+
+    // Tipos de inmueble y de servicio
+
+    public Optional<String> buscarNombreTipoInmueble(Long id) {
+        return catalogo().tiposInmueble().nombre(id);
+    }
+
+    public boolean existeTipoInmueble(Long id) {
+        return buscarNombreTipoInmueble(id).isPresent();
+    }
+
+    public boolean existeTipoServicio(Integer id) {
+        return catalogo().tiposServicio().nombre(id).isPresent();
+    }
+
+    // Roles
+
+    public Optional<Long> buscarIdRol(RolNombre nombre) {
+        return catalogo().roles().id(nombre.name());
+    }
+
+    // IDs usados desde las consultas de los repositorios (null si el estado no existe: la consulta no devuelve filas)
+
+    public Integer getIdEstadoContratoVigente() {
+        return buscarIdEstadoContrato(ESTADO_CONTRATO_VIGENTE).orElse(null);
+    }
+
+    public List<Integer> getIdsEstadosContratoNoVigentes() {
+        return Stream.of(ESTADO_CONTRATO_NO_VIGENTE, ESTADO_CONTRATO_CANCELADO)
+            .map(this::buscarIdEstadoContrato)
+            .flatMap(Optional::stream)
+            .toList();
+    }
+
+    public Integer getIdEstadoInmuebleDisponible() {
+        return buscarIdEstadoInmueble(ESTADO_INMUEBLE_DISPONIBLE).orElse(null);
+    }
+
+    public Integer getIdEstadoInmuebleInactivo() {
+        return buscarIdEstadoInmueble(ESTADO_INMUEBLE_INACTIVO).orElse(null);
+    }
+
+    private Catalogo catalogo() {
+        Catalogo actual = catalogo;
+        if (actual == null) {
+            synchronized (this) {
+                if (catalogo == null) {
+                    recargar();
+                }
+                actual = catalogo;
+            }
+        }
+        return actual;
+    }
+
+    private record Catalogo(Tabla<Integer> estadosContrato,
+                            Tabla<Integer> estadosInmueble,
+                            Tabla<Long> tiposInmueble,
+                            Tabla<Integer> tiposServicio,
+                            Tabla<Long> roles) {
+    }
+
+    /**
+     * Una tabla de referencia indexada en ambos sentidos
+     */
+    private record Tabla<I>(Map<I, String> nombresPorId, Map<String, I> idsPorNombre) {
+
+        static <E, I> Tabla<I> de(List<E> filas, Function<E, I> id, Function<E, String> nombre) {
+            Map<I, String> nombresPorId = new HashMap<>();
+            Map<String, I> idsPorNombre = new HashMap<>();
+            for (E fila : filas) {
+                nombresPorId.put(id.apply(fila), nombre.apply(fila));
+                idsPorNombre.put(nombre.apply(fila), id.apply(fila));
+            }
+            return new Tabla<>(Map.copyOf(nombresPorId), Map.copyOf(idsPorNombre));
+        }
+
+        Optional<I> id(String nombre) {
+            return Optional.ofNullable(nombre).map(idsPorNombre::get);
+        }
+
+        Optional<String> nombre(I id) {
+            return Optional.ofNullable(id).map(nombresPorId::get);
+        }
+
+        int size() {
+            return nombresPorId.size();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ReporteEjecucionParticionadaDTO;
+import com.alquileres.dto.ResultadoParticionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ejecuta procesos por lotes divididos en particiones de IDs de contrato
+ *
+ * Cada partición corre en un hilo virtual y en su propia transacción. La cantidad de particiones
+ * simultáneas está limitada por procesos.particiones.paralelismo-maximo y por el tamaño del pool
+ * de conexiones (se reserva una conexión para las peticiones web), de modo que el tiempo del
+ * proceso depende de la cantidad de conexiones disponibles y no del tamaño de la cartera.
+ */
+@Service
+public class EjecutorParticionado {
+
+    private static final Logger logger = LoggerFactory.getLogger(EjecutorParticionado.class);
+
+    /**
+     * Conexiones del pool que no usan los procesos por lotes
+     */
+    private static final int CONEXIONES_RESERVADAS = 1;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ClockService clockService;
+    private final int paralelismo;
+
+    private final Map<String, ReporteEjecucionParticionadaDTO> ultimosReportes = new ConcurrentHashMap<>();
+
+    public EjecutorParticionado(
+            PlatformTransactionManager transactionManager,
+            ClockService clockService,
+            @Value("${procesos.particiones.paralelismo-maximo:4}") int paralelismoMaximo,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanioPool) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Cada partición usa su propia conexión aunque el llamador tenga una transacción abierta
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clockService = clockService;
+        this.paralelismo = Math.max(1, Math.min(paralelismoMaximo, tamanioPool - CONEXIONES_RESERVADAS));
+    }
+
+    /**
+     * Partición de un proceso: rango de IDs de contrato [desde, hasta] (inclusive)
+     */
+    public record Particion(int numero, long desde, long hasta) {
+    }
+
+    /**
+     * Trabajo de una partición; se ejecuta dentro de la transacción de la partición
+     */
+    @FunctionalInterface
+    public interface TareaParticion {
+        /**
+         * @return Cantidad de elementos generados en la partición
+         */
+        int procesar(Particion particion);
+    }
+
+    /**
+     * Divide una lista ordenada de IDs en particiones contiguas de hasta tamanio IDs
+     * La primera partición empieza en 0 y la última no tiene límite superior, así los
+     * contratos creados después de planificar también quedan cubiertos.
+     *
+     * @param idsOrdenados IDs en orden ascendente
+     * @param tamanio Cantidad máxima de IDs por partición
+     * @return Particiones que cubren todo el rango de IDs
+     */
+    public static List<Particion> dividirEnParticiones(List<Long> idsOrdenados, int tamanio) {
+        List<Particion> particiones = new ArrayList<>();
+        long desde = 0L;
+        for (int inicio = 0; inicio < idsOrdenados.size(); inicio += tamanio) {
+            int fin = Math.min(inicio + tamanio, idsOrdenados.size());
+            long hasta = fin == idsOrdenados.size() ? Long.MAX_VALUE : idsOrdenados.get(fin - 1);
+            particiones.add(new Particion(particiones.size() + 1, desde, hasta));
+            desde = hasta + 1;
+        }
+        return particiones;
+    }
+
+    /**
+     * Ejecuta las particiones en paralelo y espera a que terminen todas
+     * Una partición que falla se revierte y queda registrada en el reporte; las demás continúan.
+     *
+     * @param proceso Nombre del proceso (para logs y reporte)
+     * @param particiones Particiones a ejecutar
+     * @param tarea Trabajo de cada partición
+     * @return Reporte con el resultado de cada partición y los totales
+     */
+    public ReporteEjecucionParticionadaDTO ejecutar(String proceso, List<Particion> particiones, TareaParticion tarea) {
+        ReporteEjecucionParticionadaDTO reporte = new ReporteEjecucionParticionadaDTO(
+            proceso, clockService.getCurrentDateTime().toString(), paralelismo);
+        long inicio = System.nanoTime();
+
+        logger.info("Proceso {}: ejecutando {} particiones con paralelismo {}", proceso, particiones.size(), paralelismo);
+
+        Semaphore permisos = new Semaphore(paralelismo);
+        List<Future<ResultadoParticionDTO>> futuros = new ArrayList<>();
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Particion particion : particiones) {
+                futuros.add(ejecutor.submit(() -> {
+                    permisos.acquire();
+                    try {
+                        return ejecutarParticion(proceso, particion, tarea);
+                    } finally {
+                        permisos.release();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < futuros.size(); i++) {
+                reporte.agregarResultado(obtenerResultado(futuros.get(i), particiones.get(i)));
+            }
+        }
+
+        reporte.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+        ultimosReportes.put(proceso, reporte);
+
+        logger.info("Proceso {} finalizado en {} ms: {} particiones ({} fallidas), {} generados",
+                   proceso, reporte.getDuracionMs(), reporte.getParticiones(),
+                   reporte.getParticionesFallidas(), reporte.getGenerados());
+        return reporte;
+    }
+
+    /**
+     * @return Último reporte de cada proceso ejecutado desde que inició la aplicación
+     */
+    public Map<String, ReporteEjecucionParticionadaDTO> obtenerUltimosReportes() {
+        return new LinkedHashMap<>(ultimosReportes);
+    }
+
+    public int getParalelismo() {
+        return paralelismo;
+    }
+
+    private ResultadoParticionDTO ejecutarParticion(String proceso, Particion particion, TareaParticion tarea) {
+        ResultadoParticionDTO resultado = new ResultadoParticionDTO(particion.numero(), particion.desde(), particion.hasta());
+        long inicio = System.nanoTime();
+        try {
+            Integer generados = transactionTemplate.execute(status -> tarea.procesar(particion));
+            resultado.setGenerados(generados != null ? generados : 0);
+            resultado.setExitosa(true);
+        } catch (Exception e) {
+            logger.error("Proceso {}: falló la partición {} (IDs {} a {}): {}",
+                        proceso, particion.numero(), particion.desde(), particion.hasta(), e.getMessage(), e);
+            resultado.setExitosa(false);
+            resultado.setError(e.getMessage());
+        }
+        resultado.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+        return resultado;
+    }
+
+    private static ResultadoParticionDTO obtenerResultado(Future<ResultadoParticionDTO> futuro, Particion particion) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallida(particion, "Ejecución interrumpida");
+        } catch (ExecutionException e) {
+            return fallida(particion, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+    }
+
+    private static ResultadoParticionDTO fallida(Particion particion, String error) {
+        ResultadoParticionDTO resultado = new ResultadoParticionDTO(particion.numero(), particion.desde(), particion.hasta());
+        resultado.setError(error);
+        return resultado;
+    }
+}
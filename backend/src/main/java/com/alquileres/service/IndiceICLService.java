@@ -0,0 +1,372 @@
+package com.alquileres.service;
+
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import com.alquileres.model.IndiceICL;
+import com.alquileres.repository.IndiceICLRepository;
+import com.alquileres.util.BCRAApiClient;
+import com.alquileres.util.IclIndex;
+import com.alquileres.util.RangoFechasICL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Servicio del ICL basado en la copia local de la serie del BCRA
+ *
+ * Todos los cálculos de aumento por ICL se resuelven contra el índice en memoria (IclIndex),
+ * que se carga desde la tabla indices_icl al iniciar. La API del BCRA solo se consulta para
+ * sincronizar de forma incremental las fechas posteriores a la última almacenada.
+ */
+@Service
+public class IndiceICLService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceICLService.class);
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    /**
+     * Cantidad de días pedidos al BCRA por consulta (la API pagina los resultados)
+     */
+    private static final int DIAS_POR_CONSULTA = 365;
+
+    /**
+     * Espera antes de volver a sincronizar bajo demanda por una fecha que el BCRA todavía no publicó
+     * (fines de semana, feriados o antes de la publicación del día)
+     */
+    private static final Duration ESPERA_FECHA_SIN_PUBLICAR = Duration.ofMinutes(5);
+
+    private final IndiceICLRepository indiceICLRepository;
+    private final BCRAApiClient bcraApiClient;
+    private final ClockService clockService;
+    private final IclIndex iclIndex;
+    private final BloqueoProcesoService bloqueoProcesoService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Serializa la carga y la sincronización. Es un ReentrantLock y no synchronized porque la
+     * sincronización bloquea en la API del BCRA y se llama desde hilos virtuales, que con
+     * synchronized quedarían fijados a su hilo portador
+     */
+    private final ReentrantLock lockSincronizacion = new ReentrantLock();
+
+    /**
+     * Momento a partir del cual se puede volver a sincronizar bajo demanda
+     * Se posterga cuando una sincronización no trajo la fecha pedida
+     */
+    private volatile LocalDateTime proximaSincronizacionBajoDemanda = LocalDateTime.MIN;
+
+    @Value("${bcra.icl.fecha-inicio-serie:2020-07-01}")
+    private String fechaInicioSerie;
+
+    public IndiceICLService(
+            IndiceICLRepository indiceICLRepository,
+            BCRAApiClient bcraApiClient,
+            ClockService clockService,
+            IclIndex iclIndex,
+            BloqueoProcesoService bloqueoProcesoService,
+            PlatformTransactionManager transactionManager) {
+        this.indiceICLRepository = indiceICLRepository;
+        this.bcraApiClient = bcraApiClient;
+        this.clockService = clockService;
+        this.iclIndex = iclIndex;
+        this.bloqueoProcesoService = bloqueoProcesoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Carga en memoria toda la serie almacenada en la base de datos
+     *
+     * @return Cantidad de valores cargados
+     */
+    public int cargarIndiceEnMemoria() {
+        lockSincronizacion.lock();
+        try {
+            SortedMap<LocalDate, BigDecimal> valores = aSerie(indiceICLRepository.findAllByOrderByFechaAsc());
+            iclIndex.cargar(valores);
+            logger.info("Indice ICL cargado en memoria: {} valores, ultima fecha {}", valores.size(), iclIndex.getUltimaFecha());
+            return valores.size();
+        } finally {
+            lockSincronizacion.unlock();
+        }
+    }
+
+    /**
+     * Sincroniza con el BCRA tomando el bloqueo SINCRONIZACION_ICL, el mismo que la tarea programada,
+     * para que dos instancias no descarguen y guarden la misma ventana a la vez
+     * Si otra instancia está sincronizando, solo toma de la base lo que esa instancia ya guardó.
+     *
+     * @return Cantidad de valores nuevos guardados por esta instancia
+     */
+    public int sincronizarIndicesConBloqueo() {
+        Optional<Integer> guardados = bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.SINCRONIZACION_ICL,
+            BloqueoProcesoService.DURACION_SINCRONIZACION_ICL, this::sincronizarIndices);
+        if (guardados.isPresent()) {
+            return guardados.get();
+        }
+
+        lockSincronizacion.lock();
+        try {
+            actualizarIndiceDesdeBase(indiceICLRepository.findUltimaFecha().orElse(null));
+        } finally {
+            lockSincronizacion.unlock();
+        }
+        return 0;
+    }
+
+    /**
+     * Sincroniza la tabla local con la API del BCRA
+     * Solo consulta las fechas posteriores a la última almacenada. No toma el bloqueo entre
+     * instancias: quien la llame tiene que tenerlo (ver sincronizarIndicesConBloqueo).
+     *
+     * @return Cantidad de valores nuevos guardados
+     */
+    public int sincronizarIndices() {
+        lockSincronizacion.lock();
+        try {
+            // Los valores nuevos se agregan al final del índice, tiene que estar cargado con la serie previa
+            if (iclIndex.estaVacio()) {
+                cargarIndiceEnMemoria();
+            }
+
+            LocalDate hoy = clockService.getCurrentDate();
+            LocalDate ultimaFechaBase = indiceICLRepository.findUltimaFecha().orElse(null);
+            actualizarIndiceDesdeBase(ultimaFechaBase);
+
+            LocalDate desde = ultimaFechaBase != null
+                ? ultimaFechaBase.plusDays(1)
+                : LocalDate.parse(fechaInicioSerie, FORMATO_FECHA);
+
+            if (desde.isAfter(hoy)) {
+                logger.debug("Indices ICL al dia. Ultima fecha almacenada: {}", ultimaFechaBase);
+                return 0;
+            }
+
+            logger.info("Sincronizando indices ICL desde {} hasta {}", desde, hoy);
+
+            int guardados = 0;
+            LocalDate ventanaDesde = desde;
+            while (!ventanaDesde.isAfter(hoy)) {
+                LocalDate ventanaHasta = ventanaDesde.plusDays(DIAS_POR_CONSULTA - 1L);
+                if (ventanaHasta.isAfter(hoy)) {
+                    ventanaHasta = hoy;
+                }
+
+                SortedMap<LocalDate, BigDecimal> serie = bcraApiClient.obtenerSerieICL(ventanaDesde, ventanaHasta);
+
+                SortedMap<LocalDate, BigDecimal> serieNueva = serie.tailMap(desde);
+                List<IndiceICL> nuevos = new ArrayList<>(serieNueva.size());
+                for (Map.Entry<LocalDate, BigDecimal> entrada : serieNueva.entrySet()) {
+                    nuevos.add(new IndiceICL(entrada.getKey(), entrada.getValue()));
+                }
+
+                if (!nuevos.isEmpty()) {
+                    // Cada ventana se guarda completa o no se guarda; el índice en memoria se actualiza después del commit
+                    transactionTemplate.executeWithoutResult(status -> indiceICLRepository.saveAll(nuevos));
+                    iclIndex.agregar(serieNueva);
+                    guardados += nuevos.size();
+                }
+
+                ventanaDesde = ventanaHasta.plusDays(1);
+            }
+
+            logger.info("Sincronizacion de indices ICL completada. Valores nuevos: {}", guardados);
+            return guardados;
+        } finally {
+            lockSincronizacion.unlock();
+        }
+    }
+
+    /**
+     * Obtiene la tasa de aumento del ICL entre dos fechas usando la serie local
+     *
+     * @param fechaInicio Fecha de inicio en formato yyyy-MM-dd
+     * @param fechaFin Fecha de fin en formato yyyy-MM-dd
+     * @return Tasa de aumento (cociente valorFin / valorInicio)
+     */
+    public BigDecimal obtenerTasaAumentoICL(String fechaInicio, String fechaFin) {
+        LocalDate inicio = parsearFecha(fechaInicio);
+        LocalDate fin = parsearFecha(fechaFin);
+
+        asegurarCobertura(inicio.isAfter(fin) ? inicio : fin);
+
+        return iclIndex.obtenerTasa(inicio, fin);
+    }
+
+    /**
+     * Calcula el nuevo monto aplicando la tasa de aumento del ICL
+     *
+     * @param montoOriginal Monto original del alquiler
+     * @param fechaInicio Fecha de inicio del período
+     * @param fechaFin Fecha de fin del período
+     * @return Nuevo monto ajustado por ICL
+     */
+    public BigDecimal calcularNuevoMontoConICL(BigDecimal montoOriginal, String fechaInicio, String fechaFin) {
+        BigDecimal tasaAumento = obtenerTasaAumentoICL(fechaInicio, fechaFin);
+        return montoOriginal.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Obtiene las tasas de aumento del ICL de varios rangos de fechas en una sola operación
+     *
+     * Los rangos cubiertos por el índice en memoria se resuelven localmente; los que falten
+     * se consultan juntos al BCRA con consultas asíncronas en paralelo.
+     *
+     * @param rangos Rangos de fechas a calcular
+     * @return Tasa de cada rango; los rangos sin valores de ICL disponibles no se incluyen
+     */
+    public Map<RangoFechasICL, BigDecimal> obtenerTasasAumentoICL(Collection<RangoFechasICL> rangos) {
+        Map<RangoFechasICL, BigDecimal> tasas = new HashMap<>();
+        if (rangos.isEmpty()) {
+            return tasas;
+        }
+
+        LocalDate fechaMaxima = null;
+        for (RangoFechasICL rango : rangos) {
+            LocalDate mayor = rango.fechaInicio().isAfter(rango.fechaFin()) ? rango.fechaInicio() : rango.fechaFin();
+            fechaMaxima = fechaMaxima == null || mayor.isAfter(fechaMaxima) ? mayor : fechaMaxima;
+        }
+
+        try {
+            asegurarCobertura(fechaMaxima);
+        } catch (Exception e) {
+            logger.warn("No se pudo sincronizar el ICL antes de calcular tasas por lote: {}", e.getMessage());
+        }
+
+        List<RangoFechasICL> faltantes = new ArrayList<>();
+        for (RangoFechasICL rango : rangos) {
+            try {
+                tasas.put(rango, iclIndex.obtenerTasa(rango.fechaInicio(), rango.fechaFin()));
+            } catch (BusinessException e) {
+                faltantes.add(rango);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            logger.info("{} rangos sin ICL en memoria. Consultando al BCRA por lotes", faltantes.size());
+            try {
+                tasas.putAll(bcraApiClient.obtenerTasasAumentoICLAsync(faltantes).join());
+            } catch (CompletionException e) {
+                Throwable causa = e.getCause() != null ? e.getCause() : e;
+                logger.error("Error al consultar tasas de ICL por lotes: {}", causa.getMessage());
+            }
+        }
+
+        return tasas;
+    }
+
+    /**
+     * Métricas del índice en memoria y de la cache de consultas al BCRA
+     *
+     * @return Mapa con tamaño del índice, última fecha y contadores de la cache del BCRA
+     */
+    public Map<String, Object> obtenerMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("valoresEnMemoria", iclIndex.tamanio());
+        metricas.put("ultimaFecha", iclIndex.getUltimaFecha());
+        metricas.put("cacheBCRA", bcraApiClient.obtenerMetricasCache());
+        return metricas;
+    }
+
+    /**
+     * Garantiza que el índice en memoria cubra la fecha indicada
+     * Si está vacío lo carga desde la base; si la fecha es posterior a la última cargada
+     * (y no es futura), sincroniza con el BCRA. Si la sincronización no trajo la fecha (todavía
+     * no publicada), no se vuelve a intentar hasta que pase ESPERA_FECHA_SIN_PUBLICAR.
+     *
+     * @param fecha Fecha más reciente que se va a consultar
+     */
+    private void asegurarCobertura(LocalDate fecha) {
+        if (iclIndex.estaVacio()) {
+            cargarIndiceEnMemoria();
+        }
+
+        LocalDate ultimaFecha = iclIndex.getUltimaFecha();
+        boolean faltaSincronizar = ultimaFecha == null || fecha.isAfter(ultimaFecha);
+        if (!faltaSincronizar || fecha.isAfter(clockService.getCurrentDate())) {
+            return;
+        }
+
+        LocalDateTime ahora = clockService.getCurrentDateTime();
+        if (ahora.isBefore(proximaSincronizacionBajoDemanda)) {
+            logger.debug("ICL de {} sin publicar en la última sincronización. Se reintenta desde {}",
+                fecha, proximaSincronizacionBajoDemanda);
+            return;
+        }
+
+        logger.info("No hay valor de ICL en memoria para {}. Sincronizando con el BCRA", fecha);
+        try {
+            sincronizarIndicesConBloqueo();
+        } finally {
+            LocalDate ultimaSincronizada = iclIndex.getUltimaFecha();
+            if (ultimaSincronizada == null || fecha.isAfter(ultimaSincronizada)) {
+                proximaSincronizacionBajoDemanda = ahora.plus(ESPERA_FECHA_SIN_PUBLICAR);
+            }
+        }
+    }
+
+    /**
+     * Agrega al índice en memoria los valores que ya están en la base pero no en memoria
+     * Pasa cuando otra instancia sincronizó con el BCRA: la base avanza y esta instancia no
+     *
+     * @param ultimaFechaBase Última fecha almacenada en la base, o null si la tabla está vacía
+     */
+    private void actualizarIndiceDesdeBase(LocalDate ultimaFechaBase) {
+        LocalDate ultimaEnMemoria = iclIndex.getUltimaFecha();
+        if (ultimaFechaBase == null || (ultimaEnMemoria != null && !ultimaFechaBase.isAfter(ultimaEnMemoria))) {
+            return;
+        }
+
+        if (ultimaEnMemoria == null) {
+            cargarIndiceEnMemoria();
+            return;
+        }
+
+        SortedMap<LocalDate, BigDecimal> faltantes = aSerie(indiceICLRepository.findByFechaAfterOrderByFechaAsc(ultimaEnMemoria));
+        iclIndex.agregar(faltantes);
+        logger.info("Indice ICL actualizado desde la base: {} valores nuevos, ultima fecha {}",
+            faltantes.size(), iclIndex.getUltimaFecha());
+    }
+
+    private SortedMap<LocalDate, BigDecimal> aSerie(List<IndiceICL> indices) {
+        SortedMap<LocalDate, BigDecimal> valores = new TreeMap<>();
+        for (IndiceICL indice : indices) {
+            valores.put(indice.getFecha(), indice.getValor());
+        }
+        return valores;
+    }
+
+    private LocalDate parsearFecha(String fecha) {
+        try {
+            return LocalDate.parse(fecha, FORMATO_FECHA);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new BusinessException(
+                ErrorCodes.FORMATO_FECHA_INVALIDO,
+                "Fecha de ICL inválida: " + fecha + ". Use yyyy-MM-dd",
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+}
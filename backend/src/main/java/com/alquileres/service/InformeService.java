@@ -3,6 +3,7 @@ package com.alquileres.service;
 import com.alquileres.dto.*;
 import com.alquileres.model.*;
 import com.alquileres.repository.*;
+import com.alquileres.util.FechaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -29,6 +30,7 @@ public class InformeService {
     private final AumentoAlquilerRepository aumentoAlquilerRepository;
     private final PropietarioRepository propietarioRepository;
     private final ClockService clockService;
+    private final DatosReferenciaService datosReferenciaService;
 
     /**
      * Constructor para inyección de dependencias
@@ -38,18 +40,21 @@ public class InformeService {
      * @param aumentoAlquilerRepository Repository de aumentos de alquileres
      * @param propietarioRepository Repository de propietarios
      * @param clockService Servicio de reloj para manejo de fechas
+     * @param datosReferenciaService Registro de estados y tipos
      */
     public InformeService(
             AlquilerRepository alquilerRepository,
             PagoServicioRepository pagoServicioRepository,
             AumentoAlquilerRepository aumentoAlquilerRepository,
             PropietarioRepository propietarioRepository,
-            ClockService clockService) {
+            ClockService clockService,
+            DatosReferenciaService datosReferenciaService) {
         this.alquilerRepository = alquilerRepository;
         this.pagoServicioRepository = pagoServicioRepository;
         this.aumentoAlquilerRepository = aumentoAlquilerRepository;
         this.propietarioRepository = propietarioRepository;
         this.clockService = clockService;
+        this.datosReferenciaService = datosReferenciaService;
     }
 
     /**
@@ -67,8 +72,9 @@ public class InformeService {
         String periodo = String.format("%02d/%d", mes, anio);
 
         // Obtener todos los alquileres pagados del mes actual de contratos vigentes
+        Integer periodoKey = FechaUtil.calcularPeriodoKey(fechaActual);
         List<Alquiler> alquileresPagados = alquilerRepository
-                .findAlquileresPagadosPorMesYAnio(mes, anio);
+                .findAlquileresPagadosVigentesEntrePeriodos(periodoKey, periodoKey);
 
         List<InformeHonorariosDTO.HonorarioPorInmuebleDTO> honorarios = new ArrayList<>();
         BigDecimal totalHonorarios = BigDecimal.ZERO;
@@ -124,8 +130,10 @@ public class InformeService {
         String periodo = String.format("%02d/%d", mes, anio);
 
         // Obtener todos los alquileres del mes actual (pagados y no pagados) de contratos vigentes
+        Integer periodoKey = FechaUtil.calcularPeriodoKey(fechaActual);
         List<Alquiler> alquileres = alquilerRepository
-                .findAlquileresPorMesYAnioYEstadoContrato(mes, anio, "Vigente");
+                .findAlquileresEntrePeriodosYEstadoContrato(periodoKey, periodoKey,
+                        datosReferenciaService.getIdEstadoContratoVigente());
 
         List<InformeAlquileresDTO.PagoAlquilerDetalleDTO> pagos = new ArrayList<>();
         BigDecimal totalPagado = BigDecimal.ZERO;
@@ -151,7 +159,7 @@ public class InformeService {
             dto.setApellidoPropietario(propietario.getApellido());
             dto.setMonto(alquiler.getMonto());
             dto.setFechaPago(alquiler.getFechaPago());
-            dto.setFechaVencimiento(alquiler.getFechaVencimientoPago());
+            dto.setFechaVencimiento(FechaUtil.formatearFechaISO(alquiler.getFechaVencimientoPago()));
             dto.setEstaPagado(alquiler.getEstaPagado());
 
             pagos.add(dto);
@@ -187,12 +195,9 @@ public class InformeService {
         LocalDate fechaActual = clockService.getCurrentDate();
         LocalDate fechaDesde = fechaActual.minusMonths(meses);
 
-        String fechaDesdeStr = fechaDesde.format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String fechaHastaStr = fechaActual.format(DateTimeFormatter.ISO_LOCAL_DATE);
-
         // Obtener aumentos del rango de meses especificado
         List<AumentoAlquiler> aumentos = aumentoAlquilerRepository
-                .findAumentosPorRangoFecha(fechaDesdeStr, fechaHastaStr);
+                .findAumentosPorRangoFecha(fechaDesde, fechaActual);
 
         // Agrupar aumentos por contrato
         var aumentosPorContrato = aumentos.stream()
@@ -227,7 +232,7 @@ public class InformeService {
                     .map(aumento -> {
                         InformeAumentosDTO.DetalleAumentoDTO detalle = new InformeAumentosDTO.DetalleAumentoDTO();
                         detalle.setAumentoId(aumento.getId());
-                        detalle.setFechaAumento(aumento.getFechaAumento());
+                        detalle.setFechaAumento(FechaUtil.formatearFechaISO(aumento.getFechaAumento()));
                         detalle.setMontoAnterior(aumento.getMontoAnterior());
                         detalle.setMontoNuevo(aumento.getMontoNuevo());
                         detalle.setPorcentajeAumento(aumento.getPorcentajeAumento());
@@ -264,7 +269,7 @@ public class InformeService {
 
         // Obtener todos los pagos de servicios del mes actual
         List<Object[]> resultados = pagoServicioRepository
-                .findPagosServiciosDelMesActualConDetalle(periodo);
+                .findPagosServiciosDelMesActualConDetalle(FechaUtil.calcularPeriodoKey(fechaActual));
 
         // Agrupar por contratoId
         var pagosPorContrato = new java.util.LinkedHashMap<Long, List<Object[]>>();
@@ -308,7 +313,7 @@ public class InformeService {
                         new InformePagosServiciosDTO.AlquilerRelacionadoDTO();
                 alquilerDTO.setAlquilerId((Long) primerPago[11]);
                 alquilerDTO.setMontoAlquiler((BigDecimal) primerPago[12]);
-                alquilerDTO.setFechaVencimientoAlquiler((String) primerPago[13]);
+                alquilerDTO.setFechaVencimientoAlquiler(FechaUtil.formatearFechaISO((LocalDate) primerPago[13]));
                 alquilerDTO.setAlquilerPagado((Boolean) primerPago[14]);
                 contratoDTO.setAlquilerRelacionado(alquilerDTO);
             }
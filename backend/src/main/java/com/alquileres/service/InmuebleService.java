@@ -2,20 +2,14 @@ package com.alquileres.service;
 
 import com.alquileres.dto.InmuebleDTO;
 import com.alquileres.model.Inmueble;
-import com.alquileres.model.EstadoInmueble;
-import com.alquileres.model.TipoInmueble;
 import com.alquileres.repository.InmuebleRepository;
 import com.alquileres.repository.PropietarioRepository;
-import com.alquileres.repository.EstadoInmuebleRepository;
-import com.alquileres.repository.TipoInmuebleRepository;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
-import com.alquileres.config.CacheNames;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.cache.annotation.CacheEvict;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,21 +20,21 @@ public class InmuebleService {
 
     private final InmuebleRepository inmuebleRepository;
     private final PropietarioRepository propietarioRepository;
-    private final EstadoInmuebleRepository estadoInmuebleRepository;
-    private final TipoInmuebleRepository tipoInmuebleRepository;
+    private final DatosReferenciaService datosReferenciaService;
     private final ContratoRepository contratoRepository;
+    private final CacheContratosService cacheContratosService;
 
     public InmuebleService(
             InmuebleRepository inmuebleRepository,
             PropietarioRepository propietarioRepository,
-            EstadoInmuebleRepository estadoInmuebleRepository,
-            TipoInmuebleRepository tipoInmuebleRepository,
-            ContratoRepository contratoRepository) {
+            DatosReferenciaService datosReferenciaService,
+            ContratoRepository contratoRepository,
+            CacheContratosService cacheContratosService) {
         this.inmuebleRepository = inmuebleRepository;
         this.propietarioRepository = propietarioRepository;
-        this.estadoInmuebleRepository = estadoInmuebleRepository;
-        this.tipoInmuebleRepository = tipoInmuebleRepository;
+        this.datosReferenciaService = datosReferenciaService;
         this.contratoRepository = contratoRepository;
+        this.cacheContratosService = cacheContratosService;
     }
 
     // Obtener todos los inmuebles
@@ -100,11 +94,9 @@ public class InmuebleService {
     public InmuebleDTO obtenerInmueblePorId(Long id) {
         Optional<Inmueble> inmueble = inmuebleRepository.findById(id);
         if (inmueble.isPresent()) {
-            String tipoInmuebleNombre = "N/A";
-            Optional<TipoInmueble> tipoInmueble = tipoInmuebleRepository.findById(inmueble.get().getTipoInmuebleId());
-            if (tipoInmueble.isPresent()) {
-                tipoInmuebleNombre = tipoInmueble.get().getNombre();
-            }
+            String tipoInmuebleNombre = datosReferenciaService
+                .buscarNombreTipoInmueble(inmueble.get().getTipoInmuebleId())
+                .orElse("N/A");
             return new InmuebleDTO(inmueble.get(), tipoInmuebleNombre);
         } else {
             throw new BusinessException(
@@ -155,17 +147,6 @@ public class InmuebleService {
 
     // Actualizar inmueble
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public InmuebleDTO actualizarInmueble(Long id, InmuebleDTO inmuebleDTO) {
         Optional<Inmueble> inmuebleExistente = inmuebleRepository.findById(id);
 
@@ -181,8 +162,8 @@ public class InmuebleService {
 
         // Validar si se intenta cambiar el estado a "Disponible" cuando hay un contrato activo
         if (inmuebleDTO.getEstado() != null && !inmuebleDTO.getEstado().equals(inmueble.getEstado())) {
-            Optional<EstadoInmueble> nuevoEstado = estadoInmuebleRepository.findById(inmuebleDTO.getEstado());
-            if (nuevoEstado.isPresent() && "Disponible".equals(nuevoEstado.get().getNombre())) {
+            Optional<String> nuevoEstado = datosReferenciaService.buscarNombreEstadoInmueble(inmuebleDTO.getEstado());
+            if (nuevoEstado.isPresent() && DatosReferenciaService.ESTADO_INMUEBLE_DISPONIBLE.equals(nuevoEstado.get())) {
                 // Verificar si el inmueble tiene contratos vigentes
                 boolean tieneContratoVigente = contratoRepository.existsContratoVigenteByInmueble(inmueble);
                 if (tieneContratoVigente) {
@@ -206,15 +187,16 @@ public class InmuebleService {
         actualizarEsAlquiladoSegunEstado(inmueble);
 
         Inmueble inmuebleActualizado = inmuebleRepository.save(inmueble);
+        cacheContratosService.inmuebleModificado(id);
         return new InmuebleDTO(inmuebleActualizado);
     }
 
     // Método auxiliar para actualizar esAlquilado según el estado
     private void actualizarEsAlquiladoSegunEstado(Inmueble inmueble) {
         if (inmueble.getEstado() != null) {
-            Optional<EstadoInmueble> estadoInmueble = estadoInmuebleRepository.findById(inmueble.getEstado());
+            Optional<String> estadoInmueble = datosReferenciaService.buscarNombreEstadoInmueble(inmueble.getEstado());
             if (estadoInmueble.isPresent()) {
-                boolean esAlquilado = "Alquilado".equals(estadoInmueble.get().getNombre());
+                boolean esAlquilado = DatosReferenciaService.ESTADO_INMUEBLE_ALQUILADO.equals(estadoInmueble.get());
                 inmueble.setEsAlquilado(esAlquilado);
             }
         }
@@ -222,17 +204,6 @@ public class InmuebleService {
 
     // Eliminar inmueble (borrado lógico)
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public void eliminarInmueble(Long id) {
         Optional<Inmueble> inmueble = inmuebleRepository.findById(id);
         if (inmueble.isEmpty()) {
@@ -259,13 +230,15 @@ public class InmuebleService {
         i.setEsActivo(false);
 
         // Cambiar el estado del inmueble a "Inactivo"
-        Optional<EstadoInmueble> estadoInactivo = estadoInmuebleRepository.findByNombre("Inactivo");
+        Optional<Integer> estadoInactivo =
+            datosReferenciaService.buscarIdEstadoInmueble(DatosReferenciaService.ESTADO_INMUEBLE_INACTIVO);
         if (estadoInactivo.isPresent()) {
-            i.setEstado(estadoInactivo.get().getId());
+            i.setEstado(estadoInactivo.get());
             i.setEsAlquilado(false); // Un inmueble inactivo no puede estar alquilado
         }
 
         inmuebleRepository.save(i);
+        cacheContratosService.inmuebleModificado(id);
     }
 
     /**
@@ -276,20 +249,10 @@ public class InmuebleService {
      * @return Cantidad de inmuebles desactivados
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public int desactivarInmueblesPorPropietario(Long propietarioId) {
         // Obtener el estado "Inactivo"
-        EstadoInmueble estadoInactivo = estadoInmuebleRepository.findByNombre("Inactivo")
+        Integer estadoInactivo = datosReferenciaService
+            .buscarIdEstadoInmueble(DatosReferenciaService.ESTADO_INMUEBLE_INACTIVO)
             .orElseThrow(() -> new BusinessException(
                 ErrorCodes.ESTADO_INMUEBLE_NO_ENCONTRADO,
                 "Estado 'Inactivo' no encontrado en el sistema",
@@ -300,26 +263,16 @@ public class InmuebleService {
         List<Inmueble> inmuebles = inmuebleRepository.findByPropietarioId(propietarioId);
         for (Inmueble inmueble : inmuebles) {
             inmueble.setEsActivo(false);
-            inmueble.setEstado(estadoInactivo.getId());
+            inmueble.setEstado(estadoInactivo);
             inmuebleRepository.save(inmueble);
         }
+        cacheContratosService.propietarioModificado(propietarioId);
 
         return inmuebles.size();
     }
 
     // Marcar inmueble como alquilado
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public InmuebleDTO marcarComoAlquilado(Long id) {
         Optional<Inmueble> inmueble = inmuebleRepository.findById(id);
         if (inmueble.isPresent()) {
@@ -332,6 +285,7 @@ public class InmuebleService {
             }
             i.setEsAlquilado(true);
             Inmueble inmuebleActualizado = inmuebleRepository.save(i);
+            cacheContratosService.inmuebleModificado(id);
             return new InmuebleDTO(inmuebleActualizado);
         } else {
             throw new BusinessException(
@@ -344,23 +298,13 @@ public class InmuebleService {
 
     // Marcar inmueble como disponible
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public InmuebleDTO marcarComoDisponible(Long id) {
         Optional<Inmueble> inmueble = inmuebleRepository.findById(id);
         if (inmueble.isPresent()) {
             Inmueble i = inmueble.get();
             i.setEsAlquilado(false);
             Inmueble inmuebleActualizado = inmuebleRepository.save(i);
+            cacheContratosService.inmuebleModificado(id);
             return new InmuebleDTO(inmuebleActualizado);
         } else {
             throw new BusinessException(
@@ -373,17 +317,6 @@ public class InmuebleService {
 
     // Cambiar estado de alquiler (método usado por el controller)
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public InmuebleDTO cambiarEstadoAlquiler(Long id, Boolean esAlquilado) {
         if (esAlquilado) {
             return marcarComoAlquilado(id);
@@ -394,17 +327,6 @@ public class InmuebleService {
 
     // Cambiar tipo de inmueble
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public InmuebleDTO cambiarTipoInmueble(Long id, Long tipoInmuebleId) {
         // Verificar que existe el inmueble
         Optional<Inmueble> inmuebleExistente = inmuebleRepository.findById(id);
@@ -422,8 +344,7 @@ public class InmuebleService {
         }
 
         // Validar que existe el tipo de inmueble
-        Optional<TipoInmueble> tipoInmueble = tipoInmuebleRepository.findById(tipoInmuebleId);
-        if (tipoInmueble.isEmpty()) {
+        if (!datosReferenciaService.existeTipoInmueble(tipoInmuebleId)) {
             throw new BusinessException(ErrorCodes.TIPO_INMUEBLE_NO_ENCONTRADO,
                 "No existe el tipo de inmueble con ID: " + tipoInmuebleId, HttpStatus.BAD_REQUEST);
         }
@@ -432,6 +353,7 @@ public class InmuebleService {
         inmueble.setTipoInmuebleId(tipoInmuebleId);
 
         Inmueble inmuebleActualizado = inmuebleRepository.save(inmueble);
+        cacheContratosService.inmuebleModificado(id);
         return new InmuebleDTO(inmuebleActualizado);
     }
 
@@ -442,17 +364,6 @@ public class InmuebleService {
 
     // Activar inmueble (reactivación)
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
     public void activarInmueble(Long id) {
         Optional<Inmueble> inmueble = inmuebleRepository.findById(id);
         if (inmueble.isEmpty()) {
@@ -466,32 +377,6 @@ public class InmuebleService {
         Inmueble i = inmueble.get();
         i.setEsActivo(true);
         inmuebleRepository.save(i);
-    }
-
-    // Metodo que se usa cuando se da de baja un contrato automaticamente
-    // Cambia el estado del inmueble a Disponible y esAlquilado = false
-    @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE
-        }
-    )
-    public void actualizarEstadoInmueble(Inmueble i) {
-        Optional<EstadoInmueble> estadoInmuebleDisponible = estadoInmuebleRepository.findByNombre("Disponible");
-        if (estadoInmuebleDisponible.isEmpty()) {
-            throw new BusinessException(
-                ErrorCodes.ESTADO_INMUEBLE_NO_ENCONTRADO,
-                "Estado 'Disponible' no encontrado en el sistema",
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
-        }
-        i.setEstado(estadoInmuebleDisponible.get().getId());
-        i.setEsAlquilado(false);
+        cacheContratosService.inmuebleModificado(id);
     }
 }
@@ -6,10 +6,8 @@ import com.alquileres.repository.InquilinoRepository;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
-import com.alquileres.config.CacheNames;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -21,12 +19,15 @@ public class InquilinoService {
 
     private final InquilinoRepository inquilinoRepository;
     private final ContratoRepository contratoRepository;
+    private final CacheContratosService cacheContratosService;
 
     public InquilinoService(
             InquilinoRepository inquilinoRepository,
-            ContratoRepository contratoRepository) {
+            ContratoRepository contratoRepository,
+            CacheContratosService cacheContratosService) {
         this.inquilinoRepository = inquilinoRepository;
         this.contratoRepository = contratoRepository;
+        this.cacheContratosService = cacheContratosService;
     }
 
     // Obtener todos los inquilinos
@@ -129,16 +130,6 @@ public class InquilinoService {
 
     // Actualizar inquilino
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INQUILINO
-        }
-    )
     public InquilinoDTO actualizarInquilino(Long id, InquilinoDTO inquilinoDTO) {
         Optional<Inquilino> inquilinoExistente = inquilinoRepository.findById(id);
 
@@ -170,6 +161,7 @@ public class InquilinoService {
         inquilino.setEsActivo(inquilinoDTO.getEsActivo());
 
         Inquilino inquilinoActualizado = inquilinoRepository.save(inquilino);
+        cacheContratosService.inquilinoModificado(id);
         return new InquilinoDTO(inquilinoActualizado);
     }
 
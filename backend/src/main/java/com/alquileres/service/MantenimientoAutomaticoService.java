@@ -0,0 +1,162 @@
+package com.alquileres.service;
+
+import com.alquileres.event.MantenimientoPendienteEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio que ejecuta en segundo plano el mantenimiento disparado por los inicios de sesión
+ *
+ * Cada login publica un MantenimientoPendienteEvent. Los eventos se agrupan: hay un único
+ * trabajador a la vez y los eventos que llegan mientras corre solo provocan una pasada más.
+ * Cada proceso se ejecuta como máximo una vez por período (día para los contratos vencidos,
+ * mes para facturas y alquileres), así que una vez al día el login no encola nada.
+ */
+@Service
+public class MantenimientoAutomaticoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MantenimientoAutomaticoService.class);
+    private static final DateTimeFormatter FORMATO_PERIODO = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    private final ContratoActualizacionService contratoActualizacionService;
+    private final ServicioActualizacionService servicioActualizacionService;
+    private final AlquilerActualizacionService alquilerActualizacionService;
+    private final BloqueoProcesoService bloqueoProcesoService;
+    private final ClockService clockService;
+    private final Executor taskExecutor;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+    private final AtomicBoolean solicitado = new AtomicBoolean();
+
+    /**
+     * Último período completado de cada proceso en esta instancia
+     */
+    private final Map<String, String> periodosCompletados = new ConcurrentHashMap<>();
+
+    public MantenimientoAutomaticoService(
+            ContratoActualizacionService contratoActualizacionService,
+            ServicioActualizacionService servicioActualizacionService,
+            AlquilerActualizacionService alquilerActualizacionService,
+            BloqueoProcesoService bloqueoProcesoService,
+            ClockService clockService,
+            @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.contratoActualizacionService = contratoActualizacionService;
+        this.servicioActualizacionService = servicioActualizacionService;
+        this.alquilerActualizacionService = alquilerActualizacionService;
+        this.bloqueoProcesoService = bloqueoProcesoService;
+        this.clockService = clockService;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener
+    public void alSolicitarMantenimiento(MantenimientoPendienteEvent evento) {
+        solicitarMantenimiento();
+    }
+
+    /**
+     * Encola el mantenimiento si hay procesos pendientes en el período actual
+     * No bloquea: si el trabajador ya está corriendo, solo se le pide una pasada más.
+     *
+     * @return true si se encoló un trabajador nuevo
+     */
+    public boolean solicitarMantenimiento() {
+        if (estaAlDia()) {
+            return false;
+        }
+
+        solicitado.set(true);
+        if (!enEjecucion.compareAndSet(false, true)) {
+            return false;
+        }
+
+        try {
+            taskExecutor.execute(this::procesar);
+            return true;
+        } catch (TaskRejectedException e) {
+            enEjecucion.set(false);
+            logger.warn("No se pudo encolar el mantenimiento automático: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void procesar() {
+        do {
+            try {
+                while (solicitado.getAndSet(false)) {
+                    ejecutarProcesosPendientes();
+                }
+            } finally {
+                enEjecucion.set(false);
+            }
+            // Un evento que llegó justo al terminar vuelve a tomar el trabajador
+        } while (solicitado.get() && enEjecucion.compareAndSet(false, true));
+    }
+
+    /**
+     * Ejecuta los procesos que todavía no se completaron en su período
+     * Si alguno falla, se loguea el error y se continúa con el siguiente.
+     */
+    private void ejecutarProcesosPendientes() {
+        LocalDate hoy = clockService.getCurrentDate();
+        String dia = hoy.toString();
+        String mes = hoy.format(FORMATO_PERIODO);
+
+        if (!completado(BloqueoProcesoService.CONTRATOS_VENCIDOS, dia)) {
+            try {
+                bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.CONTRATOS_VENCIDOS,
+                        BloqueoProcesoService.DURACION_CONTRATOS_VENCIDOS, contratoActualizacionService::actualizarContratosVencidos)
+                    .ifPresent(actualizados -> periodosCompletados.put(BloqueoProcesoService.CONTRATOS_VENCIDOS, dia));
+            } catch (Exception e) {
+                logger.error("Error al actualizar contratos vencidos: {}", e.getMessage());
+            }
+        }
+
+        if (!completado(BloqueoProcesoService.GENERACION_FACTURAS, mes)) {
+            try {
+                bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.GENERACION_FACTURAS,
+                    BloqueoProcesoService.DURACION_GENERACION_MENSUAL, servicioActualizacionService::procesarPagosPendientes);
+                // El mes queda completado solo si el proceso lo marcó (en esta u otra instancia)
+                if (mes.equals(servicioActualizacionService.getUltimoMesProcesado())) {
+                    periodosCompletados.put(BloqueoProcesoService.GENERACION_FACTURAS, mes);
+                }
+            } catch (Exception e) {
+                logger.error("Error al generar facturas de servicios: {}", e.getMessage());
+            }
+        }
+
+        if (!completado(BloqueoProcesoService.GENERACION_ALQUILERES, mes)) {
+            try {
+                bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.GENERACION_ALQUILERES,
+                    BloqueoProcesoService.DURACION_GENERACION_MENSUAL, alquilerActualizacionService::procesarAlquileresPendientes);
+                if (mes.equals(alquilerActualizacionService.getUltimoMesProcesado())) {
+                    periodosCompletados.put(BloqueoProcesoService.GENERACION_ALQUILERES, mes);
+                }
+            } catch (Exception e) {
+                logger.error("Error al generar alquileres: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean estaAlDia() {
+        LocalDate hoy = clockService.getCurrentDate();
+        String mes = hoy.format(FORMATO_PERIODO);
+        return completado(BloqueoProcesoService.CONTRATOS_VENCIDOS, hoy.toString())
+            && completado(BloqueoProcesoService.GENERACION_FACTURAS, mes)
+            && completado(BloqueoProcesoService.GENERACION_ALQUILERES, mes);
+    }
+
+    private boolean completado(String proceso, String periodo) {
+        return periodo.equals(periodosCompletados.get(proceso));
+    }
+}
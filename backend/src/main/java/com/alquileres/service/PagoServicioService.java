@@ -8,6 +8,7 @@ import com.alquileres.dto.RegistroPagoBatchResponse;
 import com.alquileres.model.PagoServicio;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.repository.PagoServicioRepository;
+import com.alquileres.util.FechaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -213,10 +214,10 @@ public class PagoServicioService {
         );
 
         // Contar totales activos del mes actual
-        Long serviciosTotales = pagoServicioRepository.countPagosActivosPorPeriodo(periodoActual);
+        Long serviciosTotales = pagoServicioRepository.countPagosActivosPorPeriodo(FechaUtil.calcularPeriodoKey(fechaActual));
 
         // Contar pendientes (no pagados) activos del mes actual
-        Long serviciosPendientes = pagoServicioRepository.countPagosPendientesPorPeriodo(periodoActual);
+        Long serviciosPendientes = pagoServicioRepository.countPagosPendientesPorPeriodo(FechaUtil.calcularPeriodoKey(fechaActual));
 
         logger.info("Servicios del mes actual ({}): {} totales, {} pendientes",
             periodoActual, serviciosTotales, serviciosPendientes);
@@ -313,7 +314,7 @@ public class PagoServicioService {
         );
 
         List<PagoServicio> pagosNoPagados = pagoServicioRepository
-            .findPagosNoPagadosPorContratoYPeriodo(contratoId, periodoActual);
+            .findPagosNoPagadosPorContratoYPeriodo(contratoId, FechaUtil.calcularPeriodoKey(fechaActual));
 
         logger.info("Se encontraron {} pagos no pagados para el contrato {} en el período {}",
             pagosNoPagados.size(), contratoId, periodoActual);
@@ -339,7 +340,7 @@ public class PagoServicioService {
         );
 
         List<Object[]> resultados = pagoServicioRepository
-            .countPagosNoPagadosPorContratoYPeriodo(periodoActual);
+            .countPagosNoPagadosPorContratoYPeriodo(FechaUtil.calcularPeriodoKey(fechaActual));
 
         // Convertir List<Object[]> a Map<Long, Long>
         Map<Long, Long> mapaResultados = new HashMap<>();
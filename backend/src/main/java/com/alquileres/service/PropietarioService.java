@@ -5,11 +5,9 @@ import com.alquileres.model.Propietario;
 import com.alquileres.repository.PropietarioRepository;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.security.EncryptionService;
-import com.alquileres.config.CacheNames;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.cache.annotation.CacheEvict;
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
 import org.slf4j.Logger;
@@ -28,6 +26,8 @@ public class PropietarioService {
     private final InmuebleService inmuebleService;
     private final ContratoRepository contratoRepository;
     private final EncryptionService encryptionService;
+    private final ClaveFiscalService claveFiscalService;
+    private final CacheContratosService cacheContratosService;
     private final com.alquileres.repository.UsuarioRepository usuarioRepository;
     private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
 
@@ -36,12 +36,16 @@ public class PropietarioService {
             InmuebleService inmuebleService,
             ContratoRepository contratoRepository,
             EncryptionService encryptionService,
+            ClaveFiscalService claveFiscalService,
+            CacheContratosService cacheContratosService,
             com.alquileres.repository.UsuarioRepository usuarioRepository,
             org.springframework.security.crypto.password.PasswordEncoder passwordEncoder) {
         this.propietarioRepository = propietarioRepository;
         this.inmuebleService = inmuebleService;
         this.contratoRepository = contratoRepository;
         this.encryptionService = encryptionService;
+        this.claveFiscalService = claveFiscalService;
+        this.cacheContratosService = cacheContratosService;
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
     }
@@ -52,7 +56,7 @@ public class PropietarioService {
         return propietarios.stream()
                 .map(p -> {
                     PropietarioDTO dto = new PropietarioDTO(p);
-                    desencriptarClaveFiscal(dto);
+                    ocultarClaveFiscal(dto);
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -64,7 +68,7 @@ public class PropietarioService {
         return propietarios.stream()
                 .map(p -> {
                     PropietarioDTO dto = new PropietarioDTO(p);
-                    desencriptarClaveFiscal(dto);
+                    ocultarClaveFiscal(dto);
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -76,7 +80,7 @@ public class PropietarioService {
         return propietarios.stream()
                 .map(p -> {
                     PropietarioDTO dto = new PropietarioDTO(p);
-                    desencriptarClaveFiscal(dto);
+                    ocultarClaveFiscal(dto);
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -92,8 +96,7 @@ public class PropietarioService {
         Optional<Propietario> propietario = propietarioRepository.findById(id);
         if (propietario.isPresent()) {
             PropietarioDTO dto = new PropietarioDTO(propietario.get());
-            // Desencriptar clave fiscal
-            desencriptarClaveFiscal(dto);
+            enmascararClaveFiscal(dto);
             return dto;
         } else {
             throw new BusinessException(
@@ -109,7 +112,7 @@ public class PropietarioService {
         Optional<Propietario> propietario = propietarioRepository.findByCuil(cuil);
         if (propietario.isPresent()) {
             PropietarioDTO dto = new PropietarioDTO(propietario.get());
-            desencriptarClaveFiscal(dto);
+            enmascararClaveFiscal(dto);
             return dto;
         } else {
             throw new BusinessException(
@@ -130,7 +133,7 @@ public class PropietarioService {
         return propietarios.stream()
                 .map(p -> {
                     PropietarioDTO dto = new PropietarioDTO(p);
-                    desencriptarClaveFiscal(dto);
+                    ocultarClaveFiscal(dto);
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -173,32 +176,13 @@ public class PropietarioService {
 
         Propietario propietarioGuardado = propietarioRepository.save(propietario);
 
-        // Desencriptar clave fiscal para devolver en DTO
         PropietarioDTO dto = new PropietarioDTO(propietarioGuardado);
-        if (dto.getClaveFiscal() != null && !dto.getClaveFiscal().trim().isEmpty()) {
-            try {
-                dto.setClaveFiscal(encryptionService.desencriptar(dto.getClaveFiscal()));
-            } catch (Exception e) {
-                logger.error("Error desencriptando clave fiscal", e);
-                dto.setClaveFiscal(null);
-            }
-        }
-
+        enmascararClaveFiscal(dto);
         return dto;
     }
 
     // Actualizar propietario
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE
-        }
-    )
     public PropietarioDTO actualizarPropietario(Long id, PropietarioDTO propietarioDTO) {
         Optional<Propietario> propietarioExistente = propietarioRepository.findById(id);
 
@@ -259,24 +243,15 @@ public class PropietarioService {
         }
 
         Propietario propietarioActualizado = propietarioRepository.save(propietario);
+        cacheContratosService.propietarioModificado(id);
         PropietarioDTO dto = new PropietarioDTO(propietarioActualizado);
-        desencriptarClaveFiscal(dto);
+        enmascararClaveFiscal(dto);
         return dto;
     }
 
     // Actualizar parcialmente propietario (PATCH)
     // No modifica la clave fiscal a menos que se envíe explícitamente
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE
-        }
-    )
     public PropietarioDTO actualizarParcialPropietario(Long id, PropietarioDTO propietarioDTO) {
         Propietario propietarioExistente = propietarioRepository.findById(id)
             .orElseThrow(() -> new BusinessException(
@@ -344,8 +319,9 @@ public class PropietarioService {
         }
 
         Propietario propietarioActualizado = propietarioRepository.save(propietarioExistente);
+        cacheContratosService.propietarioModificado(id);
         PropietarioDTO dto = new PropietarioDTO(propietarioActualizado);
-        desencriptarClaveFiscal(dto);
+        enmascararClaveFiscal(dto);
         return dto;
     }
 
@@ -402,29 +378,22 @@ public class PropietarioService {
 
     /**
      * Método auxiliar para enmascarar la clave fiscal en un DTO
-     * Muestra solo los últimos 4 caracteres
+     * Muestra solo los últimos 4 caracteres (desencripta usando la cache de ClaveFiscalService)
      *
      * @param dto El DTO de propietario cuya clave fiscal será enmascarada
      */
-    private void desencriptarClaveFiscal(PropietarioDTO dto) {
-        if (dto != null && dto.getClaveFiscal() != null && !dto.getClaveFiscal().trim().isEmpty()) {
-            try {
-                // Desencriptar para obtener la longitud real
-                String claveDesencriptada = encryptionService.desencriptar(dto.getClaveFiscal());
-                int length = claveDesencriptada.length();
-
-                // Enmascarar mostrando solo los últimos 4 caracteres
-                if (length <= 4) {
-                    dto.setClaveFiscal("****");
-                } else {
-                    String ultimosCuatro = claveDesencriptada.substring(length - 4);
-                    dto.setClaveFiscal("*".repeat(length - 4) + ultimosCuatro);
-                }
-            } catch (Exception e) {
-                logger.error("Error procesando clave fiscal para propietario ID: {}", dto.getId(), e);
-                dto.setClaveFiscal(null);
-            }
-        }
+    private void enmascararClaveFiscal(PropietarioDTO dto) {
+        dto.setClaveFiscal(claveFiscalService.enmascarar(dto.getClaveFiscal()));
+    }
+
+    /**
+     * Método auxiliar para ocultar la clave fiscal en los listados, sin desencriptarla
+     * La clave completa se obtiene con revelarClaveFiscal
+     *
+     * @param dto El DTO de propietario cuya clave fiscal será ocultada
+     */
+    private void ocultarClaveFiscal(PropietarioDTO dto) {
+        dto.setClaveFiscal(ClaveFiscalService.ocultar(dto.getClaveFiscal()));
     }
 
     /**
@@ -451,16 +420,7 @@ public class PropietarioService {
             );
         }
 
-        try {
-            return encryptionService.desencriptar(propietario.getClaveFiscal());
-        } catch (Exception e) {
-            logger.error("Error desencriptando clave fiscal para propietario ID: {}", propietarioId, e);
-            throw new BusinessException(
-                ErrorCodes.ERROR_INTERNO,
-                "Error al procesar la clave fiscal",
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
-        }
+        return claveFiscalService.desencriptar(propietario.getClaveFiscal());
     }
 
     /**
@@ -513,16 +473,6 @@ public class PropietarioService {
      * @throws BusinessException si el propietario no existe
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE
-        }
-    )
     public PropietarioDTO modificarClaveFiscal(Long propietarioId, String claveFiscalNueva) {
         Propietario propietario = propietarioRepository.findById(propietarioId)
             .orElseThrow(() -> new BusinessException(
@@ -538,9 +488,12 @@ public class PropietarioService {
             propietario.setUpdatedAt(java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME));
 
             Propietario propietarioActualizado = propietarioRepository.save(propietario);
+            // No dejar en memoria la clave anterior desencriptada
+            claveFiscalService.invalidarCache();
+            cacheContratosService.propietarioModificado(propietarioId);
 
             PropietarioDTO dto = new PropietarioDTO(propietarioActualizado);
-            desencriptarClaveFiscal(dto);
+            enmascararClaveFiscal(dto);
 
             logger.info("Clave fiscal modificada exitosamente para propietario ID: {}", propietarioId);
 
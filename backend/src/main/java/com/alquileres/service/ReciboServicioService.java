@@ -3,6 +3,7 @@ package com.alquileres.service;
 import com.alquileres.dto.*;
 import com.alquileres.model.*;
 import com.alquileres.repository.PagoServicioRepository;
+import com.alquileres.util.FechaUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -57,7 +58,7 @@ public class ReciboServicioService {
 
         // Obtener TODOS los pagos pagados del período para este contrato
         List<PagoServicio> pagosPagadosDelPeriodo = pagoServicioRepository
-                .findByPeriodoAndServicioContratoContratoId(periodo, contratoId)
+                .findByPeriodoKeyAndServicioContratoContratoId(FechaUtil.calcularPeriodoKey(periodo), contratoId)
                 .stream()
                 .filter(p -> Boolean.TRUE.equals(p.getEstaPagado()))
                 .toList();
@@ -94,7 +95,7 @@ public class ReciboServicioService {
         String tipoInmuebleNombre = inmuebleDTO.getTipoInmuebleNombre() != null ?
                 inmuebleDTO.getTipoInmuebleNombre() : "N/A";
         ReciboServicioDTO.ContratoReciboDTO datosContrato = new ReciboServicioDTO.ContratoReciboDTO(
-                contrato.getFechaInicio(),
+                FechaUtil.formatearFechaISO(contrato.getFechaInicio()),
                 tipoInmuebleNombre
         );
 
@@ -0,0 +1,225 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ReintentoAumentoJobDTO;
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import com.alquileres.repository.AlquilerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Servicio que reintenta en segundo plano los aumentos por ICL que quedaron pendientes
+ *
+ * Cada alquiler con necesitaAumentoManual guarda la cantidad de intentos, el próximo intento
+ * y el último error; este servicio solo procesa los que ya tienen el reintento vencido.
+ * Se ejecuta desde el scheduler o a pedido (de forma asíncrona), nunca dos veces en paralelo:
+ * en cada instancia lo evita jobEnCurso y entre instancias el bloqueo REINTENTO_AUMENTOS.
+ */
+@Service
+public class ReintentoAumentoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReintentoAumentoService.class);
+
+    /**
+     * Cantidad de ejecuciones que se conservan para consultar su estado
+     */
+    private static final int MAX_JOBS_HISTORIAL = 20;
+
+    private final AlquilerRepository alquilerRepository;
+    private final AlquilerService alquilerService;
+    private final ClockService clockService;
+    private final BloqueoProcesoService bloqueoProcesoService;
+    private final Executor taskExecutor;
+
+    private final Map<String, ReintentoAumentoJobDTO> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReintentoAumentoJobDTO> eldest) {
+            return size() > MAX_JOBS_HISTORIAL;
+        }
+    };
+    private ReintentoAumentoJobDTO jobEnCurso;
+
+    public ReintentoAumentoService(
+            AlquilerRepository alquilerRepository,
+            AlquilerService alquilerService,
+            ClockService clockService,
+            BloqueoProcesoService bloqueoProcesoService,
+            @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.alquilerRepository = alquilerRepository;
+        this.alquilerService = alquilerService;
+        this.clockService = clockService;
+        this.bloqueoProcesoService = bloqueoProcesoService;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Inicia un reintento inmediato en segundo plano
+     * Si ya hay uno en curso no se inicia otro: se devuelve el que está corriendo
+     * Toma el mismo bloqueo que la tarea programada; si lo tiene otra instancia, el job termina OMITIDO.
+     *
+     * @return Estado del job (con su jobId para consultarlo)
+     */
+    public ReintentoAumentoJobDTO iniciarReintentoAsincrono() {
+        ReintentoAumentoJobDTO job;
+        synchronized (this) {
+            if (jobEnCurso != null) {
+                return copiar(jobEnCurso);
+            }
+            job = registrarJob("MANUAL");
+        }
+
+        try {
+            taskExecutor.execute(() -> ejecutarConBloqueo(job));
+        } catch (TaskRejectedException e) {
+            finalizarJob(job, ReintentoAumentoJobDTO.FALLIDO, "No se pudo encolar el reintento: " + e.getMessage());
+            throw new BusinessException(
+                ErrorCodes.ERROR_INTERNO,
+                "No se pudo iniciar el reintento de aumentos. Intente nuevamente en unos minutos",
+                HttpStatus.SERVICE_UNAVAILABLE
+            );
+        }
+
+        return obtenerJob(job.getJobId());
+    }
+
+    /**
+     * Reintenta en el hilo actual los aumentos con reintento vencido (usado por el scheduler)
+     *
+     * @return Estado final del job, o null si ya había otro reintento en curso
+     */
+    public ReintentoAumentoJobDTO reintentarPendientes() {
+        ReintentoAumentoJobDTO job;
+        synchronized (this) {
+            if (jobEnCurso != null) {
+                logger.info("Ya hay un reintento de aumentos en curso (job {}), se omite", jobEnCurso.getJobId());
+                return null;
+            }
+            job = registrarJob("PROGRAMADO");
+        }
+
+        ejecutar(job);
+        return obtenerJob(job.getJobId());
+    }
+
+    /**
+     * Obtiene el estado de un job de reintento
+     *
+     * @param jobId ID del job
+     * @return Estado del job
+     */
+    public synchronized ReintentoAumentoJobDTO obtenerJob(String jobId) {
+        ReintentoAumentoJobDTO job = jobs.get(jobId);
+        if (job == null) {
+            throw new BusinessException(
+                ErrorCodes.RECURSO_NO_ENCONTRADO,
+                "No se encontró el reintento de aumentos con ID: " + jobId,
+                HttpStatus.NOT_FOUND
+            );
+        }
+        return copiar(job);
+    }
+
+    private void ejecutarConBloqueo(ReintentoAumentoJobDTO job) {
+        try {
+            Optional<Boolean> ejecutado = bloqueoProcesoService.ejecutarConBloqueo(BloqueoProcesoService.REINTENTO_AUMENTOS,
+                BloqueoProcesoService.DURACION_REINTENTO_AUMENTOS, () -> {
+                    ejecutar(job);
+                    return true;
+                });
+            if (ejecutado.isEmpty()) {
+                finalizarJob(job, ReintentoAumentoJobDTO.OMITIDO, "El reintento de aumentos ya se está ejecutando en otra instancia");
+            }
+        } catch (Exception e) {
+            logger.error("No se pudo tomar el bloqueo del reintento de aumentos (job {}): {}", job.getJobId(), e.getMessage());
+            finalizarJob(job, ReintentoAumentoJobDTO.FALLIDO, e.getMessage());
+        }
+    }
+
+    private void ejecutar(ReintentoAumentoJobDTO job) {
+        int procesados = 0;
+        int actualizados = 0;
+        int fallidos = 0;
+
+        try {
+            List<Long> ids = alquilerRepository.findIdsParaReintentoAumento(clockService.getCurrentDateTime());
+            logger.info("Reintento de aumentos ICL (job {}): {} alquileres con reintento vencido", job.getJobId(), ids.size());
+
+            for (Long alquilerId : ids) {
+                try {
+                    // Cada alquiler se procesa en su propia transacción
+                    if (alquilerService.reintentarAumentoAutomatico(alquilerId)) {
+                        actualizados++;
+                    } else {
+                        fallidos++;
+                    }
+                } catch (Exception e) {
+                    fallidos++;
+                    logger.error("Error al reintentar aumento del alquiler ID {}: {}", alquilerId, e.getMessage());
+                    registrarFallo(alquilerId, e.getMessage());
+                }
+                procesados++;
+                actualizarProgreso(job, procesados, actualizados, fallidos);
+            }
+
+            finalizarJob(job, ReintentoAumentoJobDTO.COMPLETADO, null);
+            logger.info("Reintento de aumentos ICL (job {}) completado: {} actualizados, {} aún pendientes",
+                       job.getJobId(), actualizados, fallidos);
+        } catch (Exception e) {
+            logger.error("Error en reintento de aumentos ICL (job {}): {}", job.getJobId(), e.getMessage(), e);
+            finalizarJob(job, ReintentoAumentoJobDTO.FALLIDO, e.getMessage());
+        }
+    }
+
+    private void registrarFallo(Long alquilerId, String error) {
+        try {
+            alquilerService.registrarFalloReintentoAumento(alquilerId, error);
+        } catch (Exception e) {
+            logger.error("No se pudo registrar el fallo del reintento para alquiler ID {}: {}", alquilerId, e.getMessage());
+        }
+    }
+
+    private synchronized ReintentoAumentoJobDTO registrarJob(String origen) {
+        ReintentoAumentoJobDTO job = new ReintentoAumentoJobDTO(
+            UUID.randomUUID().toString(), origen, clockService.getCurrentDateTime().toString());
+        jobs.put(job.getJobId(), job);
+        jobEnCurso = job;
+        return job;
+    }
+
+    private synchronized void actualizarProgreso(ReintentoAumentoJobDTO job, int procesados, int actualizados, int fallidos) {
+        job.setProcesados(procesados);
+        job.setActualizados(actualizados);
+        job.setFallidos(fallidos);
+    }
+
+    private synchronized void finalizarJob(ReintentoAumentoJobDTO job, String estado, String error) {
+        job.setEstado(estado);
+        job.setError(error);
+        job.setFechaFin(clockService.getCurrentDateTime().toString());
+        if (jobEnCurso == job) {
+            jobEnCurso = null;
+        }
+    }
+
+    private static ReintentoAumentoJobDTO copiar(ReintentoAumentoJobDTO job) {
+        ReintentoAumentoJobDTO copia = new ReintentoAumentoJobDTO(job.getJobId(), job.getOrigen(), job.getFechaInicio());
+        copia.setEstado(job.getEstado());
+        copia.setFechaFin(job.getFechaFin());
+        copia.setProcesados(job.getProcesados());
+        copia.setActualizados(job.getActualizados());
+        copia.setFallidos(job.getFallidos());
+        copia.setError(job.getError());
+        return copia;
+    }
+}
@@ -1,5 +1,6 @@
 package com.alquileres.service;
 
+import com.alquileres.dto.ReporteEjecucionParticionadaDTO;
 import com.alquileres.model.ConfiguracionSistema;
 import com.alquileres.model.PagoServicio;
 import com.alquileres.model.ServicioContrato;
@@ -18,8 +19,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Servicio para la actualización automática de pagos de servicios
@@ -37,19 +43,31 @@ public class ServicioActualizacionService {
      */
     private static final String CLAVE_ULTIMO_MES_PROCESADO = "ULTIMO_MES_PROCESADO_PAGOS_SERVICIOS";
 
+    /**
+     * Nombre del proceso en los reportes y cantidad de contratos por partición
+     */
+    static final String PROCESO_GENERACION_FACTURAS = "GENERACION_FACTURAS_SERVICIOS";
+    static final int TAMANIO_PARTICION = 200;
+
     private final PagoServicioRepository pagoServicioRepository;
     private final ConfiguracionSistemaRepository configuracionSistemaRepository;
     private final ServicioContratoRepository servicioContratoRepository;
+    private final ContratoRepository contratoRepository;
+    private final EjecutorParticionado ejecutorParticionado;
     private final ClockService clockService;
 
     public ServicioActualizacionService(
             PagoServicioRepository pagoServicioRepository,
             ConfiguracionSistemaRepository configuracionSistemaRepository,
             ServicioContratoRepository servicioContratoRepository,
+            ContratoRepository contratoRepository,
+            EjecutorParticionado ejecutorParticionado,
             ClockService clockService) {
         this.pagoServicioRepository = pagoServicioRepository;
         this.configuracionSistemaRepository = configuracionSistemaRepository;
         this.servicioContratoRepository = servicioContratoRepository;
+        this.contratoRepository = contratoRepository;
+        this.ejecutorParticionado = ejecutorParticionado;
         this.clockService = clockService;
     }
 
@@ -59,9 +77,11 @@ public class ServicioActualizacionService {
      * Se ejecuta al iniciar sesión
      * Solo procesa si el mes actual es diferente al último mes procesado (guardado en BD)
      *
+     * Los contratos vigentes se dividen por ID en particiones que se procesan en paralelo, cada una
+     * en su propia transacción. El mes solo se marca como procesado si todas las particiones terminan.
+     *
      * @return Cantidad de facturas generadas
      */
-    @Transactional
     public int procesarPagosPendientes() {
         try {
             logger.info("=== INICIO procesarPagosPendientes ===");
@@ -86,38 +106,18 @@ public class ServicioActualizacionService {
             LocalDate fechaActual = clockService.getCurrentDate();
             logger.info("Fecha actual: {}", fechaActual);
 
-            // Buscar todos los servicios activos con pagos pendientes
-            List<ServicioContrato> serviciosPendientes =
-                servicioContratoRepository.findServiciosConPagosPendientes(fechaActual);
-
-            logger.info("Servicios pendientes encontrados: {}", serviciosPendientes.size());
-
-            if (serviciosPendientes.isEmpty()) {
-                logger.info("No se encontraron servicios con pagos pendientes para generar");
-                // Actualizar el último mes procesado aunque no haya facturas
-                actualizarUltimoMesProcesado(mesActual);
-                return 0;
-            }
-
-            int facturasGeneradas = 0;
-            for (ServicioContrato servicio : serviciosPendientes) {
-                try {
-                    logger.info("Procesando servicio ID: {}, proximoPago: {}",
-                               servicio.getId(), servicio.getProximoPago());
-
-                    // Generar la nueva factura para este período
-                    boolean generado = generarFacturaParaServicio(servicio);
-
-                    if (generado) {
-                        facturasGeneradas++;
-                        logger.info("Factura generada para servicio ID: {}", servicio.getId());
-                    }
-
-                } catch (Exception e) {
-                    logger.error("Error al procesar servicio ID {}: {}",
-                                servicio.getId(), e.getMessage(), e);
-                    // Continuar con el siguiente servicio
-                }
+            // Generar las facturas en paralelo, una transacción por partición de contratos
+            List<EjecutorParticionado.Particion> particiones = EjecutorParticionado.dividirEnParticiones(
+                contratoRepository.findIdsContratosVigentes(), TAMANIO_PARTICION);
+            ReporteEjecucionParticionadaDTO reporte = ejecutorParticionado.ejecutar(
+                PROCESO_GENERACION_FACTURAS, particiones, particion -> procesarParticion(fechaActual, particion));
+            int facturasGeneradas = reporte.getGenerados();
+
+            if (!reporte.isCompleto()) {
+                // Sin marcar el mes, el próximo procesamiento reintenta los servicios que quedaron pendientes
+                logger.warn("Generación de facturas de {} incompleta: {} de {} particiones fallaron",
+                           mesActual, reporte.getParticionesFallidas(), reporte.getParticiones());
+                return facturasGeneradas;
             }
 
             // Actualizar el último mes procesado en la base de datos
@@ -136,6 +136,77 @@ public class ServicioActualizacionService {
     }
 
 
+    /**
+     * Genera las facturas de los servicios pendientes de una partición de contratos
+     * (dentro de la transacción de la partición)
+     *
+     * @return Cantidad de facturas generadas en la partición
+     */
+    private int procesarParticion(LocalDate fechaActual, EjecutorParticionado.Particion particion) {
+        List<ServicioContrato> serviciosPendientes = servicioContratoRepository
+            .findServiciosConPagosPendientesEntreContratos(fechaActual, particion.desde(), particion.hasta());
+
+        int facturasGeneradas = generarFacturas(serviciosPendientes);
+
+        logger.info("Partición {}: {} servicios pendientes, {} facturas generadas",
+                   particion.numero(), serviciosPendientes.size(), facturasGeneradas);
+        return facturasGeneradas;
+    }
+
+    /**
+     * Genera en bloque las facturas de un lote de servicios activos
+     *
+     * Usa una consulta para saber qué (servicio, período) ya están facturados, inserta las
+     * facturas nuevas con saveAll (en lotes JDBC según hibernate.jdbc.batch_size) y avanza las
+     * fechas de todos los servicios con un único UPDATE, en lugar de tres sentencias por servicio.
+     *
+     * @param servicios Servicios activos con pagos pendientes
+     * @return Cantidad de facturas generadas
+     */
+    int generarFacturas(List<ServicioContrato> servicios) {
+        if (servicios.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, String> periodoPorServicio = new LinkedHashMap<>();
+        for (ServicioContrato servicio : servicios) {
+            periodoPorServicio.put(servicio.getId(), servicio.getProximoPago().format(FORMATO_PERIODO));
+        }
+
+        // Verificar en una sola consulta qué servicios ya tienen la factura de su período
+        Set<String> facturados = new HashSet<>();
+        for (Object[] fila : pagoServicioRepository.findPeriodosFacturados(
+                periodoPorServicio.keySet(), new HashSet<>(periodoPorServicio.values()))) {
+            facturados.add(fila[0] + "|" + fila[1]);
+        }
+
+        List<PagoServicio> nuevasFacturas = new ArrayList<>();
+        for (ServicioContrato servicio : servicios) {
+            String periodo = periodoPorServicio.get(servicio.getId());
+            if (!facturados.add(servicio.getId() + "|" + periodo)) {
+                logger.debug("Ya existe una factura para el período {} del servicio ID: {}", periodo, servicio.getId());
+                continue;
+            }
+
+            // La factura se crea sin pagar
+            PagoServicio nuevaFactura = new PagoServicio();
+            nuevaFactura.setServicioContrato(servicio);
+            nuevaFactura.setPeriodo(periodo);
+            nuevaFactura.setEstaPagado(false);
+            nuevaFactura.setEstaVencido(false);
+            nuevasFacturas.add(nuevaFactura);
+        }
+
+        pagoServicioRepository.saveAll(nuevasFacturas);
+
+        // Actualizar las fechas de todos los servicios del lote, aunque ya tuvieran la factura
+        LocalDate proximoPagoMensual = clockService.getCurrentDate().plusMonths(1).withDayOfMonth(1);
+        servicioContratoRepository.avanzarFechasDePago(
+            periodoPorServicio.keySet(), proximoPagoMensual, clockService.getCurrentDateTime());
+
+        return nuevasFacturas.size();
+    }
+
     /**
      * Obtiene el último mes procesado desde la base de datos
      *
@@ -19,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.cache.annotation.Cacheable;
 
 import java.time.LocalDate;
@@ -36,6 +37,7 @@ public class ServicioContratoService {
     private final ContratoRepository contratoRepository;
     private final TipoServicioRepository tipoServicioRepository;
     private final PagoServicioRepository pagoServicioRepository;
+    private final DatosReferenciaService datosReferenciaService;
     private final ServicioActualizacionService servicioActualizacionService;
     private final ClockService clockService;
 
@@ -44,12 +46,14 @@ public class ServicioContratoService {
             ContratoRepository contratoRepository,
             TipoServicioRepository tipoServicioRepository,
             PagoServicioRepository pagoServicioRepository,
+            DatosReferenciaService datosReferenciaService,
             ServicioActualizacionService servicioActualizacionService,
             ClockService clockService) {
         this.servicioContratoRepository = servicioContratoRepository;
         this.contratoRepository = contratoRepository;
         this.tipoServicioRepository = tipoServicioRepository;
         this.pagoServicioRepository = pagoServicioRepository;
+        this.datosReferenciaService = datosReferenciaService;
         this.servicioActualizacionService = servicioActualizacionService;
         this.clockService = clockService;
     }
@@ -95,18 +99,10 @@ public class ServicioContratoService {
      * @return El servicio creado
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
+    @Caching(evict = {
+        @CacheEvict(value = CacheNames.SERVICIOS_POR_CONTRATO, key = "#contratoId"),
+        @CacheEvict(value = CacheNames.SERVICIOS_POR_CONTRATO, key = "#contratoId + '_activos'")
+    })
     public ServicioContrato crearServicioCompleto(Long contratoId, Integer tipoServicioId,
                                                   String nroCuenta, String nroContrato, String nroContratoServicio,
                                                   Boolean esDeInquilino, Boolean esAnual,
@@ -148,11 +144,14 @@ public class ServicioContratoService {
                         "Contrato no encontrado con ID: " + contratoId,
                         HttpStatus.NOT_FOUND));
 
-        TipoServicio tipoServicio = tipoServicioRepository.findById(tipoServicioId)
-                .orElseThrow(() -> new BusinessException(
-                        ErrorCodes.TIPO_SERVICIO_NO_ENCONTRADO,
-                        "Tipo de servicio no encontrado con ID: " + tipoServicioId,
-                        HttpStatus.NOT_FOUND));
+        // El tipo se valida contra el registro en memoria; la referencia no consulta la tabla
+        if (!datosReferenciaService.existeTipoServicio(tipoServicioId)) {
+            throw new BusinessException(
+                    ErrorCodes.TIPO_SERVICIO_NO_ENCONTRADO,
+                    "Tipo de servicio no encontrado con ID: " + tipoServicioId,
+                    HttpStatus.NOT_FOUND);
+        }
+        TipoServicio tipoServicio = tipoServicioRepository.getReferenceById(tipoServicioId);
 
         // Verificar que no exista ya este servicio para el contrato
         servicioContratoRepository.findByContratoIdAndTipoServicioId(contratoId, tipoServicioId)
@@ -225,18 +224,7 @@ public class ServicioContratoService {
      * Actualiza los datos administrativos de un servicio
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
+    @CacheEvict(value = CacheNames.SERVICIOS_POR_CONTRATO, allEntries = true)
     public ServicioContrato actualizarServicio(Integer servicioId, String nroCuenta,
                                               String nroContrato, String nroContratoServicio,
                                               Boolean esDeInquilino, Boolean esAnual) {
@@ -262,18 +250,7 @@ public class ServicioContratoService {
      * Desactiva un servicio (borrado lógico)
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
+    @CacheEvict(value = CacheNames.SERVICIOS_POR_CONTRATO, allEntries = true)
     public void desactivarServicio(Integer servicioId) {
         ServicioContrato servicio = servicioContratoRepository.findById(servicioId)
                 .orElseThrow(() -> new BusinessException(
@@ -291,18 +268,7 @@ public class ServicioContratoService {
      * Reactiva un servicio (versión simple)
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
+    @CacheEvict(value = CacheNames.SERVICIOS_POR_CONTRATO, allEntries = true)
     public void reactivarServicio(Integer servicioId) {
         reactivarServicioConFecha(servicioId, clockService.getCurrentDate().format(FORMATO_FECHA));
     }
@@ -314,18 +280,7 @@ public class ServicioContratoService {
      * @param nuevaFechaInicio Nueva fecha de inicio para reactivar
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
+    @CacheEvict(value = CacheNames.SERVICIOS_POR_CONTRATO, allEntries = true)
     public void reactivarServicioConFecha(Integer servicioId, String nuevaFechaInicio) {
         ServicioContrato servicio = servicioContratoRepository.findById(servicioId)
                 .orElseThrow(() -> new BusinessException(
@@ -414,18 +369,10 @@ public class ServicioContratoService {
      * Desactiva todos los servicios de un contrato
      */
     @Transactional
-    @CacheEvict(
-        allEntries = true,
-        cacheNames = {
-            CacheNames.CONTRATOS,
-            CacheNames.CONTRATOS_VIGENTES,
-            CacheNames.CONTRATOS_NO_VIGENTES,
-            CacheNames.CONTRATOS_PROXIMOS_VENCER,
-            CacheNames.CONTRATOS_POR_INMUEBLE,
-            CacheNames.CONTRATOS_POR_INQUILINO,
-            CacheNames.SERVICIOS_POR_CONTRATO
-        }
-    )
+    @Caching(evict = {
+        @CacheEvict(value = CacheNames.SERVICIOS_POR_CONTRATO, key = "#contratoId"),
+        @CacheEvict(value = CacheNames.SERVICIOS_POR_CONTRATO, key = "#contratoId + '_activos'")
+    })
     public void desactivarServiciosDeContrato(Long contratoId) {
         List<ServicioContrato> servicios = servicioContratoRepository.findByContratoId(contratoId);
         servicios.forEach(servicio -> {
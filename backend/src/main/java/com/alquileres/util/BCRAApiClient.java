@@ -2,10 +2,10 @@ package com.alquileres.util;
 
 import com.alquileres.exception.BusinessException;
 import com.alquileres.exception.ErrorCodes;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
@@ -13,6 +13,7 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URI;
@@ -20,22 +21,66 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.security.cert.X509Certificate;
+import java.time.DateTimeException;
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 @Component
 public class BCRAApiClient {
 
     private static final Logger logger = LoggerFactory.getLogger(BCRAApiClient.class);
     private static final String BCRA_API_URL = "https://api.bcra.gob.ar/estadisticas/v4.0/monetarias/40";
-    private static final int TIMEOUT_SECONDS = 30;
+    private static final Duration TIMEOUT_CONEXION = Duration.ofSeconds(5);
+    // Tiempo máximo de cada intento y de la consulta completa (incluyendo reintentos y esperas)
+    private static final Duration TIMEOUT_INTENTO = Duration.ofSeconds(8);
+    private static final Duration DEADLINE_CONSULTA = Duration.ofSeconds(15);
+    // Reintentos con backoff exponencial y jitter completo
+    private static final int MAX_INTENTOS = 3;
+    private static final long BACKOFF_BASE_MS = 250;
+    private static final long BACKOFF_MAXIMO_MS = 2000;
+    // Bulkhead: consultas simultáneas permitidas y espera máxima por un lugar
+    private static final int MAX_CONSULTAS_CONCURRENTES = 2;
+    private static final Duration ESPERA_BULKHEAD = Duration.ofSeconds(2);
+    // Días por consulta en la carga asíncrona por lotes (un valor por día, bajo el límite de resultados)
+    private static final int DIAS_POR_VENTANA_LOTE = 1000;
+    // La API v4 pagina los resultados (1000 por defecto, 3000 como máximo)
+    private static final int LIMITE_RESULTADOS = 3000;
+    // Series consultadas recientemente (las consultas iguales y concurrentes comparten una sola llamada)
+    private static final int CAPACIDAD_CACHE_SERIES = 128;
+    private static final Duration TTL_CACHE_SERIES = Duration.ofMinutes(10);
 
     private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private final SingleFlightCache<String, SortedMap<LocalDate, BigDecimal>> cacheSeries =
+        new SingleFlightCache<>(CAPACIDAD_CACHE_SERIES, TTL_CACHE_SERIES);
+    // Se abre con 50% de fallos en las últimas 10 consultas (mínimo 4) y prueba de nuevo a los 60 segundos
+    private final CircuitBreaker circuitBreaker =
+        new CircuitBreaker("bcra-icl", 10, 4, 0.5, Duration.ofSeconds(60));
+    private final Semaphore bulkhead = new Semaphore(MAX_CONSULTAS_CONCURRENTES);
+    // Hilos virtuales para la espera de lugar en el bulkhead de las consultas por lotes
+    private final ExecutorService ejecutorVirtual = Executors.newVirtualThreadPerTaskExecutor();
+    // Hilos de plataforma para el trabajo interno del HttpClient: si fueran virtuales, los hilos
+    // virtuales fijados a su portador mientras esperan un send() podrían dejarlo sin portadores
+    private final ExecutorService ejecutorHttp = Executors.newFixedThreadPool(MAX_CONSULTAS_CONCURRENTES * 2,
+        Thread.ofPlatform().name("bcra-http-", 0).daemon().factory());
 
     public BCRAApiClient() {
-        this.objectMapper = new ObjectMapper();
         HttpClient tempHttpClient = null;
 
         try {
@@ -65,8 +110,9 @@ public class BCRAApiClient {
 
             // Crear HttpClient con el SSLContext personalizado
             tempHttpClient = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                    .connectTimeout(TIMEOUT_CONEXION)
                     .sslContext(sslContext)
+                    .executor(ejecutorHttp)
                     .build();
 
             logger.info("HttpClient configurado con SSL permisivo para la API del BCRA");
@@ -75,38 +121,255 @@ public class BCRAApiClient {
             logger.error("Error al configurar SSL: {}", e.getMessage(), e);
             // Fallback a HttpClient estándar
             tempHttpClient = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                    .connectTimeout(TIMEOUT_CONEXION)
+                    .executor(ejecutorHttp)
                     .build();
         }
 
         this.httpClient = tempHttpClient;
     }
 
+    @PreDestroy
+    public void cerrar() {
+        ejecutorVirtual.shutdownNow();
+        ejecutorHttp.shutdownNow();
+    }
+
+    /**
+     * Obtiene la serie diaria del ICL entre dos fechas (inclusive)
+     * Se usa para alimentar el almacenamiento local de índices
+     *
+     * @param fechaDesde Primera fecha a consultar
+     * @param fechaHasta Última fecha a consultar
+     * @return Mapa ordenado (no modificable) fecha -> valor con los días publicados por el BCRA
+     */
+    public SortedMap<LocalDate, BigDecimal> obtenerSerieICL(LocalDate fechaDesde, LocalDate fechaHasta) {
+        SortedMap<LocalDate, BigDecimal> serie = consultarSerie(
+            fechaDesde.format(DateTimeFormatter.ISO_LOCAL_DATE),
+            fechaHasta.format(DateTimeFormatter.ISO_LOCAL_DATE)
+        );
+
+        logger.info("Serie ICL obtenida desde {} hasta {}: {} valores", fechaDesde, fechaHasta, serie.size());
+        return serie;
+    }
+
     /**
-     * Obtiene la tasa de aumento del ICL desde la API del BCRA
+     * Obtiene en paralelo las tasas de aumento del ICL de varios rangos de fechas
+     *
+     * Cubre el intervalo total de los rangos con pocas consultas contiguas (ventanas de hasta
+     * DIAS_POR_VENTANA_LOTE días) que se envían con sendAsync. Cada ventana pasa por la misma cache
+     * (con single-flight), bulkhead y circuit breaker que la consulta sincrónica, así que el lote no
+     * supera las MAX_CONSULTAS_CONCURRENTES consultas simultáneas al BCRA. Un contrato de cinco años
+     * con aumentos semestrales se resuelve con una sola espera de red en lugar de diez consultas sucesivas.
+     *
+     * @param rangos Rangos de fechas a calcular
+     * @return Futuro con la tasa de cada rango; los rangos sin valor publicado para alguna de sus fechas no se incluyen
+     */
+    public CompletableFuture<Map<RangoFechasICL, BigDecimal>> obtenerTasasAumentoICLAsync(Collection<RangoFechasICL> rangos) {
+        if (rangos.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        LocalDate desde = null;
+        LocalDate hasta = null;
+        for (RangoFechasICL rango : rangos) {
+            LocalDate menor = rango.fechaInicio().isBefore(rango.fechaFin()) ? rango.fechaInicio() : rango.fechaFin();
+            LocalDate mayor = rango.fechaInicio().isBefore(rango.fechaFin()) ? rango.fechaFin() : rango.fechaInicio();
+            desde = desde == null || menor.isBefore(desde) ? menor : desde;
+            hasta = hasta == null || mayor.isAfter(hasta) ? mayor : hasta;
+        }
+
+        List<CompletableFuture<SortedMap<LocalDate, BigDecimal>>> ventanas = new ArrayList<>();
+        for (LocalDate inicioVentana = desde; !inicioVentana.isAfter(hasta);
+             inicioVentana = inicioVentana.plusDays(DIAS_POR_VENTANA_LOTE)) {
+            LocalDate finVentana = inicioVentana.plusDays(DIAS_POR_VENTANA_LOTE - 1L);
+            ventanas.add(consultarVentanaAsync(inicioVentana, finVentana.isAfter(hasta) ? hasta : finVentana));
+        }
+
+        logger.info("Consultando ICL del BCRA por lotes: {} rangos en {} consultas paralelas ({} a {})",
+                   rangos.size(), ventanas.size(), desde, hasta);
+
+        return CompletableFuture.allOf(ventanas.toArray(CompletableFuture[]::new))
+            .thenApply(v -> {
+                Map<LocalDate, BigDecimal> valores = new HashMap<>();
+                for (CompletableFuture<SortedMap<LocalDate, BigDecimal>> ventana : ventanas) {
+                    valores.putAll(ventana.join());
+                }
+
+                Map<RangoFechasICL, BigDecimal> tasas = new HashMap<>();
+                for (RangoFechasICL rango : rangos) {
+                    BigDecimal valorInicio = valores.get(rango.fechaInicio());
+                    BigDecimal valorFin = valores.get(rango.fechaFin());
+                    if (valorInicio == null || valorFin == null || valorInicio.signum() == 0) {
+                        logger.warn("Sin valor de ICL publicado para el rango {} - {}", rango.fechaInicio(), rango.fechaFin());
+                        continue;
+                    }
+                    tasas.put(rango, valorFin.divide(valorInicio, 10, RoundingMode.HALF_UP));
+                }
+                return tasas;
+            });
+    }
+
+    /**
+     * Métricas de la cache de series: aciertos, fallos (consultas reales al BCRA)
+     * y consultas coalescidas con otra en curso
+     */
+    public Map<String, Object> obtenerMetricasCache() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("aciertos", cacheSeries.getAciertos());
+        metricas.put("fallos", cacheSeries.getFallos());
+        metricas.put("coalescidas", cacheSeries.getCoalescidas());
+        metricas.put("entradas", cacheSeries.getTamanio());
+        return metricas;
+    }
+
+    /**
+     * Obtiene la serie del rango desde la cache o, si no está, consultando al BCRA.
+     * Las consultas concurrentes por el mismo rango comparten una única llamada HTTP.
+     */
+    private SortedMap<LocalDate, BigDecimal> consultarSerie(String fechaInicio, String fechaFin) {
+        return cacheSeries.obtener(fechaInicio + "|" + fechaFin,
+            () -> consultarDetalleICL(fechaInicio, fechaFin, fecha -> true));
+    }
+
+    /**
+     * Estado del circuit breaker de la API del BCRA (se informa en el health check)
+     */
+    public Map<String, Object> obtenerEstadoCircuito() {
+        Map<String, Object> estado = circuitBreaker.obtenerResumen();
+        estado.put("consultasDisponibles", bulkhead.availablePermits());
+        return estado;
+    }
+
+    /**
+     * Consulta la API del BCRA y devuelve el array "detalle" validado
+     *
+     * La consulta pasa por un bulkhead (pocas consultas simultáneas), un circuit breaker que falla
+     * rápido si el BCRA viene fallando, y reintentos con backoff exponencial y jitter, todo dentro
+     * de un tiempo máximo total. Así un BCRA lento no bloquea la generación mensual ni retiene
+     * conexiones de la base durante 30 segundos por contrato.
      *
      * @param fechaInicio Fecha de inicio en formato yyyy-MM-dd
      * @param fechaFin Fecha de fin en formato yyyy-MM-dd
-     * @return Tasa de aumento (cociente valorFin / valorInicio)
+     * @param filtro Fechas de la serie a conservar
+     * @return Mapa ordenado (no modificable) fecha -> valor
      */
-    public BigDecimal obtenerTasaAumentoICL(String fechaInicio, String fechaFin) {
+    private SortedMap<LocalDate, BigDecimal> consultarDetalleICL(String fechaInicio, String fechaFin, Predicate<LocalDate> filtro) {
+        long deadline = System.nanoTime() + DEADLINE_CONSULTA.toNanos();
+
+        if (!adquirirBulkhead(ESPERA_BULKHEAD)) {
+            logger.warn("Bulkhead del BCRA lleno, se rechaza la consulta desde {} hasta {}", fechaInicio, fechaFin);
+            throw new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "Hay demasiadas consultas simultáneas a la API del BCRA. Intente nuevamente en unos segundos",
+                HttpStatus.SERVICE_UNAVAILABLE
+            );
+        }
+
         try {
-            logger.info("Consultando ICL del BCRA desde {} hasta {}", fechaInicio, fechaFin);
+            if (!circuitBreaker.permitirLlamada()) {
+                logger.warn("Circuito del BCRA abierto, se rechaza la consulta desde {} hasta {}", fechaInicio, fechaFin);
+                throw new BusinessException(
+                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                    "La API del BCRA no está disponible temporalmente. Intente nuevamente más tarde",
+                    HttpStatus.SERVICE_UNAVAILABLE
+                );
+            }
 
-            // Construir URL con parámetros
-            String url = String.format("%s?desde=%s&hasta=%s", BCRA_API_URL, fechaInicio, fechaFin);
+            FalloTransitorio ultimoFallo = null;
+            for (int intento = 1; intento <= MAX_INTENTOS; intento++) {
+                long restante = deadline - System.nanoTime();
+                if (restante <= 0) {
+                    break;
+                }
 
-            // Crear request
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-                    .GET()
-                    .build();
+                try {
+                    SortedMap<LocalDate, BigDecimal> serie =
+                        ejecutarConsulta(fechaInicio, fechaFin, Math.min(restante, TIMEOUT_INTENTO.toNanos()), filtro);
+                    circuitBreaker.registrarExito();
+                    return serie;
+                } catch (FalloTransitorio e) {
+                    ultimoFallo = e;
+                    logger.warn("Intento {}/{} de consulta al BCRA fallido: {}", intento, MAX_INTENTOS, e.getMessage());
+                    if (intento < MAX_INTENTOS && !esperarBackoff(intento, deadline)) {
+                        break;
+                    }
+                } catch (BusinessException e) {
+                    // El BCRA respondió (error de datos o de la consulta): el servicio está disponible
+                    circuitBreaker.registrarExito();
+                    throw e;
+                } catch (RuntimeException e) {
+                    circuitBreaker.registrarFallo();
+                    throw e;
+                }
+            }
+
+            circuitBreaker.registrarFallo();
+            String detalleFallo = ultimoFallo != null ? ultimoFallo.getMessage() : "tiempo máximo de consulta agotado";
+            logger.error("No se pudo consultar la API del BCRA: {}", detalleFallo);
+            throw new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "Error de comunicación con la API del BCRA: " + detalleFallo,
+                HttpStatus.BAD_GATEWAY
+            );
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Realiza un intento de consulta HTTP al BCRA
+     *
+     * @throws FalloTransitorio Si el error amerita reintentar (timeout, I/O, 5xx o 429)
+     */
+    private SortedMap<LocalDate, BigDecimal> ejecutarConsulta(String fechaInicio, String fechaFin, long timeoutNanos,
+                                                              Predicate<LocalDate> filtro) {
+        try {
+            logger.info("Consultando ICL del BCRA desde {} hasta {}", fechaInicio, fechaFin);
 
             // Ejecutar request
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<InputStream> response = httpClient.send(
+                construirRequest(fechaInicio, fechaFin, timeoutNanos), HttpResponse.BodyHandlers.ofInputStream());
 
+            return procesarRespuesta(response, filtro);
+
+        } catch (IOException e) {
+            // Incluye HttpTimeoutException y HttpConnectTimeoutException
+            throw new FalloTransitorio(e.getClass().getSimpleName() + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            logger.error("Consulta a la API del BCRA interrumpida: {}", e.getMessage(), e);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "La consulta a la API del BCRA fue interrumpida",
+                HttpStatus.INTERNAL_SERVER_ERROR
+            );
+        }
+    }
+
+    private HttpRequest construirRequest(String fechaInicio, String fechaFin, long timeoutNanos) {
+        // Construir URL con parámetros
+        String url = String.format("%s?desde=%s&hasta=%s&limit=%d", BCRA_API_URL, fechaInicio, fechaFin, LIMITE_RESULTADOS);
+
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofNanos(timeoutNanos))
+                .GET()
+                .build();
+    }
+
+    /**
+     * Valida la respuesta del BCRA y lee en streaming los valores del array "detalle"
+     *
+     * @throws FalloTransitorio Si el BCRA respondió 5xx o 429, o se cortó la lectura de la respuesta
+     */
+    private SortedMap<LocalDate, BigDecimal> procesarRespuesta(HttpResponse<InputStream> response, Predicate<LocalDate> filtro) {
+        try (InputStream contenido = response.body()) {
             // Validar respuesta
+            if (response.statusCode() >= 500 || response.statusCode() == 429) {
+                throw new FalloTransitorio("Código de estado: " + response.statusCode());
+            }
+
             if (response.statusCode() != 200) {
                 logger.error("Error al consultar BCRA API. Status code: {}", response.statusCode());
                 throw new BusinessException(
@@ -116,12 +379,11 @@ public class BCRAApiClient {
                 );
             }
 
-            // Parsear JSON
-            JsonNode rootNode = objectMapper.readTree(response.body());
-
-            // Validar estructura
-            if (!rootNode.has("results") || !rootNode.get("results").isArray() || rootNode.get("results").isEmpty()) {
-                logger.error("Respuesta inválida de la API del BCRA: {}", response.body());
+            SortedMap<LocalDate, BigDecimal> serie;
+            try {
+                serie = ICLResponseParser.parsear(contenido, filtro);
+            } catch (JsonProcessingException | DateTimeException | NumberFormatException e) {
+                logger.error("Respuesta inválida de la API del BCRA: {}", e.getMessage());
                 throw new BusinessException(
                     ErrorCodes.ERROR_SERVICIO_EXTERNO,
                     "La API del BCRA devolvió una estructura de datos inválida",
@@ -129,9 +391,7 @@ public class BCRAApiClient {
                 );
             }
 
-            // Obtener el array de detalles
-            JsonNode results = rootNode.get("results").get(0);
-            if (!results.has("detalle") || !results.get("detalle").isArray()) {
+            if (serie == null) {
                 logger.error("No se encontró el detalle en la respuesta del BCRA");
                 throw new BusinessException(
                     ErrorCodes.ERROR_SERVICIO_EXTERNO,
@@ -140,107 +400,153 @@ public class BCRAApiClient {
                 );
             }
 
-            JsonNode detalle = results.get("detalle");
+            return Collections.unmodifiableSortedMap(serie);
+        } catch (IOException e) {
+            // Conexión cortada mientras se leía el cuerpo
+            throw new FalloTransitorio(e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
 
-            // Extraer valores del ICL en un mapa (fecha -> valor)
-            Map<String, BigDecimal> valoresPorFecha = new HashMap<>();
-            for (JsonNode nodo : detalle) {
-                String fecha = nodo.get("fecha").asText();
-                BigDecimal valor = new BigDecimal(nodo.get("valor").asText());
-                valoresPorFecha.put(fecha, valor);
-            }
+    /**
+     * Consulta asíncrona de una ventana de la serie
+     * Comparte la cache de series con la consulta sincrónica: si el mismo rango ya está en cache o en
+     * curso no se vuelve a pedir al BCRA.
+     */
+    private CompletableFuture<SortedMap<LocalDate, BigDecimal>> consultarVentanaAsync(LocalDate desde, LocalDate hasta) {
+        String fechaInicio = desde.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        String fechaFin = hasta.format(DateTimeFormatter.ISO_LOCAL_DATE);
+
+        return cacheSeries.obtenerAsync(fechaInicio + "|" + fechaFin,
+            () -> consultarDetalleICLAsync(fechaInicio, fechaFin, fecha -> true));
+    }
 
-            // Obtener valores de inicio y fin
-            BigDecimal valorInicio = valoresPorFecha.get(fechaInicio);
-            BigDecimal valorFin = valoresPorFecha.get(fechaFin);
+    /**
+     * Versión asíncrona de consultarDetalleICL: mismo bulkhead, circuit breaker, reintentos y tiempo máximo
+     *
+     * Solo la espera de un lugar en el bulkhead ocupa un hilo (virtual); el envío y los reintentos
+     * son no bloqueantes. Las ventanas de un lote esperan su lugar hasta el tiempo máximo de consulta,
+     * porque se envían todas juntas y el bulkhead las deja pasar de a MAX_CONSULTAS_CONCURRENTES.
+     */
+    private CompletableFuture<SortedMap<LocalDate, BigDecimal>> consultarDetalleICLAsync(String fechaInicio, String fechaFin,
+                                                                                        Predicate<LocalDate> filtro) {
+        return CompletableFuture.supplyAsync(() -> adquirirBulkhead(DEADLINE_CONSULTA), ejecutorVirtual)
+            .thenCompose(adquirido -> {
+                if (!adquirido) {
+                    logger.warn("Bulkhead del BCRA lleno, se rechaza la consulta asíncrona desde {} hasta {}", fechaInicio, fechaFin);
+                    return CompletableFuture.<SortedMap<LocalDate, BigDecimal>>failedFuture(new BusinessException(
+                        ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                        "Hay demasiadas consultas simultáneas a la API del BCRA. Intente nuevamente en unos segundos",
+                        HttpStatus.SERVICE_UNAVAILABLE
+                    ));
+                }
 
-            logger.info("=== === === Valores de ICL === === ===");
-            logger.info("Fecha Inicio: {}, Valor: {}", fechaInicio, valorInicio);
-            logger.info("Fecha Fin: {}, Valor: {}", fechaFin, valorFin);
-            logger.info("=== === === Fin Valores ICL === === ===");
+                if (!circuitBreaker.permitirLlamada()) {
+                    bulkhead.release();
+                    return CompletableFuture.<SortedMap<LocalDate, BigDecimal>>failedFuture(new BusinessException(
+                        ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                        "La API del BCRA no está disponible temporalmente. Intente nuevamente más tarde",
+                        HttpStatus.SERVICE_UNAVAILABLE
+                    ));
+                }
 
-            // Validar que existan ambos valores
-            if (valorInicio == null) {
-                logger.error("No se encontró valor de ICL para la fecha de inicio: {}", fechaInicio);
-                throw new BusinessException(
-                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                    "No se encontró el valor del ICL para la fecha de inicio: " + fechaInicio,
-                    HttpStatus.BAD_REQUEST
-                );
-            }
+                long deadline = System.nanoTime() + DEADLINE_CONSULTA.toNanos();
+                return enviarConReintentosAsync(fechaInicio, fechaFin, filtro, 1, deadline)
+                    .whenComplete((serie, error) -> {
+                        registrarResultadoCircuito(error);
+                        bulkhead.release();
+                    });
+            });
+    }
 
-            if (valorFin == null) {
-                logger.error("No se encontró valor de ICL para la fecha de fin: {}", fechaFin);
-                throw new BusinessException(
-                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                    "No se encontró el valor del ICL para la fecha de fin: " + fechaFin,
-                    HttpStatus.BAD_REQUEST
-                );
-            }
+    private CompletableFuture<SortedMap<LocalDate, BigDecimal>> enviarConReintentosAsync(String fechaInicio, String fechaFin,
+                                                                                        Predicate<LocalDate> filtro,
+                                                                                        int intento, long deadline) {
+        long restante = deadline - System.nanoTime();
+        if (restante <= 0) {
+            return CompletableFuture.failedFuture(new FalloTransitorio("tiempo máximo de consulta agotado"));
+        }
 
-            // Validar que valorInicio no sea cero
-            if (valorInicio.compareTo(BigDecimal.ZERO) == 0) {
-                logger.error("El valor de ICL de inicio es cero");
-                throw new BusinessException(
-                    ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                    "El valor del ICL de inicio no puede ser cero",
-                    HttpStatus.BAD_REQUEST
-                );
-            }
+        logger.info("Consultando ICL del BCRA (asíncrono) desde {} hasta {}", fechaInicio, fechaFin);
+        HttpRequest request = construirRequest(fechaInicio, fechaFin, Math.min(restante, TIMEOUT_INTENTO.toNanos()));
 
-            // Calcular tasa de aumento (cociente)
-            BigDecimal tasaAumento = valorFin.divide(valorInicio, 10, RoundingMode.HALF_UP);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+            .thenApply(response -> procesarRespuesta(response, filtro))
+            .handle((serie, error) -> {
+                if (error == null) {
+                    return CompletableFuture.completedFuture(serie);
+                }
 
-            logger.info("ICL obtenido - Inicio: {}, Fin: {}, Tasa de aumento: {}",
-                       valorInicio, valorFin, tasaAumento);
+                Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                boolean transitorio = causa instanceof FalloTransitorio || causa instanceof IOException;
+                if (!transitorio) {
+                    return CompletableFuture.<SortedMap<LocalDate, BigDecimal>>failedFuture(causa);
+                }
 
-            return tasaAumento;
+                logger.warn("Intento {}/{} de consulta asíncrona al BCRA fallido: {}", intento, MAX_INTENTOS, causa.getMessage());
+                long esperaMs = calcularBackoffMs(intento);
+                if (intento >= MAX_INTENTOS || TimeUnit.MILLISECONDS.toNanos(esperaMs) >= deadline - System.nanoTime()) {
+                    return CompletableFuture.<SortedMap<LocalDate, BigDecimal>>failedFuture(new FalloTransitorio(causa.getMessage()));
+                }
 
-        } catch (IOException e) {
-            logger.error("Error de I/O al consultar la API del BCRA: {}", e.getMessage(), e);
-            throw new BusinessException(
-                ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                "Error de comunicación con la API del BCRA: " + e.getMessage(),
-                HttpStatus.BAD_GATEWAY
-            );
+                return CompletableFuture.runAsync(() -> { },
+                        CompletableFuture.delayedExecutor(esperaMs, TimeUnit.MILLISECONDS, ejecutorHttp))
+                    .thenCompose(v -> enviarConReintentosAsync(fechaInicio, fechaFin, filtro, intento + 1, deadline));
+            })
+            .thenCompose(futuro -> futuro);
+    }
+
+    private void registrarResultadoCircuito(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (causa == null || causa instanceof BusinessException) {
+            // Sin error, o el BCRA respondió con un error de datos: el servicio está disponible
+            circuitBreaker.registrarExito();
+        } else {
+            circuitBreaker.registrarFallo();
+        }
+    }
+
+    private boolean adquirirBulkhead(Duration espera) {
+        try {
+            return bulkhead.tryAcquire(espera.toMillis(), TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
-            logger.error("Consulta a la API del BCRA interrumpida: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
-            throw new BusinessException(
-                ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                "La consulta a la API del BCRA fue interrumpida",
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
-        } catch (BusinessException e) {
-            // Re-lanzar excepciones de negocio
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error inesperado al consultar la API del BCRA: {}", e.getMessage(), e);
-            throw new BusinessException(
-                ErrorCodes.ERROR_SERVICIO_EXTERNO,
-                "Error inesperado al consultar el ICL: " + e.getMessage(),
-                HttpStatus.INTERNAL_SERVER_ERROR
-            );
+            return false;
         }
     }
 
     /**
-     * Calcula el nuevo monto aplicando la tasa de aumento del ICL
+     * Espera antes del próximo intento: backoff exponencial con jitter completo, sin pasar el deadline
      *
-     * @param montoOriginal Monto original del alquiler
-     * @param fechaInicio Fecha de inicio del período
-     * @param fechaFin Fecha de fin del período
-     * @return Nuevo monto ajustado por ICL
+     * @return false si no queda tiempo para otro intento
      */
-    public BigDecimal calcularNuevoMontoConICL(BigDecimal montoOriginal, String fechaInicio, String fechaFin) {
-        BigDecimal tasaAumento = obtenerTasaAumentoICL(fechaInicio, fechaFin);
-        BigDecimal nuevoMonto = montoOriginal.multiply(tasaAumento).setScale(2, RoundingMode.HALF_UP);
-
-        logger.info("Cálculo de nuevo monto - Original: {}, Tasa: {}, Nuevo: {}",
-                   montoOriginal, tasaAumento, nuevoMonto);
+    private static boolean esperarBackoff(int intento, long deadline) {
+        long esperaMs = calcularBackoffMs(intento);
+        long restanteMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (esperaMs >= restanteMs) {
+            return false;
+        }
+        try {
+            Thread.sleep(esperaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-        return nuevoMonto;
+    private static long calcularBackoffMs(int intento) {
+        long techoMs = Math.min(BACKOFF_MAXIMO_MS, BACKOFF_BASE_MS << (intento - 1));
+        return ThreadLocalRandom.current().nextLong(techoMs + 1);
     }
-}
 
+    /**
+     * Error transitorio de la API del BCRA (se reintenta)
+     */
+    private static class FalloTransitorio extends RuntimeException {
+        private static final long serialVersionUID = 1L;
 
+        FalloTransitorio(String mensaje) {
+            super(mensaje);
+        }
+    }
+}
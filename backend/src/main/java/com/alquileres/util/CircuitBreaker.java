@@ -0,0 +1,143 @@
+package com.alquileres.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker simple para servicios externos
+ *
+ * Registra el resultado de las últimas llamadas en una ventana circular. Si la tasa de fallos
+ * supera el umbral (con un mínimo de llamadas), el circuito se abre y las llamadas fallan
+ * inmediatamente durante el tiempo de espera. Luego pasa a semiabierto y deja pasar una sola
+ * llamada de prueba: si funciona se cierra, si falla vuelve a abrirse.
+ */
+public class CircuitBreaker {
+
+    public enum Estado {
+        CERRADO,
+        ABIERTO,
+        SEMI_ABIERTO
+    }
+
+    private final String nombre;
+    private final boolean[] ventana;
+    private final int llamadasMinimas;
+    private final double umbralFallos;
+    private final long esperaAbiertoNanos;
+    private final LongSupplier reloj;
+
+    private Estado estado = Estado.CERRADO;
+    private int posicion;
+    private int registradas;
+    private int fallosEnVentana;
+    private long abiertoDesde;
+    private boolean pruebaEnCurso;
+    private long rechazadas;
+
+    public CircuitBreaker(String nombre, int tamanioVentana, int llamadasMinimas, double umbralFallos, Duration esperaAbierto) {
+        this(nombre, tamanioVentana, llamadasMinimas, umbralFallos, esperaAbierto, System::nanoTime);
+    }
+
+    CircuitBreaker(String nombre, int tamanioVentana, int llamadasMinimas, double umbralFallos,
+                   Duration esperaAbierto, LongSupplier reloj) {
+        this.nombre = nombre;
+        this.ventana = new boolean[tamanioVentana];
+        this.llamadasMinimas = llamadasMinimas;
+        this.umbralFallos = umbralFallos;
+        this.esperaAbiertoNanos = esperaAbierto.toNanos();
+        this.reloj = reloj;
+    }
+
+    /**
+     * Indica si se puede realizar una llamada. En estado semiabierto reserva la única llamada de prueba,
+     * por lo que cada llamada permitida debe terminar en registrarExito o registrarFallo.
+     *
+     * @return true si la llamada puede realizarse
+     */
+    public synchronized boolean permitirLlamada() {
+        if (estado == Estado.ABIERTO && reloj.getAsLong() - abiertoDesde >= esperaAbiertoNanos) {
+            estado = Estado.SEMI_ABIERTO;
+            pruebaEnCurso = false;
+        }
+
+        if (estado == Estado.CERRADO) {
+            return true;
+        }
+        if (estado == Estado.SEMI_ABIERTO && !pruebaEnCurso) {
+            pruebaEnCurso = true;
+            return true;
+        }
+
+        rechazadas++;
+        return false;
+    }
+
+    public synchronized void registrarExito() {
+        if (estado == Estado.SEMI_ABIERTO) {
+            cerrar();
+            return;
+        }
+        registrar(false);
+    }
+
+    public synchronized void registrarFallo() {
+        if (estado == Estado.SEMI_ABIERTO) {
+            abrir();
+            return;
+        }
+        registrar(true);
+        if (estado == Estado.CERRADO && registradas >= llamadasMinimas
+                && (double) fallosEnVentana / registradas >= umbralFallos) {
+            abrir();
+        }
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * @return Estado y contadores del circuito, para el health check
+     */
+    public synchronized Map<String, Object> obtenerResumen() {
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("nombre", nombre);
+        resumen.put("estado", estado.name());
+        resumen.put("llamadasEnVentana", registradas);
+        resumen.put("fallosEnVentana", fallosEnVentana);
+        resumen.put("llamadasRechazadas", rechazadas);
+        return resumen;
+    }
+
+    private void registrar(boolean fallo) {
+        if (registradas == ventana.length) {
+            // Sale de la ventana el resultado más antiguo
+            if (ventana[posicion]) {
+                fallosEnVentana--;
+            }
+        } else {
+            registradas++;
+        }
+        ventana[posicion] = fallo;
+        if (fallo) {
+            fallosEnVentana++;
+        }
+        posicion = (posicion + 1) % ventana.length;
+    }
+
+    private void abrir() {
+        estado = Estado.ABIERTO;
+        abiertoDesde = reloj.getAsLong();
+        pruebaEnCurso = false;
+    }
+
+    private void cerrar() {
+        estado = Estado.CERRADO;
+        pruebaEnCurso = false;
+        posicion = 0;
+        registradas = 0;
+        fallosEnVentana = 0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.alquileres.util;
+
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Cursor opaco del listado paginado de contratos
+ *
+ * Guarda la posición del último contrato devuelto (fecha fin e ID, las columnas del orden)
+ * y un hash de los filtros, en Base64 URL-safe. La página siguiente se busca con
+ * "después de esta posición" en lugar de OFFSET, así cada página cuesta lo mismo sin
+ * importar cuántas se recorrieron. Un cursor generado con otros filtros se rechaza.
+ */
+public final class CursorContratos {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARADOR = "|";
+
+    /**
+     * Posición del último contrato de una página (fechaFin puede ser null)
+     */
+    public record Posicion(LocalDate fechaFin, Long id) {
+    }
+
+    private CursorContratos() {
+    }
+
+    public static String codificar(String claveFiltro, LocalDate fechaFin, Long id) {
+        String contenido = String.join(SEPARADOR, VERSION, hashFiltro(claveFiltro),
+            fechaFin != null ? fechaFin.toString() : "", id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Cursor recibido del cliente (null o vacío: primera página)
+     * @param claveFiltro Clave de los filtros de la consulta actual
+     * @return Posición desde la cual continuar, o null para la primera página
+     * @throws BusinessException si el cursor está mal formado o es de otros filtros
+     */
+    public static Posicion decodificar(String cursor, String claveFiltro) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String[] partes;
+        try {
+            partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw cursorInvalido("El cursor no es válido");
+        }
+        if (partes.length != 4 || !VERSION.equals(partes[0])) {
+            throw cursorInvalido("El cursor no es válido");
+        }
+        if (!hashFiltro(claveFiltro).equals(partes[1])) {
+            throw cursorInvalido("El cursor corresponde a otros filtros; pida la primera página de nuevo");
+        }
+
+        try {
+            LocalDate fechaFin = partes[2].isEmpty() ? null : LocalDate.parse(partes[2]);
+            return new Posicion(fechaFin, Long.parseLong(partes[3]));
+        } catch (RuntimeException e) {
+            throw cursorInvalido("El cursor no es válido");
+        }
+    }
+
+    private static String hashFiltro(String claveFiltro) {
+        return Integer.toHexString(claveFiltro.hashCode());
+    }
+
+    private static BusinessException cursorInvalido(String mensaje) {
+        return new BusinessException(ErrorCodes.DATOS_INVALIDOS, mensaje, HttpStatus.BAD_REQUEST);
+    }
+}
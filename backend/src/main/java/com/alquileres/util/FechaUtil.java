@@ -71,6 +71,63 @@ public class FechaUtil {
         }
     }
 
+    /**
+     * Convierte una fecha del formato del usuario (dd/MM/yyyy) a LocalDate
+     * Acepta también yyyy-MM-dd y yyyy-MM-ddTHH:mm:ss (se descarta la hora)
+     *
+     * @param fechaUsuario Fecha en formato dd/MM/yyyy o ISO
+     * @return Fecha, o null si la fecha es null o vacía
+     */
+    public static LocalDate convertirFechaUsuarioToLocalDate(String fechaUsuario) {
+        if (fechaUsuario == null || fechaUsuario.trim().isEmpty()) {
+            return null;
+        }
+
+        String fecha = fechaUsuario.trim();
+        try {
+            return LocalDate.parse(fecha, FORMATO_USUARIO);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(fecha.length() > 10 && fecha.charAt(10) == 'T' ? fecha.substring(0, 10) : fecha);
+            } catch (DateTimeParseException e2) {
+                throw new IllegalArgumentException("Formato de fecha inválido. Use dd/MM/yyyy (ej: 25/12/2024)", e);
+            }
+        }
+    }
+
+    /**
+     * Formatea una fecha en formato ISO (yyyy-MM-dd)
+     *
+     * @param fecha Fecha a formatear
+     * @return Fecha en formato yyyy-MM-dd, o null si la fecha es null
+     */
+    public static String formatearFechaISO(LocalDate fecha) {
+        return fecha != null ? fecha.format(FORMATO_ISO_DATE) : null;
+    }
+
+    /**
+     * Calcula la clave numérica del período (yyyyMM) de una fecha
+     *
+     * @param fecha Fecha (ej: 2025-03-10)
+     * @return Clave del período (ej: 202503), o null si la fecha es null
+     */
+    public static Integer calcularPeriodoKey(LocalDate fecha) {
+        return fecha != null ? fecha.getYear() * 100 + fecha.getMonthValue() : null;
+    }
+
+    /**
+     * Calcula la clave numérica del período (yyyyMM) de un período en formato mm/aaaa
+     *
+     * @param periodo Período (ej: 03/2025)
+     * @return Clave del período (ej: 202503), o null si el período es null o no tiene el formato mm/aaaa
+     */
+    public static Integer calcularPeriodoKey(String periodo) {
+        if (periodo == null || !periodo.matches("(0[1-9]|1[0-2])/\\d{4}")) {
+            return null;
+        }
+        return Integer.parseInt(periodo.substring(3)) * 100 + Integer.parseInt(periodo.substring(0, 2));
+    }
+
     /**
      * Convierte una fecha del formato del usuario (dd/MM/yyyy) al formato ISO con tiempo
      *
@@ -0,0 +1,147 @@
+package com.alquileres.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Lector en streaming de las respuestas de la serie ICL del BCRA
+ *
+ * Recorre results[0].detalle token a token sin construir el árbol JSON completo y conserva
+ * solo las fechas que acepta el filtro. Para calcular una tasa alcanza con dos valores aunque
+ * el rango tenga varios años; para alimentar el almacenamiento local se conservan todos.
+ */
+public final class ICLResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private ICLResponseParser() {
+    }
+
+    /**
+     * Lee la respuesta del BCRA conservando los valores cuyas fechas acepta el filtro
+     *
+     * @param contenido Cuerpo de la respuesta
+     * @param filtro Fechas a conservar
+     * @return Mapa ordenado fecha -> valor, o null si la respuesta no tiene el array "detalle"
+     * @throws IOException Si el JSON es inválido o no tiene el array "results"
+     */
+    public static SortedMap<LocalDate, BigDecimal> parsear(InputStream contenido, Predicate<LocalDate> filtro) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(contenido)) {
+            return leerRaiz(parser, filtro);
+        }
+    }
+
+    public static SortedMap<LocalDate, BigDecimal> parsear(String contenido, Predicate<LocalDate> filtro) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(contenido)) {
+            return leerRaiz(parser, filtro);
+        }
+    }
+
+    private static SortedMap<LocalDate, BigDecimal> leerRaiz(JsonParser parser, Predicate<LocalDate> filtro) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw JsonMappingException.from(parser, "Se esperaba un objeto JSON en la respuesta del BCRA");
+        }
+
+        SortedMap<LocalDate, BigDecimal> serie = null;
+        boolean tieneResults = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if ("results".equals(campo) && valor == JsonToken.START_ARRAY) {
+                // Solo interesa el primer elemento de "results"
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    tieneResults = true;
+                    serie = leerResultado(parser, filtro);
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (!tieneResults) {
+            throw JsonMappingException.from(parser, "La respuesta del BCRA no tiene resultados");
+        }
+        return serie;
+    }
+
+    private static SortedMap<LocalDate, BigDecimal> leerResultado(JsonParser parser, Predicate<LocalDate> filtro) throws IOException {
+        SortedMap<LocalDate, BigDecimal> serie = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if ("detalle".equals(campo) && valor == JsonToken.START_ARRAY) {
+                serie = leerDetalle(parser, filtro);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return serie;
+    }
+
+    private static SortedMap<LocalDate, BigDecimal> leerDetalle(JsonParser parser, Predicate<LocalDate> filtro) throws IOException {
+        SortedMap<LocalDate, BigDecimal> serie = new TreeMap<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            LocalDate fecha = null;
+            String valor = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                parser.nextToken();
+                if ("fecha".equals(campo)) {
+                    fecha = parsearFecha(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                } else if ("valor".equals(campo)) {
+                    // El texto original evita pasar por double
+                    valor = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (fecha != null && valor != null && filtro.test(fecha)) {
+                serie.put(fecha, new BigDecimal(valor));
+            }
+        }
+        return serie;
+    }
+
+    /**
+     * Lee una fecha yyyy-MM-dd directamente del buffer del parser, sin crear el String
+     * ni pasar por DateTimeFormatter (se hace una vez por cada día de la serie)
+     */
+    private static LocalDate parsearFecha(char[] buffer, int offset, int longitud) {
+        if (longitud == 10 && buffer[offset + 4] == '-' && buffer[offset + 7] == '-') {
+            int anio = digitos(buffer, offset, 4);
+            int mes = digitos(buffer, offset + 5, 2);
+            int dia = digitos(buffer, offset + 8, 2);
+            if (anio >= 0 && mes >= 0 && dia >= 0) {
+                return LocalDate.of(anio, mes, dia);
+            }
+        }
+        return LocalDate.parse(new String(buffer, offset, longitud), DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    private static int digitos(char[] buffer, int offset, int cantidad) {
+        int valor = 0;
+        for (int i = offset; i < offset + cantidad; i++) {
+            char c = buffer[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
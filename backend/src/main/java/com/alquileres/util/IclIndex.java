@@ -0,0 +1,183 @@
+package com.alquileres.util;
+
+import com.alquileres.exception.BusinessException;
+import com.alquileres.exception.ErrorCodes;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Índice en memoria de la serie del ICL
+ *
+ * Guarda los valores en dos arrays paralelos ordenados por fecha: días desde epoch (int)
+ * y valor escalado a 6 decimales (long). Cada consulta de tasa son dos búsquedas binarias
+ * sobre una foto inmutable de la serie, sin crear objetos salvo el resultado.
+ */
+@Component
+public class IclIndex {
+
+    /**
+     * Decimales con los que se guarda el valor (los mismos que la columna indices_icl.valor)
+     */
+    private static final int ESCALA_VALOR = 6;
+
+    /**
+     * Días hacia atrás que se aceptan cuando el BCRA no publicó valor para la fecha exacta
+     * (fines de semana largos y feriados)
+     */
+    static final int DIAS_MAXIMOS_FALLBACK = 5;
+
+    private record Serie(int[] dias, long[] valores) {
+        int tamanio() {
+            return dias.length;
+        }
+    }
+
+    private volatile Serie serie = new Serie(new int[0], new long[0]);
+
+    /**
+     * Reemplaza el contenido del índice por la serie indicada
+     *
+     * @param valores Mapa ordenado fecha -> valor
+     */
+    public synchronized void cargar(SortedMap<LocalDate, BigDecimal> valores) {
+        int[] dias = new int[valores.size()];
+        long[] escalados = new long[valores.size()];
+        int i = 0;
+        for (Map.Entry<LocalDate, BigDecimal> entrada : valores.entrySet()) {
+            dias[i] = (int) entrada.getKey().toEpochDay();
+            escalados[i] = escalar(entrada.getValue());
+            i++;
+        }
+        serie = new Serie(dias, escalados);
+    }
+
+    /**
+     * Agrega al final del índice los valores posteriores a la última fecha cargada
+     * Los valores con fecha anterior o igual a la última se ignoran
+     *
+     * @param valores Mapa ordenado fecha -> valor
+     */
+    public synchronized void agregar(SortedMap<LocalDate, BigDecimal> valores) {
+        Serie actual = serie;
+        SortedMap<LocalDate, BigDecimal> nuevos = actual.tamanio() == 0
+            ? valores
+            : valores.tailMap(LocalDate.ofEpochDay(actual.dias()[actual.tamanio() - 1] + 1L));
+        if (nuevos.isEmpty()) {
+            return;
+        }
+
+        int[] dias = Arrays.copyOf(actual.dias(), actual.tamanio() + nuevos.size());
+        long[] escalados = Arrays.copyOf(actual.valores(), actual.tamanio() + nuevos.size());
+        int i = actual.tamanio();
+        for (Map.Entry<LocalDate, BigDecimal> entrada : nuevos.entrySet()) {
+            dias[i] = (int) entrada.getKey().toEpochDay();
+            escalados[i] = escalar(entrada.getValue());
+            i++;
+        }
+        serie = new Serie(dias, escalados);
+    }
+
+    public boolean estaVacio() {
+        return serie.tamanio() == 0;
+    }
+
+    public int tamanio() {
+        return serie.tamanio();
+    }
+
+    /**
+     * @return Última fecha cargada, o null si el índice está vacío
+     */
+    public LocalDate getUltimaFecha() {
+        Serie actual = serie;
+        return actual.tamanio() == 0 ? null : LocalDate.ofEpochDay(actual.dias()[actual.tamanio() - 1]);
+    }
+
+    /**
+     * Obtiene el valor del ICL para una fecha
+     * Si no hay valor exacto usa el del día publicado más cercano hacia atrás (hasta DIAS_MAXIMOS_FALLBACK días)
+     *
+     * @param fecha Fecha a consultar
+     * @return Valor del índice, o null si no hay valor aplicable
+     */
+    public BigDecimal obtenerValor(LocalDate fecha) {
+        Serie actual = serie;
+        int posicion = buscarPosicion(actual, (int) fecha.toEpochDay());
+        return posicion < 0 ? null : BigDecimal.valueOf(actual.valores()[posicion], ESCALA_VALOR);
+    }
+
+    /**
+     * Calcula la tasa de aumento (valorFin / valorInicio) entre dos fechas
+     *
+     * @param fechaInicio Fecha de inicio del período
+     * @param fechaFin Fecha de fin del período
+     * @return Tasa de aumento con 10 decimales
+     */
+    public BigDecimal obtenerTasa(LocalDate fechaInicio, LocalDate fechaFin) {
+        Serie actual = serie;
+        int posicionInicio = buscarPosicion(actual, (int) fechaInicio.toEpochDay());
+        int posicionFin = buscarPosicion(actual, (int) fechaFin.toEpochDay());
+
+        if (posicionInicio < 0) {
+            throw new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "No se encontró el valor del ICL para la fecha de inicio: " + fechaInicio,
+                HttpStatus.BAD_REQUEST
+            );
+        }
+
+        if (posicionFin < 0) {
+            throw new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "No se encontró el valor del ICL para la fecha de fin: " + fechaFin,
+                HttpStatus.BAD_REQUEST
+            );
+        }
+
+        long valorInicio = actual.valores()[posicionInicio];
+        if (valorInicio == 0L) {
+            throw new BusinessException(
+                ErrorCodes.ERROR_SERVICIO_EXTERNO,
+                "El valor del ICL de inicio no puede ser cero",
+                HttpStatus.BAD_REQUEST
+            );
+        }
+
+        // Ambos valores tienen la misma escala, el cociente de los enteros es la tasa
+        return BigDecimal.valueOf(actual.valores()[posicionFin])
+            .divide(BigDecimal.valueOf(valorInicio), 10, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Busca la posición del día exacto o, si no existe, la del día anterior más cercano
+     * dentro de DIAS_MAXIMOS_FALLBACK. No aplica fallback para fechas posteriores a la última cargada.
+     */
+    private static int buscarPosicion(Serie serie, int dia) {
+        int tamanio = serie.tamanio();
+        if (tamanio == 0 || dia > serie.dias()[tamanio - 1]) {
+            return -1;
+        }
+
+        int posicion = Arrays.binarySearch(serie.dias(), dia);
+        if (posicion >= 0) {
+            return posicion;
+        }
+
+        int anterior = -posicion - 2;
+        if (anterior < 0 || dia - serie.dias()[anterior] > DIAS_MAXIMOS_FALLBACK) {
+            return -1;
+        }
+        return anterior;
+    }
+
+    private static long escalar(BigDecimal valor) {
+        return valor.setScale(ESCALA_VALOR, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,12 @@
+package com.alquileres.util;
+
+import java.time.LocalDate;
+
+/**
+ * Par de fechas (inicio, fin) para calcular una tasa de aumento por ICL
+ *
+ * @param fechaInicio Fecha de inicio del período
+ * @param fechaFin Fecha de fin del período
+ */
+public record RangoFechasICL(LocalDate fechaInicio, LocalDate fechaFin) {
+}
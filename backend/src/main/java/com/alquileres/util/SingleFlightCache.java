@@ -0,0 +1,218 @@
+package com.alquileres.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache con coalescencia de consultas concurrentes ("single-flight")
+ *
+ * Si varios hilos piden la misma clave al mismo tiempo, solo el primero ejecuta la consulta
+ * y el resto espera el mismo CompletableFuture. Los resultados exitosos quedan en una cache
+ * acotada con vencimiento; los errores no se guardan y se propagan a todos los que esperaban.
+ *
+ * @param <K> Tipo de la clave
+ * @param <V> Tipo del valor
+ */
+public class SingleFlightCache<K, V> {
+
+    private record Entrada<V>(V valor, long venceEn) {
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+    private final Map<K, Entrada<V>> resultados;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong coalescidas = new AtomicLong();
+
+    public SingleFlightCache(int capacidadMaxima, Duration ttl) {
+        this(capacidadMaxima, ttl, System::nanoTime);
+    }
+
+    SingleFlightCache(int capacidadMaxima, Duration ttl, LongSupplier reloj) {
+        this.ttlNanos = ttl.toNanos();
+        this.reloj = reloj;
+        // LinkedHashMap en orden de acceso: al superar la capacidad se descarta la entrada menos usada
+        this.resultados = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                return size() > capacidadMaxima;
+            }
+        };
+    }
+
+    /**
+     * Obtiene el valor para la clave, ejecutando la consulta solo si no está en cache ni en curso
+     *
+     * @param clave Clave de la consulta
+     * @param consulta Consulta a ejecutar en el hilo llamador si no hay resultado disponible
+     * @return Valor obtenido
+     */
+    public V obtener(K clave, Supplier<V> consulta) {
+        V enCache = buscarVigente(clave);
+        if (enCache != null) {
+            aciertos.incrementAndGet();
+            return enCache;
+        }
+
+        CompletableFuture<V> nuevo = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, nuevo);
+        if (existente != null) {
+            coalescidas.incrementAndGet();
+            return esperar(existente);
+        }
+
+        try {
+            // Otro hilo pudo terminar la misma consulta entre la búsqueda en cache y el putIfAbsent
+            V guardado = buscarVigente(clave);
+            if (guardado != null) {
+                aciertos.incrementAndGet();
+                nuevo.complete(guardado);
+                return guardado;
+            }
+
+            fallos.incrementAndGet();
+            V valor = consulta.get();
+            guardar(clave, valor);
+            nuevo.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            nuevo.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, nuevo);
+        }
+    }
+
+    /**
+     * Variante asíncrona de obtener: la consulta devuelve un futuro y no se espera en el hilo llamador
+     * Comparte la cache y las consultas en curso con obtener, así que una consulta sincrónica y una
+     * asíncrona por la misma clave también se coalescen.
+     *
+     * @param clave Clave de la consulta
+     * @param consulta Inicia la consulta si no hay resultado disponible
+     * @return Futuro con el valor obtenido
+     */
+    public CompletableFuture<V> obtenerAsync(K clave, Supplier<CompletableFuture<V>> consulta) {
+        V enCache = buscarVigente(clave);
+        if (enCache != null) {
+            aciertos.incrementAndGet();
+            return CompletableFuture.completedFuture(enCache);
+        }
+
+        CompletableFuture<V> nuevo = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, nuevo);
+        if (existente != null) {
+            coalescidas.incrementAndGet();
+            return existente.copy();
+        }
+
+        V guardado = buscarVigente(clave);
+        if (guardado != null) {
+            aciertos.incrementAndGet();
+            enCurso.remove(clave, nuevo);
+            nuevo.complete(guardado);
+            return nuevo.copy();
+        }
+
+        fallos.incrementAndGet();
+        CompletableFuture<V> futuro;
+        try {
+            futuro = consulta.get();
+        } catch (RuntimeException | Error e) {
+            enCurso.remove(clave, nuevo);
+            nuevo.completeExceptionally(e);
+            throw e;
+        }
+
+        futuro.whenComplete((valor, error) -> {
+            if (error == null) {
+                guardar(clave, valor);
+            }
+            enCurso.remove(clave, nuevo);
+            if (error == null) {
+                nuevo.complete(valor);
+            } else {
+                nuevo.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+            }
+        });
+        return nuevo.copy();
+    }
+
+    /**
+     * Descarta todos los resultados guardados (las consultas en curso no se interrumpen)
+     */
+    public void invalidar() {
+        synchronized (resultados) {
+            resultados.clear();
+        }
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getCoalescidas() {
+        return coalescidas.get();
+    }
+
+    public int getTamanio() {
+        synchronized (resultados) {
+            return resultados.size();
+        }
+    }
+
+    private V buscarVigente(K clave) {
+        synchronized (resultados) {
+            Entrada<V> entrada = resultados.get(clave);
+            if (entrada == null) {
+                return null;
+            }
+            if (reloj.getAsLong() - entrada.venceEn() >= 0) {
+                resultados.remove(clave);
+                return null;
+            }
+            return entrada.valor();
+        }
+    }
+
+    private void guardar(K clave, V valor) {
+        if (valor == null) {
+            return;
+        }
+        synchronized (resultados) {
+            resultados.put(clave, new Entrada<>(valor, reloj.getAsLong() + ttlNanos));
+        }
+    }
+
+    private static <V> V esperar(CompletableFuture<V> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            // Propagar la misma excepción que recibió el hilo que ejecutó la consulta
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+-- Esquema base: refleja el esquema que Hibernate generaba con ddl-auto=update.
+-- En una base existente no cambia nada; en una base vacía crea el esquema completo.
+-- Las columnas que se agregan a tablas existentes no van acá (create table if not exists no las
+-- agregaría en una base existente): van en migraciones siguientes con add column if not exists.
+
+-- Secuencias de los IDs generados (GenerationType.AUTO)
+create sequence if not exists alquileres_seq start with 1 increment by 50;
+create sequence if not exists ambito_pdfs_seq start with 1 increment by 50;
+create sequence if not exists cancelacion_contrato_seq start with 1 increment by 50;
+create sequence if not exists configuracion_sistema_seq start with 1 increment by 50;
+create sequence if not exists contratos_seq start with 1 increment by 50;
+create sequence if not exists ejecuciones_proceso_seq start with 1 increment by 50;
+create sequence if not exists estado_contrato_seq start with 1 increment by 50;
+create sequence if not exists estado_inmueble_seq start with 1 increment by 50;
+create sequence if not exists indices_icl_seq start with 1 increment by 50;
+create sequence if not exists inmuebles_seq start with 1 increment by 50;
+create sequence if not exists inquilinos_seq start with 1 increment by 50;
+create sequence if not exists motivo_cancelacion_seq start with 1 increment by 50;
+create sequence if not exists pago_servicio_seq start with 1 increment by 50;
+create sequence if not exists pasos_ejecucion_proceso_seq start with 1 increment by 50;
+create sequence if not exists pdfs_seq start with 1 increment by 50;
+create sequence if not exists propietarios_seq start with 1 increment by 50;
+create sequence if not exists roles_seq start with 1 increment by 50;
+create sequence if not exists servicio_contrato_seq start with 1 increment by 50;
+create sequence if not exists tipo_inmueble_seq start with 1 increment by 50;
+create sequence if not exists tipo_servicio_seq start with 1 increment by 50;
+create sequence if not exists usuarios_seq start with 1 increment by 50;
+
+-- Tablas
+create table if not exists alquileres (
+    id bigint not null,
+    created_at varchar(255),
+    cuenta_banco varchar(100),
+    es_activo boolean not null,
+    esta_pagado boolean not null,
+    fecha_pago varchar(255),
+    fecha_vencimiento_pago date,
+    metodo varchar(50),
+    monto numeric(12,2),
+    necesita_aumento_manual boolean not null,
+    titular_de_pago varchar(100),
+    updated_at varchar(255),
+    contrato_id bigint not null,
+    primary key (id)
+    );
+
+create table if not exists ambito_pdfs (
+    id bigint not null,
+    nombre varchar(255) not null unique,
+    primary key (id)
+    );
+
+create table if not exists aumento_alquiler (
+    id bigserial not null,
+    created_at varchar(255),
+    descripcion varchar(255),
+    fecha_aumento date not null,
+    monto_anterior numeric(38,2) not null,
+    monto_nuevo numeric(38,2) not null,
+    porcentaje_aumento numeric(38,2) not null,
+    contrato_id bigint not null,
+    primary key (id)
+    );
+
+create table if not exists cancelacion_contrato (
+    id bigint not null,
+    created_at varchar(255),
+    fecha_cancelacion varchar(255) not null,
+    observaciones varchar(1000),
+    updated_at varchar(255),
+    contrato_id bigint not null unique,
+    motivo_cancelacion_id integer not null,
+    primary key (id)
+    );
+
+create table if not exists configuracion_sistema (
+    id integer not null,
+    clave varchar(100) not null unique,
+    created_at varchar(255),
+    descripcion varchar(255),
+    updated_at varchar(255),
+    valor varchar(500),
+    primary key (id)
+    );
+
+create table if not exists contratos (
+    id bigint not null,
+    aumenta_con_icl boolean not null,
+    created_at varchar(255),
+    fecha_aumento date,
+    fecha_fin date,
+    fecha_inicio date,
+    id_pdf bigint,
+    monto numeric(12,2),
+    periodo_aumento integer,
+    porcentaje_aumento numeric(5,2),
+    porcentaje_honorario numeric(5,2) not null,
+    estado integer not null,
+    inmueble bigint not null,
+    inquilino bigint not null,
+    primary key (id)
+    );
+
+create table if not exists ejecuciones_proceso (
+    id bigint not null,
+    alquileres_creados integer not null,
+    contratos_procesados integer not null,
+    error varchar(500),
+    estado varchar(20) not null,
+    fecha_fin timestamp(6),
+    fecha_inicio timestamp(6),
+    lotes_completados integer not null,
+    periodo varchar(20) not null,
+    proceso varchar(100) not null,
+    ultima_actualizacion timestamp(6),
+    primary key (id),
+    constraint uk_ejecuciones_proceso_periodo unique (proceso, periodo)
+    );
+
+create table if not exists estado_contrato (
+    id integer not null,
+    nombre varchar(50) not null unique,
+    primary key (id)
+    );
+
+create table if not exists estado_inmueble (
+    id integer not null,
+    nombre varchar(255) not null unique,
+    primary key (id)
+    );
+
+create table if not exists indices_icl (
+    id bigint not null,
+    created_at varchar(255),
+    fecha date not null unique,
+    valor numeric(19,6) not null,
+    primary key (id)
+    );
+
+create table if not exists inmuebles (
+    id bigint not null,
+    created_at varchar(255),
+    direccion varchar(100) not null,
+    es_activo boolean not null,
+    es_alquilado boolean not null,
+    estado integer not null,
+    propietario_id bigint not null,
+    superficie numeric(10,2),
+    tipo_inmueble_id bigint,
+    updated_at varchar(255),
+    primary key (id)
+    );
+
+create table if not exists inquilinos (
+    id bigint not null,
+    apellido varchar(50) not null,
+    barrio varchar(100),
+    created_at varchar(255),
+    cuil varchar(20) unique,
+    direccion varchar(100),
+    es_activo boolean,
+    esta_alquilando BOOLEAN DEFAULT false not null,
+    nombre varchar(50) not null,
+    telefono varchar(20),
+    updated_at varchar(255),
+    primary key (id)
+    );
+
+create table if not exists motivo_cancelacion (
+    id integer not null,
+    descripcion varchar(500),
+    nombre varchar(100) not null unique,
+    primary key (id)
+    );
+
+create table if not exists pago_servicio (
+    id integer not null,
+    created_at varchar(255),
+    esta_pagado boolean not null,
+    esta_vencido boolean not null,
+    fecha_pago varchar(255),
+    medio_pago varchar(50),
+    monto numeric(12,2),
+    pdf_path varchar(500),
+    periodo varchar(7),
+    updated_at varchar(255),
+    servicio_contrato_id integer not null,
+    primary key (id)
+    );
+
+create table if not exists pasos_ejecucion_proceso (
+    id bigint not null,
+    alquileres_creados integer not null,
+    contrato_id_desde bigint not null,
+    contrato_id_hasta bigint not null,
+    contratos_procesados integer not null,
+    error varchar(500),
+    estado varchar(20) not null,
+    fecha_fin timestamp(6),
+    fecha_inicio timestamp(6),
+    numero_lote integer not null,
+    ejecucion_id bigint not null,
+    primary key (id)
+    );
+
+create table if not exists pdfs (
+    id bigint not null,
+    ambito varchar(255) not null,
+    created_at varchar(255),
+    file oid not null,
+    nombre_archivo varchar(255),
+    primary key (id)
+    );
+
+create table if not exists propietarios (
+    id bigint not null,
+    apellido varchar(50) not null,
+    barrio varchar(100),
+    clave_fiscal varchar(500),
+    created_at varchar(255),
+    cuil varchar(20) unique,
+    direccion varchar(100),
+    email varchar(100) unique,
+    es_activo boolean not null,
+    nombre varchar(50) not null,
+    telefono varchar(20),
+    updated_at varchar(255),
+    primary key (id)
+    );
+
+create table if not exists roles (
+    id bigint not null,
+    nombre varchar(50) not null unique check (nombre in ('ROLE_ADMINISTRADOR','ROLE_ABOGADA','ROLE_SECRETARIA')),
+    primary key (id)
+    );
+
+create table if not exists scheduler_lock (
+    nombre varchar(64) not null,
+    bloqueado_en timestamp(6),
+    bloqueado_hasta timestamp(6) not null,
+    bloqueado_por varchar(255),
+    primary key (nombre)
+    );
+
+create table if not exists servicio_contrato (
+    id integer not null,
+    created_at timestamp(6),
+    es_activo boolean not null,
+    es_anual boolean not null,
+    es_de_inquilino boolean not null,
+    nro_contrato varchar(50),
+    nro_contrato_servicio varchar(50),
+    nro_cuenta varchar(50),
+    proximo_pago date,
+    ultimo_pago_generado date,
+    updated_at timestamp(6),
+    contrato_id bigint not null,
+    tipo_servicio_id integer not null,
+    primary key (id)
+    );
+
+create table if not exists tipo_inmueble (
+    id bigint not null,
+    nombre varchar(50) not null unique,
+    primary key (id)
+    );
+
+create table if not exists tipo_servicio (
+    id integer not null,
+    created_at varchar(255),
+    nombre varchar(50) not null unique,
+    updated_at varchar(255),
+    primary key (id)
+    );
+
+create table if not exists usuario_roles (
+    usuario_id bigint not null,
+    rol_id bigint not null,
+    primary key (usuario_id, rol_id)
+    );
+
+create table if not exists usuarios (
+    id bigint not null,
+    email varchar(150) unique,
+    es_activo boolean not null,
+    password varchar(255) not null,
+    password_reset_token varchar(500),
+    password_reset_token_expiry timestamp(6),
+    username varchar(100) not null unique,
+    primary key (id)
+    );
+
+-- Índices declarados en las entidades
+create index if not exists idx_alquileres_vencimiento on alquileres (fecha_vencimiento_pago);
+create index if not exists idx_alquileres_contrato_vencimiento on alquileres (contrato_id, fecha_vencimiento_pago);
+create index if not exists idx_aumento_alquiler_contrato_fecha on aumento_alquiler (contrato_id, fecha_aumento);
+create index if not exists idx_aumento_alquiler_fecha on aumento_alquiler (fecha_aumento);
+create index if not exists idx_contratos_estado_fecha_fin on contratos (estado, fecha_fin);
+create index if not exists idx_contratos_fecha_aumento on contratos (fecha_aumento);
+create index if not exists idx_pasos_ejecucion_proceso_ejecucion on pasos_ejecucion_proceso (ejecucion_id);
+
+-- Claves foráneas: Postgres no admite ADD CONSTRAINT IF NOT EXISTS
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fke5w4kg0m3862oa8mnre5xqdb') THEN
+    ALTER TABLE alquileres ADD CONSTRAINT FKe5w4kg0m3862oa8mnre5xqdb FOREIGN KEY (contrato_id) REFERENCES contratos;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fknra2stljixqog7w8j678aa1u3') THEN
+    ALTER TABLE aumento_alquiler ADD CONSTRAINT FKnra2stljixqog7w8j678aa1u3 FOREIGN KEY (contrato_id) REFERENCES contratos;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkt6syxcexvh6y00ucyc2ym5hp1') THEN
+    ALTER TABLE cancelacion_contrato ADD CONSTRAINT FKt6syxcexvh6y00ucyc2ym5hp1 FOREIGN KEY (contrato_id) REFERENCES contratos;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk9vyvchgv65ea2kgrru412xc1e') THEN
+    ALTER TABLE cancelacion_contrato ADD CONSTRAINT FK9vyvchgv65ea2kgrru412xc1e FOREIGN KEY (motivo_cancelacion_id) REFERENCES motivo_cancelacion;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkog17q4i613almeuu1sm9wg8xp') THEN
+    ALTER TABLE contratos ADD CONSTRAINT FKog17q4i613almeuu1sm9wg8xp FOREIGN KEY (estado) REFERENCES estado_contrato;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkrp5v598yyy6gof0awgl24i1tp') THEN
+    ALTER TABLE contratos ADD CONSTRAINT FKrp5v598yyy6gof0awgl24i1tp FOREIGN KEY (inmueble) REFERENCES inmuebles;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkt0s5j481xvdx1oyn7uarv60dd') THEN
+    ALTER TABLE contratos ADD CONSTRAINT FKt0s5j481xvdx1oyn7uarv60dd FOREIGN KEY (inquilino) REFERENCES inquilinos;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkt2hxjpumqybep1uwt5q0fwsh') THEN
+    ALTER TABLE pago_servicio ADD CONSTRAINT FKt2hxjpumqybep1uwt5q0fwsh FOREIGN KEY (servicio_contrato_id) REFERENCES servicio_contrato;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkjhkd5846yvqmigbx6mg84cinl') THEN
+    ALTER TABLE pasos_ejecucion_proceso ADD CONSTRAINT FKjhkd5846yvqmigbx6mg84cinl FOREIGN KEY (ejecucion_id) REFERENCES ejecuciones_proceso;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fke8dkqktlyr4qhbr8ksvawwu9o') THEN
+    ALTER TABLE servicio_contrato ADD CONSTRAINT FKe8dkqktlyr4qhbr8ksvawwu9o FOREIGN KEY (contrato_id) REFERENCES contratos;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk2v8nasry5h1yet22kocr1we3v') THEN
+    ALTER TABLE servicio_contrato ADD CONSTRAINT FK2v8nasry5h1yet22kocr1we3v FOREIGN KEY (tipo_servicio_id) REFERENCES tipo_servicio;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkbt9i9yrb9ug88xnh82n9m60pr') THEN
+    ALTER TABLE usuario_roles ADD CONSTRAINT FKbt9i9yrb9ug88xnh82n9m60pr FOREIGN KEY (rol_id) REFERENCES roles;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkuu9tea04xb29m2km5lwe46ua') THEN
+    ALTER TABLE usuario_roles ADD CONSTRAINT FKuu9tea04xb29m2km5lwe46ua FOREIGN KEY (usuario_id) REFERENCES usuarios;
+    END IF;
+END
+$$;
@@ -0,0 +1,75 @@
+-- Columnas nuevas de alquileres y contratos, y migración de fechas guardadas como texto a columnas DATE
+-- Las columnas se agregan solo si faltan (en una base creada antes de la V1 no existen).
+-- En bases creadas antes de la V1 las fechas eran varchar; cada una se convierte solo si
+-- todavía no es de tipo date, así que en una base nueva no hace nada.
+-- Formatos aceptados: yyyy-MM-dd, yyyy-MM-ddTHH:mm:ss y dd/MM/yyyy; cualquier otro valor queda en NULL.
+
+-- Reintentos del aumento por ICL de alquileres con aumento manual pendiente
+ALTER TABLE alquileres ADD COLUMN IF NOT EXISTS intentos_aumento integer;
+ALTER TABLE alquileres ADD COLUMN IF NOT EXISTS proximo_intento_aumento timestamp(6);
+ALTER TABLE alquileres ADD COLUMN IF NOT EXISTS ultimo_error_aumento varchar(500);
+
+DO $$
+BEGIN
+    -- Contratos: el texto "No aumenta más" en fecha_aumento pasa a la columna sin_mas_aumentos
+    IF EXISTS (SELECT 1 FROM information_schema.tables
+               WHERE table_schema = current_schema() AND table_name = 'contratos') THEN
+        ALTER TABLE contratos ADD COLUMN IF NOT EXISTS sin_mas_aumentos boolean NOT NULL DEFAULT false;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'contratos'
+                 AND column_name = 'fecha_aumento' AND data_type <> 'date') THEN
+        UPDATE contratos SET sin_mas_aumentos = true WHERE fecha_aumento ILIKE 'no aumenta m%';
+
+        ALTER TABLE contratos ALTER COLUMN fecha_aumento TYPE date USING
+            CASE
+                WHEN fecha_aumento ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}' THEN substring(fecha_aumento FROM 1 FOR 10)::date
+                WHEN fecha_aumento ~ '^[0-9]{2}/[0-9]{2}/[0-9]{4}$' THEN to_date(fecha_aumento, 'DD/MM/YYYY')
+            END;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'contratos'
+                 AND column_name = 'fecha_inicio' AND data_type <> 'date') THEN
+        ALTER TABLE contratos ALTER COLUMN fecha_inicio TYPE date USING
+            CASE
+                WHEN fecha_inicio ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}' THEN substring(fecha_inicio FROM 1 FOR 10)::date
+                WHEN fecha_inicio ~ '^[0-9]{2}/[0-9]{2}/[0-9]{4}$' THEN to_date(fecha_inicio, 'DD/MM/YYYY')
+            END;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'contratos'
+                 AND column_name = 'fecha_fin' AND data_type <> 'date') THEN
+        ALTER TABLE contratos ALTER COLUMN fecha_fin TYPE date USING
+            CASE
+                WHEN fecha_fin ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}' THEN substring(fecha_fin FROM 1 FOR 10)::date
+                WHEN fecha_fin ~ '^[0-9]{2}/[0-9]{2}/[0-9]{4}$' THEN to_date(fecha_fin, 'DD/MM/YYYY')
+            END;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'alquileres'
+                 AND column_name = 'fecha_vencimiento_pago' AND data_type <> 'date') THEN
+        ALTER TABLE alquileres ALTER COLUMN fecha_vencimiento_pago TYPE date USING
+            CASE
+                WHEN fecha_vencimiento_pago ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}' THEN substring(fecha_vencimiento_pago FROM 1 FOR 10)::date
+                WHEN fecha_vencimiento_pago ~ '^[0-9]{2}/[0-9]{2}/[0-9]{4}$' THEN to_date(fecha_vencimiento_pago, 'DD/MM/YYYY')
+            END;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'aumento_alquiler'
+                 AND column_name = 'fecha_aumento' AND data_type <> 'date') THEN
+        -- La columna es NOT NULL: si el texto no es una fecha se usa la fecha de creación
+        ALTER TABLE aumento_alquiler ALTER COLUMN fecha_aumento TYPE date USING
+            CASE
+                WHEN fecha_aumento ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}' THEN substring(fecha_aumento FROM 1 FOR 10)::date
+                WHEN fecha_aumento ~ '^[0-9]{2}/[0-9]{2}/[0-9]{4}$' THEN to_date(fecha_aumento, 'DD/MM/YYYY')
+                WHEN created_at ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}' THEN substring(created_at FROM 1 FOR 10)::date
+                ELSE DATE '1970-01-01'
+            END;
+    END IF;
+END
+$$;
@@ -0,0 +1,51 @@
+-- Índices para los filtros de las consultas de los repositorios.
+-- Los parciales cubren solo las filas que las consultas buscan (pendientes, activas), que son
+-- una fracción chica de la tabla y se mantienen más baratos en cada insert/update.
+
+-- Alquileres pendientes por contrato (findAlquileresPendientesByContratoIds*, findAlquileresPendientesByContratoId)
+create index if not exists idx_alquileres_pendientes_contrato
+    on alquileres (contrato_id, fecha_vencimiento_pago)
+    where es_activo and not esta_pagado;
+
+-- Alquileres pendientes por vencimiento (próximos a vencer y su conteo)
+create index if not exists idx_alquileres_pendientes_vencimiento
+    on alquileres (fecha_vencimiento_pago)
+    where es_activo and not esta_pagado;
+
+-- Cola de aumentos manuales: reemplaza al índice completo sobre los tres flags
+drop index if exists idx_alquileres_aumento_manual;
+create index if not exists idx_alquileres_aumento_manual_pendiente
+    on alquileres (proximo_intento_aumento, id)
+    where necesita_aumento_manual and es_activo;
+
+-- Facturas de servicios: verificación por servicio y período, y listados por período
+create index if not exists idx_pago_servicio_servicio_periodo
+    on pago_servicio (servicio_contrato_id, periodo);
+
+create index if not exists idx_pago_servicio_periodo
+    on pago_servicio (periodo);
+
+create index if not exists idx_pago_servicio_pendientes
+    on pago_servicio (servicio_contrato_id)
+    where not esta_pagado;
+
+-- Servicios con pago pendiente de generar
+create index if not exists idx_servicio_contrato_proximo_pago
+    on servicio_contrato (proximo_pago)
+    where es_activo;
+
+create index if not exists idx_servicio_contrato_contrato_tipo
+    on servicio_contrato (contrato_id, tipo_servicio_id);
+
+-- Contratos vigentes por inmueble e inquilino (el filtro por estado solo usa idx_contratos_estado_fecha_fin)
+create index if not exists idx_contratos_inmueble_estado
+    on contratos (inmueble, estado);
+
+create index if not exists idx_contratos_inquilino_estado
+    on contratos (inquilino, estado);
+
+create index if not exists idx_inmuebles_propietario
+    on inmuebles (propietario_id);
+
+create index if not exists idx_cancelacion_contrato_motivo
+    on cancelacion_contrato (motivo_cancelacion_id);
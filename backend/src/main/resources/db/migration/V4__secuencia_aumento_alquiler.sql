@@ -0,0 +1,10 @@
+-- aumento_alquiler pasa de IDENTITY (bigserial) a una secuencia de a 50 como el resto de las tablas,
+-- para que los aumentos generados en lote se inserten en batch.
+-- La secuencia arranca después del mayor ID existente; con pooled-lo el valor devuelto es el
+-- primero del bloque, así que no se repiten IDs.
+create sequence if not exists aumento_alquiler_seq start with 1 increment by 50;
+
+select setval('aumento_alquiler_seq', coalesce((select max(id) from aumento_alquiler), 0) + 1, false);
+
+alter table aumento_alquiler alter column id drop default;
+drop sequence if exists aumento_alquiler_id_seq;
@@ -0,0 +1,24 @@
+-- Clave de período yyyyMM (ej: 202503) en alquileres y pago_servicio.
+-- La aplicación la completa en @PrePersist/@PreUpdate; acá se completan las filas existentes.
+
+alter table alquileres add column if not exists periodo_key integer;
+alter table pago_servicio add column if not exists periodo_key integer;
+
+update alquileres
+   set periodo_key = extract(year from fecha_vencimiento_pago)::integer * 100
+                   + extract(month from fecha_vencimiento_pago)::integer
+ where fecha_vencimiento_pago is not null;
+
+update pago_servicio
+   set periodo_key = substring(periodo from 4 for 4)::integer * 100 + substring(periodo from 1 for 2)::integer
+ where periodo ~ '^(0[1-9]|1[0-2])/[0-9]{4}$';
+
+-- Informes por período (uno o varios meses) filtrando por estado de pago
+create index if not exists idx_alquileres_periodo_pago
+    on alquileres (periodo_key, esta_pagado, es_activo);
+
+create index if not exists idx_pago_servicio_periodo_key_pago
+    on pago_servicio (periodo_key, esta_pagado);
+
+-- Los listados por período ya no filtran por el texto mm/aaaa
+drop index if exists idx_pago_servicio_periodo;
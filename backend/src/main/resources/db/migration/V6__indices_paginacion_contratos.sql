@@ -0,0 +1,11 @@
+-- Listado paginado de contratos (findPaginaDetalleOrdenadaPor*): cada página continúa desde
+-- la posición (columna de orden, id) del último contrato de la anterior, así que los índices
+-- llevan el id al final para que la búsqueda arranque justo después de esa posición.
+
+-- Orden por ID filtrando por estado (vigentes / no vigentes)
+create index if not exists idx_contratos_estado_id
+    on contratos (estado, id);
+
+-- Orden por fecha de fin sin filtro de estado (con filtro usa idx_contratos_estado_fecha_fin)
+create index if not exists idx_contratos_fecha_fin_id
+    on contratos (fecha_fin, id);
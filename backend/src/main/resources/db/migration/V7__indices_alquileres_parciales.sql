@@ -0,0 +1,11 @@
+-- Los índices completos de alquileres de V1 repiten las columnas de los parciales de V3
+-- (idx_alquileres_pendientes_*), que son los que usan las consultas de pendientes.
+
+drop index if exists idx_alquileres_vencimiento;
+drop index if exists idx_alquileres_contrato_vencimiento;
+
+-- Último alquiler activo de cada contrato (findUltimoAlquilerByContratoId, findUltimosAlquileresActivosByContratoIds):
+-- incluye los pagados, así que no lo cubre idx_alquileres_pendientes_contrato
+create index if not exists idx_alquileres_activos_contrato
+    on alquileres (contrato_id, fecha_vencimiento_pago desc)
+    where es_activo;
@@ -0,0 +1,177 @@
+package com.alquileres.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para CacheManagerDosNiveles y CacheLocal
+ * Prueba dos nodos con caché local sobre una caché compartida: las lecturas repetidas no van al
+ * nivel compartido y las invalidaciones de un nodo, publicadas como en Redis pub/sub, descartan
+ * la copia local de los demás
+ */
+class CacheManagerDosNivelesTest {
+
+    private static final AjustesCache AJUSTES = new AjustesCache(100, Duration.ofMinutes(5), Duration.ofHours(1));
+
+    private final JdkSerializationRedisSerializer serializador = new JdkSerializationRedisSerializer();
+    private final List<CacheManagerDosNiveles> suscriptos = new ArrayList<>();
+    private final AtomicLong ahora = new AtomicLong();
+
+    private ConcurrentMapCacheManager compartido;
+    private CacheManagerDosNiveles nodoA;
+    private CacheManagerDosNiveles nodoB;
+
+    @BeforeEach
+    void setUp() {
+        compartido = new ConcurrentMapCacheManager(CacheNames.CONTRATO_POR_ID, CacheNames.SERVICIOS_POR_CONTRATO);
+        nodoA = nodo();
+        nodoB = nodo();
+    }
+
+    @Test
+    void lecturaRepetida_seResuelveEnLaCacheLocal() {
+        nodoA.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "contrato");
+        assertEquals("contrato", nodoB.getCache(CacheNames.CONTRATO_POR_ID).get(1L).get());
+
+        // Si la lectura fuera al nivel compartido vería el valor nuevo
+        compartido.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "cambiado sin avisar");
+
+        assertEquals("contrato", nodoB.getCache(CacheNames.CONTRATO_POR_ID).get(1L).get());
+    }
+
+    @Test
+    void evictEnUnNodo_descartaLaCopiaLocalDeLosDemas() {
+        nodoA.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "contrato");
+        nodoA.getCache(CacheNames.CONTRATO_POR_ID).put(2L, "otro");
+        nodoB.getCache(CacheNames.CONTRATO_POR_ID).get(1L);
+        nodoB.getCache(CacheNames.CONTRATO_POR_ID).get(2L);
+
+        nodoA.getCache(CacheNames.CONTRATO_POR_ID).evict(1L);
+
+        assertNull(nodoA.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+        assertNull(nodoB.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+        assertEquals(1, local(nodoB, CacheNames.CONTRATO_POR_ID).getTamanio());
+    }
+
+    @Test
+    void clearEnUnNodo_vaciaLaCacheLocalDeLosDemas() {
+        nodoA.getCache(CacheNames.SERVICIOS_POR_CONTRATO).put("5_activos", List.of("luz"));
+        nodoB.getCache(CacheNames.SERVICIOS_POR_CONTRATO).get("5_activos");
+
+        nodoA.getCache(CacheNames.SERVICIOS_POR_CONTRATO).clear();
+
+        assertNull(nodoB.getCache(CacheNames.SERVICIOS_POR_CONTRATO).get("5_activos"));
+        assertEquals(0, local(nodoB, CacheNames.SERVICIOS_POR_CONTRATO).getTamanio());
+    }
+
+    @Test
+    void evictDuranteLaLecturaDelCompartido_noDejaLaCopiaViejaEnElLocal() {
+        Runnable[] alLeerCompartido = {() -> { }};
+        compartido = new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String nombre) {
+                return new ConcurrentMapCache(nombre) {
+                    @Override
+                    public ValueWrapper get(Object clave) {
+                        ValueWrapper valor = super.get(clave);
+                        alLeerCompartido[0].run();
+                        return valor;
+                    }
+                };
+            }
+        };
+        compartido.setCacheNames(List.of(CacheNames.CONTRATO_POR_ID));
+        nodoA = nodo();
+        nodoB = nodo();
+        nodoA.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "viejo");
+
+        // El nodo A invalida la clave mientras el nodo B todavía está leyendo el valor viejo del compartido
+        alLeerCompartido[0] = () -> {
+            alLeerCompartido[0] = () -> { };
+            nodoA.getCache(CacheNames.CONTRATO_POR_ID).evict(1L);
+        };
+
+        assertEquals("viejo", nodoB.getCache(CacheNames.CONTRATO_POR_ID).get(1L).get());
+        assertEquals(0, local(nodoB, CacheNames.CONTRATO_POR_ID).getTamanio());
+        assertNull(nodoB.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+    }
+
+    @Test
+    void errorAlPublicar_noImpideInvalidar() {
+        CacheManagerDosNiveles aislado = new CacheManagerDosNiveles(compartido, Map.of(), AJUSTES, invalidacion -> {
+            throw new IllegalStateException("Redis no disponible");
+        });
+        aislado.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "contrato");
+
+        aislado.getCache(CacheNames.CONTRATO_POR_ID).evict(1L);
+
+        assertNull(aislado.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+    }
+
+    @Test
+    void mensajeIlegible_seIgnora() {
+        nodoB.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "contrato");
+
+        nodoB.onMessage(mensaje("no es un aviso".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertNotNull(nodoB.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+    }
+
+    @Test
+    void cacheLocal_descartaLaMenosUsadaAlSuperarLaCapacidad() {
+        CacheLocal cache = new CacheLocal("prueba", 2, Duration.ofMinutes(1), ahora::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void cacheLocal_entradaVencida_noSeDevuelve() {
+        CacheLocal cache = new CacheLocal("prueba", 10, Duration.ofSeconds(30), ahora::get);
+        cache.put("a", 1);
+
+        ahora.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getTamanio());
+    }
+
+    private CacheManagerDosNiveles nodo() {
+        CacheManagerDosNiveles nodo = new CacheManagerDosNiveles(compartido, CacheConfig.AJUSTES, AJUSTES, invalidacion -> {
+            // Como Redis pub/sub: el aviso serializado llega a todos los suscriptos, incluido el que lo publicó
+            byte[] cuerpo = serializador.serialize(invalidacion);
+            suscriptos.forEach(suscripto -> suscripto.onMessage(mensaje(cuerpo), null));
+        });
+        nodo.initializeCaches();
+        suscriptos.add(nodo);
+        return nodo;
+    }
+
+    private static DefaultMessage mensaje(byte[] cuerpo) {
+        return new DefaultMessage(CacheManagerDosNiveles.CANAL_INVALIDACIONES.getBytes(StandardCharsets.UTF_8), cuerpo);
+    }
+
+    private static CacheLocal local(CacheManagerDosNiveles nodo, String nombre) {
+        Cache cache = nodo.getCache(nombre);
+        return ((CacheDosNiveles) cache).getLocal();
+    }
+}
@@ -0,0 +1,109 @@
+package com.alquileres.config;
+
+import com.alquileres.AlquigestApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración de las migraciones contra un Postgres local (TEST_POSTGRES_URL,
+ * TEST_POSTGRES_USERNAME y TEST_POSTGRES_PASSWORD); sin esas variables el test se omite.
+ * Cada test usa un schema vacío propio y arranca la aplicación con ddl-auto=validate.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+class MigracionEsquemaIntegrationTest {
+
+    private static final String URL = System.getenv("TEST_POSTGRES_URL");
+    private static final String USUARIO = System.getenv().getOrDefault("TEST_POSTGRES_USERNAME", "postgres");
+    private static final String CLAVE = System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "postgres");
+
+    private String schema;
+
+    @BeforeEach
+    void crearSchema() throws SQLException {
+        schema = "test_migraciones_" + System.nanoTime();
+        ejecutar("CREATE SCHEMA " + schema);
+    }
+
+    @AfterEach
+    void borrarSchema() throws SQLException {
+        ejecutar("DROP SCHEMA " + schema + " CASCADE");
+    }
+
+    @Test
+    void arranque_schemaVacio_migraYLasEntidadesValidan() {
+        try (ConfigurableApplicationContext contexto = iniciarInstancia()) {
+            // Si el esquema migrado no coincidiera con las entidades, Hibernate habría fallado al arrancar
+            MigradorEsquema migrador = contexto.getBean(MigradorEsquema.class);
+
+            assertEquals(0, migrador.migrar());
+        }
+    }
+
+    @Test
+    void arranque_baseExistenteSinColumnasNuevas_lasAgregaYLasEntidadesValidan() throws SQLException {
+        // Tabla alquileres como la creaba Hibernate antes de las migraciones (fechas como texto, sin reintentos)
+        ejecutar("CREATE TABLE " + schema + ".alquileres (" +
+            "id bigint not null primary key, created_at varchar(255), cuenta_banco varchar(100), " +
+            "es_activo boolean not null, esta_pagado boolean not null, fecha_pago varchar(255), " +
+            "fecha_vencimiento_pago varchar(255), metodo varchar(50), monto numeric(12,2), " +
+            "necesita_aumento_manual boolean not null, titular_de_pago varchar(100), " +
+            "updated_at varchar(255), contrato_id bigint not null)");
+
+        try (ConfigurableApplicationContext contexto = iniciarInstancia()) {
+            assertEquals(0, contexto.getBean(MigradorEsquema.class).migrar());
+        }
+    }
+
+    @Test
+    void arranque_migracionModificadaDespuesDeAplicarse_fallaAlArrancar() throws SQLException {
+        iniciarInstancia().close();
+        ejecutar("UPDATE " + schema + "." + MigradorEsquema.TABLA_HISTORIAL + " SET checksum = 'modificado' WHERE version = 1");
+
+        Exception error = assertThrows(Exception.class, this::iniciarInstancia);
+        assertTrue(causaRaiz(error).getMessage().contains("V1"));
+    }
+
+    private ConfigurableApplicationContext iniciarInstancia() {
+        String url = URL + (URL.contains("?") ? "&" : "?") + "currentSchema=" + schema;
+        return new SpringApplicationBuilder(AlquigestApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=" + url,
+                "spring.datasource.username=" + USUARIO,
+                "spring.datasource.password=" + CLAVE,
+                "spring.datasource.hikari.maximum-pool-size=5",
+                "spring.jpa.hibernate.ddl-auto=validate",
+                "app.migraciones.habilitadas=true",
+                "spring.main.allow-circular-references=true",
+                "app.jwt-secret=dGVzdC1zZWNyZXQtZGUtbWlncmFjaW9uZXMtZGVsLWVzcXVlbWEtZGUtbGEtYmFzZQ==",
+                "app.jwt-expiration-ms=3600000",
+                "encryption.key=MDEyMzQ1Njc4OWFiY2RlZg==")
+            .run();
+    }
+
+    private static void ejecutar(String sql) throws SQLException {
+        try (Connection conexion = DriverManager.getConnection(URL, USUARIO, CLAVE);
+             Statement statement = conexion.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static Throwable causaRaiz(Throwable error) {
+        Throwable causa = error;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa;
+    }
+}
@@ -0,0 +1,77 @@
+package com.alquileres.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para MigradorEsquema
+ * Prueba la lectura y el orden de los scripts versionados y el cálculo del checksum
+ */
+class MigradorEsquemaTest {
+
+    @Test
+    void cargarMigraciones_scriptsDelProyecto_ordenadosYSinHuecos() throws Exception {
+        Resource[] scripts = new PathMatchingResourcePatternResolver()
+            .getResources(MigradorEsquema.UBICACION_POR_DEFECTO + "V*.sql");
+
+        List<MigradorEsquema.Migracion> migraciones = MigradorEsquema.cargarMigraciones(scripts);
+
+        assertFalse(migraciones.isEmpty());
+        for (int i = 0; i < migraciones.size(); i++) {
+            assertEquals(i + 1, migraciones.get(i).version());
+            assertFalse(migraciones.get(i).sql().isBlank());
+        }
+        assertEquals("esquema base", migraciones.get(0).descripcion());
+    }
+
+    @Test
+    void cargarMigraciones_ordenaPorVersionNumerica() {
+        List<MigradorEsquema.Migracion> migraciones = MigradorEsquema.cargarMigraciones(new Resource[]{
+            script("V10__indices.sql", "select 10;"),
+            script("V2__fechas.sql", "select 2;"),
+            script("V1__base.sql", "select 1;")
+        });
+
+        assertEquals(List.of(1, 2, 10), migraciones.stream().map(MigradorEsquema.Migracion::version).toList());
+    }
+
+    @Test
+    void cargarMigraciones_versionRepetida_lanzaExcepcion() {
+        Resource[] scripts = {script("V1__base.sql", "select 1;"), script("V1__otra.sql", "select 2;")};
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> MigradorEsquema.cargarMigraciones(scripts));
+        assertTrue(error.getMessage().contains("versión 1"));
+    }
+
+    @Test
+    void cargarMigraciones_nombreInvalido_lanzaExcepcion() {
+        Resource[] scripts = {script("V1_base.sql", "select 1;")};
+
+        assertThrows(IllegalStateException.class, () -> MigradorEsquema.cargarMigraciones(scripts));
+    }
+
+    @Test
+    void calcularChecksum_ignoraFinesDeLineaDeWindows() {
+        assertEquals(MigradorEsquema.calcularChecksum("select 1;\nselect 2;\n"),
+            MigradorEsquema.calcularChecksum("select 1;\r\nselect 2;\r\n"));
+        assertNotEquals(MigradorEsquema.calcularChecksum("select 1;"),
+            MigradorEsquema.calcularChecksum("select 2;"));
+    }
+
+    private static Resource script(String nombre, String sql) {
+        return new ByteArrayResource(sql.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return nombre;
+            }
+        };
+    }
+}
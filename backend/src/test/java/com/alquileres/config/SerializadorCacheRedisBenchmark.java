@@ -0,0 +1,61 @@
+package com.alquileres.config;
+
+import com.alquileres.dto.ContratoDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comparación de los formatos de valores en Redis para listados de 1.000 y 10.000 contratos:
+ * JDK, JSON y JSON comprimido. Mide el tamaño del valor y la latencia media de escritura y lectura.
+ *
+ * No corre con el build normal: mvn test -Dtest=SerializadorCacheRedisBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SerializadorCacheRedisBenchmark {
+
+    private static final int CALENTAMIENTO = 50;
+    private static final int ITERACIONES = 50;
+
+    @Test
+    void compararFormatos() {
+        Map<String, SerializadorCacheRedis> formatos = new LinkedHashMap<>();
+        formatos.put("jdk", new SerializadorCacheRedis(new JdkSerializationRedisSerializer(), -1));
+        formatos.put("jdk+deflate", new SerializadorCacheRedis(new JdkSerializationRedisSerializer(), 0));
+        formatos.put("json", new SerializadorCacheRedis(SerializadorCacheRedis.json(), -1));
+        formatos.put("json+deflate", new SerializadorCacheRedis(SerializadorCacheRedis.json(), 0));
+
+        for (int cantidad : new int[] {1_000, 10_000}) {
+            List<ContratoDTO> contratos = SerializadorCacheRedisTest.contratos(cantidad);
+            for (Map.Entry<String, SerializadorCacheRedis> formato : formatos.entrySet()) {
+                SerializadorCacheRedis serializador = formato.getValue();
+                byte[] valor = serializador.serialize(contratos);
+
+                long escritura = medir(() -> serializador.serialize(contratos));
+                long lectura = medir(() -> serializador.deserialize(valor));
+
+                System.out.printf("%,6d contratos %-13s %,11d B | escritura %,12d ns | lectura %,12d ns%n",
+                    cantidad, formato.getKey(), valor.length, escritura, lectura);
+                assertEquals(cantidad, ((List<?>) serializador.deserialize(valor)).size());
+            }
+        }
+    }
+
+    private static long medir(Supplier<Object> operacion) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            operacion.get();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            operacion.get();
+        }
+        return (System.nanoTime() - inicio) / ITERACIONES;
+    }
+}
@@ -0,0 +1,167 @@
+package com.alquileres.config;
+
+import com.alquileres.dto.ContratoDTO;
+import com.alquileres.dto.PaginaContratosDTO;
+import com.alquileres.model.ServicioContrato;
+import com.alquileres.model.TipoServicio;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para SerializadorCacheRedis
+ * Prueba que los valores cacheados vuelven con su tipo, que solo se comprimen los que superan
+ * el umbral y que un valor ilegible se trata como ausente
+ */
+class SerializadorCacheRedisTest {
+
+    private final SerializadorCacheRedis json = SerializadorCacheRedis.crear(SerializadorCacheRedis.FORMATO_JSON, 2048);
+
+    @Test
+    void listaDeContratos_vuelveConSusTiposYDatos() {
+        List<ContratoDTO> contratos = contratos(3);
+
+        Object leido = json.deserialize(json.serialize(contratos));
+
+        List<?> lista = assertInstanceOf(List.class, leido);
+        assertEquals(3, lista.size());
+        ContratoDTO primero = assertInstanceOf(ContratoDTO.class, lista.get(0));
+        assertEquals(1L, primero.getId());
+        assertEquals(0, new BigDecimal("150001.50").compareTo(primero.getMonto()));
+        assertEquals("01/03/2025", primero.getFechaInicio());
+        assertEquals("Propietario 2", primero.getNombrePropietario());
+        assertTrue(primero.isTienePDF());
+    }
+
+    @Test
+    void listaInmutable_tambienSePuedeLeer() {
+        List<ContratoDTO> contratos = contratos(2).stream().toList();
+
+        List<?> lista = assertInstanceOf(List.class, json.deserialize(json.serialize(contratos)));
+
+        assertEquals(2, lista.size());
+    }
+
+    @Test
+    void paginaYValoresSimples_vuelvenConSuTipo() {
+        PaginaContratosDTO pagina = new PaginaContratosDTO(contratos(2), "cursor");
+
+        PaginaContratosDTO leida = assertInstanceOf(PaginaContratosDTO.class, json.deserialize(json.serialize(pagina)));
+
+        assertEquals("cursor", leida.getNextCursor());
+        assertEquals(2, leida.getContratos().size());
+        assertEquals(42L, json.deserialize(json.serialize(42L)));
+        assertEquals(Boolean.TRUE, json.deserialize(json.serialize(true)));
+    }
+
+    @Test
+    void soloSeComprimenLosValoresQueSuperanElUmbral() {
+        byte[] chico = json.serialize(contratos(1));
+        byte[] grande = json.serialize(contratos(1000));
+
+        assertEquals(SerializadorCacheRedis.SIN_COMPRIMIR, chico[0]);
+        assertEquals(SerializadorCacheRedis.COMPRIMIDO, grande[0]);
+        byte[] sinComprimir = SerializadorCacheRedis.crear(SerializadorCacheRedis.FORMATO_JSON, -1).serialize(contratos(1000));
+        assertTrue(grande.length * 4 < sinComprimir.length,
+            "comprimido " + grande.length + " B, sin comprimir " + sinComprimir.length + " B");
+        assertEquals(1000, ((List<?>) json.deserialize(grande)).size());
+    }
+
+    @Test
+    void formatoJdk_leeLoQueEscribe() {
+        SerializadorCacheRedis jdk = SerializadorCacheRedis.crear(SerializadorCacheRedis.FORMATO_JDK, 2048);
+
+        List<?> lista = assertInstanceOf(List.class, jdk.deserialize(jdk.serialize(contratos(500))));
+
+        assertEquals(500, lista.size());
+    }
+
+    @Test
+    void valorIlegibleOFormatoDesconocido_seTrataComoAusente() {
+        byte[] jdkSinEncabezado = new JdkSerializationRedisSerializer().serialize(contratos(1));
+        byte[] comprimidoRoto = json.serialize(contratos(1000));
+        comprimidoRoto = java.util.Arrays.copyOf(comprimidoRoto, comprimidoRoto.length / 2);
+
+        assertNull(json.deserialize(jdkSinEncabezado));
+        assertNull(json.deserialize(comprimidoRoto));
+        assertNull(json.deserialize(new byte[0]));
+        assertEquals(0, json.serialize(null).length);
+    }
+
+    @Test
+    void tipoFueraDeLosPermitidos_seTrataComoAusente() {
+        assertNull(json.deserialize(json.serialize(URI.create("http://localhost/x"))));
+        assertNull(json.deserialize(json.serialize(List.of(new AtomicLong(1)))));
+        assertEquals(LocalDate.of(2025, 3, 10), json.deserialize(json.serialize(LocalDate.of(2025, 3, 10))));
+        assertEquals(new BigDecimal("1.50"), json.deserialize(json.serialize(new BigDecimal("1.50"))));
+    }
+
+    @Test
+    void entidadCacheada_vuelveConSuTipo() {
+        TipoServicio tipo = new TipoServicio();
+        tipo.setId(3);
+        tipo.setNombre("Luz");
+        ServicioContrato servicio = new ServicioContrato();
+        servicio.setId(7);
+        servicio.setTipoServicio(tipo);
+
+        List<?> lista = assertInstanceOf(List.class, json.deserialize(json.serialize(List.of(servicio))));
+
+        ServicioContrato leido = assertInstanceOf(ServicioContrato.class, lista.get(0));
+        assertEquals("Luz", leido.getTipoServicio().getNombre());
+    }
+
+    @Test
+    void formatoDesconocido_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> SerializadorCacheRedis.crear("xml", 2048));
+    }
+
+    /**
+     * Contratos con datos completos de inmueble, inquilino y propietario, como los de los listados
+     */
+    static List<ContratoDTO> contratos(int cantidad) {
+        List<ContratoDTO> contratos = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            ContratoDTO contrato = new ContratoDTO();
+            contrato.setId((long) i);
+            contrato.setInmuebleId(1000L + i);
+            contrato.setInquilinoId(2000L + i);
+            contrato.setFechaInicio("01/03/2025");
+            contrato.setFechaFin("28/02/2027");
+            contrato.setFechaAumento("01/09/2025");
+            contrato.setMonto(new BigDecimal("150000.50").add(BigDecimal.valueOf(i)));
+            contrato.setPorcentajeAumento(new BigDecimal("12.5"));
+            contrato.setPorcentajeHonorario(new BigDecimal("5"));
+            contrato.setPeriodoAumento(6);
+            contrato.setEstadoContratoId(1);
+            contrato.setEstadoContratoNombre("Vigente");
+            contrato.setAumentaConIcl(i % 2 == 0);
+            contrato.setDireccionInmueble("Av. San Martín " + (100 + i) + ", Piso " + (i % 10) + " Dto. B");
+            contrato.setTipoInmueble("Departamento");
+            contrato.setSuperficieInmueble(new BigDecimal("54.30"));
+            contrato.setNombreInquilino("Inquilino " + i);
+            contrato.setApellidoInquilino("González");
+            contrato.setCuilInquilino("20-" + (30000000 + i) + "-4");
+            contrato.setTelefonoInquilino("261-555-" + (1000 + i % 9000));
+            contrato.setNombrePropietario("Propietario " + (i % 50 + 1));
+            contrato.setApellidoPropietario("Fernández");
+            contrato.setDniPropietario(String.valueOf(20000000 + i % 50));
+            contrato.setTelefonoPropietario("261-444-" + (2000 + i % 50));
+            contrato.setEmailPropietario("propietario" + (i % 50 + 1) + "@correo.com.ar");
+            contrato.setDireccionPropietario("Belgrano " + (500 + i % 50) + ", Mendoza");
+            contrato.setClaveFiscalPropietario("********");
+            contrato.setMontoUltimoAlquiler(new BigDecimal("168750.25"));
+            contrato.setTienePDF(true);
+            contratos.add(contrato);
+        }
+        return contratos;
+    }
+}
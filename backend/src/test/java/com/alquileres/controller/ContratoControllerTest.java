@@ -3,6 +3,8 @@ package com.alquileres.controller;
 import com.alquileres.dto.ContratoDTO;
 import com.alquileres.dto.ContratoCreateDTO;
 import com.alquileres.dto.EstadoContratoUpdateDTO;
+import com.alquileres.dto.FiltroContratosDTO;
+import com.alquileres.dto.PaginaContratosDTO;
 import com.alquileres.service.ContratoService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -59,6 +61,20 @@ class ContratoControllerTest {
         verify(contratoService).obtenerTodosLosContratos();
     }
 
+    @Test
+    void obtenerPaginaContratos_returnsPaginaConCursor_whenHayMasContratos() {
+        FiltroContratosDTO filtro = new FiltroContratosDTO();
+        filtro.setEstado(FiltroContratosDTO.ESTADO_VIGENTES);
+        PaginaContratosDTO pagina = new PaginaContratosDTO(List.of(createContratoDTO(1L, 1L, 1L)), "cursor-siguiente");
+        when(contratoService.obtenerPaginaContratos(filtro, "cursor-anterior", 1)).thenReturn(pagina);
+
+        ResponseEntity<PaginaContratosDTO> response = contratoController.obtenerPaginaContratos(filtro, "cursor-anterior", 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getContratos().size());
+        assertEquals("cursor-siguiente", response.getBody().getNextCursor());
+    }
+
     @Test
     void obtenerContratoPorId_returnsContrato_whenValidIdProvided() {
         Long id = 1L;
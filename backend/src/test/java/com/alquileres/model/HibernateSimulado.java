@@ -0,0 +1,63 @@
+package com.alquileres.model;
+
+import jakarta.persistence.Entity;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Arma un SessionFactory con todas las entidades y las propiedades hibernate.* de producción
+ * sobre un DataSource simulado, para que los tests vean el SQL y los batches que Hibernate
+ * enviaría a la base sin necesitar un Postgres.
+ */
+public final class HibernateSimulado {
+
+    private HibernateSimulado() {
+    }
+
+    public static SessionFactory crearSessionFactory(DataSource dataSource, Map<String, Object> propiedadesAdicionales)
+            throws Exception {
+        Map<String, Object> propiedades = propiedadesHibernateDeProduccion();
+        propiedades.put("hibernate.connection.datasource", dataSource);
+        propiedades.put("hibernate.temp.use_jdbc_metadata_defaults", "false");
+        propiedades.put("hibernate.hbm2ddl.auto", "none");
+        // Sin base de datos no hay secuencias contra las cuales comparar el incremento
+        propiedades.put("hibernate.id.sequence.increment_size_mismatch_strategy", "none");
+        propiedades.put("hibernate.physical_naming_strategy",
+            "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+        propiedades.put("hibernate.implicit_naming_strategy",
+            "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy");
+        propiedades.putAll(propiedadesAdicionales);
+
+        MetadataSources metadataSources = new MetadataSources(
+            new StandardServiceRegistryBuilder().applySettings(propiedades).build());
+        ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false);
+        escaner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        for (var entidad : escaner.findCandidateComponents(Alquiler.class.getPackageName())) {
+            metadataSources.addAnnotatedClass(Class.forName(entidad.getBeanClassName()));
+        }
+        return metadataSources.buildMetadata().buildSessionFactory();
+    }
+
+    public static Map<String, Object> propiedadesHibernateDeProduccion() throws Exception {
+        Properties produccion = PropertiesLoaderUtils.loadProperties(
+            new ClassPathResource("application-production.properties"));
+        Map<String, Object> propiedades = new HashMap<>();
+        String prefijo = "spring.jpa.properties.";
+        for (String clave : produccion.stringPropertyNames()) {
+            if (clave.startsWith(prefijo)) {
+                propiedades.put(clave.substring(prefijo.length()), produccion.getProperty(clave));
+            }
+        }
+        return propiedades;
+    }
+}
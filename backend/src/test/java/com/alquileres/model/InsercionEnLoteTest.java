@@ -0,0 +1,143 @@
+package com.alquileres.model;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para la generación de IDs e inserción en batch de alquileres y aumentos
+ * Levanta Hibernate con las propiedades hibernate.* de producción sobre una conexión JDBC simulada
+ * que cuenta las consultas a las secuencias y los batches de inserts enviados.
+ */
+class InsercionEnLoteTest {
+
+    private static final long PRIMER_VALOR_SECUENCIA = 1001;
+
+    private final AtomicLong secuencia = new AtomicLong(PRIMER_VALOR_SECUENCIA);
+    private final List<String> consultasSecuencia = new ArrayList<>();
+    private final List<String> batchesEjecutados = new ArrayList<>();
+    private final List<String> insertsSinBatch = new ArrayList<>();
+
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sessionFactory = crearSessionFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void contratoRetroactivo_36AlquileresY3Aumentos_unaConsultaPorSecuenciaYBatchesDe20() {
+        List<Alquiler> alquileres = new ArrayList<>();
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            Contrato contrato = session.getReference(Contrato.class, 1L);
+            for (int mes = 0; mes < 36; mes++) {
+                Alquiler alquiler = new Alquiler(contrato, LocalDate.of(2022, 1, 10).plusMonths(mes), new BigDecimal("100000"));
+                session.persist(alquiler);
+                alquileres.add(alquiler);
+            }
+            for (int anio = 0; anio < 3; anio++) {
+                session.persist(new AumentoAlquiler(contrato, LocalDate.of(2022 + anio, 12, 1),
+                    new BigDecimal("100000"), new BigDecimal("110000"), new BigDecimal("10")));
+            }
+            session.getTransaction().commit();
+        }
+
+        assertEquals(List.of("alquileres_seq", "aumento_alquiler_seq"), consultasSecuencia);
+        assertEquals(List.of("alquileres", "alquileres", "aumento_alquiler"), batchesEjecutados);
+        assertTrue(insertsSinBatch.isEmpty(), "Inserts enviados de a uno: " + insertsSinBatch);
+        // pooled-lo: el valor de la secuencia es el primer ID del bloque
+        assertEquals(PRIMER_VALOR_SECUENCIA, alquileres.get(0).getId());
+        assertEquals(PRIMER_VALOR_SECUENCIA + 35, alquileres.get(35).getId());
+    }
+
+    @Test
+    void generacionMensual_120Alquileres_unaConsultaCada50Ids() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (long contratoId = 1; contratoId <= 120; contratoId++) {
+                session.persist(new Alquiler(session.getReference(Contrato.class, contratoId),
+                    LocalDate.of(2025, 3, 10), new BigDecimal("100000")));
+            }
+            session.getTransaction().commit();
+        }
+
+        assertEquals(3, consultasSecuencia.size());
+        assertEquals(6, batchesEjecutados.size());
+        assertTrue(insertsSinBatch.isEmpty());
+    }
+
+    private SessionFactory crearSessionFactory() throws Exception {
+        assertEquals("20", HibernateSimulado.propiedadesHibernateDeProduccion().get("hibernate.jdbc.batch_size"));
+        return HibernateSimulado.crearSessionFactory(crearDataSource(), Map.of());
+    }
+
+    private DataSource crearDataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocacion -> crearConexion());
+        return dataSource;
+    }
+
+    private Connection crearConexion() throws SQLException {
+        Connection conexion = mock(Connection.class);
+        when(conexion.prepareStatement(anyString())).thenAnswer(invocacion -> crearSentencia(invocacion.getArgument(0)));
+        when(conexion.prepareStatement(anyString(), anyInt())).thenAnswer(invocacion -> crearSentencia(invocacion.getArgument(0)));
+        when(conexion.prepareStatement(anyString(), anyInt(), anyInt())).thenAnswer(invocacion -> crearSentencia(invocacion.getArgument(0)));
+        return conexion;
+    }
+
+    private PreparedStatement crearSentencia(String sql) throws SQLException {
+        PreparedStatement sentencia = mock(PreparedStatement.class);
+        String tabla = sql.startsWith("insert into ") ? sql.substring(12, sql.indexOf(' ', 12)) : null;
+        AtomicInteger filasEnBatch = new AtomicInteger();
+
+        if (sql.contains("nextval(")) {
+            String nombreSecuencia = sql.substring(sql.indexOf("nextval('") + 9, sql.indexOf("')"));
+            when(sentencia.executeQuery()).thenAnswer(invocacion -> {
+                consultasSecuencia.add(nombreSecuencia);
+                ResultSet resultado = mock(ResultSet.class);
+                when(resultado.next()).thenReturn(true, false);
+                when(resultado.getLong(1)).thenReturn(secuencia.getAndAdd(50));
+                return resultado;
+            });
+        }
+        doAnswer(invocacion -> filasEnBatch.incrementAndGet()).when(sentencia).addBatch();
+        when(sentencia.executeBatch()).thenAnswer(invocacion -> {
+            batchesEjecutados.add(tabla);
+            int[] filas = new int[filasEnBatch.getAndSet(0)];
+            Arrays.fill(filas, 1);
+            return filas;
+        });
+        when(sentencia.executeUpdate()).thenAnswer(invocacion -> {
+            insertsSinBatch.add(sql);
+            return 1;
+        });
+        return sentencia;
+    }
+}
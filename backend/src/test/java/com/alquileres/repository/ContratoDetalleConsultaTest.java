@@ -0,0 +1,157 @@
+package com.alquileres.repository;
+
+import com.alquileres.dto.ContratoDetalleProyeccion;
+import com.alquileres.model.HibernateSimulado;
+import com.alquileres.service.DatosReferenciaService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.query.ExtensionAwareQueryMethodEvaluationContextProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para las consultas de detalle de ContratoRepository
+ * Crea el repositorio con Spring Data sobre Hibernate y una conexión JDBC simulada, y fija con las
+ * estadísticas de Hibernate cuántas sentencias cuesta listar contratos con todos sus datos
+ */
+class ContratoDetalleConsultaTest {
+
+    private static final int CANTIDAD_CONTRATOS = 2000;
+
+    private final List<String> sentencias = new ArrayList<>();
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private ContratoRepository contratoRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sessionFactory = HibernateSimulado.crearSessionFactory(crearDataSource(),
+            Map.of("hibernate.generate_statistics", "true"));
+        entityManager = sessionFactory.createEntityManager();
+
+        DatosReferenciaService datosReferenciaService = mock(DatosReferenciaService.class);
+        when(datosReferenciaService.getIdEstadoContratoVigente()).thenReturn(1);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("datosReferenciaService", datosReferenciaService);
+
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(entityManager);
+        factory.setEvaluationContextProvider(new ExtensionAwareQueryMethodEvaluationContextProvider(beans));
+        contratoRepository = factory.getRepository(ContratoRepository.class);
+
+        sessionFactory.getStatistics().clear();
+        sentencias.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    void findDetalleContratosVigentes_2000Contratos_unaSolaSentencia() {
+        List<ContratoDetalleProyeccion> detalles = contratoRepository.findDetalleContratosVigentes();
+
+        assertEquals(CANTIDAD_CONTRATOS, detalles.size());
+        Statistics estadisticas = sessionFactory.getStatistics();
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(0, estadisticas.getEntityFetchCount());
+        assertEquals(1, sentencias.size());
+    }
+
+    @Test
+    void findDetalleContratos_joinsYUltimoAlquilerEnLaMismaSentencia() {
+        contratoRepository.findDetalleContratos();
+
+        String sql = sentencias.get(0);
+        assertTrue(sql.contains("from contratos"), sql);
+        assertTrue(sql.contains("join inmuebles"), sql);
+        assertTrue(sql.contains("join inquilino"), sql);
+        assertTrue(sql.contains("left join propietarios"), sql);
+        assertTrue(sql.contains("from alquileres"), sql);
+        assertFalse(sql.contains("estado_contrato"), "El estado se resuelve con el registro, sin join: " + sql);
+        assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void findDetalleContratosVigentesProximosAVencer_unaSolaSentenciaConElIdDelEstado() {
+        List<ContratoDetalleProyeccion> detalles = contratoRepository.findDetalleContratosVigentesProximosAVencer(
+            LocalDate.of(2025, 3, 10), LocalDate.of(2025, 4, 10));
+
+        assertEquals(CANTIDAD_CONTRATOS, detalles.size());
+        assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void findPaginaDetalleOrdenadaPorFechaFin_unaSolaSentenciaConLimiteYPosicion() {
+        contratoRepository.findPaginaDetalleOrdenadaPorFechaFin(List.of(1), 7L, null, LocalDate.of(2025, 1, 1),
+            null, true, LocalDate.of(2025, 3, 1), 42L, Limit.of(51));
+
+        String sql = sentencias.get(0);
+        assertTrue(sql.endsWith("fetch first ? rows only"), sql);
+        // Postgres ya ordena los null al final en ASC, Hibernate omite el NULLS LAST
+        assertTrue(sql.contains("order by c1_0.fecha_fin,c1_0.id"), sql);
+        assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void findPaginaDetalleOrdenadaPorId_primeraPaginaSinFiltros_unaSolaSentencia() {
+        contratoRepository.findPaginaDetalleOrdenadaPorId(List.of(1, 2, 3), null, null, null, null, null, 0L,
+            Limit.of(51));
+
+        assertTrue(sentencias.get(0).endsWith("order by c1_0.id offset ? rows fetch first ? rows only"), sentencias.get(0));
+        assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+    }
+
+    private DataSource crearDataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocacion -> crearConexion());
+        return dataSource;
+    }
+
+    private Connection crearConexion() throws SQLException {
+        Connection conexion = mock(Connection.class);
+        when(conexion.prepareStatement(anyString())).thenAnswer(invocacion -> crearSentencia(invocacion.getArgument(0)));
+        when(conexion.prepareStatement(anyString(), anyInt(), anyInt())).thenAnswer(invocacion -> crearSentencia(invocacion.getArgument(0)));
+        return conexion;
+    }
+
+    private PreparedStatement crearSentencia(String sql) throws SQLException {
+        PreparedStatement sentencia = mock(PreparedStatement.class);
+        when(sentencia.executeQuery()).thenAnswer(invocacion -> {
+            sentencias.add(sql);
+            return crearResultado();
+        });
+        return sentencia;
+    }
+
+    // Cada fila devuelve valores por defecto en todas las columnas; solo importa la cantidad
+    private ResultSet crearResultado() throws SQLException {
+        ResultSet resultado = mock(ResultSet.class);
+        AtomicInteger filas = new AtomicInteger();
+        when(resultado.next()).thenAnswer(invocacion -> filas.incrementAndGet() <= CANTIDAD_CONTRATOS);
+        return resultado;
+    }
+}
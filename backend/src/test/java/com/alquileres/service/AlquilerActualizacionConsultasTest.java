@@ -0,0 +1,275 @@
+package com.alquileres.service;
+
+import com.alquileres.model.Alquiler;
+import com.alquileres.model.Contrato;
+import com.alquileres.model.EjecucionProceso;
+import com.alquileres.model.PasoEjecucionProceso;
+import com.alquileres.repository.AlquilerRepository;
+import com.alquileres.repository.ConfiguracionSistemaRepository;
+import com.alquileres.repository.ContratoRepository;
+import com.alquileres.repository.EjecucionProcesoRepository;
+import com.alquileres.repository.PasoEjecucionProcesoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de la generación mensual de alquileres
+ * Verifica la cantidad de consultas por ejecución y el procesamiento por particiones reanudable
+ */
+@ExtendWith(MockitoExtension.class)
+class AlquilerActualizacionConsultasTest {
+
+    @Mock
+    private AlquilerRepository alquilerRepository;
+
+    @Mock
+    private ContratoRepository contratoRepository;
+
+    @Mock
+    private ConfiguracionSistemaRepository configuracionSistemaRepository;
+
+    @Mock
+    private IndiceICLService indiceICLService;
+
+    @Mock
+    private AumentoAlquilerService aumentoAlquilerService;
+
+    @Mock
+    private ClockService clockService;
+
+    @Mock
+    private EjecucionProcesoRepository ejecucionProcesoRepository;
+
+    @Mock
+    private PasoEjecucionProcesoRepository pasoEjecucionProcesoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AlquilerActualizacionService service;
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 10);
+
+    @BeforeEach
+    void setUp() {
+        EjecutorParticionado ejecutorParticionado = new EjecutorParticionado(transactionManager, clockService, 4, 5);
+        service = new AlquilerActualizacionService(alquilerRepository, contratoRepository,
+            configuracionSistemaRepository, indiceICLService, aumentoAlquilerService,
+            ejecucionProcesoRepository, pasoEjecucionProcesoRepository, ejecutorParticionado);
+        service.clockService = clockService;
+        when(clockService.getCurrentDate()).thenReturn(HOY);
+    }
+
+    @Test
+    void crearAlquileresParaContratosVigentes_cantidadDeConsultasNoDependeDeLosContratos() {
+        int consultasConUnContrato = contarConsultas(1);
+        int consultasConMilContratos = contarConsultas(1000);
+
+        assertEquals(consultasConUnContrato, consultasConMilContratos);
+        // Contratos vigentes, alquileres pendientes del mes, últimos alquileres y saveAll
+        assertEquals(4, consultasConMilContratos);
+    }
+
+    @Test
+    void crearAlquileresParaContratosVigentes_usaElMontoDelUltimoAlquilerDeCadaContrato() {
+        List<Contrato> contratos = crearContratos(2);
+        Alquiler ultimo = new Alquiler(contratos.get(1), LocalDate.of(2025, 2, 10), new BigDecimal("150000"));
+        when(contratoRepository.findContratosVigentes()).thenReturn(contratos);
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202503)))
+            .thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(List.of(1L, 2L)))
+            .thenReturn(List.of(ultimo));
+        when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(2, service.crearAlquileresParaContratosVigentes());
+
+        verify(alquilerRepository).saveAll(argThat(alquileres -> {
+            List<Alquiler> lista = new ArrayList<>();
+            alquileres.forEach(lista::add);
+            return lista.get(0).getMonto().compareTo(new BigDecimal("100000")) == 0
+                && lista.get(1).getMonto().compareTo(new BigDecimal("150000")) == 0;
+        }));
+    }
+
+    @Test
+    void procesarAlquileresPendientes_procesaPorParticionesYGuardaElAvance() {
+        EjecucionProceso ejecucion = prepararEjecucion();
+        List<Contrato> contratos = crearContratos(450);
+        when(pasoEjecucionProcesoRepository.countByEjecucionId(10L)).thenReturn(0L);
+        when(contratoRepository.findIdsContratosVigentes())
+            .thenReturn(contratos.stream().map(Contrato::getId).toList());
+        Map<Long, PasoEjecucionProceso> pasos = prepararPasos();
+        prepararContratosPorRango(contratos);
+        prepararGeneracion();
+        when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int creados = service.procesarAlquileresPendientes();
+
+        assertEquals(450, creados);
+        assertEquals(3, pasos.size());
+        assertTrue(pasos.values().stream().allMatch(paso -> PasoEjecucionProceso.COMPLETADO.equals(paso.getEstado())));
+        assertEquals(201L, pasos.get(2L).getContratoIdDesde());
+        assertEquals(400L, pasos.get(2L).getContratoIdHasta());
+        assertEquals(EjecucionProceso.COMPLETADO, ejecucion.getEstado());
+        assertEquals(3, ejecucion.getLotesCompletados());
+        assertEquals(450, ejecucion.getContratosProcesados());
+        assertEquals(450, ejecucion.getAlquileresCreados());
+        // Un commit por partición
+        verify(transactionManager, times(3)).commit(any());
+        verify(configuracionSistemaRepository).save(argThat(config -> "03/2025".equals(config.getValor())));
+    }
+
+    @Test
+    void procesarAlquileresPendientes_ejecucionInterrumpida_reanudaSoloLosPasosPendientes() {
+        EjecucionProceso ejecucion = prepararEjecucion();
+        ejecucion.setEstado(EjecucionProceso.FALLIDO);
+        ejecucion.setLotesCompletados(1);
+        PasoEjecucionProceso completado = new PasoEjecucionProceso(ejecucion, 1, 0L, 200L);
+        completado.setId(1L);
+        completado.setEstado(PasoEjecucionProceso.COMPLETADO);
+        completado.setContratosProcesados(200);
+        PasoEjecucionProceso fallido = new PasoEjecucionProceso(ejecucion, 2, 201L, Long.MAX_VALUE);
+        fallido.setId(2L);
+        fallido.setEstado(PasoEjecucionProceso.FALLIDO);
+        when(pasoEjecucionProcesoRepository.countByEjecucionId(10L)).thenReturn(2L);
+        when(pasoEjecucionProcesoRepository.findPendientesByEjecucionId(10L)).thenReturn(List.of(fallido));
+        when(pasoEjecucionProcesoRepository.findById(2L)).thenReturn(Optional.of(fallido));
+        when(pasoEjecucionProcesoRepository.findByEjecucionId(10L)).thenReturn(List.of(completado, fallido));
+        when(contratoRepository.findContratosVigentesEntreIds(201L, Long.MAX_VALUE)).thenReturn(Collections.emptyList());
+
+        service.procesarAlquileresPendientes();
+
+        verify(contratoRepository, never()).findIdsContratosVigentes();
+        verify(contratoRepository, never()).findContratosVigentesEntreIds(eq(0L), anyLong());
+        assertEquals(PasoEjecucionProceso.COMPLETADO, fallido.getEstado());
+        assertEquals(EjecucionProceso.COMPLETADO, ejecucion.getEstado());
+        assertEquals(2, ejecucion.getLotesCompletados());
+        assertEquals(200, ejecucion.getContratosProcesados());
+    }
+
+    @Test
+    void procesarAlquileresPendientes_falloEnUnaParticion_soloEsaSeRevierteYNoMarcaElMes() {
+        EjecucionProceso ejecucion = prepararEjecucion();
+        List<Contrato> contratos = crearContratos(300);
+        when(pasoEjecucionProcesoRepository.countByEjecucionId(10L)).thenReturn(0L);
+        when(contratoRepository.findIdsContratosVigentes())
+            .thenReturn(contratos.stream().map(Contrato::getId).toList());
+        Map<Long, PasoEjecucionProceso> pasos = prepararPasos();
+        prepararContratosPorRango(contratos);
+        prepararGeneracion();
+        when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Alquiler> alquileres = invocation.getArgument(0);
+            if (alquileres.get(0).getContrato().getId() > 200L) {
+                throw new IllegalStateException("conexión perdida");
+            }
+            return alquileres;
+        });
+
+        int creados = service.procesarAlquileresPendientes();
+
+        assertEquals(200, creados);
+        assertEquals(PasoEjecucionProceso.COMPLETADO, pasos.get(1L).getEstado());
+        assertEquals(PasoEjecucionProceso.FALLIDO, pasos.get(2L).getEstado());
+        assertEquals("conexión perdida", pasos.get(2L).getError());
+        assertEquals(EjecucionProceso.FALLIDO, ejecucion.getEstado());
+        assertEquals(1, ejecucion.getLotesCompletados());
+        verify(transactionManager).rollback(any());
+        verify(configuracionSistemaRepository, never()).save(any());
+    }
+
+    private EjecucionProceso prepararEjecucion() {
+        when(clockService.getCurrentDateTime()).thenReturn(HOY.atTime(1, 0));
+        when(configuracionSistemaRepository.findByClave(anyString())).thenReturn(Optional.empty());
+
+        EjecucionProceso ejecucion = new EjecucionProceso(
+            AlquilerActualizacionService.PROCESO_GENERACION_ALQUILERES, "03/2025", LocalDateTime.of(2025, 3, 1, 0, 0));
+        ejecucion.setId(10L);
+        when(ejecucionProcesoRepository.findByProcesoAndPeriodo(
+            AlquilerActualizacionService.PROCESO_GENERACION_ALQUILERES, "03/2025"))
+            .thenReturn(Optional.of(ejecucion));
+        when(ejecucionProcesoRepository.findById(10L)).thenReturn(Optional.of(ejecucion));
+        when(ejecucionProcesoRepository.save(any(EjecucionProceso.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        return ejecucion;
+    }
+
+    /**
+     * Simula el guardado de los pasos planificados: cada paso recibe como ID su número de lote
+     */
+    private Map<Long, PasoEjecucionProceso> prepararPasos() {
+        Map<Long, PasoEjecucionProceso> pasos = new ConcurrentHashMap<>();
+        when(pasoEjecucionProcesoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PasoEjecucionProceso> planificados = invocation.getArgument(0);
+            planificados.forEach(paso -> {
+                paso.setId(paso.getNumeroLote().longValue());
+                pasos.put(paso.getId(), paso);
+            });
+            return planificados;
+        });
+        when(pasoEjecucionProcesoRepository.findById(anyLong()))
+            .thenAnswer(invocation -> Optional.ofNullable(pasos.get(invocation.<Long>getArgument(0))));
+        when(pasoEjecucionProcesoRepository.findByEjecucionId(10L))
+            .thenAnswer(invocation -> new ArrayList<>(pasos.values()));
+        return pasos;
+    }
+
+    private void prepararContratosPorRango(List<Contrato> contratos) {
+        when(contratoRepository.findContratosVigentesEntreIds(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long desde = invocation.getArgument(0);
+            long hasta = invocation.getArgument(1);
+            return contratos.stream().filter(c -> c.getId() >= desde && c.getId() <= hasta).toList();
+        });
+    }
+
+    private void prepararGeneracion() {
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), any()))
+            .thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
+    }
+
+    private int contarConsultas(int cantidadContratos) {
+        clearInvocations(alquilerRepository);
+        clearInvocations(contratoRepository);
+        List<Contrato> contratos = crearContratos(cantidadContratos);
+        when(contratoRepository.findContratosVigentes()).thenReturn(contratos);
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), any()))
+            .thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
+        when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(cantidadContratos, service.crearAlquileresParaContratosVigentes());
+
+        return mockingDetails(alquilerRepository).getInvocations().size()
+            + mockingDetails(contratoRepository).getInvocations().size();
+    }
+
+    private static List<Contrato> crearContratos(int cantidad) {
+        List<Contrato> contratos = new ArrayList<>();
+        for (long id = 1; id <= cantidad; id++) {
+            Contrato contrato = new Contrato();
+            contrato.setId(id);
+            contrato.setMonto(new BigDecimal("100000"));
+            contrato.setAumentaConIcl(false);
+            contrato.setFechaAumento(HOY.plusMonths(2).withDayOfMonth(1));
+            contratos.add(contrato);
+        }
+        return contratos;
+    }
+}
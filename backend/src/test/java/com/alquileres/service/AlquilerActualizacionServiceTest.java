@@ -6,16 +6,19 @@ import com.alquileres.model.EstadoContrato;
 import com.alquileres.model.Inmueble;
 import com.alquileres.model.Inquilino;
 import com.alquileres.model.ConfiguracionSistema;
+import com.alquileres.model.EjecucionProceso;
+import com.alquileres.model.PasoEjecucionProceso;
 import com.alquileres.repository.AlquilerRepository;
 import com.alquileres.repository.ContratoRepository;
 import com.alquileres.repository.ConfiguracionSistemaRepository;
-import com.alquileres.util.BCRAApiClient;
+import com.alquileres.repository.EjecucionProcesoRepository;
+import com.alquileres.repository.PasoEjecucionProcesoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -45,14 +48,30 @@ class AlquilerActualizacionServiceTest {
     private ConfiguracionSistemaRepository configuracionSistemaRepository;
 
     @Mock
-    private BCRAApiClient bcraApiClient;
+    private IndiceICLService indiceICLService;
 
     @Mock
     private AumentoAlquilerService aumentoAlquilerService;
 
-    @InjectMocks
+    @Mock
+    private ClockService clockService;
+
+    @Mock
+    private EjecucionProcesoRepository ejecucionProcesoRepository;
+
+    @Mock
+    private PasoEjecucionProcesoRepository pasoEjecucionProcesoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private AlquilerActualizacionService service;
 
+    /**
+     * Fecha actual de los tests, a mitad de mes
+     */
+    private static final LocalDate HOY = LocalDate.of(2025, 10, 15);
+
     private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ISO_LOCAL_DATE;
     private static final DateTimeFormatter FORMATO_PERIODO = DateTimeFormatter.ofPattern("MM/yyyy");
 
@@ -62,6 +81,13 @@ class AlquilerActualizacionServiceTest {
 
     @BeforeEach
     void setUp() {
+        EjecutorParticionado ejecutorParticionado = new EjecutorParticionado(transactionManager, clockService, 4, 5);
+        service = new AlquilerActualizacionService(alquilerRepository, contratoRepository,
+            configuracionSistemaRepository, indiceICLService, aumentoAlquilerService,
+            ejecucionProcesoRepository, pasoEjecucionProcesoRepository, ejecutorParticionado);
+        service.clockService = clockService;
+        lenient().when(clockService.getCurrentDate()).thenReturn(HOY);
+
         estadoVigente = new EstadoContrato();
         estadoVigente.setId(1);
         estadoVigente.setNombre("Vigente");
@@ -81,13 +107,13 @@ class AlquilerActualizacionServiceTest {
     @Test
     void debeAplicarAumento_mesYAnioCoinciden_debeRetornarTrue() {
         // Arrange
-        LocalDate fechaActual = LocalDate.now();
+        LocalDate fechaActual = HOY;
         String fechaAumento = fechaActual.withDayOfMonth(1).format(FORMATO_FECHA);
 
         Contrato contrato = crearContratoConAumento(fechaAumento, 3, new BigDecimal("10"));
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
 
         // Act
@@ -101,13 +127,13 @@ class AlquilerActualizacionServiceTest {
     @Test
     void debeAplicarAumento_fechaAumentoYaPaso_debeRetornarTrue() {
         // Arrange
-        LocalDate fechaPasada = LocalDate.now().minusMonths(2).withDayOfMonth(1);
+        LocalDate fechaPasada = HOY.minusMonths(2).withDayOfMonth(1);
         String fechaAumento = fechaPasada.format(FORMATO_FECHA);
 
         Contrato contrato = crearContratoConAumento(fechaAumento, 3, new BigDecimal("10"));
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
 
         // Act
@@ -121,13 +147,13 @@ class AlquilerActualizacionServiceTest {
     @Test
     void debeAplicarAumento_fechaAumentoFutura_noDebeAplicarAumento() {
         // Arrange
-        LocalDate fechaFutura = LocalDate.now().plusMonths(2).withDayOfMonth(1);
+        LocalDate fechaFutura = HOY.plusMonths(2).withDayOfMonth(1);
         String fechaAumento = fechaFutura.format(FORMATO_FECHA);
 
         Contrato contrato = crearContratoConAumento(fechaAumento, 3, new BigDecimal("10"));
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
 
         // Act
@@ -141,10 +167,10 @@ class AlquilerActualizacionServiceTest {
     @Test
     void debeAplicarAumento_fechaAumentoNoAumentaMas_noDebeAplicarAumento() {
         // Arrange
-        Contrato contrato = crearContratoConAumento("No aumenta más", 3, new BigDecimal("10"));
+        Contrato contrato = crearContratoConAumento(Contrato.TEXTO_SIN_MAS_AUMENTOS, 3, new BigDecimal("10"));
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
 
         // Act
@@ -160,7 +186,7 @@ class AlquilerActualizacionServiceTest {
     @Test
     void aumentoFijo_debeCalcularMontoCorrectamente() {
         // Arrange
-        LocalDate fechaActual = LocalDate.now();
+        LocalDate fechaActual = HOY;
         String fechaAumento = fechaActual.withDayOfMonth(1).format(FORMATO_FECHA);
         BigDecimal montoBase = new BigDecimal("100000");
         BigDecimal porcentajeAumento = new BigDecimal("10"); // 10%
@@ -170,8 +196,8 @@ class AlquilerActualizacionServiceTest {
         contrato.setAumentaConIcl(false);
 
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
             List<Alquiler> alquileres = invocation.getArgument(0);
             // Verificar que el monto calculado sea correcto: 100000 * 1.10 = 110000
@@ -197,7 +223,7 @@ class AlquilerActualizacionServiceTest {
     @Test
     void aumentoFijo_conAlquilerPrevio_debeUsarMontoDelUltimoAlquiler() {
         // Arrange
-        LocalDate fechaActual = LocalDate.now();
+        LocalDate fechaActual = HOY;
         String fechaAumento = fechaActual.withDayOfMonth(1).format(FORMATO_FECHA);
         BigDecimal montoContratoOriginal = new BigDecimal("100000");
         BigDecimal montoUltimoAlquiler = new BigDecimal("120000");
@@ -208,12 +234,13 @@ class AlquilerActualizacionServiceTest {
         contrato.setAumentaConIcl(false);
 
         Alquiler ultimoAlquiler = new Alquiler();
+        ultimoAlquiler.setContrato(contrato);
         ultimoAlquiler.setMonto(montoUltimoAlquiler);
 
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any()))
-            .thenReturn(Optional.of(ultimoAlquiler));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList()))
+            .thenReturn(Collections.singletonList(ultimoAlquiler));
         when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
             List<Alquiler> alquileres = invocation.getArgument(0);
             // Debe usar el monto del último alquiler: 120000 * 1.05 = 126000
@@ -241,7 +268,7 @@ class AlquilerActualizacionServiceTest {
     @Test
     void aumentoConICL_debeConsultarAPIBCRA() {
         // Arrange
-        LocalDate fechaActual = LocalDate.now();
+        LocalDate fechaActual = HOY;
         String fechaAumento = fechaActual.withDayOfMonth(1).format(FORMATO_FECHA);
         BigDecimal montoBase = new BigDecimal("100000");
         BigDecimal tasaICL = new BigDecimal("1.05"); // 5% de aumento
@@ -251,9 +278,9 @@ class AlquilerActualizacionServiceTest {
         contrato.setAumentaConIcl(true);
 
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
-        when(bcraApiClient.obtenerTasaAumentoICL(anyString(), anyString())).thenReturn(tasaICL);
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
+        when(indiceICLService.obtenerTasaAumentoICL(anyString(), anyString())).thenReturn(tasaICL);
         when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
             List<Alquiler> alquileres = invocation.getArgument(0);
             // Verificar que el monto calculado sea correcto: 100000 * 1.05 = 105000
@@ -267,7 +294,7 @@ class AlquilerActualizacionServiceTest {
         service.crearAlquileresParaContratosVigentes();
 
         // Assert
-        verify(bcraApiClient).obtenerTasaAumentoICL(eq(fechaAumento), anyString());
+        verify(indiceICLService).obtenerTasaAumentoICL(fechaAumento, "2025-10-01");
         verify(alquilerRepository).saveAll(anyList());
         verify(aumentoAlquilerService).crearAumentoSinGuardar(any(), any(), any(), any());
     }
@@ -275,7 +302,7 @@ class AlquilerActualizacionServiceTest {
     @Test
     void aumentoConICL_errorEnAPI_debeUsarMontoSinAumento() {
         // Arrange
-        LocalDate fechaActual = LocalDate.now();
+        LocalDate fechaActual = HOY;
         String fechaAumento = fechaActual.withDayOfMonth(1).format(FORMATO_FECHA);
         BigDecimal montoBase = new BigDecimal("100000");
 
@@ -284,15 +311,17 @@ class AlquilerActualizacionServiceTest {
         contrato.setAumentaConIcl(true);
 
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
-        when(bcraApiClient.obtenerTasaAumentoICL(anyString(), anyString()))
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
+        when(indiceICLService.obtenerTasaAumentoICL(anyString(), anyString()))
             .thenThrow(new RuntimeException("Error API BCRA"));
         when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
             List<Alquiler> alquileres = invocation.getArgument(0);
-            // Si falla la API, debe usar el monto base sin aumento
+            // Si falla la API, debe usar el monto base sin aumento y quedar para aumento manual
             assertEquals(0, alquileres.get(0).getMonto().compareTo(montoBase),
                 "Debe usar el monto base al fallar la API");
+            assertTrue(alquileres.get(0).getNecesitaAumentoManual(),
+                "Debe quedar marcado para aumento manual al fallar la API");
             return alquileres;
         });
 
@@ -300,7 +329,7 @@ class AlquilerActualizacionServiceTest {
         service.crearAlquileresParaContratosVigentes();
 
         // Assert
-        verify(bcraApiClient).obtenerTasaAumentoICL(anyString(), anyString());
+        verify(indiceICLService).obtenerTasaAumentoICL(anyString(), anyString());
         verify(alquilerRepository).saveAll(anyList());
         verify(aumentoAlquilerService, never()).crearAumentoSinGuardar(any(), any(), any(), any());
     }
@@ -310,22 +339,22 @@ class AlquilerActualizacionServiceTest {
     @Test
     void actualizarFechaAumento_debeActualizarCorrectamente() {
         // Arrange
-        LocalDate fechaActual = LocalDate.now();
+        LocalDate fechaActual = HOY;
         String fechaAumento = fechaActual.withDayOfMonth(1).format(FORMATO_FECHA);
         Integer periodoAumento = 3; // 3 meses
 
         Contrato contrato = crearContratoConAumento(fechaAumento, periodoAumento, new BigDecimal("10"));
-        contrato.setFechaFin(fechaActual.plusYears(1).format(FORMATO_FECHA)); // Fecha fin lejana
+        contrato.setFechaFin(fechaActual.plusYears(1)); // Fecha fin lejana
 
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
         when(contratoRepository.save(any())).thenAnswer(invocation -> {
             Contrato c = invocation.getArgument(0);
             // Verificar que la nueva fechaAumento sea: fechaActual + 3 meses, día 1
             LocalDate nuevaFechaEsperada = fechaActual.plusMonths(periodoAumento).withDayOfMonth(1);
-            assertEquals(nuevaFechaEsperada.format(FORMATO_FECHA), c.getFechaAumento(),
+            assertEquals(nuevaFechaEsperada, c.getFechaAumento(),
                 "La fechaAumento debe actualizarse sumando el periodoAumento");
             return c;
         });
@@ -340,23 +369,24 @@ class AlquilerActualizacionServiceTest {
     @Test
     void actualizarFechaAumento_superaFechaFin_debeEstablecerNoAumentaMas() {
         // Arrange
-        LocalDate fechaActual = LocalDate.now();
+        LocalDate fechaActual = HOY;
         String fechaAumento = fechaActual.withDayOfMonth(1).format(FORMATO_FECHA);
         Integer periodoAumento = 3;
 
         Contrato contrato = crearContratoConAumento(fechaAumento, periodoAumento, new BigDecimal("10"));
         // Fecha fin cercana: solo 1 mes más
-        contrato.setFechaFin(fechaActual.plusMonths(1).format(FORMATO_FECHA));
+        contrato.setFechaFin(fechaActual.plusMonths(1));
 
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
         when(contratoRepository.save(any())).thenAnswer(invocation -> {
             Contrato c = invocation.getArgument(0);
             // Como fechaAumento + 3 meses supera fechaFin, debe establecer "No aumenta más"
-            assertEquals("No aumenta más", c.getFechaAumento(),
+            assertTrue(c.getSinMasAumentos(),
                 "Debe establecer 'No aumenta más' cuando supera la fechaFin");
+            assertNull(c.getFechaAumento());
             return c;
         });
 
@@ -372,7 +402,7 @@ class AlquilerActualizacionServiceTest {
     @Test
     void procesarAlquileresPendientes_mesYaProcesado_noDebeCrearAlquileres() {
         // Arrange
-        String mesActual = LocalDate.now().format(FORMATO_PERIODO);
+        String mesActual = HOY.format(FORMATO_PERIODO);
         ConfiguracionSistema config = new ConfiguracionSistema(
             "ULTIMO_MES_PROCESADO_ALQUILERES",
             mesActual,
@@ -387,13 +417,15 @@ class AlquilerActualizacionServiceTest {
 
         // Assert
         assertEquals(0, resultado, "No debe crear alquileres si el mes ya fue procesado");
-        verify(contratoRepository, never()).findContratosVigentes();
+        verify(contratoRepository, never()).findIdsContratosVigentes();
+        verifyNoInteractions(indiceICLService);
+        verify(ejecucionProcesoRepository, never()).save(any());
     }
 
     @Test
     void procesarAlquileresPendientes_mesNoProcesado_debeCrearAlquileres() {
         // Arrange
-        String mesPasado = LocalDate.now().minusMonths(1).format(FORMATO_PERIODO);
+        String mesPasado = HOY.minusMonths(1).format(FORMATO_PERIODO);
         ConfiguracionSistema config = new ConfiguracionSistema(
             "ULTIMO_MES_PROCESADO_ALQUILERES",
             mesPasado,
@@ -401,12 +433,30 @@ class AlquilerActualizacionServiceTest {
         );
 
         Contrato contrato = crearContratoSinAumento();
+        EjecucionProceso ejecucion = new EjecucionProceso(
+            AlquilerActualizacionService.PROCESO_GENERACION_ALQUILERES, "10/2025", HOY.atStartOfDay());
+        ejecucion.setId(10L);
+        PasoEjecucionProceso[] paso = new PasoEjecucionProceso[1];
 
+        when(clockService.getCurrentDateTime()).thenReturn(HOY.atTime(1, 0));
         when(configuracionSistemaRepository.findByClave(anyString()))
             .thenReturn(Optional.of(config));
-        when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList())).thenReturn(Collections.emptyList());
-        when(alquilerRepository.findTopByContratoOrderByFechaVencimientoPagoDesc(any())).thenReturn(Optional.empty());
+        when(ejecucionProcesoRepository.findByProcesoAndPeriodo(anyString(), eq("10/2025"))).thenReturn(Optional.empty());
+        when(ejecucionProcesoRepository.save(any(EjecucionProceso.class))).thenReturn(ejecucion);
+        when(ejecucionProcesoRepository.findById(10L)).thenReturn(Optional.of(ejecucion));
+        when(contratoRepository.findIdsContratosVigentes()).thenReturn(List.of(1L));
+        when(pasoEjecucionProcesoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PasoEjecucionProceso> pasos = invocation.getArgument(0);
+            paso[0] = pasos.get(0);
+            paso[0].setId(1L);
+            return pasos;
+        });
+        when(pasoEjecucionProcesoRepository.findById(1L)).thenAnswer(invocation -> Optional.of(paso[0]));
+        when(pasoEjecucionProcesoRepository.findByEjecucionId(10L)).thenAnswer(invocation -> List.of(paso[0]));
+        when(contratoRepository.findContratosVigentesEntreIds(0L, Long.MAX_VALUE))
+            .thenReturn(Collections.singletonList(contrato));
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510))).thenReturn(Collections.emptyList());
+        when(alquilerRepository.findUltimosAlquileresActivosByContratoIds(anyList())).thenReturn(Collections.emptyList());
         when(alquilerRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
         when(configuracionSistemaRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
@@ -414,9 +464,12 @@ class AlquilerActualizacionServiceTest {
         int resultado = service.procesarAlquileresPendientes();
 
         // Assert
-        assertTrue(resultado > 0, "Debe crear alquileres para el nuevo mes");
-        verify(contratoRepository).findContratosVigentes();
+        assertEquals(1, resultado, "Debe crear alquileres para el nuevo mes");
+        verify(indiceICLService, times(1)).sincronizarIndicesConBloqueo();
+        verify(contratoRepository).findContratosVigentesEntreIds(0L, Long.MAX_VALUE);
         verify(alquilerRepository).saveAll(anyList());
+        assertEquals(EjecucionProceso.COMPLETADO, ejecucion.getEstado());
+        assertEquals("10/2025", config.getValor());
     }
 
     // ==================== TESTS DE NO CREACIÓN DE ALQUILERES ====================
@@ -430,7 +483,7 @@ class AlquilerActualizacionServiceTest {
         alquilerPendiente.setEstaPagado(false);
 
         when(contratoRepository.findContratosVigentes()).thenReturn(Collections.singletonList(contrato));
-        when(alquilerRepository.findAlquileresPendientesByContratoIds(anyList()))
+        when(alquilerRepository.findAlquileresPendientesByContratoIdsYPeriodo(anyList(), eq(202510)))
             .thenReturn(Collections.singletonList(alquilerPendiente));
 
         // Act
@@ -463,9 +516,13 @@ class AlquilerActualizacionServiceTest {
         contrato.setInquilino(inquilino);
         contrato.setEstadoContrato(estadoVigente);
         contrato.setMonto(new BigDecimal("100000"));
-        contrato.setFechaInicio(LocalDate.now().minusMonths(6).format(FORMATO_FECHA));
-        contrato.setFechaFin(LocalDate.now().plusYears(1).format(FORMATO_FECHA));
-        contrato.setFechaAumento(fechaAumento);
+        contrato.setFechaInicio(HOY.minusMonths(6));
+        contrato.setFechaFin(HOY.plusYears(1));
+        if (Contrato.TEXTO_SIN_MAS_AUMENTOS.equals(fechaAumento)) {
+            contrato.setSinMasAumentos(true);
+        } else {
+            contrato.setFechaAumento(LocalDate.parse(fechaAumento, FORMATO_FECHA));
+        }
         contrato.setPeriodoAumento(periodoAumento);
         contrato.setPorcentajeAumento(porcentajeAumento);
         contrato.setAumentaConIcl(false);
@@ -479,8 +536,8 @@ class AlquilerActualizacionServiceTest {
         contrato.setInquilino(inquilino);
         contrato.setEstadoContrato(estadoVigente);
         contrato.setMonto(new BigDecimal("100000"));
-        contrato.setFechaInicio(LocalDate.now().minusMonths(6).format(FORMATO_FECHA));
-        contrato.setFechaFin(LocalDate.now().plusYears(1).format(FORMATO_FECHA));
+        contrato.setFechaInicio(HOY.minusMonths(6));
+        contrato.setFechaFin(HOY.plusYears(1));
         contrato.setFechaAumento(null);
         contrato.setPeriodoAumento(null);
         contrato.setPorcentajeAumento(null);
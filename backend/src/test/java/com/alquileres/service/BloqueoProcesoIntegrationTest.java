@@ -0,0 +1,150 @@
+package com.alquileres.service;
+
+import com.alquileres.AlquigestApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración del bloqueo de procesos con dos instancias de la aplicación
+ * Levanta dos contextos contra el mismo Postgres local (TEST_POSTGRES_URL, TEST_POSTGRES_USERNAME
+ * y TEST_POSTGRES_PASSWORD); sin esas variables el test se omite.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+class BloqueoProcesoIntegrationTest {
+
+    private static ConfigurableApplicationContext instanciaA;
+    private static ConfigurableApplicationContext instanciaB;
+
+    @BeforeAll
+    static void iniciarInstancias() {
+        instanciaA = iniciarInstancia();
+        instanciaB = iniciarInstancia();
+    }
+
+    @AfterAll
+    static void detenerInstancias() {
+        if (instanciaA != null) {
+            instanciaA.close();
+        }
+        if (instanciaB != null) {
+            instanciaB.close();
+        }
+    }
+
+    @Test
+    void ejecutarConBloqueo_dosInstancias_soloUnaEjecutaElProceso() throws Exception {
+        BloqueoProcesoService bloqueoA = instanciaA.getBean(BloqueoProcesoService.class);
+        BloqueoProcesoService bloqueoB = instanciaB.getBean(BloqueoProcesoService.class);
+        String proceso = "TEST_EXCLUSION_" + System.nanoTime();
+        CountDownLatch enEjecucion = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        CompletableFuture<Optional<Integer>> enA = CompletableFuture.supplyAsync(() ->
+            bloqueoA.ejecutarConBloqueo(proceso, Duration.ofMinutes(5), () -> {
+                ejecuciones.incrementAndGet();
+                enEjecucion.countDown();
+                esperar(terminar);
+                return 1;
+            }));
+        assertTrue(enEjecucion.await(10, TimeUnit.SECONDS));
+
+        Optional<Integer> enB = bloqueoB.ejecutarConBloqueo(proceso, Duration.ofMinutes(5), ejecuciones::incrementAndGet);
+        terminar.countDown();
+
+        assertTrue(enB.isEmpty());
+        assertEquals(Optional.of(1), enA.get(10, TimeUnit.SECONDS));
+        assertEquals(1, ejecuciones.get());
+
+        // Al liberarse, la otra instancia puede tomarlo
+        assertEquals(Optional.of(2), bloqueoB.ejecutarConBloqueo(proceso, Duration.ofMinutes(5), ejecuciones::incrementAndGet));
+    }
+
+    @Test
+    void ejecutarConBloqueo_bloqueoVencido_otraInstanciaLoToma() throws Exception {
+        BloqueoProcesoService bloqueoA = instanciaA.getBean(BloqueoProcesoService.class);
+        BloqueoProcesoService bloqueoB = instanciaB.getBean(BloqueoProcesoService.class);
+        String proceso = "TEST_VENCIMIENTO_" + System.nanoTime();
+        CountDownLatch enEjecucion = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+
+        // Simula una instancia colgada que retiene el bloqueo más de lo previsto
+        CompletableFuture<Optional<Integer>> enA = CompletableFuture.supplyAsync(() ->
+            bloqueoA.ejecutarConBloqueo(proceso, Duration.ofSeconds(1), () -> {
+                enEjecucion.countDown();
+                esperar(terminar);
+                return 1;
+            }));
+        assertTrue(enEjecucion.await(10, TimeUnit.SECONDS));
+        Thread.sleep(1500);
+
+        Optional<Integer> enB = bloqueoB.ejecutarConBloqueo(proceso, Duration.ofMinutes(5), () -> {
+            // A termina mientras B tiene el bloqueo: su liberación no debe afectar a B
+            terminar.countDown();
+            assertEquals(Optional.of(1), enA.join());
+            return 2;
+        });
+
+        assertEquals(Optional.of(2), enB);
+    }
+
+    @Test
+    void procesarAlquileresPendientes_concurrenteEnDosInstancias_seEjecutaUnaVez() throws Exception {
+        BloqueoProcesoService bloqueoA = instanciaA.getBean(BloqueoProcesoService.class);
+        BloqueoProcesoService bloqueoB = instanciaB.getBean(BloqueoProcesoService.class);
+        AlquilerActualizacionService alquileresA = instanciaA.getBean(AlquilerActualizacionService.class);
+        AlquilerActualizacionService alquileresB = instanciaB.getBean(AlquilerActualizacionService.class);
+
+        CompletableFuture<Optional<Integer>> enA = CompletableFuture.supplyAsync(() ->
+            bloqueoA.ejecutarConBloqueo(BloqueoProcesoService.GENERACION_ALQUILERES,
+                BloqueoProcesoService.DURACION_GENERACION_MENSUAL, alquileresA::procesarAlquileresPendientes));
+        CompletableFuture<Optional<Integer>> enB = CompletableFuture.supplyAsync(() ->
+            bloqueoB.ejecutarConBloqueo(BloqueoProcesoService.GENERACION_ALQUILERES,
+                BloqueoProcesoService.DURACION_GENERACION_MENSUAL, alquileresB::procesarAlquileresPendientes));
+
+        Optional<Integer> resultadoA = enA.get(5, TimeUnit.MINUTES);
+        Optional<Integer> resultadoB = enB.get(5, TimeUnit.MINUTES);
+
+        // Si una terminó antes de que la otra intentara, la segunda encuentra el mes ya procesado
+        int generados = resultadoA.orElse(0) + resultadoB.orElse(0);
+        assertTrue(resultadoA.isEmpty() || resultadoB.isEmpty() || Math.min(resultadoA.get(), resultadoB.get()) == 0,
+            "Las dos instancias generaron alquileres: " + generados);
+    }
+
+    private static ConfigurableApplicationContext iniciarInstancia() {
+        return new SpringApplicationBuilder(AlquigestApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=" + System.getenv("TEST_POSTGRES_URL"),
+                "spring.datasource.username=" + System.getenv().getOrDefault("TEST_POSTGRES_USERNAME", "postgres"),
+                "spring.datasource.password=" + System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", "postgres"),
+                "spring.datasource.hikari.maximum-pool-size=5",
+                "spring.jpa.hibernate.ddl-auto=update",
+                "spring.main.allow-circular-references=true",
+                "app.jwt-secret=dGVzdC1zZWNyZXQtZGUtYmxvcXVlb3MtZGUtcHJvY2Vzb3MtY29uLWRvcy1pbnN0YW5jaWFz",
+                "app.jwt-expiration-ms=3600000",
+                "encryption.key=MDEyMzQ1Njc4OWFiY2RlZg==")
+            .run();
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.alquileres.service;
+
+import com.alquileres.repository.BloqueoProcesoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BloqueoProcesoService
+ * Prueba que la tarea solo se ejecuta si se toma el bloqueo y que siempre se libera
+ */
+@ExtendWith(MockitoExtension.class)
+class BloqueoProcesoServiceTest {
+
+    @Mock
+    private BloqueoProcesoRepository bloqueoProcesoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BloqueoProcesoService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BloqueoProcesoService(bloqueoProcesoRepository, transactionManager);
+    }
+
+    @Test
+    void ejecutarConBloqueo_bloqueoLibre_ejecutaYLibera() {
+        when(bloqueoProcesoRepository.tomar(eq("PROCESO"), eq(600L), anyString())).thenReturn(1);
+        when(bloqueoProcesoRepository.liberar(eq("PROCESO"), anyString())).thenReturn(1);
+
+        Optional<Integer> resultado = service.ejecutarConBloqueo("PROCESO", Duration.ofMinutes(10), () -> 7);
+
+        assertEquals(Optional.of(7), resultado);
+        verify(bloqueoProcesoRepository).crearSiNoExiste("PROCESO");
+        // Se libera con el mismo titular que lo tomó
+        ArgumentCaptor<String> titularTomado = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> titularLiberado = ArgumentCaptor.forClass(String.class);
+        verify(bloqueoProcesoRepository).tomar(eq("PROCESO"), eq(600L), titularTomado.capture());
+        verify(bloqueoProcesoRepository).liberar(eq("PROCESO"), titularLiberado.capture());
+        assertEquals(titularTomado.getValue(), titularLiberado.getValue());
+    }
+
+    @Test
+    void ejecutarConBloqueo_bloqueoTomado_noEjecutaLaTarea() {
+        when(bloqueoProcesoRepository.tomar(anyString(), anyLong(), anyString())).thenReturn(0);
+
+        Optional<Integer> resultado = service.ejecutarConBloqueo("PROCESO", Duration.ofMinutes(10), () -> {
+            fail("La tarea no debe ejecutarse sin el bloqueo");
+            return 1;
+        });
+
+        assertTrue(resultado.isEmpty());
+        verify(bloqueoProcesoRepository, never()).liberar(anyString(), anyString());
+    }
+
+    @Test
+    void ejecutarConBloqueo_tareaFalla_liberaYPropagaElError() {
+        when(bloqueoProcesoRepository.tomar(anyString(), anyLong(), anyString())).thenReturn(1);
+        when(bloqueoProcesoRepository.liberar(anyString(), anyString())).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> service.ejecutarConBloqueo("PROCESO", Duration.ofMinutes(10),
+            () -> {
+                throw new IllegalStateException("error");
+            }));
+
+        verify(bloqueoProcesoRepository).liberar(eq("PROCESO"), anyString());
+    }
+
+    @Test
+    void ejecutarConBloqueo_titularesDistintosEnCadaEjecucion() {
+        when(bloqueoProcesoRepository.tomar(anyString(), anyLong(), anyString())).thenReturn(1);
+        when(bloqueoProcesoRepository.liberar(anyString(), anyString())).thenReturn(1);
+
+        service.ejecutarConBloqueo("PROCESO", Duration.ofMinutes(1), () -> 1);
+        service.ejecutarConBloqueo("PROCESO", Duration.ofMinutes(1), () -> 1);
+
+        ArgumentCaptor<String> titulares = ArgumentCaptor.forClass(String.class);
+        verify(bloqueoProcesoRepository, times(2)).tomar(eq("PROCESO"), eq(60L), titulares.capture());
+        assertNotEquals(titulares.getAllValues().get(0), titulares.getAllValues().get(1));
+    }
+}
@@ -0,0 +1,214 @@
+package com.alquileres.service;
+
+import com.alquileres.config.CacheNames;
+import com.alquileres.config.ContadorGeneracionLocal;
+import com.alquileres.repository.ContratoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para CacheContratosService
+ * Prueba, para cada tipo de modificación, qué claves de caché se invalidan, cuáles siguen
+ * guardadas y cuándo cambia la generación de los listados
+ *
+ * Contrato 1: inmueble 10, inquilino 20, propietario 30
+ * Contrato 2: inmueble 11, inquilino 21, propietario 31
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheContratosServiceTest {
+
+    @Mock
+    private ContratoRepository contratoRepository;
+
+    private CacheManager cacheManager;
+
+    private CacheContratosService service;
+
+    private String claveListado;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(
+            CacheNames.CONTRATOS, CacheNames.CONTRATOS_PAGINAS, CacheNames.CONTRATOS_VIGENTES,
+            CacheNames.CONTRATOS_VIGENTES_COUNT, CacheNames.CONTRATOS_NO_VIGENTES,
+            CacheNames.CONTRATOS_PROXIMOS_VENCER, CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT,
+            CacheNames.CONTRATOS_POR_INMUEBLE, CacheNames.CONTRATOS_POR_INQUILINO, CacheNames.CONTRATO_POR_ID,
+            CacheNames.CONTRATO_EXISTE, CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE);
+        service = new CacheContratosService(cacheManager, new ContadorGeneracionLocal(), contratoRepository);
+
+        guardar(CacheNames.CONTRATO_POR_ID, 1L, 2L);
+        guardar(CacheNames.CONTRATO_EXISTE, 1L, 2L, 3L);
+        guardar(CacheNames.CONTRATOS_POR_INMUEBLE, 10L, 11L);
+        guardar(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE, 10L, 11L);
+        guardar(CacheNames.CONTRATOS_POR_INQUILINO, 20L, 21L);
+
+        claveListado = service.clave();
+        guardar(CacheNames.CONTRATOS, claveListado);
+        guardar(CacheNames.CONTRATOS_VIGENTES, claveListado);
+        guardar(CacheNames.CONTRATOS_PROXIMOS_VENCER, service.clave(30));
+        guardar(CacheNames.CONTRATOS_PAGINAS, service.clave("vigentes", null, 50));
+    }
+
+    @AfterEach
+    void limpiarTransaccion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void contratoModificado_invalidaSusClavesYLosListados() {
+        service.contratoModificado(1L, 10L, 20L);
+
+        assertInvalidado(CacheNames.CONTRATO_POR_ID, 1L);
+        assertInvalidado(CacheNames.CONTRATO_EXISTE, 1L);
+        assertInvalidado(CacheNames.CONTRATOS_POR_INMUEBLE, 10L);
+        assertInvalidado(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE, 10L);
+        assertInvalidado(CacheNames.CONTRATOS_POR_INQUILINO, 20L);
+        assertContrato2Intacto();
+        assertListadosInvalidados();
+        verifyNoInteractions(contratoRepository);
+    }
+
+    @Test
+    void contratoCreado_invalidaContratoExisteDelNuevoId() {
+        service.contratoModificado(3L, 12L, 22L);
+
+        assertInvalidado(CacheNames.CONTRATO_EXISTE, 3L);
+        assertGuardado(CacheNames.CONTRATO_POR_ID, 1L);
+        assertGuardado(CacheNames.CONTRATOS_POR_INMUEBLE, 10L);
+        assertContrato2Intacto();
+        assertListadosInvalidados();
+    }
+
+    @Test
+    void inmuebleModificado_invalidaLosContratosDelInmueble() {
+        when(contratoRepository.findClavesCacheByInmuebleId(10L)).thenReturn(filas(1L, 10L, 20L));
+
+        service.inmuebleModificado(10L);
+
+        assertInvalidado(CacheNames.CONTRATO_POR_ID, 1L);
+        assertInvalidado(CacheNames.CONTRATOS_POR_INMUEBLE, 10L);
+        assertInvalidado(CacheNames.CONTRATOS_POR_INQUILINO, 20L);
+        assertContrato2Intacto();
+        assertListadosInvalidados();
+    }
+
+    @Test
+    void inmuebleSinContratos_noAvanzaLaGeneracion() {
+        when(contratoRepository.findClavesCacheByInmuebleId(99L)).thenReturn(Collections.emptyList());
+
+        service.inmuebleModificado(99L);
+
+        assertGuardado(CacheNames.CONTRATO_POR_ID, 1L);
+        assertGuardado(CacheNames.CONTRATOS_POR_INMUEBLE, 10L);
+        assertContrato2Intacto();
+        assertEquals(claveListado, service.clave());
+        assertGuardado(CacheNames.CONTRATOS, claveListado);
+    }
+
+    @Test
+    void inquilinoModificado_invalidaLosContratosDelInquilino() {
+        when(contratoRepository.findClavesCacheByInquilinoId(21L)).thenReturn(filas(2L, 11L, 21L));
+
+        service.inquilinoModificado(21L);
+
+        assertInvalidado(CacheNames.CONTRATO_POR_ID, 2L);
+        assertInvalidado(CacheNames.CONTRATOS_POR_INMUEBLE, 11L);
+        assertInvalidado(CacheNames.CONTRATOS_POR_INQUILINO, 21L);
+        assertGuardado(CacheNames.CONTRATO_POR_ID, 1L);
+        assertGuardado(CacheNames.CONTRATOS_POR_INMUEBLE, 10L);
+        assertGuardado(CacheNames.CONTRATOS_POR_INQUILINO, 20L);
+        assertListadosInvalidados();
+    }
+
+    @Test
+    void propietarioModificado_invalidaLosContratosDeSusInmuebles() {
+        when(contratoRepository.findClavesCacheByPropietarioId(30L)).thenReturn(filas(1L, 10L, 20L));
+
+        service.propietarioModificado(30L);
+
+        assertInvalidado(CacheNames.CONTRATO_POR_ID, 1L);
+        assertInvalidado(CacheNames.CONTRATOS_POR_INMUEBLE, 10L);
+        assertContrato2Intacto();
+        assertListadosInvalidados();
+    }
+
+    @Test
+    void dentroDeTransaccion_invalidaRecienAlConfirmar() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.contratoModificado(1L, 10L, 20L);
+
+        assertGuardado(CacheNames.CONTRATO_POR_ID, 1L);
+        assertEquals(claveListado, service.clave());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertInvalidado(CacheNames.CONTRATO_POR_ID, 1L);
+        assertListadosInvalidados();
+    }
+
+    @Test
+    void transaccionRevertida_noInvalida() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.contratoModificado(1L, 10L, 20L);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertGuardado(CacheNames.CONTRATO_POR_ID, 1L);
+        assertGuardado(CacheNames.CONTRATOS, claveListado);
+        assertEquals(claveListado, service.clave());
+    }
+
+    private void assertContrato2Intacto() {
+        assertGuardado(CacheNames.CONTRATO_POR_ID, 2L);
+        assertGuardado(CacheNames.CONTRATO_EXISTE, 2L);
+        assertGuardado(CacheNames.CONTRATOS_POR_INMUEBLE, 11L);
+        assertGuardado(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE, 11L);
+        assertGuardado(CacheNames.CONTRATOS_POR_INQUILINO, 21L);
+    }
+
+    private void assertListadosInvalidados() {
+        // Las claves nuevas no coinciden con las anteriores y las entradas anteriores ya no están guardadas
+        assertNotEquals(claveListado, service.clave());
+        assertInvalidado(CacheNames.CONTRATOS, service.clave());
+        for (String nombre : CacheContratosService.CACHES_LISTADOS) {
+            assertTrue(((Map<?, ?>) cacheManager.getCache(nombre).getNativeCache()).isEmpty(), nombre);
+        }
+    }
+
+    private void guardar(String nombreCache, Object... claves) {
+        for (Object clave : claves) {
+            cacheManager.getCache(nombreCache).put(clave, "valor");
+        }
+    }
+
+    private void assertGuardado(String nombreCache, Object clave) {
+        assertNotNull(cacheManager.getCache(nombreCache).get(clave), nombreCache + " " + clave);
+    }
+
+    private void assertInvalidado(String nombreCache, Object clave) {
+        assertNull(cacheManager.getCache(nombreCache).get(clave), nombreCache + " " + clave);
+    }
+
+    private static List<Object[]> filas(Long contratoId, Long inmuebleId, Long inquilinoId) {
+        return Collections.singletonList(new Object[]{contratoId, inmuebleId, inquilinoId});
+    }
+}
@@ -0,0 +1,84 @@
+package com.alquileres.service;
+
+import com.alquileres.exception.BusinessException;
+import com.alquileres.security.EncryptionService;
+import com.alquileres.util.SingleFlightCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ClaveFiscalService
+ * Prueba que los listados no desencripten y que las claves desencriptadas se reutilicen
+ * desde la cache local hasta que se invalida
+ */
+@ExtendWith(MockitoExtension.class)
+class ClaveFiscalServiceTest {
+
+    @Mock
+    private EncryptionService encryptionService;
+
+    private ClaveFiscalService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ClaveFiscalService(encryptionService, new SingleFlightCache<>(10, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void ocultar_noDesencripta() {
+        assertEquals(ClaveFiscalService.CLAVE_OCULTA, ClaveFiscalService.ocultar("cifrado"));
+        assertNull(ClaveFiscalService.ocultar(null));
+        assertNull(ClaveFiscalService.ocultar("  "));
+
+        verifyNoInteractions(encryptionService);
+    }
+
+    @Test
+    void desencriptar_repetido_desencriptaUnaSolaVez() throws Exception {
+        when(encryptionService.desencriptar("cifrado")).thenReturn("20123456789");
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("20123456789", service.desencriptar("cifrado"));
+        }
+        assertEquals("*******6789", service.enmascarar("cifrado"));
+
+        verify(encryptionService, times(1)).desencriptar("cifrado");
+    }
+
+    @Test
+    void invalidarCache_vuelveADesencriptar() throws Exception {
+        when(encryptionService.desencriptar("cifrado")).thenReturn("20123456789");
+
+        service.desencriptar("cifrado");
+        service.invalidarCache();
+        service.desencriptar("cifrado");
+
+        verify(encryptionService, times(2)).desencriptar("cifrado");
+    }
+
+    @Test
+    void errorDesencriptando_noSeGuardaEnCache() throws Exception {
+        when(encryptionService.desencriptar("roto")).thenThrow(new IllegalArgumentException("padding"));
+
+        assertThrows(BusinessException.class, () -> service.desencriptar("roto"));
+        assertNull(service.enmascarar("roto"));
+
+        verify(encryptionService, times(2)).desencriptar("roto");
+    }
+
+    @Test
+    void enmascarar_clavesCortasYVacias() throws Exception {
+        when(encryptionService.desencriptar("corta")).thenReturn("123");
+
+        assertEquals("****", service.enmascarar("corta"));
+        assertNull(service.enmascarar(null));
+    }
+}
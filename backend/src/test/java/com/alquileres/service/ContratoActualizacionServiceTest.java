@@ -0,0 +1,198 @@
+package com.alquileres.service;
+
+import com.alquileres.config.CacheNames;
+import com.alquileres.config.ContadorGeneracionLocal;
+import com.alquileres.model.EstadoContrato;
+import com.alquileres.model.EstadoInmueble;
+import com.alquileres.repository.ContratoRepository;
+import com.alquileres.repository.EstadoContratoRepository;
+import com.alquileres.repository.EstadoInmuebleRepository;
+import com.alquileres.repository.InmuebleRepository;
+import com.alquileres.repository.RolRepository;
+import com.alquileres.repository.TipoInmuebleRepository;
+import com.alquileres.repository.TipoServicioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ContratoActualizacionService
+ * Prueba el pase por conjuntos de contratos vencidos, el caché de IDs de estados
+ * y la invalidación solo de las claves afectadas
+ */
+@ExtendWith(MockitoExtension.class)
+class ContratoActualizacionServiceTest {
+
+    @Mock
+    private ContratoRepository contratoRepository;
+
+    @Mock
+    private EstadoContratoRepository estadoContratoRepository;
+
+    @Mock
+    private EstadoInmuebleRepository estadoInmuebleRepository;
+
+    @Mock
+    private InmuebleRepository inmuebleRepository;
+
+    @Mock
+    private TipoInmuebleRepository tipoInmuebleRepository;
+
+    @Mock
+    private TipoServicioRepository tipoServicioRepository;
+
+    @Mock
+    private RolRepository rolRepository;
+
+    @Mock
+    private ClockService clockService;
+
+    private CacheManager cacheManager;
+
+    private CacheContratosService cacheContratosService;
+
+    private ContratoActualizacionService service;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(
+            CacheNames.CONTRATOS, CacheNames.CONTRATOS_VIGENTES, CacheNames.CONTRATOS_VIGENTES_COUNT,
+            CacheNames.CONTRATOS_NO_VIGENTES, CacheNames.CONTRATOS_PROXIMOS_VENCER,
+            CacheNames.CONTRATOS_PROXIMOS_VENCER_COUNT, CacheNames.CONTRATOS_POR_INMUEBLE,
+            CacheNames.CONTRATOS_POR_INQUILINO, CacheNames.CONTRATO_POR_ID, CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE);
+        DatosReferenciaService datosReferenciaService = new DatosReferenciaService(estadoContratoRepository,
+            estadoInmuebleRepository, tipoInmuebleRepository, tipoServicioRepository, rolRepository);
+        cacheContratosService = new CacheContratosService(cacheManager, new ContadorGeneracionLocal(), contratoRepository);
+        service = new ContratoActualizacionService(contratoRepository, datosReferenciaService,
+            inmuebleRepository, clockService, cacheContratosService);
+
+        when(clockService.getCurrentDate()).thenReturn(LocalDate.of(2025, 3, 10));
+        lenient().when(clockService.getCurrentDateTime()).thenReturn(LocalDateTime.of(2025, 3, 10, 0, 1));
+        lenient().when(estadoContratoRepository.findAll())
+            .thenReturn(List.of(estadoContrato(1, "Vigente"), estadoContrato(2, "No Vigente")));
+        lenient().when(estadoInmuebleRepository.findAll())
+            .thenReturn(List.of(estadoInmueble(3, "Disponible"), estadoInmueble(4, "Alquilado")));
+    }
+
+    @Test
+    void actualizarContratosVencidos_muchosContratos_usaDosSentencias() {
+        List<Object[]> vencidos = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            vencidos.add(new Object[]{id, 1000L + id, 2000L + id});
+        }
+        when(contratoRepository.actualizarEstadoContratosVencidos(1, 2, LocalDate.of(2025, 3, 10))).thenReturn(vencidos);
+
+        assertEquals(500, service.actualizarContratosVencidos());
+
+        verify(contratoRepository).actualizarEstadoContratosVencidos(1, 2, LocalDate.of(2025, 3, 10));
+        verify(inmuebleRepository).liberarInmuebles(argThat(ids -> ids.size() == 500), eq(3), anyString());
+        verifyNoMoreInteractions(contratoRepository, inmuebleRepository);
+    }
+
+    @Test
+    void actualizarContratosVencidos_idsDeEstadosSeConsultanUnaSolaVez() {
+        when(contratoRepository.actualizarEstadoContratosVencidos(anyInt(), anyInt(), any()))
+            .thenReturn(Collections.singletonList(new Object[]{1L, 10L, 20L}));
+
+        service.actualizarContratosVencidos();
+        service.actualizarContratosVencidos();
+
+        verify(estadoContratoRepository, times(1)).findAll();
+        verify(estadoInmuebleRepository, times(1)).findAll();
+        verifyNoMoreInteractions(estadoContratoRepository, estadoInmuebleRepository);
+    }
+
+    @Test
+    void actualizarContratosVencidos_invalidaSoloLasClavesAfectadas() {
+        cacheManager.getCache(CacheNames.CONTRATO_POR_ID).put(1L, "vencido");
+        cacheManager.getCache(CacheNames.CONTRATO_POR_ID).put(5L, "otro");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).put(10L, "vencido");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).put(50L, "otro");
+        cacheManager.getCache(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE).put(10L, true);
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).put(20L, "vencido");
+        cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).put(60L, "otro");
+        String claveListado = cacheContratosService.clave();
+        cacheManager.getCache(CacheNames.CONTRATOS_VIGENTES).put(claveListado, "listado");
+        when(contratoRepository.actualizarEstadoContratosVencidos(anyInt(), anyInt(), any()))
+            .thenReturn(Collections.singletonList(new Object[]{1L, 10L, 20L}));
+
+        service.actualizarContratosVencidos();
+
+        assertNull(cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(1L));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATO_POR_ID).get(5L));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).get(10L));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INMUEBLE).get(50L));
+        assertNull(cacheManager.getCache(CacheNames.INMUEBLE_TIENE_CONTRATO_VIGENTE).get(10L));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).get(20L));
+        assertNotNull(cacheManager.getCache(CacheNames.CONTRATOS_POR_INQUILINO).get(60L));
+        assertNull(cacheManager.getCache(CacheNames.CONTRATOS_VIGENTES).get(claveListado));
+        assertNotEquals(claveListado, cacheContratosService.clave());
+    }
+
+    @Test
+    void actualizarContratosVencidos_sinVencidos_noLiberaNiInvalida() {
+        Cache contratoPorId = cacheManager.getCache(CacheNames.CONTRATO_POR_ID);
+        contratoPorId.put(1L, "vigente");
+        when(contratoRepository.actualizarEstadoContratosVencidos(anyInt(), anyInt(), any()))
+            .thenReturn(Collections.emptyList());
+
+        assertEquals(0, service.actualizarContratosVencidos());
+
+        verify(inmuebleRepository, never()).liberarInmuebles(any(), any(), any());
+        assertNotNull(contratoPorId.get(1L));
+    }
+
+    @Test
+    void actualizarContratosVencidos_inmuebleRepetido_seLiberaUnaVez() {
+        when(contratoRepository.actualizarEstadoContratosVencidos(anyInt(), anyInt(), any()))
+            .thenReturn(List.of(new Object[]{1L, 10L, 20L}, new Object[]{2L, 10L, 21L}));
+
+        assertEquals(2, service.actualizarContratosVencidos());
+
+        verify(inmuebleRepository).liberarInmuebles(eq(Set.of(10L)), eq(3), anyString());
+    }
+
+    @Test
+    void actualizarContratosVencidos_falloAlLiberarInmuebles_relanzaParaRevertirYNoInvalida() {
+        Cache contratoPorId = cacheManager.getCache(CacheNames.CONTRATO_POR_ID);
+        contratoPorId.put(1L, "vigente");
+        when(contratoRepository.actualizarEstadoContratosVencidos(anyInt(), anyInt(), any()))
+            .thenReturn(Collections.singletonList(new Object[]{1L, 10L, 20L}));
+        doThrow(new IllegalStateException("conexión perdida"))
+            .when(inmuebleRepository).liberarInmuebles(any(), any(), any());
+
+        assertThrows(IllegalStateException.class, () -> service.actualizarContratosVencidos());
+
+        assertNotNull(contratoPorId.get(1L));
+    }
+
+    private static EstadoContrato estadoContrato(Integer id, String nombre) {
+        EstadoContrato estado = new EstadoContrato();
+        estado.setId(id);
+        estado.setNombre(nombre);
+        return estado;
+    }
+
+    private static EstadoInmueble estadoInmueble(Integer id, String nombre) {
+        EstadoInmueble estado = new EstadoInmueble();
+        estado.setId(id);
+        estado.setNombre(nombre);
+        return estado;
+    }
+}
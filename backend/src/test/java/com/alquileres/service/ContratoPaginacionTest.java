@@ -0,0 +1,137 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ContratoDetalleProyeccion;
+import com.alquileres.dto.FiltroContratosDTO;
+import com.alquileres.dto.PaginaContratosDTO;
+import com.alquileres.exception.BusinessException;
+import com.alquileres.repository.ContratoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para el listado paginado de ContratoService
+ * Prueba la paginación por cursor: límite + 1 filas por consulta, cursor de la página siguiente
+ * y validación de filtros y cursores
+ */
+@ExtendWith(MockitoExtension.class)
+class ContratoPaginacionTest {
+
+    @Mock
+    private ContratoRepository contratoRepository;
+
+    @Mock
+    private DatosReferenciaService datosReferenciaService;
+
+    @InjectMocks
+    private ContratoService contratoService;
+
+    @Test
+    void primeraPagina_pideUnaFilaExtraYDevuelveCursorSiHayMas() {
+        List<ContratoDetalleProyeccion> filas = List.of(fila(10L, null), fila(11L, null), fila(12L, null));
+        when(datosReferenciaService.getIdEstadoContratoVigente()).thenReturn(1);
+        when(contratoRepository.findPaginaDetalleOrdenadaPorId(eq(List.of(1)), eq(7L), isNull(), isNull(), isNull(),
+                eq(true), eq(0L), eq(Limit.of(3))))
+            .thenReturn(filas);
+
+        FiltroContratosDTO filtro = filtro(FiltroContratosDTO.ESTADO_VIGENTES, FiltroContratosDTO.ORDEN_ID);
+        filtro.setPropietarioId(7L);
+        filtro.setAumentaConIcl(true);
+        PaginaContratosDTO pagina = contratoService.obtenerPaginaContratos(filtro, null, 2);
+
+        assertEquals(List.of(10L, 11L), pagina.getContratos().stream().map(c -> c.getId()).toList());
+        assertNotNull(pagina.getNextCursor());
+    }
+
+    @Test
+    void paginaSiguiente_continuaDesdeElUltimoContratoDeLaAnterior() {
+        when(datosReferenciaService.getIdsEstadosContratoNoVigentes()).thenReturn(List.of(2, 3));
+        FiltroContratosDTO filtro = filtro(FiltroContratosDTO.ESTADO_NO_VIGENTES, FiltroContratosDTO.ORDEN_FECHA_FIN);
+        filtro.setVencimientoDesde("01/01/2025");
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        List<ContratoDetalleProyeccion> primeras = List.of(fila(5L, LocalDate.of(2025, 2, 1)),
+            fila(3L, LocalDate.of(2025, 3, 1)), fila(4L, LocalDate.of(2025, 3, 1)));
+        List<ContratoDetalleProyeccion> siguientes = List.of(fila(4L, LocalDate.of(2025, 3, 1)));
+
+        when(contratoRepository.findPaginaDetalleOrdenadaPorFechaFin(eq(List.of(2, 3)), isNull(), isNull(), eq(desde),
+                isNull(), isNull(), isNull(), isNull(), eq(Limit.of(3))))
+            .thenReturn(primeras);
+        PaginaContratosDTO primera = contratoService.obtenerPaginaContratos(filtro, null, 2);
+
+        when(contratoRepository.findPaginaDetalleOrdenadaPorFechaFin(eq(List.of(2, 3)), isNull(), isNull(), eq(desde),
+                isNull(), isNull(), eq(LocalDate.of(2025, 3, 1)), eq(3L), eq(Limit.of(3))))
+            .thenReturn(siguientes);
+        PaginaContratosDTO segunda = contratoService.obtenerPaginaContratos(filtro, primera.getNextCursor(), 2);
+
+        assertEquals(List.of(4L), segunda.getContratos().stream().map(c -> c.getId()).toList());
+        assertNull(segunda.getNextCursor());
+    }
+
+    @Test
+    void sinFiltroDeEstado_incluyeTodosLosEstados() {
+        when(datosReferenciaService.buscarIdsEstadosContrato()).thenReturn(List.of(1, 2, 3));
+        when(contratoRepository.findPaginaDetalleOrdenadaPorId(eq(List.of(1, 2, 3)), isNull(), isNull(), isNull(),
+                isNull(), isNull(), eq(0L), eq(Limit.of(51))))
+            .thenReturn(List.of());
+
+        PaginaContratosDTO pagina = contratoService.obtenerPaginaContratos(new FiltroContratosDTO(), null, 50);
+
+        assertTrue(pagina.getContratos().isEmpty());
+        assertNull(pagina.getNextCursor());
+    }
+
+    @Test
+    void cursorDeOtrosFiltros_lanzaBadRequest() {
+        when(datosReferenciaService.getIdEstadoContratoVigente()).thenReturn(1);
+        when(datosReferenciaService.getIdsEstadosContratoNoVigentes()).thenReturn(List.of(2, 3));
+        List<ContratoDetalleProyeccion> filas = List.of(fila(1L, null), fila(2L, null));
+        when(contratoRepository.findPaginaDetalleOrdenadaPorId(any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(filas);
+        String cursor = contratoService.obtenerPaginaContratos(
+            filtro(FiltroContratosDTO.ESTADO_VIGENTES, FiltroContratosDTO.ORDEN_ID), null, 1).getNextCursor();
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> contratoService.obtenerPaginaContratos(
+            filtro(FiltroContratosDTO.ESTADO_NO_VIGENTES, FiltroContratosDTO.ORDEN_ID), cursor, 1));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getHttpStatus());
+        verify(contratoRepository, times(1)).findPaginaDetalleOrdenadaPorId(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void parametrosInvalidos_lanzanBadRequestSinConsultar() {
+        assertThrows(BusinessException.class, () -> contratoService.obtenerPaginaContratos(
+            new FiltroContratosDTO(), null, ContratoService.LIMITE_PAGINA_MAXIMO + 1));
+        assertThrows(BusinessException.class, () -> contratoService.obtenerPaginaContratos(
+            filtro("suspendidos", FiltroContratosDTO.ORDEN_ID), null, 10));
+        assertThrows(BusinessException.class, () -> contratoService.obtenerPaginaContratos(
+            new FiltroContratosDTO(), "no-es-un-cursor", 10));
+
+        verifyNoInteractions(contratoRepository);
+    }
+
+    private static FiltroContratosDTO filtro(String estado, String orden) {
+        FiltroContratosDTO filtro = new FiltroContratosDTO();
+        filtro.setEstado(estado);
+        filtro.setOrden(orden);
+        return filtro;
+    }
+
+    private static ContratoDetalleProyeccion fila(Long id, LocalDate fechaFin) {
+        // La fila extra de cada consulta no se mapea: sus getters pueden no usarse
+        ContratoDetalleProyeccion fila = mock(ContratoDetalleProyeccion.class);
+        lenient().when(fila.getId()).thenReturn(id);
+        lenient().when(fila.getFechaFin()).thenReturn(fechaFin);
+        return fila;
+    }
+}
@@ -5,7 +5,7 @@ import com.alquileres.dto.ContratoDTO;
 import com.alquileres.model.*;
 import com.alquileres.repository.*;
 import com.alquileres.security.EncryptionService;
-import com.alquileres.util.BCRAApiClient;
+import com.alquileres.util.RangoFechasICL;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,7 +17,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,14 +47,11 @@ class ContratoRetroactivoTest {
     private EstadoContratoRepository estadoContratoRepository;
 
     @Mock
-    private EstadoInmuebleRepository estadoInmuebleRepository;
+    private DatosReferenciaService datosReferenciaService;
 
     @Mock
     private PropietarioRepository propietarioRepository;
 
-    @Mock
-    private TipoInmuebleRepository tipoInmuebleRepository;
-
     @Mock
     private CancelacionContratoRepository cancelacionContratoRepository;
 
@@ -74,14 +74,25 @@ class ContratoRetroactivoTest {
     private PDFService pdfService;
 
     @Mock
-    private BCRAApiClient bcraApiClient;
+    private IndiceICLService indiceICLService;
 
     @Mock
     private AumentoAlquilerService aumentoAlquilerService;
 
+    @Mock
+    private CacheContratosService cacheContratosService;
+
+    @Mock
+    private ClockService clockService;
+
     @InjectMocks
     private ContratoService contratoService;
 
+    /**
+     * Fecha actual de los tests (mediados de mes, para que los meses no dependan del día en que se corre)
+     */
+    private static final LocalDate HOY = LocalDate.of(2025, 10, 15);
+
     private Inmueble inmueble;
     private Inquilino inquilino;
     private EstadoContrato estadoVigente;
@@ -113,6 +124,10 @@ class ContratoRetroactivoTest {
         estadoAlquilado = new EstadoInmueble();
         estadoAlquilado.setId(1);
         estadoAlquilado.setNombre("Alquilado");
+
+        when(clockService.getCurrentDate()).thenReturn(HOY);
+        when(datosReferenciaService.buscarNombreEstadoInmueble(1))
+            .thenReturn(Optional.of(DatosReferenciaService.ESTADO_INMUEBLE_DISPONIBLE));
     }
 
     /**
@@ -122,7 +137,7 @@ class ContratoRetroactivoTest {
     @Test
     void crearContrato_conFechaInicioEnElPasado_creaAlquileresRetroactivos() {
         // Arrange
-        LocalDate hoy = LocalDate.now();
+        LocalDate hoy = HOY;
         LocalDate fechaInicio = hoy.minusMonths(3); // 3 meses atrás
         
         ContratoCreateDTO contratoDTO = new ContratoCreateDTO();
@@ -140,7 +155,7 @@ class ContratoRetroactivoTest {
         when(inmuebleRepository.findById(1L)).thenReturn(Optional.of(inmueble));
         when(inquilinoRepository.findById(1L)).thenReturn(Optional.of(inquilino));
         when(estadoContratoRepository.findById(1)).thenReturn(Optional.of(estadoVigente));
-        when(estadoInmuebleRepository.findByNombre("Alquilado")).thenReturn(Optional.of(estadoAlquilado));
+        when(datosReferenciaService.buscarIdEstadoInmueble("Alquilado")).thenReturn(Optional.of(estadoAlquilado.getId()));
         when(contratoRepository.existsContratoVigenteByInmueble(any())).thenReturn(false);
         
         // Crear contrato que será guardado
@@ -148,16 +163,18 @@ class ContratoRetroactivoTest {
         contratoGuardado.setId(1L);
         contratoGuardado.setInmueble(inmueble);
         contratoGuardado.setInquilino(inquilino);
-        contratoGuardado.setFechaInicio(fechaInicio.format(DateTimeFormatter.ISO_LOCAL_DATE));
-        contratoGuardado.setFechaFin(hoy.plusYears(2).format(DateTimeFormatter.ISO_LOCAL_DATE));
+        contratoGuardado.setFechaInicio(fechaInicio);
+        contratoGuardado.setFechaFin(hoy.plusYears(2));
         contratoGuardado.setMonto(new BigDecimal("100000"));
         contratoGuardado.setPorcentajeAumento(new BigDecimal("10"));
         contratoGuardado.setAumentaConIcl(false);
         contratoGuardado.setPeriodoAumento(3);
         contratoGuardado.setEstadoContrato(estadoVigente);
-        contratoGuardado.setFechaAumento(fechaInicio.plusMonths(3).withDayOfMonth(1).format(DateTimeFormatter.ISO_LOCAL_DATE));
+        contratoGuardado.setFechaAumento(fechaInicio.plusMonths(3).withDayOfMonth(1));
         
         when(contratoRepository.save(any(Contrato.class))).thenReturn(contratoGuardado);
+        when(aumentoAlquilerService.crearAumentoSinGuardar(any(), any(), any(), any()))
+            .thenAnswer(invocation -> new AumentoAlquiler());
         
         // Lista para capturar alquileres guardados
         List<Alquiler> alquileresGuardados = new ArrayList<>();
@@ -176,24 +193,29 @@ class ContratoRetroactivoTest {
         // Verificar que se guardaron alquileres
         verify(alquilerRepository, times(1)).saveAll(anyList());
         
-        // Debería haber creado 3 alquileres:
-        // - Mes 0 (fecha inicio con la fecha exacta): ej. 05/08/2025
-        // - Mes 1: 01/09/2025
-        // - Mes 2: 01/10/2025
-        assertTrue(alquileresGuardados.size() >= 3, 
-                  "Debe crear al menos 3 alquileres retroactivos (uno por mes desde hace 3 meses)");
+        // Debería haber creado 4 alquileres:
+        // - Mes 0 (fecha inicio): 10/07/2025
+        // - Mes 1 y 2: 10/08/2025 y 10/09/2025
+        // - Mes actual: 10/10/2025
+        assertEquals(4, alquileresGuardados.size(),
+                  "Debe crear un alquiler por mes desde la fecha de inicio hasta el mes actual");
         
-        // Verificar que todos están marcados como pagados
-        for (Alquiler alquiler : alquileresGuardados) {
+        // Los alquileres de meses anteriores quedan pagados; el del mes actual queda pendiente
+        for (Alquiler alquiler : alquileresGuardados.subList(0, 3)) {
             assertTrue(alquiler.getEstaPagado(), "Todos los alquileres retroactivos deben estar marcados como pagados");
             assertNotNull(alquiler.getFechaPago(), "Todos los alquileres retroactivos deben tener fecha de pago");
             assertTrue(alquiler.getEsActivo(), "Todos los alquileres retroactivos deben estar activos");
+            assertEquals(0, new BigDecimal("100000").compareTo(alquiler.getMonto()));
         }
+        Alquiler alquilerMesActual = alquileresGuardados.get(3);
+        assertFalse(alquilerMesActual.getEstaPagado(), "El alquiler del mes actual no debe estar pagado");
         
-        // En este caso, NO debe haber aumentos porque pasaron exactamente 3 meses 
-        // y el aumento se aplicaría a partir del mes 4 (cuando se cumpla el período de aumento)
-        // Por lo tanto, verificamos que se guardaron los alquileres pero NO aumentos
-        verify(aumentoAlquilerService, never()).guardarAumentosEnBatch(anyList());
+        // Al cumplirse el período de 3 meses (octubre) se aplica el aumento fijo del 10%
+        assertEquals(0, new BigDecimal("110000.00").compareTo(alquilerMesActual.getMonto()));
+        verify(aumentoAlquilerService).crearAumentoSinGuardar(
+            any(), eq(new BigDecimal("100000")), eq(new BigDecimal("110000.00")), eq(new BigDecimal("10")));
+        verify(aumentoAlquilerService, times(1)).guardarAumentosEnBatch(anyList());
+        verify(indiceICLService, never()).obtenerTasasAumentoICL(anyCollection());
     }
 
     /**
@@ -202,7 +224,7 @@ class ContratoRetroactivoTest {
     @Test
     void crearContrato_conFechaInicioEnElPasadoYAumentoICL_consultaBCRA() {
         // Arrange
-        LocalDate hoy = LocalDate.now();
+        LocalDate hoy = HOY;
         LocalDate fechaInicio = hoy.minusMonths(4); // 4 meses atrás
         
         ContratoCreateDTO contratoDTO = new ContratoCreateDTO();
@@ -219,7 +241,7 @@ class ContratoRetroactivoTest {
         when(inmuebleRepository.findById(1L)).thenReturn(Optional.of(inmueble));
         when(inquilinoRepository.findById(1L)).thenReturn(Optional.of(inquilino));
         when(estadoContratoRepository.findById(1)).thenReturn(Optional.of(estadoVigente));
-        when(estadoInmuebleRepository.findByNombre("Alquilado")).thenReturn(Optional.of(estadoAlquilado));
+        when(datosReferenciaService.buscarIdEstadoInmueble("Alquilado")).thenReturn(Optional.of(estadoAlquilado.getId()));
         when(contratoRepository.existsContratoVigenteByInmueble(any())).thenReturn(false);
         
         // Crear contrato que será guardado
@@ -227,22 +249,32 @@ class ContratoRetroactivoTest {
         contratoGuardado.setId(1L);
         contratoGuardado.setInmueble(inmueble);
         contratoGuardado.setInquilino(inquilino);
-        contratoGuardado.setFechaInicio(fechaInicio.format(DateTimeFormatter.ISO_LOCAL_DATE));
-        contratoGuardado.setFechaFin(hoy.plusYears(2).format(DateTimeFormatter.ISO_LOCAL_DATE));
+        contratoGuardado.setFechaInicio(fechaInicio);
+        contratoGuardado.setFechaFin(hoy.plusYears(2));
         contratoGuardado.setMonto(new BigDecimal("100000"));
         contratoGuardado.setAumentaConIcl(true);
         contratoGuardado.setPeriodoAumento(3);
         contratoGuardado.setEstadoContrato(estadoVigente);
-        contratoGuardado.setFechaAumento(fechaInicio.plusMonths(3).withDayOfMonth(1).format(DateTimeFormatter.ISO_LOCAL_DATE));
+        contratoGuardado.setFechaAumento(fechaInicio.plusMonths(3).withDayOfMonth(1));
         
         when(contratoRepository.save(any(Contrato.class))).thenReturn(contratoGuardado);
         
-        // Mock de BCRAApiClient para devolver una tasa de aumento
-        when(bcraApiClient.obtenerTasaAumentoICL(anyString(), anyString()))
-            .thenReturn(new BigDecimal("1.05")); // 5% de aumento
+        // Mock de IndiceICLService para devolver una tasa de aumento (5%) por cada rango del lote
+        when(indiceICLService.obtenerTasasAumentoICL(anyCollection())).thenAnswer(invocation -> {
+            Map<RangoFechasICL, BigDecimal> tasas = new HashMap<>();
+            for (RangoFechasICL rango : invocation.<Collection<RangoFechasICL>>getArgument(0)) {
+                tasas.put(rango, new BigDecimal("1.05"));
+            }
+            return tasas;
+        });
         
         // Lista para capturar alquileres guardados
-        when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        List<Alquiler> alquileresGuardados = new ArrayList<>();
+        when(alquilerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Alquiler> arg = invocation.getArgument(0);
+            alquileresGuardados.addAll(arg);
+            return arg;
+        });
         
         // Mock para aumentos
         when(aumentoAlquilerService.crearAumentoSinGuardar(any(), any(), any(), any()))
@@ -254,11 +286,20 @@ class ContratoRetroactivoTest {
         // Assert
         assertNotNull(resultado);
         
-        // Verificar que se consultó la API del BCRA al menos una vez
-        verify(bcraApiClient, atLeastOnce()).obtenerTasaAumentoICL(anyString(), anyString());
+        // Verificar que las tasas de ICL se resolvieron en una sola consulta por lote,
+        // con el rango del único aumento: del mes de inicio (junio) al del aumento (septiembre)
+        verify(indiceICLService, times(1)).obtenerTasasAumentoICL(
+            eq(List.of(new RangoFechasICL(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 9, 1)))));
+        verify(indiceICLService, never()).obtenerTasaAumentoICL(anyString(), anyString());
+        
+        // Junio, julio y agosto sin aumento; septiembre y octubre con el 5% del ICL
+        assertEquals(5, alquileresGuardados.size());
+        assertEquals(0, new BigDecimal("100000").compareTo(alquileresGuardados.get(2).getMonto()));
+        assertEquals(0, new BigDecimal("105000.00").compareTo(alquileresGuardados.get(3).getMonto()));
+        assertEquals(0, new BigDecimal("105000.00").compareTo(alquileresGuardados.get(4).getMonto()));
         
         // Verificar que se guardaron aumentos
-        verify(aumentoAlquilerService, atLeastOnce()).guardarAumentosEnBatch(anyList());
+        verify(aumentoAlquilerService, times(1)).guardarAumentosEnBatch(anyList());
     }
 
     /**
@@ -268,7 +309,7 @@ class ContratoRetroactivoTest {
     @Test
     void crearContrato_conFechaInicioHoy_noCreaAlquileresRetroactivos() {
         // Arrange
-        LocalDate hoy = LocalDate.now();
+        LocalDate hoy = HOY;
         
         ContratoCreateDTO contratoDTO = new ContratoCreateDTO();
         contratoDTO.setInmuebleId(1L);
@@ -285,7 +326,7 @@ class ContratoRetroactivoTest {
         when(inmuebleRepository.findById(1L)).thenReturn(Optional.of(inmueble));
         when(inquilinoRepository.findById(1L)).thenReturn(Optional.of(inquilino));
         when(estadoContratoRepository.findById(1)).thenReturn(Optional.of(estadoVigente));
-        when(estadoInmuebleRepository.findByNombre("Alquilado")).thenReturn(Optional.of(estadoAlquilado));
+        when(datosReferenciaService.buscarIdEstadoInmueble("Alquilado")).thenReturn(Optional.of(estadoAlquilado.getId()));
         when(contratoRepository.existsContratoVigenteByInmueble(any())).thenReturn(false);
         
         // Crear contrato que será guardado
@@ -293,14 +334,14 @@ class ContratoRetroactivoTest {
         contratoGuardado.setId(1L);
         contratoGuardado.setInmueble(inmueble);
         contratoGuardado.setInquilino(inquilino);
-        contratoGuardado.setFechaInicio(hoy.format(DateTimeFormatter.ISO_LOCAL_DATE));
-        contratoGuardado.setFechaFin(hoy.plusYears(2).format(DateTimeFormatter.ISO_LOCAL_DATE));
+        contratoGuardado.setFechaInicio(hoy);
+        contratoGuardado.setFechaFin(hoy.plusYears(2));
         contratoGuardado.setMonto(new BigDecimal("100000"));
         contratoGuardado.setPorcentajeAumento(new BigDecimal("10"));
         contratoGuardado.setAumentaConIcl(false);
         contratoGuardado.setPeriodoAumento(3);
         contratoGuardado.setEstadoContrato(estadoVigente);
-        contratoGuardado.setFechaAumento(hoy.plusMonths(3).withDayOfMonth(1).format(DateTimeFormatter.ISO_LOCAL_DATE));
+        contratoGuardado.setFechaAumento(hoy.plusMonths(3).withDayOfMonth(1));
         
         when(contratoRepository.save(any(Contrato.class))).thenReturn(contratoGuardado);
         when(alquilerRepository.save(any(Alquiler.class))).thenAnswer(invocation -> invocation.getArgument(0));
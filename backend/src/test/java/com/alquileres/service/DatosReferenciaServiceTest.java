@@ -0,0 +1,216 @@
+package com.alquileres.service;
+
+import com.alquileres.model.EstadoContrato;
+import com.alquileres.model.EstadoInmueble;
+import com.alquileres.model.Rol;
+import com.alquileres.model.RolNombre;
+import com.alquileres.model.TipoInmueble;
+import com.alquileres.model.TipoServicio;
+import com.alquileres.repository.EstadoContratoRepository;
+import com.alquileres.repository.EstadoInmuebleRepository;
+import com.alquileres.repository.RolRepository;
+import com.alquileres.repository.TipoInmuebleRepository;
+import com.alquileres.repository.TipoServicioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para DatosReferenciaService
+ * Prueba la carga única de las tablas, la búsqueda id <-> nombre, la recarga y que las consultas
+ * de los repositorios filtren por los IDs del registro en lugar de nombres literales
+ */
+@ExtendWith(MockitoExtension.class)
+class DatosReferenciaServiceTest {
+
+    private static final Pattern REFERENCIA_REGISTRO = Pattern.compile("@datosReferenciaService\\.(\\w+)");
+
+    @Mock
+    private EstadoContratoRepository estadoContratoRepository;
+
+    @Mock
+    private EstadoInmuebleRepository estadoInmuebleRepository;
+
+    @Mock
+    private TipoInmuebleRepository tipoInmuebleRepository;
+
+    @Mock
+    private TipoServicioRepository tipoServicioRepository;
+
+    @Mock
+    private RolRepository rolRepository;
+
+    private DatosReferenciaService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DatosReferenciaService(estadoContratoRepository, estadoInmuebleRepository,
+            tipoInmuebleRepository, tipoServicioRepository, rolRepository);
+
+        lenient().when(estadoContratoRepository.findAll()).thenReturn(List.of(
+            estadoContrato(1, "Vigente"), estadoContrato(2, "No Vigente"), estadoContrato(3, "Cancelado")));
+        lenient().when(estadoInmuebleRepository.findAll()).thenReturn(List.of(
+            estadoInmueble(1, "Disponible"), estadoInmueble(3, "Inactivo"), estadoInmueble(4, "Alquilado")));
+        lenient().when(tipoInmuebleRepository.findAll()).thenReturn(List.of(tipoInmueble(7L, "Casa")));
+        lenient().when(tipoServicioRepository.findAll()).thenReturn(List.of(tipoServicio(2, "Agua")));
+        lenient().when(rolRepository.findAll()).thenReturn(List.of(rol(5L, RolNombre.ROLE_SECRETARIA)));
+    }
+
+    @Test
+    void consultasRepetidas_cargaCadaTablaUnaSolaVez() {
+        for (int i = 0; i < 100; i++) {
+            service.buscarIdEstadoContrato("Vigente");
+            service.buscarNombreEstadoInmueble(4);
+            service.buscarNombreTipoInmueble(7L);
+            service.existeTipoServicio(2);
+            service.buscarIdRol(RolNombre.ROLE_SECRETARIA);
+        }
+
+        verify(estadoContratoRepository, times(1)).findAll();
+        verify(estadoInmuebleRepository, times(1)).findAll();
+        verify(tipoInmuebleRepository, times(1)).findAll();
+        verify(tipoServicioRepository, times(1)).findAll();
+        verify(rolRepository, times(1)).findAll();
+        verifyNoMoreInteractions(estadoContratoRepository, estadoInmuebleRepository,
+            tipoInmuebleRepository, tipoServicioRepository, rolRepository);
+    }
+
+    @Test
+    void busquedas_resuelvenEnAmbosSentidos() {
+        assertEquals(Optional.of(1), service.buscarIdEstadoContrato("Vigente"));
+        assertEquals(Optional.of("No Vigente"), service.buscarNombreEstadoContrato(2));
+        assertEquals(Optional.of(3), service.buscarIdEstadoInmueble("Inactivo"));
+        assertEquals(Optional.of("Alquilado"), service.buscarNombreEstadoInmueble(4));
+        assertEquals(Optional.of("Casa"), service.buscarNombreTipoInmueble(7L));
+        assertTrue(service.existeTipoInmueble(7L));
+        assertTrue(service.existeTipoServicio(2));
+        assertEquals(Optional.of(5L), service.buscarIdRol(RolNombre.ROLE_SECRETARIA));
+    }
+
+    @Test
+    void busquedas_valoresInexistentesONulos_devuelvenVacio() {
+        assertTrue(service.buscarIdEstadoContrato("Suspendido").isEmpty());
+        assertTrue(service.buscarNombreEstadoInmueble(99).isEmpty());
+        assertTrue(service.buscarNombreEstadoInmueble(null).isEmpty());
+        assertTrue(service.buscarNombreTipoInmueble(null).isEmpty());
+        assertFalse(service.existeTipoInmueble(8L));
+        assertFalse(service.existeTipoServicio(null));
+        assertTrue(service.buscarIdRol(RolNombre.ROLE_ADMINISTRADOR).isEmpty());
+    }
+
+    @Test
+    void idsParaConsultas_devuelvenLosIdsDeLosEstadosFijos() {
+        assertEquals(1, service.getIdEstadoContratoVigente());
+        assertEquals(List.of(2, 3), service.getIdsEstadosContratoNoVigentes());
+        assertEquals(1, service.getIdEstadoInmuebleDisponible());
+        assertEquals(3, service.getIdEstadoInmuebleInactivo());
+    }
+
+    @Test
+    void recargar_reemplazaElCatalogoCompleto() {
+        assertEquals(Optional.of(1), service.buscarIdEstadoContrato("Vigente"));
+        when(estadoContratoRepository.findAll()).thenReturn(List.of(
+            estadoContrato(10, "Vigente"), estadoContrato(11, "Suspendido")));
+
+        service.recargar();
+
+        assertEquals(10, service.getIdEstadoContratoVigente());
+        assertEquals(Optional.of("Suspendido"), service.buscarNombreEstadoContrato(11));
+        assertTrue(service.buscarNombreEstadoContrato(2).isEmpty());
+        assertEquals(List.of(), service.getIdsEstadosContratoNoVigentes());
+    }
+
+    @Test
+    void consultasDeRepositorios_filtranPorIdsDelRegistro() throws Exception {
+        Set<String> propiedades = Arrays.stream(Introspector.getBeanInfo(DatosReferenciaService.class).getPropertyDescriptors())
+            .map(PropertyDescriptor::getName)
+            .collect(Collectors.toSet());
+        List<String> consultas = consultasDeRepositorios();
+        int referencias = 0;
+
+        for (String consulta : consultas) {
+            assertFalse(consulta.matches("(?s).*nombre\\s*(=|IN)\\s*\\(?'.*"),
+                "La consulta compara un nombre literal de estado: " + consulta);
+            Matcher matcher = REFERENCIA_REGISTRO.matcher(consulta);
+            while (matcher.find()) {
+                assertTrue(propiedades.contains(matcher.group(1)),
+                    "La consulta usa una propiedad inexistente del registro: " + matcher.group(1));
+                referencias++;
+            }
+        }
+        assertTrue(referencias >= 20, "Se esperaban las consultas de estados migradas al registro: " + referencias);
+    }
+
+    private static List<String> consultasDeRepositorios() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definicion) {
+                return definicion.getMetadata().isInterface();
+            }
+        };
+        escaner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        List<String> consultas = new ArrayList<>();
+        for (var candidato : escaner.findCandidateComponents(EstadoContratoRepository.class.getPackageName())) {
+            for (Method metodo : Class.forName(candidato.getBeanClassName()).getDeclaredMethods()) {
+                Query query = metodo.getAnnotation(Query.class);
+                if (query != null) {
+                    consultas.add(query.value());
+                }
+            }
+        }
+        assertFalse(consultas.isEmpty());
+        return consultas;
+    }
+
+    private static EstadoContrato estadoContrato(Integer id, String nombre) {
+        EstadoContrato estado = new EstadoContrato(nombre);
+        estado.setId(id);
+        return estado;
+    }
+
+    private static EstadoInmueble estadoInmueble(Integer id, String nombre) {
+        EstadoInmueble estado = new EstadoInmueble(nombre);
+        estado.setId(id);
+        return estado;
+    }
+
+    private static TipoInmueble tipoInmueble(Long id, String nombre) {
+        TipoInmueble tipo = new TipoInmueble(nombre);
+        tipo.setId(id);
+        return tipo;
+    }
+
+    private static TipoServicio tipoServicio(Integer id, String nombre) {
+        TipoServicio tipo = new TipoServicio(nombre);
+        tipo.setId(id);
+        return tipo;
+    }
+
+    private static Rol rol(Long id, RolNombre nombre) {
+        Rol rol = new Rol(nombre);
+        rol.setId(id);
+        return rol;
+    }
+}
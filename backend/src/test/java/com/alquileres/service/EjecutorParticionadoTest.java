@@ -0,0 +1,108 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ReporteEjecucionParticionadaDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para EjecutorParticionado
+ * Prueba la división en particiones, el límite de paralelismo y el reporte de particiones fallidas
+ */
+@ExtendWith(MockitoExtension.class)
+class EjecutorParticionadoTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ClockService clockService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clockService.getCurrentDateTime()).thenReturn(LocalDateTime.of(2025, 3, 1, 0, 0));
+    }
+
+    @Test
+    void dividirEnParticiones_cubreTodoElRangoDeIds() {
+        List<EjecutorParticionado.Particion> particiones =
+            EjecutorParticionado.dividirEnParticiones(List.of(3L, 7L, 8L, 15L, 20L), 2);
+
+        assertEquals(List.of(
+            new EjecutorParticionado.Particion(1, 0L, 7L),
+            new EjecutorParticionado.Particion(2, 8L, 15L),
+            new EjecutorParticionado.Particion(3, 16L, Long.MAX_VALUE)
+        ), particiones);
+    }
+
+    @Test
+    void dividirEnParticiones_sinIds_noGeneraParticiones() {
+        assertTrue(EjecutorParticionado.dividirEnParticiones(List.of(), 200).isEmpty());
+    }
+
+    @Test
+    void paralelismo_seLimitaPorElPoolDeConexiones() {
+        assertEquals(4, new EjecutorParticionado(transactionManager, clockService, 8, 5).getParalelismo());
+        assertEquals(2, new EjecutorParticionado(transactionManager, clockService, 2, 10).getParalelismo());
+        assertEquals(1, new EjecutorParticionado(transactionManager, clockService, 4, 1).getParalelismo());
+    }
+
+    @Test
+    void ejecutar_noSuperaElParalelismo() {
+        EjecutorParticionado ejecutor = new EjecutorParticionado(transactionManager, clockService, 2, 10);
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        List<EjecutorParticionado.Particion> particiones = EjecutorParticionado.dividirEnParticiones(
+            List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), 1);
+
+        ReporteEjecucionParticionadaDTO reporte = ejecutor.ejecutar("TEST", particiones, particion -> {
+            maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            enCurso.decrementAndGet();
+            return 1;
+        });
+
+        assertTrue(maximo.get() <= 2);
+        assertTrue(reporte.isCompleto());
+        assertEquals(8, reporte.getGenerados());
+        verify(transactionManager, times(8)).commit(any());
+    }
+
+    @Test
+    void ejecutar_particionFallida_seRevierteYLasDemasContinuan() {
+        EjecutorParticionado ejecutor = new EjecutorParticionado(transactionManager, clockService, 4, 5);
+        List<EjecutorParticionado.Particion> particiones = EjecutorParticionado.dividirEnParticiones(
+            List.of(1L, 2L, 3L), 1);
+
+        ReporteEjecucionParticionadaDTO reporte = ejecutor.ejecutar("TEST", particiones, particion -> {
+            if (particion.numero() == 2) {
+                throw new IllegalStateException("sin conexión");
+            }
+            return 5;
+        });
+
+        assertFalse(reporte.isCompleto());
+        assertEquals(3, reporte.getParticiones());
+        assertEquals(1, reporte.getParticionesFallidas());
+        assertEquals(10, reporte.getGenerados());
+        assertEquals("sin conexión", reporte.getResultados().get(1).getError());
+        assertTrue(reporte.getResultados().get(2).isExitosa());
+        verify(transactionManager).rollback(any());
+        assertSame(reporte, ejecutor.obtenerUltimosReportes().get("TEST"));
+    }
+}
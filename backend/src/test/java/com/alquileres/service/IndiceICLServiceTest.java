@@ -0,0 +1,294 @@
+package com.alquileres.service;
+
+import com.alquileres.exception.BusinessException;
+import com.alquileres.model.IndiceICL;
+import com.alquileres.repository.IndiceICLRepository;
+import com.alquileres.util.BCRAApiClient;
+import com.alquileres.util.IclIndex;
+import com.alquileres.util.RangoFechasICL;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para IndiceICLService
+ * Verifica que los cálculos usen el índice en memoria y que la sincronización sea incremental
+ */
+@ExtendWith(MockitoExtension.class)
+class IndiceICLServiceTest {
+
+    @Mock
+    private IndiceICLRepository indiceICLRepository;
+
+    @Mock
+    private BCRAApiClient bcraApiClient;
+
+    @Mock
+    private ClockService clockService;
+
+    @Mock
+    private BloqueoProcesoService bloqueoProcesoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private IclIndex iclIndex = new IclIndex();
+
+    @InjectMocks
+    private IndiceICLService service;
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 10);
+    private static final LocalDateTime AHORA = HOY.atTime(10, 0);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clockService.getCurrentDate()).thenReturn(HOY);
+        lenient().when(clockService.getCurrentDateTime()).thenReturn(AHORA);
+        // Por defecto esta instancia obtiene el bloqueo y ejecuta la tarea
+        lenient().when(bloqueoProcesoService.ejecutarConBloqueo(anyString(), any(Duration.class), any()))
+            .thenAnswer(invocation -> Optional.ofNullable(invocation.getArgument(2, Supplier.class).get()));
+    }
+
+    @Test
+    void obtenerTasaAumentoICL_usaIndiceEnMemoria_sinConsultarBCRA() {
+        LocalDate inicio = LocalDate.of(2024, 3, 1);
+        LocalDate fin = LocalDate.of(2025, 3, 1);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(inicio, new BigDecimal("10.000000")),
+            new IndiceICL(fin, new BigDecimal("15.000000")),
+            new IndiceICL(HOY, new BigDecimal("15.500000"))
+        ));
+
+        BigDecimal primera = service.obtenerTasaAumentoICL("2024-03-01", "2025-03-01");
+        BigDecimal segunda = service.obtenerTasaAumentoICL("2024-03-01", "2025-03-01");
+
+        assertEquals(0, new BigDecimal("1.5").compareTo(primera));
+        assertEquals(primera, segunda);
+        // La serie se lee de la base una sola vez
+        verify(indiceICLRepository, times(1)).findAllByOrderByFechaAsc();
+        verifyNoInteractions(bcraApiClient);
+    }
+
+    @Test
+    void obtenerTasaAumentoICL_fechaPosteriorALaUltima_sincronizaYReintenta() {
+        LocalDate inicio = LocalDate.of(2025, 2, 1);
+        LocalDate fin = LocalDate.of(2025, 3, 5);
+        LocalDate ultima = LocalDate.of(2025, 3, 3);
+
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(inicio, new BigDecimal("20.000000")),
+            new IndiceICL(ultima, new BigDecimal("21.800000"))
+        ));
+        when(indiceICLRepository.findUltimaFecha()).thenReturn(Optional.of(ultima));
+
+        SortedMap<LocalDate, BigDecimal> serie = new TreeMap<>();
+        serie.put(fin, new BigDecimal("22.000000"));
+        when(bcraApiClient.obtenerSerieICL(ultima.plusDays(1), HOY)).thenReturn(serie);
+
+        BigDecimal tasa = service.obtenerTasaAumentoICL("2025-02-01", "2025-03-05");
+
+        assertEquals(0, new BigDecimal("1.1").compareTo(tasa));
+        verify(bcraApiClient).obtenerSerieICL(ultima.plusDays(1), HOY);
+        verify(indiceICLRepository).saveAll(anyList());
+        assertEquals(fin, iclIndex.getUltimaFecha());
+        verify(bloqueoProcesoService).ejecutarConBloqueo(eq(BloqueoProcesoService.SINCRONIZACION_ICL),
+            eq(BloqueoProcesoService.DURACION_SINCRONIZACION_ICL), any());
+    }
+
+    @Test
+    void obtenerTasaAumentoICL_fechaSinPublicar_noSincronizaDeNuevoHastaQuePaseLaEspera() {
+        LocalDate inicio = LocalDate.of(2025, 2, 3);
+        LocalDate viernes = LocalDate.of(2025, 3, 7);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(inicio, new BigDecimal("20.000000")),
+            new IndiceICL(viernes, new BigDecimal("22.000000"))
+        ));
+        when(indiceICLRepository.findUltimaFecha()).thenReturn(Optional.of(viernes));
+        // El BCRA todavía no publicó el valor de hoy
+        when(bcraApiClient.obtenerSerieICL(viernes.plusDays(1), HOY)).thenReturn(new TreeMap<>());
+
+        assertThrows(BusinessException.class,
+            () -> service.obtenerTasaAumentoICL("2025-02-03", "2025-03-10"));
+        assertThrows(BusinessException.class,
+            () -> service.obtenerTasaAumentoICL("2025-02-03", "2025-03-10"));
+        verify(bcraApiClient, times(1)).obtenerSerieICL(any(), any());
+
+        when(clockService.getCurrentDateTime()).thenReturn(AHORA.plusMinutes(6));
+        assertThrows(BusinessException.class,
+            () -> service.obtenerTasaAumentoICL("2025-02-03", "2025-03-10"));
+
+        verify(bcraApiClient, times(2)).obtenerSerieICL(any(), any());
+    }
+
+    @Test
+    void sincronizarIndicesConBloqueo_otraInstanciaTieneElBloqueo_actualizaDesdeLaBaseSinConsultarBCRA() {
+        LocalDate inicio = LocalDate.of(2025, 2, 3);
+        LocalDate ultimaEnMemoria = LocalDate.of(2025, 3, 3);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(inicio, new BigDecimal("20.000000")),
+            new IndiceICL(ultimaEnMemoria, new BigDecimal("21.000000"))
+        ));
+        service.cargarIndiceEnMemoria();
+
+        when(bloqueoProcesoService.ejecutarConBloqueo(anyString(), any(Duration.class), any()))
+            .thenReturn(Optional.empty());
+        when(indiceICLRepository.findUltimaFecha()).thenReturn(Optional.of(HOY));
+        when(indiceICLRepository.findByFechaAfterOrderByFechaAsc(ultimaEnMemoria)).thenReturn(List.of(
+            new IndiceICL(HOY, new BigDecimal("22.000000"))
+        ));
+
+        int guardados = service.sincronizarIndicesConBloqueo();
+
+        assertEquals(0, guardados);
+        assertEquals(HOY, iclIndex.getUltimaFecha());
+        verifyNoInteractions(bcraApiClient);
+        verify(indiceICLRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void obtenerTasasAumentoICL_resuelveEnMemoriaYConsultaFaltantesEnUnLote() {
+        LocalDate antigua = LocalDate.of(2019, 3, 1);
+        LocalDate inicio = LocalDate.of(2024, 3, 1);
+        LocalDate fin = LocalDate.of(2025, 3, 1);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(inicio, new BigDecimal("10.000000")),
+            new IndiceICL(fin, new BigDecimal("15.000000")),
+            new IndiceICL(HOY, new BigDecimal("15.500000"))
+        ));
+
+        RangoFechasICL enMemoria = new RangoFechasICL(inicio, fin);
+        RangoFechasICL faltante = new RangoFechasICL(antigua, inicio);
+        when(bcraApiClient.obtenerTasasAumentoICLAsync(List.of(faltante)))
+            .thenReturn(CompletableFuture.completedFuture(Map.of(faltante, new BigDecimal("3"))));
+
+        Map<RangoFechasICL, BigDecimal> tasas = service.obtenerTasasAumentoICL(List.of(enMemoria, faltante));
+
+        assertEquals(0, new BigDecimal("1.5").compareTo(tasas.get(enMemoria)));
+        assertEquals(0, new BigDecimal("3").compareTo(tasas.get(faltante)));
+        verify(bcraApiClient, times(1)).obtenerTasasAumentoICLAsync(anyCollection());
+    }
+
+    @Test
+    void obtenerTasasAumentoICL_falloDelLote_omiteRangosSinTasa() {
+        LocalDate inicio = LocalDate.of(2024, 3, 1);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(inicio, new BigDecimal("10.000000")),
+            new IndiceICL(HOY, new BigDecimal("15.500000"))
+        ));
+        RangoFechasICL faltante = new RangoFechasICL(LocalDate.of(2019, 3, 1), inicio);
+        when(bcraApiClient.obtenerTasasAumentoICLAsync(anyCollection()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("BCRA caído")));
+
+        Map<RangoFechasICL, BigDecimal> tasas = service.obtenerTasasAumentoICL(List.of(faltante));
+
+        assertTrue(tasas.isEmpty());
+    }
+
+    @Test
+    void obtenerTasaAumentoICL_fechaSinValorCercano_lanzaExcepcionSinSincronizar() {
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(LocalDate.of(2024, 12, 20), new BigDecimal("18.000000")),
+            new IndiceICL(LocalDate.of(2025, 3, 9), new BigDecimal("20.000000"))
+        ));
+
+        assertThrows(BusinessException.class,
+            () -> service.obtenerTasaAumentoICL("2025-01-04", "2025-03-09"));
+        verifyNoInteractions(bcraApiClient);
+    }
+
+    @Test
+    void obtenerTasaAumentoICL_fechaSinPublicacion_usaDiaAnterior() {
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(LocalDate.of(2025, 1, 3), new BigDecimal("16.000000")),
+            new IndiceICL(LocalDate.of(2025, 3, 7), new BigDecimal("20.000000")),
+            new IndiceICL(HOY, new BigDecimal("20.100000"))
+        ));
+
+        // 04/01/2025 y 08/03/2025 son sábados
+        BigDecimal tasa = service.obtenerTasaAumentoICL("2025-01-04", "2025-03-08");
+
+        assertEquals(0, new BigDecimal("1.25").compareTo(tasa));
+        verifyNoInteractions(bcraApiClient);
+    }
+
+    @Test
+    void sincronizarIndices_seriePorVentanas_guardaSoloFechasNuevas() {
+        LocalDate ultima = LocalDate.of(2023, 12, 31);
+        when(indiceICLRepository.findUltimaFecha()).thenReturn(Optional.of(ultima));
+
+        SortedMap<LocalDate, BigDecimal> primeraVentana = new TreeMap<>();
+        primeraVentana.put(LocalDate.of(2024, 1, 1), new BigDecimal("12.0"));
+        primeraVentana.put(LocalDate.of(2024, 12, 30), new BigDecimal("18.0"));
+        SortedMap<LocalDate, BigDecimal> segundaVentana = new TreeMap<>();
+        segundaVentana.put(LocalDate.of(2025, 3, 10), new BigDecimal("19.0"));
+
+        when(bcraApiClient.obtenerSerieICL(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 30)))
+            .thenReturn(primeraVentana);
+        when(bcraApiClient.obtenerSerieICL(LocalDate.of(2024, 12, 31), HOY))
+            .thenReturn(segundaVentana);
+
+        int guardados = service.sincronizarIndices();
+
+        assertEquals(3, guardados);
+        verify(indiceICLRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void sincronizarIndices_serieAlDia_noConsultaBCRA() {
+        when(indiceICLRepository.findUltimaFecha()).thenReturn(Optional.of(HOY));
+
+        int guardados = service.sincronizarIndices();
+
+        assertEquals(0, guardados);
+        verifyNoInteractions(bcraApiClient);
+        verify(indiceICLRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void sincronizarIndices_otraInstanciaSincronizo_actualizaIndiceDesdeLaBase() {
+        LocalDate inicio = LocalDate.of(2025, 2, 3);
+        LocalDate ultimaEnMemoria = LocalDate.of(2025, 3, 3);
+        when(indiceICLRepository.findAllByOrderByFechaAsc()).thenReturn(List.of(
+            new IndiceICL(inicio, new BigDecimal("20.000000")),
+            new IndiceICL(ultimaEnMemoria, new BigDecimal("21.000000"))
+        ));
+        service.cargarIndiceEnMemoria();
+
+        // Otra instancia guardó los valores hasta hoy: la base está al día y la memoria no
+        when(indiceICLRepository.findUltimaFecha()).thenReturn(Optional.of(HOY));
+        when(indiceICLRepository.findByFechaAfterOrderByFechaAsc(ultimaEnMemoria)).thenReturn(List.of(
+            new IndiceICL(HOY, new BigDecimal("22.000000"))
+        ));
+
+        int guardados = service.sincronizarIndices();
+        BigDecimal tasa = service.obtenerTasaAumentoICL("2025-02-03", "2025-03-10");
+
+        assertEquals(0, guardados);
+        assertEquals(HOY, iclIndex.getUltimaFecha());
+        assertEquals(0, new BigDecimal("1.1").compareTo(tasa));
+        verifyNoInteractions(bcraApiClient);
+        verify(indiceICLRepository, never()).saveAll(anyList());
+    }
+}
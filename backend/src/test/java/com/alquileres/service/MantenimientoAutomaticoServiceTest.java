@@ -0,0 +1,139 @@
+package com.alquileres.service;
+
+import com.alquileres.event.MantenimientoPendienteEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para MantenimientoAutomaticoService
+ * Prueba que los eventos de login se agrupan en un único trabajador y que cada proceso
+ * se ejecuta como máximo una vez por período
+ */
+@ExtendWith(MockitoExtension.class)
+class MantenimientoAutomaticoServiceTest {
+
+    @Mock
+    private ContratoActualizacionService contratoActualizacionService;
+
+    @Mock
+    private ServicioActualizacionService servicioActualizacionService;
+
+    @Mock
+    private AlquilerActualizacionService alquilerActualizacionService;
+
+    @Mock
+    private BloqueoProcesoService bloqueoProcesoService;
+
+    @Mock
+    private ClockService clockService;
+
+    private final List<Runnable> tareasEncoladas = new ArrayList<>();
+
+    private MantenimientoAutomaticoService service;
+
+    @BeforeEach
+    void setUp() {
+        Executor executor = tareasEncoladas::add;
+        service = new MantenimientoAutomaticoService(contratoActualizacionService, servicioActualizacionService,
+            alquilerActualizacionService, bloqueoProcesoService, clockService, executor);
+        lenient().when(clockService.getCurrentDate()).thenReturn(LocalDate.of(2025, 3, 1));
+        lenient().when(bloqueoProcesoService.ejecutarConBloqueo(anyString(), any(Duration.class), any()))
+            .thenAnswer(invocation -> Optional.ofNullable(invocation.<Supplier<?>>getArgument(2).get()));
+        lenient().when(servicioActualizacionService.getUltimoMesProcesado()).thenReturn("03/2025");
+        lenient().when(alquilerActualizacionService.getUltimoMesProcesado()).thenReturn("03/2025");
+    }
+
+    @Test
+    void alSolicitarMantenimiento_variosLogins_encolaUnSoloTrabajador() {
+        service.alSolicitarMantenimiento(new MantenimientoPendienteEvent("LOGIN:a"));
+        service.alSolicitarMantenimiento(new MantenimientoPendienteEvent("LOGIN:b"));
+        service.alSolicitarMantenimiento(new MantenimientoPendienteEvent("LOGIN:c"));
+
+        assertEquals(1, tareasEncoladas.size());
+        verifyNoInteractions(contratoActualizacionService, servicioActualizacionService, alquilerActualizacionService);
+
+        tareasEncoladas.get(0).run();
+
+        verify(contratoActualizacionService).actualizarContratosVencidos();
+        verify(servicioActualizacionService).procesarPagosPendientes();
+        verify(alquilerActualizacionService).procesarAlquileresPendientes();
+    }
+
+    @Test
+    void solicitarMantenimiento_periodoCompletado_noEncolaNada() {
+        service.solicitarMantenimiento();
+        tareasEncoladas.get(0).run();
+
+        assertFalse(service.solicitarMantenimiento());
+        assertEquals(1, tareasEncoladas.size());
+    }
+
+    @Test
+    void solicitarMantenimiento_nuevoDia_soloRepiteLosContratosVencidos() {
+        service.solicitarMantenimiento();
+        tareasEncoladas.get(0).run();
+        when(clockService.getCurrentDate()).thenReturn(LocalDate.of(2025, 3, 2));
+
+        assertTrue(service.solicitarMantenimiento());
+        tareasEncoladas.get(1).run();
+
+        verify(contratoActualizacionService, times(2)).actualizarContratosVencidos();
+        verify(servicioActualizacionService, times(1)).procesarPagosPendientes();
+        verify(alquilerActualizacionService, times(1)).procesarAlquileresPendientes();
+    }
+
+    @Test
+    void solicitarMantenimiento_procesoIncompleto_seReintentaEnElProximoLogin() {
+        when(alquilerActualizacionService.getUltimoMesProcesado()).thenReturn("02/2025");
+
+        service.solicitarMantenimiento();
+        tareasEncoladas.get(0).run();
+        assertTrue(service.solicitarMantenimiento());
+        tareasEncoladas.get(1).run();
+
+        verify(alquilerActualizacionService, times(2)).procesarAlquileresPendientes();
+        verify(servicioActualizacionService, times(1)).procesarPagosPendientes();
+    }
+
+    @Test
+    void solicitarMantenimiento_loginDuranteLaEjecucion_haceUnaPasadaMas() {
+        when(contratoActualizacionService.actualizarContratosVencidos()).thenAnswer(invocation -> {
+            // Llega otro login mientras el trabajador está corriendo
+            assertFalse(service.solicitarMantenimiento());
+            return 0;
+        }).thenReturn(0);
+        when(alquilerActualizacionService.getUltimoMesProcesado()).thenReturn("02/2025");
+
+        service.solicitarMantenimiento();
+        tareasEncoladas.get(0).run();
+
+        assertEquals(1, tareasEncoladas.size());
+        verify(alquilerActualizacionService, times(2)).procesarAlquileresPendientes();
+    }
+
+    @Test
+    void solicitarMantenimiento_otraInstanciaTieneElBloqueo_noMarcaElPeriodo() {
+        when(bloqueoProcesoService.ejecutarConBloqueo(eq(BloqueoProcesoService.CONTRATOS_VENCIDOS), any(Duration.class), any()))
+            .thenReturn(Optional.empty());
+
+        service.solicitarMantenimiento();
+        tareasEncoladas.get(0).run();
+
+        assertTrue(service.solicitarMantenimiento());
+    }
+}
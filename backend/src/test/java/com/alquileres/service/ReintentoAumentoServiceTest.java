@@ -0,0 +1,125 @@
+package com.alquileres.service;
+
+import com.alquileres.dto.ReintentoAumentoJobDTO;
+import com.alquileres.exception.BusinessException;
+import com.alquileres.repository.AlquilerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ReintentoAumentoService
+ * Prueba el procesamiento de reintentos vencidos y el manejo de jobs asíncronos
+ */
+@ExtendWith(MockitoExtension.class)
+class ReintentoAumentoServiceTest {
+
+    @Mock
+    private AlquilerRepository alquilerRepository;
+
+    @Mock
+    private AlquilerService alquilerService;
+
+    @Mock
+    private ClockService clockService;
+
+    @Mock
+    private BloqueoProcesoService bloqueoProcesoService;
+
+    private final List<Runnable> tareasEncoladas = new ArrayList<>();
+
+    private ReintentoAumentoService service;
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        Executor executor = tareasEncoladas::add;
+        service = new ReintentoAumentoService(alquilerRepository, alquilerService, clockService,
+            bloqueoProcesoService, executor);
+        lenient().when(clockService.getCurrentDateTime()).thenReturn(AHORA);
+        // Por defecto esta instancia obtiene el bloqueo y ejecuta la tarea
+        lenient().when(bloqueoProcesoService.ejecutarConBloqueo(anyString(), any(Duration.class), any()))
+            .thenAnswer(invocation -> Optional.ofNullable(invocation.getArgument(2, Supplier.class).get()));
+    }
+
+    @Test
+    void reintentarPendientes_procesaCadaAlquilerVencido() {
+        when(alquilerRepository.findIdsParaReintentoAumento(AHORA)).thenReturn(List.of(1L, 2L, 3L));
+        when(alquilerService.reintentarAumentoAutomatico(1L)).thenReturn(true);
+        when(alquilerService.reintentarAumentoAutomatico(2L)).thenReturn(false);
+        when(alquilerService.reintentarAumentoAutomatico(3L)).thenThrow(new RuntimeException("rollback"));
+
+        ReintentoAumentoJobDTO job = service.reintentarPendientes();
+
+        assertEquals(ReintentoAumentoJobDTO.COMPLETADO, job.getEstado());
+        assertEquals(3, job.getProcesados());
+        assertEquals(1, job.getActualizados());
+        assertEquals(2, job.getFallidos());
+        verify(alquilerService).registrarFalloReintentoAumento(3L, "rollback");
+        verify(alquilerService, never()).registrarFalloReintentoAumento(eq(2L), anyString());
+    }
+
+    @Test
+    void iniciarReintentoAsincrono_devuelveJobEnCursoYNoDuplica() {
+        ReintentoAumentoJobDTO primero = service.iniciarReintentoAsincrono();
+        ReintentoAumentoJobDTO segundo = service.iniciarReintentoAsincrono();
+
+        assertEquals(ReintentoAumentoJobDTO.EN_CURSO, primero.getEstado());
+        assertEquals(primero.getJobId(), segundo.getJobId());
+        assertEquals(1, tareasEncoladas.size());
+        // Mientras corre el asíncrono el scheduler no inicia otro
+        assertNull(service.reintentarPendientes());
+    }
+
+    @Test
+    void iniciarReintentoAsincrono_bloqueoEnOtraInstancia_terminaOmitidoSinProcesar() {
+        when(bloqueoProcesoService.ejecutarConBloqueo(anyString(), any(Duration.class), any()))
+            .thenReturn(Optional.empty());
+
+        String jobId = service.iniciarReintentoAsincrono().getJobId();
+        tareasEncoladas.get(0).run();
+
+        ReintentoAumentoJobDTO job = service.obtenerJob(jobId);
+        assertEquals(ReintentoAumentoJobDTO.OMITIDO, job.getEstado());
+        assertNotNull(job.getFechaFin());
+        verifyNoInteractions(alquilerRepository, alquilerService);
+        // El job terminado ya no bloquea un nuevo pedido
+        assertNotEquals(jobId, service.iniciarReintentoAsincrono().getJobId());
+    }
+
+    @Test
+    void iniciarReintentoAsincrono_alTerminar_actualizaEstado() {
+        when(alquilerRepository.findIdsParaReintentoAumento(AHORA)).thenReturn(List.of(7L));
+        when(alquilerService.reintentarAumentoAutomatico(7L)).thenReturn(true);
+
+        String jobId = service.iniciarReintentoAsincrono().getJobId();
+        tareasEncoladas.get(0).run();
+
+        ReintentoAumentoJobDTO job = service.obtenerJob(jobId);
+        assertEquals(ReintentoAumentoJobDTO.COMPLETADO, job.getEstado());
+        assertEquals(1, job.getActualizados());
+        assertNotNull(job.getFechaFin());
+        verify(bloqueoProcesoService).ejecutarConBloqueo(eq(BloqueoProcesoService.REINTENTO_AUMENTOS),
+            eq(BloqueoProcesoService.DURACION_REINTENTO_AUMENTOS), any());
+    }
+
+    @Test
+    void obtenerJob_inexistente_lanzaExcepcion() {
+        assertThrows(BusinessException.class, () -> service.obtenerJob("no-existe"));
+    }
+}
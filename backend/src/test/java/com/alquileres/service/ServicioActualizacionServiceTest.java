@@ -0,0 +1,159 @@
+package com.alquileres.service;
+
+import com.alquileres.model.ConfiguracionSistema;
+import com.alquileres.model.PagoServicio;
+import com.alquileres.model.ServicioContrato;
+import com.alquileres.repository.ConfiguracionSistemaRepository;
+import com.alquileres.repository.ContratoRepository;
+import com.alquileres.repository.PagoServicioRepository;
+import com.alquileres.repository.ServicioContratoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ServicioActualizacionService
+ * Prueba la generación en bloque de facturas: verificación de existentes en una consulta,
+ * inserción conjunta y avance de fechas con un único UPDATE
+ */
+@ExtendWith(MockitoExtension.class)
+class ServicioActualizacionServiceTest {
+
+    @Mock
+    private PagoServicioRepository pagoServicioRepository;
+
+    @Mock
+    private ConfiguracionSistemaRepository configuracionSistemaRepository;
+
+    @Mock
+    private ServicioContratoRepository servicioContratoRepository;
+
+    @Mock
+    private ContratoRepository contratoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ClockService clockService;
+
+    @Captor
+    private ArgumentCaptor<List<PagoServicio>> facturas;
+
+    @Captor
+    private ArgumentCaptor<ConfiguracionSistema> config;
+
+    private ServicioActualizacionService service;
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 1);
+
+    @BeforeEach
+    void setUp() {
+        EjecutorParticionado ejecutorParticionado = new EjecutorParticionado(transactionManager, clockService, 4, 5);
+        service = new ServicioActualizacionService(pagoServicioRepository, configuracionSistemaRepository,
+            servicioContratoRepository, contratoRepository, ejecutorParticionado, clockService);
+        lenient().when(clockService.getCurrentDate()).thenReturn(HOY);
+        lenient().when(clockService.getCurrentDateTime()).thenReturn(HOY.atTime(0, 3));
+    }
+
+    @Test
+    void generarFacturas_omiteLosPeriodosYaFacturados() {
+        List<ServicioContrato> servicios = crearServicios(3);
+        when(pagoServicioRepository.findPeriodosFacturados(anyCollection(), anyCollection()))
+            .thenReturn(Collections.singletonList(new Object[]{2, "03/2025"}));
+
+        int generadas = service.generarFacturas(servicios);
+
+        assertEquals(2, generadas);
+        verify(pagoServicioRepository).saveAll(facturas.capture());
+        assertEquals(List.of(1, 3), facturas.getValue().stream().map(p -> p.getServicioContrato().getId()).toList());
+        assertTrue(facturas.getValue().stream().allMatch(p -> "03/2025".equals(p.getPeriodo()) && !p.getEstaPagado()));
+        // Las fechas avanzan para todos, también para el que ya tenía factura
+        verify(servicioContratoRepository).avanzarFechasDePago(
+            eq(Set.of(1, 2, 3)), eq(LocalDate.of(2025, 4, 1)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void generarFacturas_loteGrande_usaTresSentencias() {
+        List<ServicioContrato> servicios = crearServicios(200);
+        when(pagoServicioRepository.findPeriodosFacturados(anyCollection(), anyCollection()))
+            .thenReturn(Collections.emptyList());
+
+        assertEquals(200, service.generarFacturas(servicios));
+
+        verify(pagoServicioRepository).findPeriodosFacturados(anyCollection(), eq(Set.of("03/2025")));
+        verify(pagoServicioRepository).saveAll(argThat(lote -> ((List<?>) lote).size() == 200));
+        verify(servicioContratoRepository).avanzarFechasDePago(anyCollection(), any(), any());
+        verifyNoMoreInteractions(pagoServicioRepository, servicioContratoRepository);
+    }
+
+    @Test
+    void generarFacturas_sinServicios_noConsulta() {
+        assertEquals(0, service.generarFacturas(Collections.emptyList()));
+
+        verifyNoInteractions(pagoServicioRepository, servicioContratoRepository);
+    }
+
+    @Test
+    void procesarPagosPendientes_generaPorParticionYMarcaElMes() {
+        when(configuracionSistemaRepository.findByClave(anyString())).thenReturn(Optional.empty());
+        List<ServicioContrato> servicios = crearServicios(2);
+        when(contratoRepository.findIdsContratosVigentes()).thenReturn(List.of(1L, 2L));
+        when(servicioContratoRepository.findServiciosConPagosPendientesEntreContratos(HOY, 0L, Long.MAX_VALUE))
+            .thenReturn(servicios);
+        when(pagoServicioRepository.findPeriodosFacturados(anyCollection(), anyCollection()))
+            .thenReturn(Collections.emptyList());
+
+        assertEquals(2, service.procesarPagosPendientes());
+
+        verify(configuracionSistemaRepository).save(config.capture());
+        assertEquals("03/2025", config.getValue().getValor());
+    }
+
+    @Test
+    void procesarPagosPendientes_falloAlInsertar_noMarcaElMes() {
+        when(configuracionSistemaRepository.findByClave(anyString())).thenReturn(Optional.empty());
+        when(contratoRepository.findIdsContratosVigentes()).thenReturn(List.of(1L));
+        when(servicioContratoRepository.findServiciosConPagosPendientesEntreContratos(any(), anyLong(), anyLong()))
+            .thenReturn(crearServicios(1));
+        when(pagoServicioRepository.findPeriodosFacturados(anyCollection(), anyCollection()))
+            .thenReturn(Collections.emptyList());
+        when(pagoServicioRepository.saveAll(anyList())).thenThrow(new IllegalStateException("conexión perdida"));
+
+        assertEquals(0, service.procesarPagosPendientes());
+
+        verify(transactionManager).rollback(any());
+        verify(servicioContratoRepository, never()).avanzarFechasDePago(any(), any(), any());
+        verify(configuracionSistemaRepository, never()).save(any());
+    }
+
+    static List<ServicioContrato> crearServicios(int cantidad) {
+        List<ServicioContrato> servicios = new ArrayList<>();
+        for (int id = 1; id <= cantidad; id++) {
+            ServicioContrato servicio = new ServicioContrato();
+            servicio.setId(id);
+            servicio.setEsActivo(true);
+            servicio.setEsAnual(id % 12 == 0);
+            servicio.setProximoPago(HOY);
+            servicios.add(servicio);
+        }
+        return servicios;
+    }
+}
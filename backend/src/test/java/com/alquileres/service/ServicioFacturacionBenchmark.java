@@ -0,0 +1,142 @@
+package com.alquileres.service;
+
+import com.alquileres.model.Contrato;
+import com.alquileres.model.ServicioContrato;
+import com.alquileres.model.TipoServicio;
+import com.alquileres.repository.ConfiguracionSistemaRepository;
+import com.alquileres.repository.ContratoRepository;
+import com.alquileres.repository.PagoServicioRepository;
+import com.alquileres.repository.ServicioContratoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Comparación de la facturación servicio por servicio con la facturación en bloque para 50.000
+ * servicios. Los repositorios cuentan las sentencias que enviarían a la base de datos; el tiempo
+ * total se estima sumando el costo de CPU medido y un ida y vuelta de red por sentencia.
+ *
+ * No corre con el build normal: mvn test -Dtest=ServicioFacturacionBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ServicioFacturacionBenchmark {
+
+    private static final int SERVICIOS = 50_000;
+    private static final int TAMANIO_LOTE = ServicioActualizacionService.TAMANIO_PARTICION;
+    private static final double MS_POR_SENTENCIA = 1.0;
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 1);
+
+    private final AtomicLong sentencias = new AtomicLong();
+
+    @Test
+    void compararFacturacion() {
+        ServicioActualizacionService service = crearServicio();
+        List<ServicioContrato> servicios = sembrarServicios();
+
+        // Servicio por servicio: verificar, insertar la factura y guardar el servicio
+        sentencias.set(0);
+        long inicio = System.nanoTime();
+        int generadasPorServicio = 0;
+        for (ServicioContrato servicio : servicios) {
+            servicio.setProximoPago(HOY);
+            if (service.generarFacturaParaServicio(servicio)) {
+                generadasPorServicio++;
+            }
+        }
+        long cpuPorServicio = System.nanoTime() - inicio;
+        long sentenciasPorServicio = sentencias.get();
+
+        // En bloque: una consulta, un saveAll y un UPDATE por lote
+        sentencias.set(0);
+        inicio = System.nanoTime();
+        int generadasEnBloque = 0;
+        for (int desde = 0; desde < servicios.size(); desde += TAMANIO_LOTE) {
+            generadasEnBloque += service.generarFacturas(servicios.subList(desde, Math.min(desde + TAMANIO_LOTE, servicios.size())));
+        }
+        long cpuEnBloque = System.nanoTime() - inicio;
+        long sentenciasEnBloque = sentencias.get();
+
+        System.out.printf("%,d servicios | por servicio: %,d sentencias, %,.0f ms estimados | en bloque: %,d sentencias, %,.0f ms estimados%n",
+            SERVICIOS, sentenciasPorServicio, estimarMs(cpuPorServicio, sentenciasPorServicio),
+            sentenciasEnBloque, estimarMs(cpuEnBloque, sentenciasEnBloque));
+
+        assertEquals(SERVICIOS, generadasPorServicio);
+        assertEquals(SERVICIOS, generadasEnBloque);
+        assertEquals(3L * SERVICIOS, sentenciasPorServicio);
+        // Por lote: consulta + ceil(200 / 20) inserts agrupados + UPDATE
+        assertEquals((long) (SERVICIOS / TAMANIO_LOTE) * (2 + TAMANIO_LOTE / 20), sentenciasEnBloque);
+    }
+
+    private ServicioActualizacionService crearServicio() {
+        // Sin registrar invocaciones: son cientos de miles de llamadas
+        Answer<Object> contarSentencia = invocacion -> {
+            sentencias.incrementAndGet();
+            return invocacion.getMethod().getName().startsWith("save") ? invocacion.getArgument(0) : null;
+        };
+        PagoServicioRepository pagoServicioRepository = mock(PagoServicioRepository.class, withSettings().stubOnly());
+        ServicioContratoRepository servicioContratoRepository = mock(ServicioContratoRepository.class, withSettings().stubOnly());
+        when(pagoServicioRepository.existsByServicioContratoIdAndPeriodo(any(), any())).thenAnswer(invocacion -> {
+            sentencias.incrementAndGet();
+            return false;
+        });
+        when(pagoServicioRepository.findPeriodosFacturados(anyCollection(), anyCollection())).thenAnswer(invocacion -> {
+            sentencias.incrementAndGet();
+            return Collections.emptyList();
+        });
+        when(pagoServicioRepository.save(any())).thenAnswer(contarSentencia);
+        when(pagoServicioRepository.saveAll(anyList())).thenAnswer(invocacion -> {
+            // Con hibernate.jdbc.batch_size = 20 cada lote de inserts es un ida y vuelta
+            List<?> facturas = invocacion.getArgument(0);
+            sentencias.addAndGet((facturas.size() + 19) / 20);
+            return facturas;
+        });
+        when(servicioContratoRepository.save(any())).thenAnswer(contarSentencia);
+        when(servicioContratoRepository.avanzarFechasDePago(anyCollection(), any(), any())).thenAnswer(invocacion -> {
+            sentencias.incrementAndGet();
+            return invocacion.<Collection<?>>getArgument(0).size();
+        });
+
+        ClockService clockService = mock(ClockService.class, withSettings().stubOnly());
+        when(clockService.getCurrentDate()).thenReturn(HOY);
+        when(clockService.getCurrentDateTime()).thenReturn(HOY.atStartOfDay());
+        EjecutorParticionado ejecutorParticionado = new EjecutorParticionado(
+            mock(PlatformTransactionManager.class), clockService, 4, 5);
+
+        return new ServicioActualizacionService(pagoServicioRepository, mock(ConfiguracionSistemaRepository.class),
+            servicioContratoRepository, mock(ContratoRepository.class), ejecutorParticionado, clockService);
+    }
+
+    private static List<ServicioContrato> sembrarServicios() {
+        TipoServicio tipo = new TipoServicio("Luz");
+        List<ServicioContrato> servicios = new ArrayList<>(SERVICIOS);
+        for (int id = 1; id <= SERVICIOS; id++) {
+            Contrato contrato = new Contrato();
+            contrato.setId((long) id);
+            ServicioContrato servicio = new ServicioContrato(contrato, tipo);
+            servicio.setId(id);
+            servicio.setEsActivo(true);
+            servicio.setEsAnual(id % 12 == 0);
+            servicio.setProximoPago(HOY);
+            servicio.setUpdatedAt(LocalDateTime.now());
+            servicios.add(servicio);
+        }
+        return servicios;
+    }
+
+    private static double estimarMs(long cpuNanos, long cantidadSentencias) {
+        return cpuNanos / 1_000_000.0 + cantidadSentencias * MS_POR_SENTENCIA;
+    }
+}
@@ -0,0 +1,92 @@
+package com.alquileres.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para CircuitBreaker
+ * Prueba la apertura por tasa de fallos, el rechazo rápido y la llamada de prueba en semiabierto
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong ahora = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker("test", 4, 4, 0.5, Duration.ofSeconds(30), ahora::get);
+    }
+
+    @Test
+    void registrarFallo_menosLlamadasQueElMinimo_noAbre() {
+        circuitBreaker.registrarFallo();
+        circuitBreaker.registrarFallo();
+        circuitBreaker.registrarFallo();
+
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuitBreaker.getEstado());
+        assertTrue(circuitBreaker.permitirLlamada());
+    }
+
+    @Test
+    void registrarFallo_superaUmbral_abreYRechazaLlamadas() {
+        circuitBreaker.registrarExito();
+        circuitBreaker.registrarExito();
+        circuitBreaker.registrarFallo();
+        circuitBreaker.registrarFallo();
+
+        assertEquals(CircuitBreaker.Estado.ABIERTO, circuitBreaker.getEstado());
+        assertFalse(circuitBreaker.permitirLlamada());
+        assertEquals(1L, circuitBreaker.obtenerResumen().get("llamadasRechazadas"));
+    }
+
+    @Test
+    void ventana_descartaResultadosAntiguos() {
+        circuitBreaker.registrarFallo();
+        circuitBreaker.registrarExito();
+        circuitBreaker.registrarExito();
+        circuitBreaker.registrarExito();
+        // El primer fallo sale de la ventana: 1 fallo de 4
+        circuitBreaker.registrarFallo();
+
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuitBreaker.getEstado());
+    }
+
+    @Test
+    void semiAbierto_permiteUnaSolaPruebaYCierraSiFunciona() {
+        abrirCircuito();
+        ahora.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(circuitBreaker.permitirLlamada());
+        assertEquals(CircuitBreaker.Estado.SEMI_ABIERTO, circuitBreaker.getEstado());
+        assertFalse(circuitBreaker.permitirLlamada());
+
+        circuitBreaker.registrarExito();
+
+        assertEquals(CircuitBreaker.Estado.CERRADO, circuitBreaker.getEstado());
+        assertTrue(circuitBreaker.permitirLlamada());
+    }
+
+    @Test
+    void semiAbierto_pruebaFallida_vuelveAAbrir() {
+        abrirCircuito();
+        ahora.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(circuitBreaker.permitirLlamada());
+        circuitBreaker.registrarFallo();
+
+        assertEquals(CircuitBreaker.Estado.ABIERTO, circuitBreaker.getEstado());
+        assertFalse(circuitBreaker.permitirLlamada());
+    }
+
+    private void abrirCircuito() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.registrarFallo();
+        }
+        assertEquals(CircuitBreaker.Estado.ABIERTO, circuitBreaker.getEstado());
+    }
+}
@@ -0,0 +1,71 @@
+package com.alquileres.util;
+
+import com.alquileres.model.Alquiler;
+import com.alquileres.model.Contrato;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para la conversión de fechas a LocalDate
+ * Prueba los formatos aceptados, la clave de período yyyyMM y el marcado de contratos sin más aumentos
+ */
+class FechaUtilTest {
+
+    @Test
+    void convertirFechaUsuarioToLocalDate_aceptaFormatoUsuarioEIso() {
+        assertEquals(LocalDate.of(2024, 12, 25), FechaUtil.convertirFechaUsuarioToLocalDate("25/12/2024"));
+        assertEquals(LocalDate.of(2024, 12, 25), FechaUtil.convertirFechaUsuarioToLocalDate("2024-12-25"));
+        assertEquals(LocalDate.of(2024, 12, 25), FechaUtil.convertirFechaUsuarioToLocalDate("2024-12-25T00:00:00"));
+    }
+
+    @Test
+    void convertirFechaUsuarioToLocalDate_vacioDevuelveNull() {
+        assertNull(FechaUtil.convertirFechaUsuarioToLocalDate(null));
+        assertNull(FechaUtil.convertirFechaUsuarioToLocalDate("  "));
+    }
+
+    @Test
+    void convertirFechaUsuarioToLocalDate_formatoInvalido_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> FechaUtil.convertirFechaUsuarioToLocalDate("No aumenta más"));
+        assertThrows(IllegalArgumentException.class, () -> FechaUtil.convertirFechaUsuarioToLocalDate("2024/12/25"));
+    }
+
+    @Test
+    void calcularPeriodoKey_fechaYPeriodo_devuelvenAnioMes() {
+        assertEquals(202503, FechaUtil.calcularPeriodoKey(LocalDate.of(2025, 3, 31)));
+        assertEquals(202512, FechaUtil.calcularPeriodoKey("12/2025"));
+        // A diferencia del texto mm/aaaa, la clave ordena cronológicamente
+        assertTrue(FechaUtil.calcularPeriodoKey("12/2024") < FechaUtil.calcularPeriodoKey("01/2025"));
+        assertNull(FechaUtil.calcularPeriodoKey((LocalDate) null));
+        assertNull(FechaUtil.calcularPeriodoKey("13/2025"));
+    }
+
+    @Test
+    void prePersist_completaLaClaveDePeriodo() {
+        Alquiler alquiler = new Alquiler(new Contrato(), LocalDate.of(2025, 3, 10), new BigDecimal("1000"));
+        alquiler.prePersist();
+        assertEquals(202503, alquiler.getPeriodoKey());
+
+        alquiler.setFechaVencimientoPago(LocalDate.of(2025, 4, 10));
+        alquiler.preUpdate();
+        assertEquals(202504, alquiler.getPeriodoKey());
+    }
+
+    @Test
+    void programarProximoAumento_superaFechaFin_marcaSinMasAumentos() {
+        Contrato contrato = new Contrato();
+        contrato.setFechaFin(LocalDate.of(2025, 6, 30));
+
+        contrato.programarProximoAumento(LocalDate.of(2025, 6, 1));
+        assertEquals(LocalDate.of(2025, 6, 1), contrato.getFechaAumento());
+        assertFalse(contrato.getSinMasAumentos());
+
+        contrato.programarProximoAumento(LocalDate.of(2025, 9, 1));
+        assertNull(contrato.getFechaAumento());
+        assertTrue(contrato.getSinMasAumentos());
+    }
+}
@@ -0,0 +1,118 @@
+package com.alquileres.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comparación del parser en árbol (readTree) con el parser en streaming para respuestas del ICL
+ * de 1, 5 y 10 años. Mide latencia media y bytes asignados por lectura en el hilo actual.
+ *
+ * No corre con el build normal: mvn test -Dtest=ICLResponseParserBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ICLResponseParserBenchmark {
+
+    private static final int CALENTAMIENTO = 2000;
+    private static final int ITERACIONES = 1000;
+    private static final LocalDate DESDE = LocalDate.of(2015, 1, 1);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compararParsers() {
+        for (int anios : new int[] {1, 5, 10}) {
+            byte[] respuesta = generarRespuesta(DESDE, DESDE.plusYears(anios));
+            Set<LocalDate> extremos = Set.of(DESDE, DESDE.plusYears(anios).minusDays(1));
+
+            Resultado arbol = medir(() -> parsearArbol(respuesta, extremos));
+            Resultado streaming = medir(() -> parsearStreaming(respuesta, extremos));
+
+            System.out.printf("ICL %2d años (%,d bytes): árbol %,8d ns / %,10d B | streaming %,8d ns / %,10d B%n",
+                anios, respuesta.length, arbol.nanos(), arbol.bytes(), streaming.nanos(), streaming.bytes());
+            Map<LocalDate, BigDecimal> esperado = parsearArbol(respuesta, extremos);
+            Map<LocalDate, BigDecimal> obtenido = parsearStreaming(respuesta, extremos);
+            for (LocalDate fecha : extremos) {
+                assertEquals(0, esperado.get(fecha).compareTo(obtenido.get(fecha)));
+            }
+        }
+    }
+
+    /**
+     * Lectura como la hacía BCRAApiClient antes: árbol completo y mapa con todos los días
+     */
+    private Map<LocalDate, BigDecimal> parsearArbol(byte[] respuesta, Set<LocalDate> fechas) {
+        try {
+            JsonNode detalle = objectMapper.readTree(respuesta).get("results").get(0).get("detalle");
+            Map<String, BigDecimal> valores = new HashMap<>();
+            for (JsonNode nodo : detalle) {
+                valores.put(nodo.get("fecha").asText(), new BigDecimal(nodo.get("valor").asText()));
+            }
+            Map<LocalDate, BigDecimal> resultado = new HashMap<>();
+            for (LocalDate fecha : fechas) {
+                resultado.put(fecha, valores.get(fecha.toString()));
+            }
+            return resultado;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<LocalDate, BigDecimal> parsearStreaming(byte[] respuesta, Set<LocalDate> fechas) {
+        try {
+            return new HashMap<>(ICLResponseParser.parsear(new ByteArrayInputStream(respuesta), fechas::contains));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Resultado medir(Supplier<Object> lectura) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            lectura.get();
+        }
+
+        com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().threadId();
+        long bytesInicio = threadMXBean.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            lectura.get();
+        }
+        long nanos = (System.nanoTime() - inicio) / ITERACIONES;
+        long bytes = (threadMXBean.getThreadAllocatedBytes(hilo) - bytesInicio) / ITERACIONES;
+        return new Resultado(nanos, bytes);
+    }
+
+    private static byte[] generarRespuesta(LocalDate desde, LocalDate hasta) {
+        StringBuilder json = new StringBuilder("{\"status\":200,\"results\":[{\"idVariable\":40,\"detalle\":[");
+        double valor = 1.0;
+        // El BCRA devuelve la serie de la fecha más reciente a la más antigua
+        for (LocalDate fecha = hasta.minusDays(1); !fecha.isBefore(desde); fecha = fecha.minusDays(1)) {
+            if (json.charAt(json.length() - 1) == '}') {
+                json.append(',');
+            }
+            valor += 0.0013;
+            json.append("{\"fecha\":\"").append(fecha).append("\",\"valor\":")
+                .append(String.format(java.util.Locale.ROOT, "%.6f", valor)).append('}');
+        }
+        json.append("]}]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Resultado(long nanos, long bytes) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.alquileres.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para ICLResponseParser
+ * Prueba la lectura en streaming del detalle del ICL, el filtrado de fechas y las respuestas inválidas
+ */
+class ICLResponseParserTest {
+
+    private static final String RESPUESTA = """
+        {
+          "status": 200,
+          "metadata": {"resultset": {"count": 3, "offset": 0, "limit": 3000}},
+          "results": [
+            {
+              "idVariable": 40,
+              "detalle": [
+                {"fecha": "2025-03-03", "valor": 21.8},
+                {"fecha": "2025-03-02", "valor": "21.75"},
+                {"fecha": "2025-03-01", "valor": 21.712345}
+              ]
+            },
+            {"idVariable": 41, "detalle": [{"fecha": "2025-03-01", "valor": 1}]}
+          ]
+        }
+        """;
+
+    @Test
+    void parsear_sinFiltro_devuelveTodosLosValoresOrdenados() throws IOException {
+        SortedMap<LocalDate, BigDecimal> serie = ICLResponseParser.parsear(RESPUESTA, fecha -> true);
+
+        assertEquals(3, serie.size());
+        assertEquals(LocalDate.of(2025, 3, 1), serie.firstKey());
+        assertEquals(new BigDecimal("21.712345"), serie.get(LocalDate.of(2025, 3, 1)));
+        assertEquals(new BigDecimal("21.75"), serie.get(LocalDate.of(2025, 3, 2)));
+        // Solo se lee el primer resultado
+        assertEquals(new BigDecimal("21.8"), serie.get(LocalDate.of(2025, 3, 3)));
+    }
+
+    @Test
+    void parsear_conFiltro_conservaSoloLasFechasPedidas() throws IOException {
+        Set<LocalDate> fechas = Set.of(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 3));
+
+        SortedMap<LocalDate, BigDecimal> serie = ICLResponseParser.parsear(
+            new ByteArrayInputStream(RESPUESTA.getBytes(StandardCharsets.UTF_8)), fechas::contains);
+
+        assertEquals(fechas, serie.keySet());
+    }
+
+    @Test
+    void parsear_sinDetalle_devuelveNull() throws IOException {
+        assertNull(ICLResponseParser.parsear("{\"results\": [{\"idVariable\": 40}]}", fecha -> true));
+    }
+
+    @Test
+    void parsear_sinResults_lanzaExcepcion() {
+        assertThrows(IOException.class, () -> ICLResponseParser.parsear("{\"status\": 400, \"results\": []}", fecha -> true));
+        assertThrows(IOException.class, () -> ICLResponseParser.parsear("[]", fecha -> true));
+    }
+
+    @Test
+    void parsear_jsonTruncado_lanzaExcepcion() {
+        assertThrows(IOException.class,
+            () -> ICLResponseParser.parsear("{\"results\": [{\"detalle\": [{\"fecha\": \"2025-03-01\"", fecha -> true));
+    }
+}
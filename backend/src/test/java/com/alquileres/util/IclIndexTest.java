@@ -0,0 +1,81 @@
+package com.alquileres.util;
+
+import com.alquileres.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para IclIndex
+ * Prueba las búsquedas exactas, el fallback al día anterior y la carga incremental
+ */
+class IclIndexTest {
+
+    private IclIndex iclIndex;
+
+    @BeforeEach
+    void setUp() {
+        iclIndex = new IclIndex();
+
+        SortedMap<LocalDate, BigDecimal> serie = new TreeMap<>();
+        serie.put(LocalDate.of(2024, 1, 5), new BigDecimal("10.000000"));
+        serie.put(LocalDate.of(2024, 1, 8), new BigDecimal("10.100000"));
+        serie.put(LocalDate.of(2025, 1, 6), new BigDecimal("25.252525"));
+        iclIndex.cargar(serie);
+    }
+
+    @Test
+    void obtenerValor_fechaExacta_devuelveValor() {
+        assertEquals(new BigDecimal("10.100000"), iclIndex.obtenerValor(LocalDate.of(2024, 1, 8)));
+    }
+
+    @Test
+    void obtenerValor_finDeSemana_usaUltimoDiaPublicado() {
+        assertEquals(new BigDecimal("10.000000"), iclIndex.obtenerValor(LocalDate.of(2024, 1, 7)));
+    }
+
+    @Test
+    void obtenerValor_huecoMayorAlPermitido_devuelveNull() {
+        assertNull(iclIndex.obtenerValor(LocalDate.of(2024, 6, 1)));
+    }
+
+    @Test
+    void obtenerValor_fechaAnteriorAlInicioOPosteriorAlFin_devuelveNull() {
+        assertNull(iclIndex.obtenerValor(LocalDate.of(2024, 1, 1)));
+        assertNull(iclIndex.obtenerValor(LocalDate.of(2025, 1, 7)));
+    }
+
+    @Test
+    void obtenerTasa_calculaCocienteConDiezDecimales() {
+        BigDecimal tasa = iclIndex.obtenerTasa(LocalDate.of(2024, 1, 5), LocalDate.of(2025, 1, 6));
+
+        assertEquals(new BigDecimal("2.5252525000"), tasa);
+    }
+
+    @Test
+    void obtenerTasa_fechaSinValor_lanzaBusinessException() {
+        BusinessException ex = assertThrows(BusinessException.class,
+            () -> iclIndex.obtenerTasa(LocalDate.of(2024, 6, 1), LocalDate.of(2025, 1, 6)));
+
+        assertTrue(ex.getMessage().contains("fecha de inicio: 2024-06-01"));
+    }
+
+    @Test
+    void agregar_soloIncorporaFechasPosteriores() {
+        SortedMap<LocalDate, BigDecimal> nuevos = new TreeMap<>();
+        nuevos.put(LocalDate.of(2024, 1, 8), new BigDecimal("99.000000"));
+        nuevos.put(LocalDate.of(2025, 1, 7), new BigDecimal("25.300000"));
+
+        iclIndex.agregar(nuevos);
+
+        assertEquals(4, iclIndex.tamanio());
+        assertEquals(LocalDate.of(2025, 1, 7), iclIndex.getUltimaFecha());
+        assertEquals(new BigDecimal("10.100000"), iclIndex.obtenerValor(LocalDate.of(2024, 1, 8)));
+    }
+}
@@ -0,0 +1,169 @@
+package com.alquileres.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para SingleFlightCache
+ * Prueba la coalescencia de consultas concurrentes, el vencimiento y la capacidad de la cache
+ */
+class SingleFlightCacheTest {
+
+    private final AtomicLong ahora = new AtomicLong();
+
+    @Test
+    void obtener_segundaConsulta_esAcierto() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, Duration.ofMinutes(1), ahora::get);
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        cache.obtener("a", () -> "valor-" + ejecuciones.incrementAndGet());
+        String resultado = cache.obtener("a", () -> "valor-" + ejecuciones.incrementAndGet());
+
+        assertEquals("valor-1", resultado);
+        assertEquals(1, ejecuciones.get());
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    void obtener_resultadoVencido_vuelveAConsultar() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, Duration.ofSeconds(30), ahora::get);
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        cache.obtener("a", () -> "valor-" + ejecuciones.incrementAndGet());
+        ahora.addAndGet(Duration.ofSeconds(30).toNanos());
+        String resultado = cache.obtener("a", () -> "valor-" + ejecuciones.incrementAndGet());
+
+        assertEquals("valor-2", resultado);
+        assertEquals(2, cache.getFallos());
+    }
+
+    @Test
+    void obtener_consultaConError_noSeGuarda() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, Duration.ofMinutes(1), ahora::get);
+
+        assertThrows(IllegalStateException.class, () -> cache.obtener("a", () -> {
+            throw new IllegalStateException("BCRA caído");
+        }));
+        String resultado = cache.obtener("a", () -> "ok");
+
+        assertEquals("ok", resultado);
+        assertEquals(0, cache.getAciertos());
+    }
+
+    @Test
+    void obtener_superaCapacidad_descartaLaMenosUsada() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(2, Duration.ofMinutes(1), ahora::get);
+
+        cache.obtener("a", () -> "A");
+        cache.obtener("b", () -> "B");
+        cache.obtener("a", () -> "A");
+        cache.obtener("c", () -> "C");
+
+        assertEquals(2, cache.getTamanio());
+        assertEquals("B2", cache.obtener("b", () -> "B2"));
+        assertEquals("C", cache.obtener("c", () -> "C2"));
+    }
+
+    @Test
+    void obtener_consultasConcurrentes_compartenUnaSolaEjecucion() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch consultaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+        int hilos = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<String>> resultados = new ArrayList<>();
+            resultados.add(executor.submit(() -> cache.obtener("rango", () -> {
+                ejecuciones.incrementAndGet();
+                consultaIniciada.countDown();
+                try {
+                    liberarConsulta.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "serie";
+            })));
+            assertTrue(consultaIniciada.await(5, TimeUnit.SECONDS));
+
+            for (int i = 1; i < hilos; i++) {
+                resultados.add(executor.submit(() -> cache.obtener("rango", () -> {
+                    ejecuciones.incrementAndGet();
+                    return "otra";
+                })));
+            }
+
+            // Esperar a que los demás hilos estén bloqueados en la consulta en curso
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.getCoalescidas() < hilos - 1 && System.nanoTime() < limite) {
+                Thread.sleep(5);
+            }
+            liberarConsulta.countDown();
+
+            for (Future<String> resultado : resultados) {
+                assertEquals("serie", resultado.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(1, cache.getFallos());
+        assertEquals(hilos - 1, cache.getCoalescidas());
+    }
+
+    @Test
+    void obtenerAsync_compartePendienteYCacheConLaConsultaSincronica() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, Duration.ofMinutes(1), ahora::get);
+        CompletableFuture<String> respuesta = new CompletableFuture<>();
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        CompletableFuture<String> primero = cache.obtenerAsync("rango", () -> {
+            ejecuciones.incrementAndGet();
+            return respuesta;
+        });
+        CompletableFuture<String> segundo = cache.obtenerAsync("rango", () -> {
+            ejecuciones.incrementAndGet();
+            return CompletableFuture.completedFuture("otra");
+        });
+        assertFalse(primero.isDone());
+
+        respuesta.complete("serie");
+
+        assertEquals("serie", primero.join());
+        assertEquals("serie", segundo.join());
+        assertEquals("serie", cache.obtener("rango", () -> "sincronica"));
+        assertEquals(1, ejecuciones.get());
+        assertEquals(1, cache.getCoalescidas());
+        assertEquals(1, cache.getAciertos());
+    }
+
+    @Test
+    void obtenerAsync_consultaConError_propagaLaCausaYNoSeGuarda() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, Duration.ofMinutes(1), ahora::get);
+
+        CompletableFuture<String> fallida = cache.obtenerAsync("a",
+            () -> CompletableFuture.failedFuture(new IllegalStateException("BCRA caído")));
+
+        CompletionException error = assertThrows(CompletionException.class, fallida::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals("ok", cache.obtenerAsync("a", () -> CompletableFuture.completedFuture("ok")).join());
+        assertEquals(2, cache.getFallos());
+    }
+}